@@ -27,6 +27,9 @@ public class AppConstraints {
     public static final String SINGLE_TRACE_VERSION_PER_PROJECT_VERSION = "SINGLE_TRACE_VERSION_PER_PROJECT_VERSION";
     public static final String UNIQUE_TRACE_MATRIX_PER_PROJECT = "UNIQUE_TRACE_MATRIX_PER_PROJECT";
 
+    // Versions
+    public static final String SINGLE_SNAPSHOT_ENTRY_PER_VERSION = "SINGLE_SNAPSHOT_ENTRY_PER_VERSION";
+
     // Documents
     public static final String UNIQUE_ARTIFACT_PER_DOCUMENT = "UNIQUE_ARTIFACT_PER_DOCUMENT";
 
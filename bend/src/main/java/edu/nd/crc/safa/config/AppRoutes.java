@@ -294,15 +294,27 @@ public class AppRoutes {
     @NoArgsConstructor(access = AccessLevel.NONE)
     public static class Retrieval {
         public static final String GET_PROJECT_IN_VERSION = Versions.BY_ID;
+        public static final String STREAM_PROJECT_IN_VERSION = Versions.BY_ID + "/stream";
         public static final String GET_TRACES_IN_VERSION = Versions.BY_ID + "/traces";
         public static final String GET_ARTIFACTS_IN_VERSION = Versions.BY_ID + "/artifacts";
         public static final String GET_ARTIFACT_IDS_IN_VERSION = Versions.BY_ID + "/artifacts/query";
+        public static final String GET_ARTIFACT_PAGE_IN_VERSION = Versions.BY_ID + "/artifacts/page";
+        public static final String GET_TRACE_PAGE_IN_VERSION = Versions.BY_ID + "/traces/page";
+        public static final String GET_SUBTREES_IN_VERSION = Versions.BY_ID + "/subtrees";
 
     }
 
     @NoArgsConstructor(access = AccessLevel.NONE)
     public static class Sync {
         public static final String GET_CHANGES = Versions.BY_ID + "/changes";
+        public static final String GET_CHANGES_SINCE = Versions.BY_ID + "/changes/since/{cursor}";
+    }
+
+    @NoArgsConstructor(access = AccessLevel.NONE)
+    public static class Impact {
+        public static final String FIND_IMPACTED_ARTIFACTS = Versions.BY_ID + "/impact";
+        public static final String FIND_TRACE_PATH = Versions.BY_ID + "/impact/path";
+        public static final String CHECK_TRACE_INTEGRITY = Versions.BY_ID + "/impact/integrity";
     }
 
     @NoArgsConstructor(access = AccessLevel.NONE)
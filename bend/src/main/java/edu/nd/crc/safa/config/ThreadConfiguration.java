@@ -1,5 +1,6 @@
 package edu.nd.crc.safa.config;
 
+import edu.nd.crc.safa.features.layout.generator.LayoutJobRunner;
 import edu.nd.crc.safa.utilities.ExecutorDelegate;
 
 import jakarta.annotation.PostConstruct;
@@ -8,6 +9,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 
 
 /**
@@ -21,6 +23,10 @@ public class ThreadConfiguration {
     private int controllerCorePoolSize;
     @Value("${task-executor.controller.max-pool-size}")
     private int controllerMaxPoolSize;
+    @Value("${task-executor.retrieval.pool-size}")
+    private int retrievalPoolSize;
+    @Value("${task-executor.layout.pool-size:4}")
+    private int layoutPoolSize;
 
     @Bean
     @Primary
@@ -34,6 +40,49 @@ public class ThreadConfiguration {
         return executor;
     }
 
+    /**
+     * Executor running the independent queries of a single retrieval concurrently. Each task runs with the
+     * security context of the thread that submitted it, which is cleared once the task completes. See
+     * {@link #setSecurityContextMode()} for why the context is not inherited by the pooled threads instead.
+     *
+     * @return The retrieval executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor retrievalExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(retrievalPoolSize);
+        executor.setMaxPoolSize(retrievalPoolSize);
+        executor.setThreadNamePrefix("retrieval-");
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * Executor running layout jobs, such as the layout of each document in a project. Layout is CPU bound, so
+     * the pool is kept small to leave threads for serving requests.
+     *
+     * @return The layout executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor layoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(layoutPoolSize);
+        executor.setMaxPoolSize(layoutPoolSize);
+        executor.setThreadNamePrefix("layout-");
+        executor.initialize();
+
+        return executor;
+    }
+
+    @Bean
+    public LayoutJobRunner layoutJobRunner() {
+        return new LayoutJobRunner(layoutExecutor());
+    }
+
     @Bean
     public ExecutorDelegate executorDelegate() {
         return new ExecutorDelegate(controllerExecutor());
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import edu.nd.crc.safa.config.ObjectMapperConfig;
 import edu.nd.crc.safa.features.generation.common.GenerationArtifact;
 import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
 import edu.nd.crc.safa.utilities.FileUtilities;
@@ -90,6 +91,25 @@ public class ArtifactAppEntity implements IAppEntity {
         this.attributes = attributes;
     }
 
+    /**
+     * Required for JPQL query projection
+     *
+     * @param artifactId       The id of the artifact.
+     * @param type             The name of the artifact type.
+     * @param name             The name of the artifact.
+     * @param summary          The summary of the artifact body.
+     * @param body             The content of the artifact body.
+     * @param customAttributes The serialized custom attributes of the artifact body.
+     */
+    public ArtifactAppEntity(UUID artifactId,
+                             String type,
+                             String name,
+                             String summary,
+                             String body,
+                             String customAttributes) {
+        this(artifactId, type, name, summary, body, ObjectMapperConfig.deserialize(customAttributes));
+    }
+
     public ArtifactAppEntity(GenerationArtifact artifact) {
         this.name = artifact.getId();
         this.body = artifact.getContent();
@@ -0,0 +1,31 @@
+package edu.nd.crc.safa.features.artifacts.entities;
+
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.common.EntityPage;
+
+import lombok.Data;
+
+/**
+ * Selects a page of the artifacts in a version, ordered by name.
+ */
+@Data
+public class ArtifactPageQuery {
+    /**
+     * The name of the artifact the page starts after, or null to start from the first artifact.
+     */
+    private String after;
+    private int size = EntityPage.DEFAULT_SIZE;
+    /**
+     * The name of the artifact type to filter by.
+     */
+    private String type;
+    /**
+     * The id of the document whose artifacts are selected.
+     */
+    private UUID documentId;
+    /**
+     * The id of a version of the project, whose artifacts are selected only if modified after it.
+     */
+    private UUID modifiedSince;
+}
@@ -3,6 +3,7 @@ package edu.nd.crc.safa.features.artifacts.entities.db;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 import edu.nd.crc.safa.config.AppConstraints;
@@ -12,6 +13,7 @@ import edu.nd.crc.safa.features.common.IVersionEntity;
 import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.types.entities.db.ArtifactType;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.utilities.StringUtil;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.Column;
@@ -23,6 +25,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
@@ -85,6 +89,12 @@ public class ArtifactVersion implements Serializable, IVersionEntity<ArtifactApp
     @Column(name = "custom_attributes", columnDefinition = "mediumtext")
     private String customAttributes;
 
+    /**
+     * Digest of the summary, content, and custom attributes. Used to detect changes without comparing content.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Transient
     private List<UUID> documentIds;
 
@@ -144,6 +154,35 @@ public class ArtifactVersion implements Serializable, IVersionEntity<ArtifactApp
         return this.artifact.getType();
     }
 
+    /**
+     * Calculates the digest stored in the content hash column.
+     *
+     * @param summary          The summary of the artifact.
+     * @param content          The content of the artifact.
+     * @param customAttributes The serialized custom attributes of the artifact.
+     * @return The hexadecimal SHA-256 digest of the fields.
+     */
+    public static String calculateContentHash(String summary, String content, String customAttributes) {
+        return StringUtil.sha256(summary, content, customAttributes);
+    }
+
+    /**
+     * Calculates the content hash of given artifact, as it would be stored if the artifact were committed.
+     *
+     * @param artifact The artifact whose hash is calculated.
+     * @return The hexadecimal SHA-256 digest of the artifact content.
+     */
+    public static String calculateContentHash(ArtifactAppEntity artifact) {
+        return calculateContentHash(artifact.getSummary(), artifact.getBody(),
+            ObjectMapperConfig.serialize(artifact.getAttributes()));
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateContentHash() {
+        this.contentHash = calculateContentHash(this.summary, this.content, this.customAttributes);
+    }
+
     public boolean hasSameContent(IVersionEntity entityVersion) {
         if (entityVersion instanceof ArtifactVersion artifactVersion) {
             return hasSameContent(artifactVersion.getName(),
@@ -155,13 +194,14 @@ public class ArtifactVersion implements Serializable, IVersionEntity<ArtifactApp
     }
 
     public boolean hasSameContent(ArtifactAppEntity a) {
-        return hasSameContent(a.getName(), a.getSummary(), a.getBody(), a.getAttributes().toString());
+        return hasSameContent(a.getName(), a.getSummary(), a.getBody(),
+            ObjectMapperConfig.serialize(a.getAttributes()));
     }
 
     private boolean hasSameContent(String name, String summary, String content, String customAttributes) {
         return this.getName().equals(name)
             && this.summary.equals(summary)
             && this.content.equals(content)
-            && this.customAttributes.equals(customAttributes);
+            && Objects.equals(this.customAttributes, customAttributes);
     }
 }
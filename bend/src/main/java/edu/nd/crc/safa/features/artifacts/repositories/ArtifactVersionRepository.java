@@ -1,22 +1,54 @@
 package edu.nd.crc.safa.features.artifacts.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.repositories.VersionQueries;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ArtifactVersionRepository extends CrudRepository<ArtifactVersion, UUID>,
+public interface ArtifactVersionRepository extends JpaRepository<ArtifactVersion, UUID>,
     IVersionRepository<ArtifactVersion, ArtifactAppEntity> {
 
+    /**
+     * Selects the columns of the latest body of each artifact at or before a version, excluding removed
+     * artifacts.
+     */
+    String ACTIVE_APP_ENTITIES_QUERY =
+        "SELECT new edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity("
+            + "     a.artifactId, t.name, a.name, av.summary, av.content, av.customAttributes) "
+            + "FROM ArtifactVersion av "
+            + "JOIN av.artifact a "
+            + "JOIN a.type t "
+            + "JOIN av.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND av.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.entityVersionId FROM ArtifactVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.artifact = av.artifact "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")";
+
     List<ArtifactVersion> findByArtifact(Artifact artifact);
 
     List<ArtifactVersion> findByProjectVersion(ProjectVersion projectVersion);
@@ -34,16 +66,230 @@ public interface ArtifactVersionRepository extends CrudRepository<ArtifactVersio
     }
 
     default Optional<ArtifactVersion> findLastArtifactBody(Project project, Artifact artifact) {
-        return this.findTopByProjectVersionProjectAndArtifactOrderByProjectVersionMajorVersionDescProjectVersionMinorVersionDescProjectVersionRevisionDesc(
-            project,
-            artifact);
+        return this.findTopByProjectVersionProjectAndArtifactOrderByProjectVersionOrdinalDesc(project, artifact);
     }
 
     List<ArtifactVersion> findByProjectVersionProjectAndArtifactName(Project project, String name);
 
-    Optional<ArtifactVersion> findTopByProjectVersionProjectAndArtifactOrderByProjectVersionMajorVersionDescProjectVersionMinorVersionDescProjectVersionRevisionDesc(
+    Optional<ArtifactVersion> findTopByProjectVersionProjectAndArtifactOrderByProjectVersionOrdinalDesc(
         Project project,
         Artifact artifact);
 
     List<ArtifactVersion> findByProjectVersionProject(Project project);
+
+    /**
+     * Returns the latest body of each artifact at or before given version, excluding removed artifacts.
+     * The selection is done by the database so only the active rows are transferred.
+     *
+     * @param projectVersion The version whose active artifact bodies are returned.
+     * @return List of artifact bodies active in version.
+     */
+    default List<ArtifactVersion> findActiveInProjectVersion(ProjectVersion projectVersion) {
+        return findActiveInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value =
+        "SELECT av FROM ArtifactVersion av "
+            + "JOIN av.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND av.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.entityVersionId FROM ArtifactVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.artifact = av.artifact "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<ArtifactVersion> findActiveInProjectAtVersion(@Param("project") Project project,
+                                                       @Param("ordinal") long ordinal,
+                                                       @Param("removed") ModificationType removed);
+
+    /**
+     * Returns the latest body of each artifact at or before given version as app entities, excluding removed
+     * artifacts. Only the columns of the app entity are selected and no entities are loaded into the
+     * persistence context. Document ids are not set.
+     *
+     * @param projectVersion The version whose active artifacts are returned.
+     * @return List of artifacts active in version.
+     */
+    default List<ArtifactAppEntity> findActiveAppEntitiesInProjectVersion(ProjectVersion projectVersion) {
+        return findActiveAppEntitiesInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value = ACTIVE_APP_ENTITIES_QUERY)
+    List<ArtifactAppEntity> findActiveAppEntitiesInProjectAtVersion(@Param("project") Project project,
+                                                                    @Param("ordinal") long ordinal,
+                                                                    @Param("removed") ModificationType removed);
+
+    /**
+     * Streams the artifacts active in given version as app entities, like
+     * {@link #findActiveAppEntitiesInProjectVersion(ProjectVersion)}, fetching rows in batches as the stream is
+     * consumed. Must be consumed and closed within a transaction.
+     *
+     * @param projectVersion The version whose active artifacts are returned.
+     * @return Stream of artifacts active in version.
+     */
+    default Stream<ArtifactAppEntity> streamActiveAppEntitiesInProjectVersion(ProjectVersion projectVersion) {
+        return streamActiveAppEntitiesInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value = ACTIVE_APP_ENTITIES_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VersionQueries.STREAM_FETCH_SIZE))
+    Stream<ArtifactAppEntity> streamActiveAppEntitiesInProjectAtVersion(@Param("project") Project project,
+                                                                        @Param("ordinal") long ordinal,
+                                                                        @Param("removed") ModificationType removed);
+
+    /**
+     * Returns a page of the artifacts active in given version as app entities, ordered by name. Document ids are
+     * not set. Unused filters are passed as values matching every artifact so the query has no optional
+     * parameters.
+     *
+     * @param projectVersion The version whose active artifacts are returned.
+     * @param afterName      The name the page starts after, or an empty string to start from the first artifact.
+     * @param typeName       The name of the type of the returned artifacts, or an empty string for all types.
+     * @param documentId     The id of the document containing the returned artifacts, or null for all documents.
+     * @param sinceOrdinal   The ordinal of the version after which returned artifacts were last modified.
+     * @param size           The maximum number of artifacts returned.
+     * @return List of at most size artifacts active in version.
+     */
+    default List<ArtifactAppEntity> findActiveAppEntityPageInProjectVersion(ProjectVersion projectVersion,
+                                                                           String afterName,
+                                                                           String typeName,
+                                                                           UUID documentId,
+                                                                           long sinceOrdinal,
+                                                                           int size) {
+        return findActiveAppEntityPageInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED,
+            afterName,
+            typeName,
+            documentId != null,
+            documentId != null ? documentId : new UUID(0, 0),
+            sinceOrdinal,
+            PageRequest.of(0, size));
+    }
+
+    @Query(value =
+        "SELECT new edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity("
+            + "     a.artifactId, t.name, a.name, av.summary, av.content, av.customAttributes) "
+            + "FROM ArtifactVersion av "
+            + "JOIN av.artifact a "
+            + "JOIN a.type t "
+            + "JOIN av.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND av.modificationType <> :removed "
+            + "AND a.name > :afterName "
+            + "AND (:typeName = '' OR t.name = :typeName) "
+            + "AND (:filterByDocument = false OR EXISTS ("
+            + "     SELECT da.documentArtifactId FROM DocumentArtifact da "
+            + "     WHERE da.artifact = a AND da.document.documentId = :documentId)) "
+            + "AND pv.ordinal > :sinceOrdinal "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.entityVersionId FROM ArtifactVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.artifact = av.artifact "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ") "
+            + "ORDER BY a.name"
+    )
+    List<ArtifactAppEntity> findActiveAppEntityPageInProjectAtVersion(@Param("project") Project project,
+                                                                      @Param("ordinal") long ordinal,
+                                                                      @Param("removed") ModificationType removed,
+                                                                      @Param("afterName") String afterName,
+                                                                      @Param("typeName") String typeName,
+                                                                      @Param("filterByDocument")
+                                                                      boolean filterByDocument,
+                                                                      @Param("documentId") UUID documentId,
+                                                                      @Param("sinceOrdinal") long sinceOrdinal,
+                                                                      Pageable pageable);
+
+    /**
+     * Returns the latest body of each given artifact at or before given version, excluding removed artifacts.
+     *
+     * @param projectVersion The version whose active artifact bodies are returned.
+     * @param artifactIds    The ids of the artifacts whose bodies are returned.
+     * @return List of artifact bodies active in version.
+     */
+    default List<ArtifactVersion> findActiveByArtifactIdsInProjectVersion(ProjectVersion projectVersion,
+                                                                          Collection<UUID> artifactIds) {
+        return findActiveByArtifactIdsInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED,
+            artifactIds);
+    }
+
+    @Query(value =
+        "SELECT av FROM ArtifactVersion av "
+            + "JOIN FETCH av.artifact a "
+            + "JOIN FETCH a.type "
+            + "JOIN FETCH av.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND a.artifactId IN :artifactIds "
+            + "AND av.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.entityVersionId FROM ArtifactVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.artifact = av.artifact "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<ArtifactVersion> findActiveByArtifactIdsInProjectAtVersion(@Param("project") Project project,
+                                                                    @Param("ordinal") long ordinal,
+                                                                    @Param("removed") ModificationType removed,
+                                                                    @Param("artifactIds") Collection<UUID> artifactIds);
+
+    /**
+     * Returns the digest of the latest body of each artifact at or before given version, including bodies
+     * marking the artifact as removed. The content of the bodies is not read.
+     *
+     * @param projectVersion The version whose latest artifact bodies are returned.
+     * @return List containing at most one digest per artifact.
+     */
+    default List<VersionEntityDigest> findLatestDigestsInProjectVersion(ProjectVersion projectVersion) {
+        return findLatestDigestsInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal());
+    }
+
+    @Query(value =
+        "SELECT new edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest("
+            + "     av.artifact.artifactId, av.entityVersionId, pv.versionId, av.modificationType, av.contentHash) "
+            + "FROM ArtifactVersion av "
+            + "JOIN av.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.entityVersionId FROM ArtifactVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.artifact = av.artifact "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<VersionEntityDigest> findLatestDigestsInProjectAtVersion(@Param("project") Project project,
+                                                                  @Param("ordinal") long ordinal);
+
+    /**
+     * Returns the artifact bodies with given ids. Related entities are fetched in the same query.
+     *
+     * @param entityVersionIds The ids of the artifact bodies.
+     * @return List of artifact bodies found.
+     */
+    @Query(value =
+        "SELECT av FROM ArtifactVersion av "
+            + "JOIN FETCH av.artifact a "
+            + "JOIN FETCH a.type "
+            + "JOIN FETCH av.projectVersion "
+            + "WHERE av.entityVersionId IN :ids"
+    )
+    List<ArtifactVersion> findWithRelationsByIdIn(@Param("ids") Collection<UUID> entityVersionIds);
 }
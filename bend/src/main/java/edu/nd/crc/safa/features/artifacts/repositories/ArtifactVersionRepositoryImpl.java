@@ -1,13 +1,20 @@
 package edu.nd.crc.safa.features.artifacts.repositories;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import edu.nd.crc.safa.config.ObjectMapperConfig;
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest;
 import edu.nd.crc.safa.features.commits.repositories.GenericVersionRepository;
 import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.documents.entities.db.Document;
@@ -27,8 +34,10 @@ import edu.nd.crc.safa.features.types.services.ArtifactTypeCountService;
 import edu.nd.crc.safa.features.types.services.TypeService;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
 
 import lombok.Setter;
+import org.javatuples.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
@@ -51,6 +60,8 @@ public class ArtifactVersionRepositoryImpl
     private ArtifactTypeCountService typeCountService;
     @Setter(onMethod = @__({@Autowired}))
     private NotificationService notificationService;
+    @Setter(onMethod = @__({@Autowired}))
+    private VersionSnapshotService versionSnapshotService;
 
     @Override
     public ArtifactVersion save(ArtifactVersion artifactVersion) {
@@ -58,6 +69,11 @@ public class ArtifactVersionRepositoryImpl
         return version;
     }
 
+    @Override
+    protected void saveVersionEntities(List<ArtifactVersion> artifactVersions) {
+        this.artifactVersionRepository.saveAllAndFlush(artifactVersions);
+    }
+
     @Override
     public ArtifactVersion instantiateVersionEntityWithModification(ProjectVersion projectVersion,
                                                                     ModificationType modificationType,
@@ -113,6 +129,82 @@ public class ArtifactVersionRepositoryImpl
         return versions;
     }
 
+    @Override
+    protected List<VersionEntityDigest> queryLatestDigestsAtProjectVersion(ProjectVersion projectVersion) {
+        return artifactVersionRepository.findLatestDigestsInProjectVersion(projectVersion);
+    }
+
+    @Override
+    protected List<ArtifactVersion> retrieveVersionEntitiesByIds(Collection<UUID> versionEntityIds) {
+        return artifactVersionRepository.findWithRelationsByIdIn(versionEntityIds);
+    }
+
+    @Override
+    protected String calculateContentHash(ArtifactAppEntity artifactAppEntity) {
+        return ArtifactVersion.calculateContentHash(artifactAppEntity);
+    }
+
+    @Override
+    protected List<ArtifactVersion> queryActiveVersionEntitiesAtProjectVersion(ProjectVersion projectVersion) {
+        if (versionSnapshotService.isEnabled()) {
+            return versionSnapshotService.getArtifactVersions(projectVersion);
+        }
+        return artifactVersionRepository.findActiveInProjectVersion(projectVersion);
+    }
+
+    /**
+     * Returns the artifacts active in given version by selecting only the columns of the app entities.
+     * Document ids are attached with a single query for the whole project.
+     *
+     * @param projectVersion The version of the artifacts to return.
+     * @return List of artifacts in version.
+     */
+    @Override
+    public List<ArtifactAppEntity> retrieveAppEntitiesByProjectVersion(ProjectVersion projectVersion) {
+        List<ArtifactAppEntity> artifacts = versionSnapshotService.isEnabled()
+            ? versionSnapshotService.getArtifactAppEntities(projectVersion)
+            : artifactVersionRepository.findActiveAppEntitiesInProjectVersion(projectVersion);
+
+        Map<UUID, ArtifactAppEntity> artifactIdMap = new HashMap<>();
+        artifacts.forEach(artifact -> artifactIdMap.put(artifact.getId(), artifact));
+        documentArtifactRepository
+            .findDocumentIdsByProjectId(projectVersion.getProject().getId())
+            .forEach(link -> {
+                ArtifactAppEntity artifact = artifactIdMap.get(link.get("artifactId", UUID.class));
+                if (artifact != null) {
+                    artifact.addDocumentId(link.get("documentId", UUID.class));
+                }
+            });
+        return artifacts;
+    }
+
+    /**
+     * Streams the artifacts active in given version to the consumer as their rows are read. Document ids are
+     * attached from a single query for the whole project, which holds only ids.
+     *
+     * @param projectVersion The version of the artifacts to read.
+     * @param consumer       Receives each artifact.
+     */
+    @Override
+    public void forEachAppEntityInProjectVersion(ProjectVersion projectVersion,
+                                                 Consumer<ArtifactAppEntity> consumer) {
+        Map<UUID, List<UUID>> artifactDocumentIds = new HashMap<>();
+        documentArtifactRepository
+            .findDocumentIdsByProjectId(projectVersion.getProject().getId())
+            .forEach(link -> artifactDocumentIds
+                .computeIfAbsent(link.get("artifactId", UUID.class), id -> new ArrayList<>())
+                .add(link.get("documentId", UUID.class)));
+
+        try (Stream<ArtifactAppEntity> artifacts = versionSnapshotService.isEnabled()
+            ? versionSnapshotService.streamArtifactAppEntities(projectVersion)
+            : artifactVersionRepository.streamActiveAppEntitiesInProjectVersion(projectVersion)) {
+            artifacts.forEach(artifact -> {
+                artifactDocumentIds.getOrDefault(artifact.getId(), List.of()).forEach(artifact::addDocumentId);
+                consumer.accept(artifact);
+            });
+        }
+    }
+
     @Override
     public List<ArtifactVersion> retrieveVersionEntitiesByBaseIds(List<UUID> baseIds) {
         return artifactVersionRepository.findByArtifactArtifactIdIn(baseIds);
@@ -149,23 +241,39 @@ public class ArtifactVersionRepositoryImpl
     @Override
     public void updateTimInfo(ProjectVersion projectVersion, ArtifactVersion versionEntity,
                               ArtifactVersion previousVersionEntity, SafaUser user) {
-        ModificationType modificationType = versionEntity.getModificationType();
-        boolean added = modificationType == ModificationType.ADDED && previousVersionEntity == null;
-        boolean removed = modificationType == ModificationType.REMOVED;
+        updateTimInfo(projectVersion, List.of(new Pair<>(versionEntity, previousVersionEntity)), user);
+    }
+
+    @Override
+    public void updateTimInfo(ProjectVersion projectVersion,
+                              List<Pair<ArtifactVersion, ArtifactVersion>> changedEntities,
+                              SafaUser user) {
+        Map<UUID, ArtifactType> changedTypes = new HashMap<>();
+        Map<UUID, Integer> countChanges = new HashMap<>();
+        for (Pair<ArtifactVersion, ArtifactVersion> changedEntity : changedEntities) {
+            ArtifactVersion versionEntity = changedEntity.getValue0();
+            ArtifactVersion previousVersionEntity = changedEntity.getValue1();
+            ModificationType modificationType = versionEntity.getModificationType();
+            boolean added = modificationType == ModificationType.ADDED && previousVersionEntity == null;
+            boolean removed = modificationType == ModificationType.REMOVED;
+
+            if (added || removed) {
+                ArtifactType type = versionEntity.getType();
+                changedTypes.put(type.getId(), type);
+                countChanges.merge(type.getId(), added ? 1 : -1, Integer::sum);
+            }
+        }
 
-        if (added || removed) {
+        for (Map.Entry<UUID, Integer> countChange : countChanges.entrySet()) {
+            if (countChange.getValue() == 0) {
+                continue;
+            }
             // TODO this might need to get a table lock somehow if simultaneous updates come in from different sources
 
-            ArtifactType type = versionEntity.getType();
+            ArtifactType type = changedTypes.get(countChange.getKey());
             ArtifactTypeCount typeCount = typeCountService.getByProjectVersionAndType(projectVersion, type)
                 .orElseThrow(() -> new SafaItemNotFoundError("Missing type count object for %s", type.getName()));
-
-            if (added) {
-                typeCount.setCount(typeCount.getCount() + 1);
-            } else {
-                typeCount.setCount(typeCount.getCount() - 1);
-            }
-
+            typeCount.setCount(typeCount.getCount() + countChange.getValue());
             typeCountService.save(typeCount);
 
             TypeAppEntity typeAppEntity = new TypeAppEntity(type);
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import edu.nd.crc.safa.features.common.IVersionEntity;
 import edu.nd.crc.safa.features.delta.entities.app.EntityDelta;
@@ -41,6 +42,15 @@ public interface IVersionRepository<
      */
     List<A> retrieveAppEntitiesByProjectVersion(ProjectVersion projectVersion);
 
+    /**
+     * Passes each application entity existing in given project version to the consumer as it is read, so that
+     * the entities do not need to be held in memory together. Must be called within a transaction.
+     *
+     * @param projectVersion The version of the versioned entities to read.
+     * @param consumer       Receives each application entity.
+     */
+    void forEachAppEntityInProjectVersion(ProjectVersion projectVersion, Consumer<A> consumer);
+
     /**
      * Returns the current entities existing in given project.
      *
@@ -107,6 +117,21 @@ public interface IVersionRepository<
         boolean asCompleteSet,
         SafaUser user) throws SafaError;
 
+    /**
+     * Replaces the contents of given project version with given application entities. Entities in the project
+     * that are missing from given entities are committed as removed.
+     *
+     * @param projectVersion The project version whose contents are replaced.
+     * @param appEntities    The complete set of app entities existing in given version.
+     * @param user           The user making the change
+     * @return List of committed entities or parsing errors, followed by the removed entities.
+     * @throws SafaError Throws error if a fatal constraint or condition is not met.
+     */
+    List<Pair<V, CommitError>> replaceAppEntitiesInProjectVersion(
+        ProjectVersion projectVersion,
+        List<A> appEntities,
+        SafaUser user) throws SafaError;
+
     /**
      * Deletes entity version with given name and commits to given project version.
      *
@@ -144,6 +169,15 @@ public interface IVersionRepository<
      */
     void updateTimInfo(ProjectVersion projectVersion, V versionEntity, V originalVersionEntity, SafaUser user);
 
+    /**
+     * Update TIM related information for a set of entity updates, writing each changed count once.
+     *
+     * @param projectVersion  The version the updates are happening in
+     * @param changedEntities Pairs of updated entities and their previous versions (null if none existed)
+     * @param user            The user doing the change
+     */
+    void updateTimInfo(ProjectVersion projectVersion, List<Pair<V, V>> changedEntities, SafaUser user);
+
     /**
      * Creates a map between entity ID and entity versions for all entities in the given project version.
      * Precalculating this information speeds up retrieval of entities, which in turn speeds up commits.
@@ -6,20 +6,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactLookupTable;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactPageQuery;
 import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
 import edu.nd.crc.safa.features.artifacts.repositories.ArtifactRepository;
-import edu.nd.crc.safa.features.artifacts.repositories.IVersionRepository;
+import edu.nd.crc.safa.features.artifacts.repositories.ArtifactVersionRepository;
+import edu.nd.crc.safa.features.common.EntityPage;
 import edu.nd.crc.safa.features.common.IAppEntityService;
-import edu.nd.crc.safa.features.documents.entities.db.DocumentArtifact;
 import edu.nd.crc.safa.features.documents.repositories.DocumentArtifactRepository;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
-import edu.nd.crc.safa.features.versions.VersionCalculator;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 
 import lombok.AllArgsConstructor;
@@ -29,8 +30,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class ArtifactService implements IAppEntityService<ArtifactAppEntity> {
     private final ArtifactRepository artifactRepository;
-    private IVersionRepository<ArtifactVersion, ArtifactAppEntity> artifactVersionRepository;
-    private final DocumentArtifactRepository documentArtifactRepository;
+    private ArtifactVersionRepository artifactVersionRepository;
+    private DocumentArtifactRepository documentArtifactRepository;
 
     /**
      * Returns all artifacts present in the given version.
@@ -51,10 +52,65 @@ public class ArtifactService implements IAppEntityService<ArtifactAppEntity> {
      */
     @Override
     public List<ArtifactAppEntity> getAppEntities(ProjectVersion projectVersion, SafaUser user) {
-        List<ArtifactVersion> artifactVersions = this.artifactVersionRepository
-                .retrieveVersionEntitiesByProjectVersion(projectVersion);
-        attactDocumentsToVersions(artifactVersions);
-        return versionToAppEntity(artifactVersions);
+        return this.artifactVersionRepository.retrieveAppEntitiesByProjectVersion(projectVersion);
+    }
+
+    /**
+     * Passes each artifact present in the given version to the consumer as it is read from the database,
+     * without holding all artifacts in memory. Must be called within a transaction.
+     *
+     * @param projectVersion The project version to read artifacts from.
+     * @param consumer       Receives each artifact.
+     */
+    public void forEachAppEntity(ProjectVersion projectVersion, Consumer<ArtifactAppEntity> consumer) {
+        this.artifactVersionRepository.forEachAppEntityInProjectVersion(projectVersion, consumer);
+    }
+
+    /**
+     * Returns a page of the artifacts present in the given version, ordered by name. The page is selected by the
+     * database, so only the artifacts in the page are read.
+     *
+     * @param projectVersion The project version to retrieve artifacts from.
+     * @param query          The position, size, and filters of the page.
+     * @param modifiedSince  The version after which the returned artifacts were modified, or null for all.
+     * @return The page of artifacts, whose cursor is the name of its last artifact.
+     */
+    public EntityPage<ArtifactAppEntity> getAppEntityPage(ProjectVersion projectVersion,
+                                                          ArtifactPageQuery query,
+                                                          ProjectVersion modifiedSince) {
+        List<ArtifactAppEntity> artifacts = this.artifactVersionRepository.findActiveAppEntityPageInProjectVersion(
+            projectVersion,
+            query.getAfter() == null ? "" : query.getAfter(),
+            query.getType() == null ? "" : query.getType(),
+            query.getDocumentId(),
+            modifiedSince == null ? Long.MIN_VALUE : modifiedSince.getOrdinal(),
+            query.getSize() + 1);
+
+        EntityPage<ArtifactAppEntity> page = new EntityPage<>();
+        if (artifacts.size() > query.getSize()) {
+            artifacts = new ArrayList<>(artifacts.subList(0, query.getSize()));
+            page.setNextCursor(artifacts.get(artifacts.size() - 1).getName());
+        }
+        addDocumentIds(artifacts);
+        page.setEntities(artifacts);
+        return page;
+    }
+
+    /**
+     * Attaches the ids of the documents containing each artifact.
+     *
+     * @param artifacts The artifacts, whose document ids are not set.
+     */
+    private void addDocumentIds(List<ArtifactAppEntity> artifacts) {
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        Map<UUID, ArtifactAppEntity> artifactIdMap = new HashMap<>();
+        artifacts.forEach(artifact -> artifactIdMap.put(artifact.getId(), artifact));
+        this.documentArtifactRepository
+            .findDocumentIdsByArtifactIds(artifactIdMap.keySet())
+            .forEach(link -> artifactIdMap.get(link.get("artifactId", UUID.class))
+                .addDocumentId(link.get("documentId", UUID.class)));
     }
 
     /**
@@ -69,22 +125,6 @@ public class ArtifactService implements IAppEntityService<ArtifactAppEntity> {
         return versionToAppEntity(artifactVersions);
     }
 
-    private void attactDocumentsToVersions(List<ArtifactVersion> artifactVersions) {
-        List<Artifact> artifacts = artifactVersions.stream().map(ArtifactVersion::getArtifact).toList();
-
-        Map<UUID, ArtifactVersion> artifactIdMap = new HashMap<>();
-        for (ArtifactVersion artifactVersion : artifactVersions) {
-            artifactIdMap.put(artifactVersion.getArtifact().getArtifactId(), artifactVersion);
-            artifactVersion.setDocumentIds(new ArrayList<>());
-        }
-
-        List<DocumentArtifact> documentArtifacts = documentArtifactRepository.findByArtifactIn(artifacts);
-        documentArtifacts.forEach(da -> {
-            ArtifactVersion version = artifactIdMap.get(da.getArtifact().getArtifactId());
-            version.getDocumentIds().add(da.getDocument().getDocumentId());
-        });
-    }
-
     @Override
     public List<ArtifactAppEntity> getAppEntitiesByIds(ProjectVersion projectVersion,
                                                        SafaUser user, List<UUID> appEntityIds) {
@@ -99,10 +139,11 @@ public class ArtifactService implements IAppEntityService<ArtifactAppEntity> {
      * @return The constructed artifacts at given version.
      */
     public List<ArtifactAppEntity> getAppEntitiesByIds(ProjectVersion projectVersion, List<UUID> artifactIds) {
-        List<ArtifactVersion> allArtifactVersions =
-            this.artifactVersionRepository.retrieveVersionEntitiesByBaseIds(artifactIds);
-        List<ArtifactVersion> artifactAtVersion = VersionCalculator.getEntitiesAtVersion(projectVersion,
-            allArtifactVersions);
+        if (artifactIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ArtifactVersion> artifactAtVersion =
+            this.artifactVersionRepository.findActiveByArtifactIdsInProjectVersion(projectVersion, artifactIds);
         return versionToAppEntity(artifactAtVersion);
     }
 
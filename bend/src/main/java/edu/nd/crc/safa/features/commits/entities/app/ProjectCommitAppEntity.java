@@ -1,8 +1,21 @@
 package edu.nd.crc.safa.features.commits.entities.app;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.nd.crc.safa.features.rules.entities.app.ArtifactWarnings;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
 
 @Setter(AccessLevel.PUBLIC)
 public class ProjectCommitAppEntity extends AbstractProjectCommit {
+    /**
+     * The new warnings of each artifact whose warnings changed in the commit.
+     */
+    @Getter
+    @JsonIgnore
+    private List<ArtifactWarnings> warnings = new ArrayList<>();
 }
@@ -0,0 +1,54 @@
+package edu.nd.crc.safa.features.commits.entities.db;
+
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The identifying columns of a version entity without its content. Used to decide whether an entity
+ * changed before loading its content.
+ */
+@Getter
+@AllArgsConstructor
+public class VersionEntityDigest {
+    /**
+     * The id of the base entity.
+     */
+    private final UUID baseEntityId;
+    /**
+     * The id of the version entity.
+     */
+    private final UUID versionEntityId;
+    /**
+     * The id of the project version the version entity was committed to.
+     */
+    private final UUID versionId;
+    /**
+     * The modification made to the base entity in this version entity.
+     */
+    private final ModificationType modificationType;
+    /**
+     * The digest of the content of the version entity, or null if the entity does not store one.
+     */
+    private final String contentHash;
+
+    public VersionEntityDigest(UUID baseEntityId,
+                               UUID versionEntityId,
+                               UUID versionId,
+                               ModificationType modificationType) {
+        this(baseEntityId, versionEntityId, versionId, modificationType, null);
+    }
+
+    /**
+     * Returns whether given content hash is known to equal the content of this version entity.
+     *
+     * @param otherContentHash The content hash to compare.
+     * @return True if both hashes are known and equal.
+     */
+    public boolean hasContentHash(String otherContentHash) {
+        return this.contentHash != null && this.contentHash.equals(otherContentHash);
+    }
+}
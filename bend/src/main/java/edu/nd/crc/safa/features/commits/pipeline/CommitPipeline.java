@@ -5,11 +5,14 @@ import java.util.List;
 import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
 import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
 import edu.nd.crc.safa.features.commits.pipeline.steps.AddTracesToDeletedArtifacts;
+import edu.nd.crc.safa.features.commits.pipeline.steps.CalculateWarnings;
 import edu.nd.crc.safa.features.commits.pipeline.steps.CommitArtifacts;
 import edu.nd.crc.safa.features.commits.pipeline.steps.CommitTraces;
 import edu.nd.crc.safa.features.commits.pipeline.steps.MarkInvisibleLinks;
+import edu.nd.crc.safa.features.commits.pipeline.steps.PublishVersionChange;
 import edu.nd.crc.safa.features.commits.pipeline.steps.SendNotifications;
 import edu.nd.crc.safa.features.commits.pipeline.steps.SetLastUpdated;
+import edu.nd.crc.safa.features.commits.pipeline.steps.UpdateVersionSnapshot;
 import edu.nd.crc.safa.features.commits.services.CommitService;
 
 /**
@@ -26,7 +29,10 @@ public class CommitPipeline {
             new MarkInvisibleLinks(),
             new CommitArtifacts(),
             new CommitTraces(),
+            new UpdateVersionSnapshot(),
             new SetLastUpdated(),
+            new CalculateWarnings(),
+            new PublishVersionChange(),
             new SendNotifications()
         );
     }
@@ -0,0 +1,42 @@
+package edu.nd.crc.safa.features.commits.pipeline.steps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.commits.pipeline.ICommitStep;
+import edu.nd.crc.safa.features.commits.services.CommitService;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectChange;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+
+public class CalculateWarnings implements ICommitStep {
+    /**
+     * Re-evaluates the warnings of the artifacts affected by the commit and stores those that changed in the
+     * result, to be published and sent to clients.
+     *
+     * @param service          The commit service to access database and other services.
+     * @param commitDefinition The commit being performed.
+     * @param result           The commit final state.
+     */
+    @Override
+    public void performStep(CommitService service, ProjectCommitDefinition commitDefinition,
+                            ProjectCommitAppEntity result) {
+        ProjectChange<ArtifactAppEntity> artifactChanges = result.getArtifacts();
+        ProjectChange<TraceAppEntity> traceChanges = result.getTraces();
+
+        List<UUID> changedArtifactIds = new ArrayList<>();
+        changedArtifactIds.addAll(artifactChanges.getAddedIds());
+        changedArtifactIds.addAll(artifactChanges.getUpdatedIds());
+        changedArtifactIds.addAll(artifactChanges.getDeletedIds());
+        List<TraceAppEntity> changedTraces = new ArrayList<>();
+        changedTraces.addAll(traceChanges.getAdded());
+        changedTraces.addAll(traceChanges.getModified());
+        changedTraces.addAll(traceChanges.getRemoved());
+
+        result.setWarnings(service.getWarningService()
+            .calculateWarningChanges(commitDefinition.getCommitVersion(), changedArtifactIds, changedTraces));
+    }
+}
@@ -0,0 +1,45 @@
+package edu.nd.crc.safa.features.commits.pipeline.steps;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.commits.pipeline.ICommitStep;
+import edu.nd.crc.safa.features.commits.services.CommitService;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+
+public class PublishVersionChange implements ICommitStep {
+    /**
+     * Publishes which artifacts, traces, and artifact warnings changed in the commit version, and the versions
+     * after it.
+     *
+     * @param service          The commit service to access database and other services.
+     * @param commitDefinition The commit being performed.
+     * @param result           The commit final state.
+     */
+    @Override
+    public void performStep(CommitService service, ProjectCommitDefinition commitDefinition,
+                            ProjectCommitAppEntity result) {
+        ProjectVersion projectVersion = commitDefinition.getCommitVersion();
+        if (result.getArtifacts().getSize() > 0) {
+            service.getEventPublisher().publishEvent(new ProjectVersionChangedEvent(service, projectVersion,
+                NotificationEntity.ARTIFACTS, result.getArtifacts().getModificationTypes(), result));
+        }
+        if (result.getTraces().getSize() > 0) {
+            service.getEventPublisher().publishEvent(new ProjectVersionChangedEvent(service, projectVersion,
+                NotificationEntity.TRACES, result.getTraces().getModificationTypes(), result));
+        }
+        if (!result.getWarnings().isEmpty()) {
+            Map<UUID, ModificationType> changedWarnings = new LinkedHashMap<>();
+            result.getWarnings().forEach(warnings ->
+                changedWarnings.put(warnings.getArtifactId(), ModificationType.MODIFIED));
+            service.getEventPublisher().publishEvent(new ProjectVersionChangedEvent(service, projectVersion,
+                NotificationEntity.WARNINGS, changedWarnings, result));
+        }
+    }
+}
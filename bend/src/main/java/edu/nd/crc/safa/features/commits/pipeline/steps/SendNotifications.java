@@ -43,7 +43,7 @@ public class SendNotifications implements ICommitStep {
             .withArtifactsDelete(artifactChanges.getDeletedIds())
             .withTracesUpdate(updatedTraces)
             .withTracesDelete(traceChanges.getDeletedIds())
-            .withWarningsUpdate();
+            .withWarningsUpdate(result.getWarnings());
 
         if (commitDefinition.shouldUpdateDefaultLayout()) {
             builder.withUpdateLayout();
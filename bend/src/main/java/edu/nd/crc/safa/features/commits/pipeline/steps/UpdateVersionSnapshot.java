@@ -0,0 +1,37 @@
+package edu.nd.crc.safa.features.commits.pipeline.steps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.commits.pipeline.ICommitStep;
+import edu.nd.crc.safa.features.commits.services.CommitService;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectChange;
+import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
+
+public class UpdateVersionSnapshot implements ICommitStep {
+    /**
+     * Updates the snapshot of the commit version with the committed artifacts and traces.
+     *
+     * @param service          The commit service to access database and other services.
+     * @param commitDefinition The commit being performed.
+     * @param result           The commit final state.
+     */
+    @Override
+    public void performStep(CommitService service, ProjectCommitDefinition commitDefinition,
+                            ProjectCommitAppEntity result) {
+        service.getVersionSnapshotService().updateSnapshot(
+            commitDefinition.getCommitVersion(),
+            getCommittedIds(result.getArtifacts()),
+            getCommittedIds(result.getTraces()));
+    }
+
+    private <T extends IAppEntity> List<UUID> getCommittedIds(ProjectChange<T> change) {
+        List<UUID> ids = new ArrayList<>();
+        ids.addAll(change.getAddedIds());
+        ids.addAll(change.getEntityIds());
+        return ids;
+    }
+}
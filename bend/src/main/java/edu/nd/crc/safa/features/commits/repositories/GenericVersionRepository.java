@@ -1,17 +1,23 @@
 package edu.nd.crc.safa.features.commits.repositories;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import edu.nd.crc.safa.config.AppConstraints;
 import edu.nd.crc.safa.features.artifacts.repositories.IVersionRepository;
 import edu.nd.crc.safa.features.commits.entities.db.VersionEntityAction;
+import edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest;
 import edu.nd.crc.safa.features.common.IBaseEntity;
 import edu.nd.crc.safa.features.common.IVersionEntity;
 import edu.nd.crc.safa.features.delta.entities.app.EntityDelta;
@@ -25,11 +31,10 @@ import edu.nd.crc.safa.features.projects.entities.db.ProjectEntityType;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.VersionCalculator;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
-import edu.nd.crc.safa.utilities.ProjectDataStructures;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.Getter;
 import org.javatuples.Pair;
-import org.javatuples.Triplet;
 import org.springframework.dao.DataIntegrityViolationException;
 
 /**
@@ -43,10 +48,23 @@ public abstract class GenericVersionRepository<
     AppEntity extends IAppEntity>
     implements IVersionRepository<VersionEntity, AppEntity> {
 
+    /**
+     * The maximum number of version entities saved together during a commit.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final VersionCalculator versionCalculator = new VersionCalculator();
 
     protected abstract VersionEntity save(VersionEntity versionEntity);
 
+    /**
+     * Saves given version entities together so their inserts can be batched, and flushes them so that a
+     * failing insert is raised here.
+     *
+     * @param versionEntities The version entities to save.
+     */
+    protected abstract void saveVersionEntities(List<VersionEntity> versionEntities);
+
     @Override
     public List<AppEntity> retrieveAppEntitiesByProjectVersion(ProjectVersion projectVersion) {
         List<VersionEntity> versionEntities = this.retrieveVersionEntitiesByProjectVersion(projectVersion);
@@ -55,17 +73,21 @@ public abstract class GenericVersionRepository<
             .collect(Collectors.toList());
     }
 
+    @Override
+    public void forEachAppEntityInProjectVersion(ProjectVersion projectVersion, Consumer<AppEntity> consumer) {
+        retrieveAppEntitiesByProjectVersion(projectVersion).forEach(consumer);
+    }
+
     /**
      * Calculates contents of each artifact at given version and returns bodies at version.
+     * The latest entry per entity is resolved by the database instead of loading the project history.
      *
      * @param projectVersion - The version of the artifact bodies that are returned
      * @return list of artifact bodies in project at given version
      */
     @Override
     public List<VersionEntity> retrieveVersionEntitiesByProjectVersion(ProjectVersion projectVersion) {
-        Map<UUID, List<VersionEntity>> entityHashTable =
-            this.groupEntityVersionsByEntityId(projectVersion);
-        return VersionCalculator.calculateVersionEntitiesAtProjectVersion(projectVersion, entityHashTable);
+        return this.queryActiveVersionEntitiesAtProjectVersion(projectVersion);
     }
 
     @Override
@@ -126,6 +148,32 @@ public abstract class GenericVersionRepository<
         return entityHashTable;
     }
 
+    /**
+     * Returns the versions of given base entity, retrieving them if they are missing from the hash table.
+     *
+     * @param baseEntity      The base entity whose versions are returned.
+     * @param entityHashTable The map of entity ids to version entities.
+     * @return List of versions of the base entity.
+     */
+    private List<VersionEntity> getVersionEntityHistory(BaseEntity baseEntity,
+                                                        Map<UUID, List<VersionEntity>> entityHashTable) {
+        return entityHashTable.computeIfAbsent(baseEntity.getBaseEntityId(),
+            id -> new ArrayList<>(this.retrieveVersionEntitiesByBaseEntity(baseEntity)));
+    }
+
+    /**
+     * Replaces the version of the entity in the hash table for the version entity's project version.
+     *
+     * @param versionEntity   The version entity being saved.
+     * @param entityHashTable The map of entity ids to version entities.
+     */
+    private void recordInHistory(VersionEntity versionEntity, Map<UUID, List<VersionEntity>> entityHashTable) {
+        List<VersionEntity> history = entityHashTable
+            .computeIfAbsent(versionEntity.getBaseEntityId(), id -> new ArrayList<>());
+        history.removeIf(v -> v.getProjectVersion().isEqualTo(versionEntity.getProjectVersion()));
+        history.add(versionEntity);
+    }
+
     /**
      * Commits the current state of app entity to given project version. AppEntity is modified
      * to contain the base entity id if created successfully. Warning, if submitted to an
@@ -146,7 +194,8 @@ public abstract class GenericVersionRepository<
             VersionEntity versionEntity = this.instantiateVersionEntityFromAppEntity(
                 projectVersion,
                 baseEntity,
-                appEntity);
+                appEntity,
+                this.getVersionEntityHistory(baseEntity, entityHashTable));
 
             if (versionEntity.getModificationType() != ModificationType.NO_MODIFICATION) {
                 createOrUpdateVersionEntity(versionEntity, user, entityHashTable);
@@ -170,49 +219,78 @@ public abstract class GenericVersionRepository<
             VersionEntity removedVersionEntity = this.instantiateVersionEntityFromAppEntity(
                 projectVersion,
                 baseEntity,
-                null); // null tells method that this is a deletion.
+                null, // null tells method that this is a deletion.
+                this.getVersionEntityHistory(baseEntity, entityHashTable));
             this.createOrUpdateVersionEntity(removedVersionEntity, user, entityHashTable);
             return removedVersionEntity == null ? Optional.empty() : Optional.of(removedVersionEntity);
         };
         return commitErrorHandler(projectVersion, versionEntityAction, baseEntityId, this.getProjectActivity());
     }
 
+    /**
+     * Calculates the entities added, modified, and removed between two versions. The latest entry of each
+     * entity in either version is resolved by the database as a digest, and only the entities whose entries
+     * differ in content hash are loaded.
+     *
+     * @param baselineVersion The version whose entities are held as the baseline.
+     * @param targetVersion   The version whose entities are compared to the baseline.
+     * @return The changes required to move from baseline to target version.
+     */
     @Override
     public EntityDelta<AppEntity> calculateEntityDelta(
         ProjectVersion baselineVersion,
         ProjectVersion targetVersion) {
-        Project project = baselineVersion.getProject();
         Map<UUID, AppEntity> addedEntities = new HashMap<>();
         Map<UUID, ModifiedEntity<AppEntity>> modifiedEntities = new HashMap<>();
         Map<UUID, AppEntity> removedEntities = new HashMap<>();
 
-        List<BaseEntity> projectArtifacts = this.retrieveBaseEntitiesByProject(project);
+        Map<UUID, VersionEntityDigest> baselineDigests = this.getLatestDigestMap(baselineVersion);
+        Map<UUID, VersionEntityDigest> targetDigests = this.getLatestDigestMap(targetVersion);
+        Set<UUID> baseEntityIds = new HashSet<>(baselineDigests.keySet());
+        baseEntityIds.addAll(targetDigests.keySet());
+
+        // Step - Skip entities with the same entry or the same content in both versions
+        List<UUID> changedIds = new ArrayList<>();
+        Set<UUID> versionEntityIds = new HashSet<>();
+        for (UUID baseEntityId : baseEntityIds) {
+            VersionEntityDigest before = baselineDigests.get(baseEntityId);
+            VersionEntityDigest after = targetDigests.get(baseEntityId);
+            if (before != null && after != null
+                && (before.getVersionEntityId().equals(after.getVersionEntityId())
+                || before.hasContentHash(after.getContentHash()))) {
+                continue;
+            }
+            changedIds.add(baseEntityId);
+            if (before != null) {
+                versionEntityIds.add(before.getVersionEntityId());
+            }
+            if (after != null) {
+                versionEntityIds.add(after.getVersionEntityId());
+            }
+        }
+        Map<UUID, VersionEntity> versionEntities = this.getVersionEntityMap(versionEntityIds);
 
-        for (BaseEntity baseEntity : projectArtifacts) {
-            Triplet<VersionEntity, VersionEntity, ModificationType> delta = this
-                .calculateDeltaEntityBetweenProjectVersions(
-                    baseEntity,
-                    baselineVersion,
-                    targetVersion);
-            ModificationType modificationType = delta.getValue2();
+        for (UUID baseEntityId : changedIds) {
+            VersionEntity beforeEntity = getVersionEntity(baselineDigests.get(baseEntityId), versionEntities);
+            VersionEntity afterEntity = getVersionEntity(targetDigests.get(baseEntityId), versionEntities);
+            ModificationType modificationType = this.calculateModificationType(beforeEntity, afterEntity);
             if (modificationType == null) {
                 continue;
             }
-            UUID baseEntityId = baseEntity.getBaseEntityId();
 
             switch (modificationType) {
                 case ADDED:
-                    AppEntity appEntity = this.retrieveAppEntityFromVersionEntity(delta.getValue1());
+                    AppEntity appEntity = this.retrieveAppEntityFromVersionEntity(afterEntity);
                     addedEntities.put(baseEntityId, appEntity);
                     break;
                 case MODIFIED:
-                    AppEntity appBefore = this.retrieveAppEntityFromVersionEntity(delta.getValue0());
-                    AppEntity appAfter = this.retrieveAppEntityFromVersionEntity(delta.getValue1());
+                    AppEntity appBefore = this.retrieveAppEntityFromVersionEntity(beforeEntity);
+                    AppEntity appAfter = this.retrieveAppEntityFromVersionEntity(afterEntity);
                     ModifiedEntity<AppEntity> modifiedEntity = new ModifiedEntity<>(appBefore, appAfter);
                     modifiedEntities.put(baseEntityId, modifiedEntity);
                     break;
                 case REMOVED:
-                    AppEntity appRemoved = this.retrieveAppEntityFromVersionEntity(delta.getValue0());
+                    AppEntity appRemoved = this.retrieveAppEntityFromVersionEntity(beforeEntity);
                     removedEntities.put(baseEntityId, appRemoved);
                     break;
                 default:
@@ -223,8 +301,37 @@ public abstract class GenericVersionRepository<
         return new EntityDelta<>(addedEntities, modifiedEntities, removedEntities);
     }
 
+    private Map<UUID, VersionEntityDigest> getLatestDigestMap(ProjectVersion projectVersion) {
+        Map<UUID, VersionEntityDigest> digestMap = new HashMap<>();
+        this.queryLatestDigestsAtProjectVersion(projectVersion)
+            .forEach(digest -> digestMap.put(digest.getBaseEntityId(), digest));
+        return digestMap;
+    }
+
     /**
-     * Commits list of given application entities
+     * Retrieves the version entities with given ids in batches.
+     *
+     * @param versionEntityIds The ids of the version entities.
+     * @return Map of version entity ids to their version entity.
+     */
+    private Map<UUID, VersionEntity> getVersionEntityMap(Collection<UUID> versionEntityIds) {
+        Map<UUID, VersionEntity> versionEntityMap = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(versionEntityIds);
+        for (int start = 0; start < ids.size(); start += MAX_BATCH_SIZE) {
+            List<UUID> batchIds = ids.subList(start, Math.min(start + MAX_BATCH_SIZE, ids.size()));
+            this.retrieveVersionEntitiesByIds(batchIds)
+                .forEach(versionEntity -> versionEntityMap.put(versionEntity.getVersionEntityId(), versionEntity));
+        }
+        return versionEntityMap;
+    }
+
+    private VersionEntity getVersionEntity(VersionEntityDigest digest, Map<UUID, VersionEntity> versionEntities) {
+        return digest == null ? null : versionEntities.get(digest.getVersionEntityId());
+    }
+
+    /**
+     * Commits list of given application entities. Previous versions of the entities are resolved up front,
+     * version entities are saved in batches, and TIM information is updated once per changed key.
      *
      * @param projectVersion The version whose app entities are retrieved.
      * @param appEntities    The set of all artifacts existing in given project version.
@@ -237,48 +344,131 @@ public abstract class GenericVersionRepository<
         List<AppEntity> appEntities,
         boolean asCompleteSet,
         SafaUser user) {
+        if (asCompleteSet) {
+            return replaceAppEntitiesInProjectVersion(projectVersion, appEntities, user);
+        }
 
-        List<UUID> processedAppEntities = new ArrayList<>();
         List<UUID> entityIds = appEntities
             .stream()
             .map(IAppEntity::getId)
             .filter(t -> t != null)
             .collect(Collectors.toList());
         Map<UUID, List<VersionEntity>> entityHashTable = createVersionEntityMap(projectVersion, entityIds);
-        List<Pair<VersionEntity, CommitError>> response = appEntities
-            .stream()
-            .map(appEntity -> {
-                Pair<VersionEntity, CommitError> commitResponse =
-                    this.commitAppEntityToProjectVersion(projectVersion, appEntity, user, entityHashTable);
-                if (commitResponse.getValue1() == null) {
-                    UUID baseEntityId = commitResponse.getValue0().getBaseEntityId();
-                    processedAppEntities.add(baseEntityId);
-                    appEntity.setId(baseEntityId);
+        return commitAppEntitiesInBatches(projectVersion, appEntities, user, entityHashTable, Map.of(),
+            baseEntity -> getVersionEntityHistory(baseEntity, entityHashTable));
+    }
+
+    /**
+     * Replaces the contents of given project version with given app entities. The digest of each entity in the
+     * project version is loaded once, so entities whose content hash is unchanged are skipped without reading
+     * their history. Only the histories of changed and removed entities are loaded, and removals are written
+     * in batches alongside the committed entities.
+     *
+     * @param projectVersion The version whose contents are replaced.
+     * @param appEntities    The complete set of entities existing in given project version.
+     * @param user           The user making the change.
+     * @return List of pairs of VersionEntities or commit errors, followed by the removed entities.
+     */
+    @Override
+    public List<Pair<VersionEntity, CommitError>> replaceAppEntitiesInProjectVersion(
+        ProjectVersion projectVersion,
+        List<AppEntity> appEntities,
+        SafaUser user) {
+        Project project = projectVersion.getProject();
+        Map<UUID, VersionEntityDigest> digests = getLatestDigestMap(projectVersion);
+        Map<UUID, List<VersionEntity>> entityHashTable = new HashMap<>();
+        List<Pair<VersionEntity, CommitError>> response = commitAppEntitiesInBatches(projectVersion, appEntities,
+            user, entityHashTable, digests,
+            baseEntity -> {
+                if (digests.containsKey(baseEntity.getBaseEntityId())) {
+                    return getVersionEntityHistory(baseEntity, entityHashTable);
                 }
-                return commitResponse;
-            })
-            .collect(Collectors.toList());
+                // Entities without a digest have no versions at or before this version.
+                return entityHashTable.computeIfAbsent(baseEntity.getBaseEntityId(), id -> new ArrayList<>());
+            });
 
-        if (asCompleteSet) { // calculates deleted entities if this is complete set
-            List<UUID> deletedBaseEntityIds = this.retrieveBaseEntitiesByProject(
-                    projectVersion.getProject())
-                .stream()
-                .filter(baseEntity -> !processedAppEntities.contains(baseEntity.getBaseEntityId()))
-                .map(BaseEntity::getBaseEntityId)
-                .collect(Collectors.toList());
+        Set<UUID> committedIds = new HashSet<>();
+        response
+            .stream()
+            .filter(commitResponse -> commitResponse.getValue1() == null)
+            .forEach(commitResponse -> committedIds.add(commitResponse.getValue0().getBaseEntityId()));
 
-            addToVersionEntityMap(entityHashTable, deletedBaseEntityIds);
+        List<BaseEntity> removedEntities = new ArrayList<>();
+        for (BaseEntity baseEntity : this.retrieveBaseEntitiesByProject(project)) {
+            UUID baseEntityId = baseEntity.getBaseEntityId();
+            VersionEntityDigest digest = digests.get(baseEntityId);
+            if (committedIds.contains(baseEntityId)
+                || digest == null
+                || digest.getModificationType() == ModificationType.REMOVED) {
+                continue; // committed, already removed, or not yet created at this version
+            }
+            removedEntities.add(baseEntity);
+        }
+        List<UUID> missingHistoryIds = removedEntities
+            .stream()
+            .map(IBaseEntity::getBaseEntityId)
+            .filter(id -> !entityHashTable.containsKey(id))
+            .collect(Collectors.toList());
+        if (!missingHistoryIds.isEmpty()) {
+            addToVersionEntityMap(entityHashTable, missingHistoryIds);
+        }
 
-            List<Pair<VersionEntity, CommitError>> removedVersionEntities = deletedBaseEntityIds
-                .stream()
-                .map(baseEntityId -> this.deleteVersionEntityByBaseEntityId(projectVersion,
-                    baseEntityId,
-                    user,
-                    entityHashTable))
-                .collect(Collectors.toList());
-            response.addAll(removedVersionEntities);
+        VersionEntityBatch batch = new VersionEntityBatch(projectVersion, user, entityHashTable);
+        for (BaseEntity baseEntity : removedEntities) {
+            UUID baseEntityId = baseEntity.getBaseEntityId();
+            batch.add(commitErrorHandler(projectVersion,
+                () -> Optional.of(this.instantiateVersionEntityWithModification(projectVersion,
+                    ModificationType.REMOVED, baseEntity, null)),
+                baseEntityId, this.getProjectActivity()));
         }
+        batch.flush();
+        response.addAll(batch.getResponse());
+        return response;
+    }
 
+    /**
+     * Creates the version entities of given app entities and saves them in batches. App entities are
+     * modified to contain the base entity id if committed successfully.
+     *
+     * @param projectVersion  The version being committed to.
+     * @param appEntities     The app entities to commit.
+     * @param user            The user making the change.
+     * @param entityHashTable The map of entity ids to version entities.
+     * @param digests         The map of entity ids to the digest of their latest version entity. Entities whose
+     *                        digest shows them unchanged are not looked up in their history.
+     * @param historyLookup   Returns the versions of a base entity.
+     * @return List of pairs of VersionEntities or commit errors, in the order of the app entities.
+     */
+    private List<Pair<VersionEntity, CommitError>> commitAppEntitiesInBatches(
+        ProjectVersion projectVersion,
+        List<AppEntity> appEntities,
+        SafaUser user,
+        Map<UUID, List<VersionEntity>> entityHashTable,
+        Map<UUID, VersionEntityDigest> digests,
+        Function<BaseEntity, List<VersionEntity>> historyLookup) {
+        VersionEntityBatch batch = new VersionEntityBatch(projectVersion, user, entityHashTable);
+        for (AppEntity appEntity : appEntities) {
+            VersionEntityAction<VersionEntity> versionEntityAction = () -> {
+                BaseEntity baseEntity = this.createOrUpdateRelatedEntities(projectVersion, appEntity, user);
+                if (isUnchangedSinceDigest(projectVersion, digests.get(baseEntity.getBaseEntityId()), appEntity)) {
+                    return Optional.of(this.instantiateVersionEntityWithModification(projectVersion,
+                        ModificationType.NO_MODIFICATION, baseEntity, appEntity));
+                }
+                return Optional.of(this.instantiateVersionEntityFromAppEntity(projectVersion, baseEntity,
+                    appEntity, historyLookup.apply(baseEntity)));
+            };
+            batch.add(commitErrorHandler(projectVersion,
+                versionEntityAction, appEntity.getId(), this.getProjectActivity()));
+        }
+        batch.flush();
+
+        List<Pair<VersionEntity, CommitError>> response = batch.getResponse();
+        for (int i = 0; i < appEntities.size(); i++) {
+            Pair<VersionEntity, CommitError> commitResponse = response.get(i);
+            if (commitResponse.getValue1() == null) {
+                appEntities.get(i).setId(commitResponse.getValue0().getBaseEntityId());
+            }
+        }
         return response;
     }
 
@@ -295,6 +485,7 @@ public abstract class GenericVersionRepository<
             VersionEntity previousEntity = previousEntityOptional.orElse(null);
 
             this.save(versionEntity);
+            recordInHistory(versionEntity, entityHashTable);
 
             this.updateTimInfo(versionEntity.getProjectVersion(), versionEntity, previousEntity, user);
         } catch (Exception e) {
@@ -306,22 +497,6 @@ public abstract class GenericVersionRepository<
         }
     }
 
-    private Triplet<VersionEntity, VersionEntity, ModificationType> calculateDeltaEntityBetweenProjectVersions(
-        BaseEntity baseEntity,
-        ProjectVersion baseVersion,
-        ProjectVersion targetVersion) {
-        List<VersionEntity> bodies = this.retrieveVersionEntitiesByBaseEntity(baseEntity);
-
-        VersionEntity beforeEntity = this.versionCalculator.getEntityAtVersion(bodies,
-            baseVersion, IVersionEntity::getProjectVersion);
-        VersionEntity afterEntity = this.versionCalculator.getEntityAtVersion(bodies,
-            targetVersion, IVersionEntity::getProjectVersion);
-
-        ModificationType modificationType = this
-            .calculateModificationType(beforeEntity, afterEntity);
-        return new Triplet<>(beforeEntity, afterEntity, modificationType);
-    }
-
     private Pair<VersionEntity, CommitError> commitErrorHandler(ProjectVersion projectVersion,
                                                                 VersionEntityAction<VersionEntity> versionEntityAction,
                                                                 UUID entityName,
@@ -382,16 +557,13 @@ public abstract class GenericVersionRepository<
         }
     }
 
-    private Map<UUID, List<VersionEntity>> groupEntityVersionsByEntityId(ProjectVersion projectVersion) {
-        List<VersionEntity> versionEntities = this.retrieveVersionEntitiesByProject(projectVersion.getProject());
-        return ProjectDataStructures.createGroupLookup(versionEntities, IVersionEntity::getBaseEntityId);
-    }
-
     private VersionEntity instantiateVersionEntityFromAppEntity(ProjectVersion projectVersion,
                                                                 BaseEntity baseEntity,
-                                                                AppEntity appEntity) throws JsonProcessingException {
+                                                                AppEntity appEntity,
+                                                                List<VersionEntity> history)
+        throws JsonProcessingException {
         ModificationType modificationType = this
-            .calculateModificationTypeForAppEntity(projectVersion, baseEntity, appEntity);
+            .calculateModificationTypeForAppEntity(projectVersion, history, appEntity);
 
         return this.instantiateVersionEntityWithModification(
             projectVersion,
@@ -400,11 +572,29 @@ public abstract class GenericVersionRepository<
             appEntity);
     }
 
+    /**
+     * Returns whether given app entity has the same content as its latest version entity before given project
+     * version, as recorded by its digest. Entities without a known content hash are never considered unchanged.
+     *
+     * @param projectVersion The version being committed to.
+     * @param digest         The digest of the latest version entity at or before the project version.
+     * @param appEntity      The app entity being committed.
+     * @return True if committing the app entity makes no modification.
+     */
+    private boolean isUnchangedSinceDigest(ProjectVersion projectVersion,
+                                           VersionEntityDigest digest,
+                                           AppEntity appEntity) {
+        return digest != null
+            && !digest.getVersionId().equals(projectVersion.getVersionId())
+            && digest.getModificationType() != ModificationType.REMOVED
+            && digest.hasContentHash(this.calculateContentHash(appEntity));
+    }
+
     private ModificationType calculateModificationTypeForAppEntity(ProjectVersion projectVersion,
-                                                                   BaseEntity baseEntity,
+                                                                   List<VersionEntity> history,
                                                                    AppEntity appEntity) {
         VersionEntity previousBody = versionCalculator
-            .getEntityBeforeVersion(this.retrieveVersionEntitiesByBaseEntity(baseEntity),
+            .getEntityBeforeVersion(history,
                 projectVersion,
                 IVersionEntity::getProjectVersion);
         if (previousBody == null) {
@@ -423,6 +613,39 @@ public abstract class GenericVersionRepository<
         }
     }
 
+    /**
+     * Returns the latest version of each entity at or before given project version, excluding
+     * entities whose latest version marks them as removed. Equivalent to
+     * {@link VersionCalculator#getEntitiesAtVersion(ProjectVersion, List)} over the project history.
+     *
+     * @param projectVersion The version whose active entities are retrieved.
+     * @return List of version entities active in project version.
+     */
+    protected abstract List<VersionEntity> queryActiveVersionEntitiesAtProjectVersion(ProjectVersion projectVersion);
+
+    /**
+     * Returns the digest of the latest version of each entity at or before given project version, including
+     * versions marking the entity as removed. The content of the version entities is not read.
+     *
+     * @param projectVersion The version whose latest entities are retrieved.
+     * @return List containing at most one digest per base entity.
+     */
+    protected abstract List<VersionEntityDigest> queryLatestDigestsAtProjectVersion(ProjectVersion projectVersion);
+
+    /**
+     * @param versionEntityIds The ids of the version entities to retrieve.
+     * @return The version entities with given ids.
+     */
+    protected abstract List<VersionEntity> retrieveVersionEntitiesByIds(Collection<UUID> versionEntityIds);
+
+    /**
+     * Calculates the content hash the version entity of given app entity would store.
+     *
+     * @param appEntity The app entity being committed.
+     * @return The content hash, or null if this type of version entity does not store one.
+     */
+    protected abstract String calculateContentHash(AppEntity appEntity);
+
     /**
      * @param entity The base entities whose versions are retrieved
      * @return List of versions associated with given base entities.
@@ -484,4 +707,132 @@ public abstract class GenericVersionRepository<
      * @return Optional possibly containing existing version entity.
      */
     protected abstract Optional<VersionEntity> queryVersionEntity(VersionEntity versionEntity);
+
+    /**
+     * Collects the version entities created during a commit and saves them in batches. TIM information is
+     * updated once per batch. Entities are validated as they are created, so a batch that fails to save fails
+     * the whole commit.
+     */
+    private class VersionEntityBatch {
+        private final ProjectVersion projectVersion;
+        private final SafaUser user;
+        private final Map<UUID, List<VersionEntity>> entityHashTable;
+        /**
+         * The commit responses, in the order they were added.
+         */
+        @Getter
+        private final List<Pair<VersionEntity, CommitError>> response = new ArrayList<>();
+        /**
+         * Map of base entity ids to the index of their pending response.
+         */
+        private final Map<UUID, Integer> pendingIndices = new LinkedHashMap<>();
+        /**
+         * Map of base entity ids to the entity version they replace.
+         */
+        private final Map<UUID, VersionEntity> previousEntities = new HashMap<>();
+        /**
+         * Map of base entity ids to the entity version in this project version replaced in their history, so
+         * the history can be restored if the batch fails.
+         */
+        private final Map<UUID, VersionEntity> replacedEntities = new HashMap<>();
+
+        VersionEntityBatch(ProjectVersion projectVersion,
+                           SafaUser user,
+                           Map<UUID, List<VersionEntity>> entityHashTable) {
+            this.projectVersion = projectVersion;
+            this.user = user;
+            this.entityHashTable = entityHashTable;
+        }
+
+        /**
+         * Adds commit response to the batch, marking its version entity to be saved if it is a change.
+         *
+         * @param commitResponse The version entity created or the error that occurred creating it.
+         */
+        void add(Pair<VersionEntity, CommitError> commitResponse) {
+            VersionEntity versionEntity = commitResponse.getValue0();
+            if (commitResponse.getValue1() == null
+                && versionEntity.getModificationType() != ModificationType.NO_MODIFICATION) {
+                UUID baseEntityId = versionEntity.getBaseEntityId();
+                if (pendingIndices.containsKey(baseEntityId) || pendingIndices.size() >= MAX_BATCH_SIZE) {
+                    // Entities appearing twice must have their earlier entry saved before being overwritten.
+                    flush();
+                }
+                VersionEntity existing = entityHashTable.getOrDefault(baseEntityId, List.of())
+                    .stream()
+                    .filter(v -> v.getProjectVersion().isEqualTo(projectVersion))
+                    .findFirst()
+                    .orElse(null);
+                if (existing != null) {
+                    versionEntity.setVersionEntityId(existing.getVersionEntityId());
+                }
+                replacedEntities.put(baseEntityId, existing);
+                previousEntities.put(baseEntityId,
+                    findVersionEntityByProjectVersionAndBaseEntityId(projectVersion, baseEntityId, entityHashTable)
+                        .orElse(null));
+                recordInHistory(versionEntity, entityHashTable);
+                pendingIndices.put(baseEntityId, response.size());
+            }
+            response.add(commitResponse);
+        }
+
+        /**
+         * Saves the pending version entities and updates TIM information for them. If saving fails, the
+         * history of the pending entities is restored and the commit fails.
+         *
+         * @throws SafaError If the version entities could not be saved.
+         */
+        void flush() throws SafaError {
+            if (pendingIndices.isEmpty()) {
+                return;
+            }
+            List<VersionEntity> pendingEntities = pendingIndices.values()
+                .stream()
+                .map(index -> response.get(index).getValue0())
+                .collect(Collectors.toList());
+            List<VersionEntity> newEntities = pendingEntities
+                .stream()
+                .filter(versionEntity -> versionEntity.getVersionEntityId() == null)
+                .collect(Collectors.toList());
+
+            try {
+                saveVersionEntities(pendingEntities);
+            } catch (Exception e) {
+                newEntities.forEach(versionEntity -> versionEntity.setVersionEntityId(null));
+                pendingEntities.forEach(this::restoreHistory);
+                clear();
+                throw new SafaError("An error occurred while saving the version entities of the commit.", e);
+            }
+
+            List<Pair<VersionEntity, VersionEntity>> savedEntities = pendingEntities
+                .stream()
+                .map(versionEntity -> new Pair<>(versionEntity, previousEntities.get(versionEntity.getBaseEntityId())))
+                .collect(Collectors.toList());
+            updateTimInfo(projectVersion, savedEntities, user);
+            clear();
+        }
+
+        /**
+         * Replaces a version entity that failed to save with the entity version it replaced in its history.
+         *
+         * @param versionEntity The version entity that failed to save.
+         */
+        private void restoreHistory(VersionEntity versionEntity) {
+            List<VersionEntity> history = entityHashTable.get(versionEntity.getBaseEntityId());
+            if (history == null) {
+                return;
+            }
+            history.removeIf(v -> v == versionEntity);
+            VersionEntity replaced = replacedEntities.get(versionEntity.getBaseEntityId());
+            if (replaced != null) {
+                history.add(replaced);
+            }
+        }
+
+        private void clear() {
+            pendingIndices.clear();
+            previousEntities.clear();
+            replacedEntities.clear();
+        }
+    }
 }
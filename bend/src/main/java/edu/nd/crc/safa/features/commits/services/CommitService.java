@@ -22,15 +22,18 @@ import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
 import edu.nd.crc.safa.features.projects.entities.app.IAppEntityCreator;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.repositories.ProjectRepository;
+import edu.nd.crc.safa.features.rules.services.WarningService;
 import edu.nd.crc.safa.features.traces.repositories.TraceLinkVersionRepository;
 import edu.nd.crc.safa.features.traces.services.TraceService;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.users.services.SafaUserService;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.javatuples.Pair;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -46,6 +49,9 @@ public class CommitService {
     private final NotificationService notificationService;
     private final ProjectRepository projectRepository;
     private final SafaUserService safaUserService;
+    private final VersionSnapshotService versionSnapshotService;
+    private final WarningService warningService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Saves entities in commit to specified project version.
@@ -9,6 +9,7 @@ import edu.nd.crc.safa.config.AppRoutes;
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.common.BaseController;
 import edu.nd.crc.safa.features.common.ServiceProvider;
+import edu.nd.crc.safa.features.delta.entities.app.VersionChanges;
 import edu.nd.crc.safa.features.documents.entities.app.DocumentAppEntity;
 import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
 import edu.nd.crc.safa.features.notifications.entities.Change;
@@ -24,6 +25,7 @@ import edu.nd.crc.safa.features.types.entities.TypeAppEntity;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -59,6 +61,23 @@ public class SyncController extends BaseController {
         return projectAppEntity;
     }
 
+    /**
+     * Returns the changes made to a version since the revision of its project last seen by the client. The
+     * client starts from the change cursor of the retrieved project, then continues from the cursor of each
+     * response.
+     *
+     * @param versionId The id of the version retrieved by the client.
+     * @param cursor    The last revision of the project seen by the client.
+     * @return The changes made since the cursor.
+     */
+    @GetMapping(AppRoutes.Sync.GET_CHANGES_SINCE)
+    public VersionChanges getChangesSince(@PathVariable UUID versionId, @PathVariable long cursor) {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
+            .withPermission(ProjectPermission.VIEW, user).get();
+        return getServiceProvider().getChangeLogService().getChangesSince(user, projectVersion, cursor);
+    }
+
     private ProjectAppEntity updateProjectAppEntity(ProjectAppEntity projectAppEntity,
                                                     ProjectVersion projectVersion,
                                                     Change change) {
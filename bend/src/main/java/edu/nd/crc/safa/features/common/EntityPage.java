@@ -0,0 +1,34 @@
+package edu.nd.crc.safa.features.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of entities selected with a keyset cursor. The next page is requested by passing the cursor of this
+ * page as the position to continue after.
+ *
+ * @param <E> The type of entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityPage<E> {
+    /**
+     * The number of entities returned when the page size is not given.
+     */
+    public static final int DEFAULT_SIZE = 100;
+    /**
+     * The largest number of entities a page may contain.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    private List<E> entities = new ArrayList<>();
+    /**
+     * The key of the last entity in the page, or null if there are no more entities.
+     */
+    private String nextCursor;
+}
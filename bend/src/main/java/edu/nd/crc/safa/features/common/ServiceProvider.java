@@ -12,6 +12,7 @@ import edu.nd.crc.safa.features.chat.services.ChatService;
 import edu.nd.crc.safa.features.comments.CommentService;
 import edu.nd.crc.safa.features.comments.services.CommentRetrievalService;
 import edu.nd.crc.safa.features.commits.services.CommitService;
+import edu.nd.crc.safa.features.delta.services.ChangeLogService;
 import edu.nd.crc.safa.features.delta.services.DeltaService;
 import edu.nd.crc.safa.features.documents.repositories.DocumentArtifactRepository;
 import edu.nd.crc.safa.features.documents.repositories.DocumentRepository;
@@ -34,6 +35,7 @@ import edu.nd.crc.safa.features.github.repositories.GithubProjectRepository;
 import edu.nd.crc.safa.features.github.services.GithubConnectionService;
 import edu.nd.crc.safa.features.github.services.GithubGraphQlService;
 import edu.nd.crc.safa.features.health.HealthService;
+import edu.nd.crc.safa.features.impact.services.ImpactAnalysisService;
 import edu.nd.crc.safa.features.jira.repositories.JiraAccessCredentialsRepository;
 import edu.nd.crc.safa.features.jira.repositories.JiraProjectRepository;
 import edu.nd.crc.safa.features.jira.services.JiraConnectionService;
@@ -41,6 +43,7 @@ import edu.nd.crc.safa.features.jira.services.JiraParsingService;
 import edu.nd.crc.safa.features.jobs.logging.services.JobLoggingService;
 import edu.nd.crc.safa.features.jobs.repositories.JobDbRepository;
 import edu.nd.crc.safa.features.jobs.services.JobService;
+import edu.nd.crc.safa.features.layout.generator.LayoutJobRunner;
 import edu.nd.crc.safa.features.layout.repositories.ArtifactPositionRepository;
 import edu.nd.crc.safa.features.layout.services.ArtifactPositionService;
 import edu.nd.crc.safa.features.memberships.repositories.UserProjectMembershipRepository;
@@ -53,8 +56,10 @@ import edu.nd.crc.safa.features.organizations.services.OrganizationService;
 import edu.nd.crc.safa.features.organizations.services.TeamService;
 import edu.nd.crc.safa.features.permissions.services.PermissionService;
 import edu.nd.crc.safa.features.projects.repositories.ProjectRepository;
+import edu.nd.crc.safa.features.projects.services.ProjectEtagService;
 import edu.nd.crc.safa.features.projects.services.ProjectRetrievalService;
 import edu.nd.crc.safa.features.projects.services.ProjectService;
+import edu.nd.crc.safa.features.projects.services.ProjectStreamingService;
 import edu.nd.crc.safa.features.rules.repositories.RuleRepository;
 import edu.nd.crc.safa.features.rules.services.RuleService;
 import edu.nd.crc.safa.features.rules.services.WarningService;
@@ -71,6 +76,7 @@ import edu.nd.crc.safa.features.users.services.PermissionCheckerService;
 import edu.nd.crc.safa.features.users.services.SafaUserService;
 import edu.nd.crc.safa.features.versions.repositories.ProjectVersionRepository;
 import edu.nd.crc.safa.features.versions.services.VersionService;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
 import edu.nd.crc.safa.utilities.ExecutorDelegate;
 import edu.nd.crc.safa.utilities.graphql.services.GraphQlService;
 
@@ -104,6 +110,8 @@ public class ServiceProvider {
     private final ProjectRepository projectRepository;
     private final ProjectService projectService;
     private final ProjectRetrievalService projectRetrievalService;
+    private final ProjectEtagService projectEtagService;
+    private final ProjectStreamingService projectStreamingService;
     private final ProjectSummaryService projectSummaryService;
     // Members
     private final UserProjectMembershipRepository userProjectMembershipRepository;
@@ -118,6 +126,7 @@ public class ServiceProvider {
     private final PermissionCheckerService permissionCheckerService;
     // Versions
     private final VersionService versionService;
+    private final VersionSnapshotService versionSnapshotService;
     // Types
     private final TypeService typeService;
     // Artifact
@@ -160,8 +169,12 @@ public class ServiceProvider {
     private final JiraProjectRepository jiraProjectRepository;
     // Delta
     private final DeltaService deltaService;
+    private final ChangeLogService changeLogService;
+    // Impact
+    private final ImpactAnalysisService impactAnalysisService;
     //Layout
     private final ArtifactPositionService artifactPositionService;
+    private final LayoutJobRunner layoutJobRunner;
     private final TaskExecutor taskExecutor;
     private final ExecutorDelegate executorDelegate;
     // Users
@@ -0,0 +1,12 @@
+package edu.nd.crc.safa.features.common;
+
+/**
+ * A value whose size is counted towards the bound of a cache.
+ */
+public interface Sized {
+    /**
+     * @return The number of entities held by the value, such as artifacts, trace links, and the artifact ids in
+     *     their relationships.
+     */
+    int getSize();
+}
@@ -1,11 +1,14 @@
 package edu.nd.crc.safa.features.delta.entities.app;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
 import edu.nd.crc.safa.utilities.StringUtil;
 
@@ -63,6 +66,18 @@ public class ProjectChange<T extends IAppEntity> {
         return getIds(this.getRemoved());
     }
 
+    /**
+     * @return The id of each changed entity mapped to how it was changed.
+     */
+    @JsonIgnore
+    public Map<UUID, ModificationType> getModificationTypes() {
+        Map<UUID, ModificationType> modificationTypes = new LinkedHashMap<>();
+        getAddedIds().forEach(id -> modificationTypes.put(id, ModificationType.ADDED));
+        getUpdatedIds().forEach(id -> modificationTypes.put(id, ModificationType.MODIFIED));
+        getDeletedIds().forEach(id -> modificationTypes.put(id, ModificationType.REMOVED));
+        return modificationTypes;
+    }
+
     @JsonIgnore
     public List<UUID> getIds(List<T> entities) {
         return entities.stream().map(IAppEntity::getId).collect(Collectors.toList());
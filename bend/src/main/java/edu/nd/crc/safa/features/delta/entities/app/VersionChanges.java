@@ -0,0 +1,50 @@
+package edu.nd.crc.safa.features.delta.entities.app;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contains the changes made to a project version since a position in the change log of the project.
+ * Modified entities only contain their state after the change, and removed entities only their id.
+ */
+@Data
+@NoArgsConstructor
+public class VersionChanges {
+    /**
+     * The position in the change log these changes lead up to.
+     */
+    private long cursor;
+    /**
+     * Whether the changes could not be determined, in which case the version must be retrieved again.
+     */
+    private boolean reloadRequired;
+    /**
+     * The artifacts and traces changed.
+     */
+    private ProjectDelta entities = new ProjectDelta(createEmptyDelta(), createEmptyDelta());
+    /**
+     * The new default position of each artifact whose position changed, or null if none changed.
+     */
+    private Map<UUID, LayoutPosition> layout;
+    /**
+     * The warnings of each artifact whose warnings changed, or null if none changed. Artifacts whose warnings
+     * were resolved map to an empty list.
+     */
+    private Map<UUID, List<RuleName>> warnings;
+
+    public VersionChanges(long cursor) {
+        this.cursor = cursor;
+    }
+
+    private static <E> EntityDelta<E> createEmptyDelta() {
+        return new EntityDelta<>(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+}
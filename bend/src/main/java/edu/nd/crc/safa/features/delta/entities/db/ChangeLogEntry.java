@@ -0,0 +1,93 @@
+package edu.nd.crc.safa.features.delta.entities.db;
+
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.jdbc.VarcharJdbcType;
+
+/**
+ * Records that an entity of a project changed at some content revision of the project.
+ */
+@Entity
+@Table(name = "change_log")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChangeLogEntry {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @GeneratedValue
+    @Column
+    private UUID id;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+
+    /**
+     * The earliest version affected, or null if all versions of the project are affected.
+     */
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "version_id")
+    private ProjectVersion projectVersion;
+
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
+    @Column(name = "entity", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @JdbcType(VarcharJdbcType.class)
+    private NotificationEntity entity;
+
+    /**
+     * The id of the changed entity, or null if any entity of the kind may have changed.
+     */
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "modification_type")
+    @JdbcTypeCode(SqlTypes.INTEGER)
+    @Enumerated(EnumType.ORDINAL)
+    private ModificationType modificationType;
+
+    public ChangeLogEntry(Project project, ProjectVersion projectVersion, long revision, NotificationEntity entity) {
+        this.project = project;
+        this.projectVersion = projectVersion;
+        this.revision = revision;
+        this.entity = entity;
+    }
+
+    /**
+     * Returns whether the change is visible in given version.
+     *
+     * @param version A version of the project.
+     * @return True if the change was made to the version or an earlier one, or to the whole project.
+     */
+    public boolean affectsVersion(ProjectVersion version) {
+        return projectVersion == null || projectVersion.getOrdinal() <= version.getOrdinal();
+    }
+}
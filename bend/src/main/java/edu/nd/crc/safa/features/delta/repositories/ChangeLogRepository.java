@@ -0,0 +1,31 @@
+package edu.nd.crc.safa.features.delta.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.delta.entities.db.ChangeLogEntry;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeLogRepository extends CrudRepository<ChangeLogEntry, UUID> {
+
+    List<ChangeLogEntry> findByProjectAndRevisionBetweenOrderByRevision(Project project,
+                                                                        long firstRevision,
+                                                                        long lastRevision);
+
+    /**
+     * Deletes the entries of a project up to the given revision.
+     *
+     * @param project  The project whose entries are deleted.
+     * @param revision The last revision deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.project = :project AND c.revision <= :revision")
+    void deleteByProjectUpToRevision(@Param("project") Project project, @Param("revision") long revision);
+}
@@ -0,0 +1,219 @@
+package edu.nd.crc.safa.features.delta.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.services.ArtifactService;
+import edu.nd.crc.safa.features.common.IAppEntityService;
+import edu.nd.crc.safa.features.delta.entities.app.EntityDelta;
+import edu.nd.crc.safa.features.delta.entities.app.ModifiedEntity;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectDelta;
+import edu.nd.crc.safa.features.delta.entities.app.VersionChanges;
+import edu.nd.crc.safa.features.delta.entities.db.ChangeLogEntry;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.delta.repositories.ChangeLogRepository;
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+import edu.nd.crc.safa.features.layout.services.ArtifactPositionService;
+import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.projects.repositories.ProjectRepository;
+import edu.nd.crc.safa.features.rules.services.WarningService;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.services.TraceService;
+import edu.nd.crc.safa.features.users.entities.db.SafaUser;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Responsible for recording the changes made to the contents of projects and returning the changes made to a
+ * version since a position in the log. Each change increments the content revision of its project, which serves
+ * as the position clients synchronize from.
+ */
+@Service
+public class ChangeLogService {
+
+    private final ProjectRepository projectRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final ArtifactService artifactService;
+    private final TraceService traceService;
+    private final ArtifactPositionService artifactPositionService;
+    private final WarningService warningService;
+    /**
+     * The number of revisions kept per project. Clients further behind must retrieve the version again.
+     */
+    private final int maxRevisions;
+
+    public ChangeLogService(ProjectRepository projectRepository,
+                            ChangeLogRepository changeLogRepository,
+                            ArtifactService artifactService,
+                            TraceService traceService,
+                            ArtifactPositionService artifactPositionService,
+                            WarningService warningService,
+                            @Value("${changes.log.max-revisions:1000}") int maxRevisions) {
+        this.projectRepository = projectRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.artifactService = artifactService;
+        this.traceService = traceService;
+        this.artifactPositionService = artifactPositionService;
+        this.warningService = warningService;
+        this.maxRevisions = maxRevisions;
+    }
+
+    /**
+     * Increments the content revision of the changed project and logs the change under the new revision. Runs
+     * within the transaction making the change, so the change and its log entry are committed together.
+     *
+     * @param event The change to the contents of a project.
+     */
+    @EventListener
+    @Transactional
+    public void handleProjectVersionChanged(ProjectVersionChangedEvent event) {
+        Project project = event.getProject();
+        projectRepository.incrementContentRevision(project.getProjectId());
+        long revision = projectRepository.findContentRevision(project.getProjectId());
+
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        if (event.getChanges() == null) {
+            entries.add(new ChangeLogEntry(project, event.getProjectVersion(), revision, event.getEntity()));
+        } else {
+            event.getChanges().forEach((entityId, modificationType) -> {
+                ChangeLogEntry entry =
+                    new ChangeLogEntry(project, event.getProjectVersion(), revision, event.getEntity());
+                entry.setEntityId(entityId);
+                entry.setModificationType(modificationType);
+                entries.add(entry);
+            });
+        }
+        changeLogRepository.saveAll(entries);
+        changeLogRepository.deleteByProjectUpToRevision(project, revision - maxRevisions);
+    }
+
+    /**
+     * Returns the changes made to given version since a revision of its project. Artifacts, trace links, positions,
+     * and warnings are returned only for the entities logged as changed. Changes that are not logged individually,
+     * such as to types, documents, or rules, require the client to retrieve the version again.
+     *
+     * @param user           The user retrieving the changes.
+     * @param projectVersion The version retrieved by the client.
+     * @param cursor         The last revision of the project seen by the client.
+     * @return The changes made since the cursor.
+     */
+    @Transactional(readOnly = true)
+    public VersionChanges getChangesSince(SafaUser user, ProjectVersion projectVersion, long cursor) {
+        long revision = projectRepository.findContentRevision(projectVersion.getProject().getProjectId());
+        VersionChanges changes = new VersionChanges(revision);
+        if (cursor == revision) {
+            return changes;
+        }
+
+        if (cursor > revision) {
+            changes.setReloadRequired(true);
+            return changes;
+        }
+
+        List<ChangeLogEntry> entries = changeLogRepository
+            .findByProjectAndRevisionBetweenOrderByRevision(projectVersion.getProject(), cursor + 1, revision);
+        long nLoggedRevisions = entries.stream().mapToLong(ChangeLogEntry::getRevision).distinct().count();
+        if (nLoggedRevisions < revision - cursor) {
+            changes.setReloadRequired(true);
+            return changes;
+        }
+
+        Map<UUID, ModificationType> artifactChanges = new HashMap<>();
+        Map<UUID, ModificationType> traceChanges = new HashMap<>();
+        Set<UUID> positionChanges = new HashSet<>();
+        Set<UUID> warningChanges = new HashSet<>();
+        for (ChangeLogEntry entry : entries) {
+            if (!entry.affectsVersion(projectVersion)) {
+                continue;
+            }
+            if (entry.getEntityId() == null) {
+                changes.setReloadRequired(true);
+                return changes;
+            }
+            switch (entry.getEntity()) {
+                case ARTIFACTS:
+                    artifactChanges.putIfAbsent(entry.getEntityId(), entry.getModificationType());
+                    break;
+                case TRACES:
+                    traceChanges.putIfAbsent(entry.getEntityId(), entry.getModificationType());
+                    break;
+                case LAYOUT:
+                    positionChanges.add(entry.getEntityId());
+                    break;
+                case WARNINGS:
+                    warningChanges.add(entry.getEntityId());
+                    break;
+                default:
+                    changes.setReloadRequired(true);
+                    return changes;
+            }
+        }
+
+        EntityDelta<ArtifactAppEntity> artifacts =
+            calculateEntityDelta(artifactService, projectVersion, user, artifactChanges);
+        EntityDelta<TraceAppEntity> traces = calculateEntityDelta(traceService, projectVersion, user, traceChanges);
+        changes.setEntities(new ProjectDelta(artifacts, traces));
+        if (!positionChanges.isEmpty()) {
+            Map<UUID, LayoutPosition> positions = new HashMap<>();
+            artifactPositionService.retrieveDocumentLayout(projectVersion, null).forEach((artifactId, position) -> {
+                if (positionChanges.contains(artifactId)) {
+                    positions.put(artifactId, position);
+                }
+            });
+            changes.setLayout(positions);
+        }
+        if (!warningChanges.isEmpty()) {
+            changes.setWarnings(warningService.retrieveWarningsOfArtifacts(projectVersion, warningChanges));
+        }
+        return changes;
+    }
+
+    /**
+     * Retrieves the current state of the changed entities. Entities first added since the cursor are returned as
+     * added, and entities no longer present as removed.
+     *
+     * @param entityService  The service retrieving the entities.
+     * @param projectVersion The version to retrieve the entities in.
+     * @param user           The user retrieving the entities.
+     * @param entityChanges  The id of each changed entity and the first way it changed since the cursor.
+     * @param <E>            The type of entity.
+     * @return The entities added, modified, and removed.
+     */
+    private <E extends IAppEntity> EntityDelta<E> calculateEntityDelta(IAppEntityService<E> entityService,
+                                                                       ProjectVersion projectVersion,
+                                                                       SafaUser user,
+                                                                       Map<UUID, ModificationType> entityChanges) {
+        EntityDelta<E> delta = new EntityDelta<>(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        if (entityChanges.isEmpty()) {
+            return delta;
+        }
+        Set<UUID> present = new HashSet<>();
+        for (E entity : entityService.getAppEntitiesByIds(projectVersion, user,
+            new ArrayList<>(entityChanges.keySet()))) {
+            present.add(entity.getId());
+            if (entityChanges.get(entity.getId()) == ModificationType.ADDED) {
+                delta.getAdded().put(entity.getId(), entity);
+            } else {
+                delta.getModified().put(entity.getId(), new ModifiedEntity<>(null, entity));
+            }
+        }
+        entityChanges.forEach((entityId, modificationType) -> {
+            if (!present.contains(entityId) && modificationType != ModificationType.ADDED) {
+                delta.getRemoved().put(entityId, null);
+            }
+        });
+        return delta;
+    }
+}
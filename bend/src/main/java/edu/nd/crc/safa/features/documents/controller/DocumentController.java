@@ -14,12 +14,14 @@ import edu.nd.crc.safa.features.documents.services.DocumentService;
 import edu.nd.crc.safa.features.layout.entities.app.LayoutManager;
 import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
 import edu.nd.crc.safa.features.notifications.builders.EntityChangeBuilder;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.notifications.services.NotificationService;
 import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -153,6 +155,8 @@ public class DocumentController extends BaseDocumentController {
 
         // Step - Delete document.
         getDocumentRepository().delete(document);
+        getServiceProvider().getEventPublisher().publishEvent(new ProjectVersionChangedEvent(this, project,
+            NotificationEntity.DOCUMENT));
 
         // Step - Notify project users that document has been deleted.
         this.notificationService.broadcastChange(
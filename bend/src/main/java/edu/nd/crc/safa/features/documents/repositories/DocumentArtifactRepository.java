@@ -1,5 +1,6 @@
 package edu.nd.crc.safa.features.documents.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,7 +11,10 @@ import edu.nd.crc.safa.features.documents.entities.db.DocumentArtifact;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -31,4 +35,30 @@ public interface DocumentArtifactRepository extends CrudRepository<DocumentArtif
     List<DocumentArtifact> findByArtifact(Artifact artifact);
 
     List<DocumentArtifact> findByArtifactIn(List<Artifact> artifacts);
+
+    /**
+     * Returns the artifact and document id of each document link of the artifacts in given project.
+     *
+     * @param projectId The id of the project whose document links are returned.
+     * @return Tuples containing the artifactId and documentId of each link.
+     */
+    @Query(value =
+        "SELECT da.artifact.artifactId AS artifactId, da.document.documentId AS documentId "
+            + "FROM DocumentArtifact da "
+            + "WHERE da.artifact.projectId = :projectId"
+    )
+    List<Tuple> findDocumentIdsByProjectId(@Param("projectId") UUID projectId);
+
+    /**
+     * Returns the artifact and document id of each document link of given artifacts.
+     *
+     * @param artifactIds The ids of the artifacts whose document links are returned.
+     * @return Tuples containing the artifactId and documentId of each link.
+     */
+    @Query(value =
+        "SELECT da.artifact.artifactId AS artifactId, da.document.documentId AS documentId "
+            + "FROM DocumentArtifact da "
+            + "WHERE da.artifact.artifactId IN :artifactIds"
+    )
+    List<Tuple> findDocumentIdsByArtifactIds(@Param("artifactIds") Collection<UUID> artifactIds);
 }
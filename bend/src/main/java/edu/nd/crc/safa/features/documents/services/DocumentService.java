@@ -19,13 +19,16 @@ import edu.nd.crc.safa.features.documents.repositories.DocumentRepository;
 import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
 import edu.nd.crc.safa.features.layout.services.ArtifactPositionService;
 import edu.nd.crc.safa.features.notifications.builders.EntityChangeBuilder;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.notifications.services.NotificationService;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.app.SafaItemNotFoundError;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -42,6 +45,7 @@ public class DocumentService implements IAppEntityService<DocumentAppEntity> {
     private final ArtifactPositionService artifactPositionService;
     private final ArtifactService artifactService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Returns list of documents in given project
@@ -177,6 +181,9 @@ public class DocumentService implements IAppEntityService<DocumentAppEntity> {
         documentArtifactIds.addAll(removedArtifactIds); // Artifacts updates with new relationships to documents.
         List<ArtifactAppEntity> documentArtifacts = artifactService
             .getAppEntitiesByIds(projectVersion, documentAppEntity.getArtifactIds());
+        // Links between documents and artifacts are shared by all versions
+        this.eventPublisher.publishEvent(new ProjectVersionChangedEvent(this, projectVersion.getProject(),
+            NotificationEntity.DOCUMENT));
         this.notificationService.broadcastChange(
             EntityChangeBuilder
                 .create(user, projectVersion)
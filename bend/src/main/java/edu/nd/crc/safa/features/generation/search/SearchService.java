@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
@@ -19,6 +20,7 @@ import edu.nd.crc.safa.features.generation.tgen.TGenResponse;
 import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
 import edu.nd.crc.safa.features.projects.graph.ArtifactNode;
 import edu.nd.crc.safa.features.projects.graph.ProjectGraph;
+import edu.nd.crc.safa.features.projects.services.ProjectGraphCache;
 import edu.nd.crc.safa.utilities.ProjectDataStructures;
 
 import lombok.AllArgsConstructor;
@@ -35,6 +37,7 @@ public class SearchService {
     private static final String ARTIFACT_KEY = "artifacts";
     private static final double THRESHOLD = 0.5;
     private final GenApi genApi;
+    private final ProjectGraphCache projectGraphCache;
 
     /**
      * Searches for artifacts in search types that match the given prompt.
@@ -146,14 +149,17 @@ public class SearchService {
 
     private List<UUID> calculateRelatedTypes(ProjectAppEntity projectAppEntity, Set<UUID> selectedArtifactIds,
                                              Set<String> relatedTypes) {
-        ProjectGraph projectGraph = new ProjectGraph(projectAppEntity);
-        Set<UUID> relatedArtifacts = new HashSet<>();
-        for (UUID selectedArtifactId : selectedArtifactIds) {
-            ArtifactNode artifactNode = projectGraph.getArtifactNode(selectedArtifactId);
-            List<UUID> neighborIds = artifactNode.getNeighborhoodWithTypes(relatedTypes);
-            relatedArtifacts.addAll(neighborIds);
-        }
-        return new ArrayList<>(relatedArtifacts);
+        Function<ProjectGraph, List<UUID>> query = projectGraph -> {
+            Set<UUID> relatedArtifacts = new HashSet<>();
+            for (UUID selectedArtifactId : selectedArtifactIds) {
+                ArtifactNode artifactNode = projectGraph.getArtifactNode(selectedArtifactId);
+                List<UUID> neighborIds = artifactNode.getNeighborhoodWithTypes(relatedTypes);
+                relatedArtifacts.addAll(neighborIds);
+            }
+            return new ArrayList<>(relatedArtifacts);
+        };
+        return projectGraphCache.queryIfCached(projectAppEntity.getProjectVersion(), query)
+            .orElseGet(() -> query.apply(new ProjectGraph(projectAppEntity)));
     }
 }
 
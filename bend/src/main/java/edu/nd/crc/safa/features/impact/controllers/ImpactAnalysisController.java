@@ -0,0 +1,84 @@
+package edu.nd.crc.safa.features.impact.controllers;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.authentication.builders.ResourceBuilder;
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.common.BaseController;
+import edu.nd.crc.safa.features.common.ServiceProvider;
+import edu.nd.crc.safa.features.impact.entities.ImpactQuery;
+import edu.nd.crc.safa.features.impact.entities.TraceIntegrityAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathQuery;
+import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
+import edu.nd.crc.safa.features.users.entities.db.SafaUser;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Provides endpoints for analyzing the trace graph of a project version on the server.
+ */
+@RestController
+public class ImpactAnalysisController extends BaseController {
+
+    public ImpactAnalysisController(ResourceBuilder resourceBuilder, ServiceProvider serviceProvider) {
+        super(resourceBuilder, serviceProvider);
+    }
+
+    /**
+     * Returns the artifacts transitively traced to or from the given artifacts.
+     *
+     * @param versionId The id of the version to query.
+     * @param query     The starting artifacts, direction, and filters.
+     * @return The ids of the impacted artifacts, ordered by distance from the starting artifacts.
+     * @throws SafaError If the user cannot view the project or an artifact is not in the version.
+     */
+    @PostMapping(AppRoutes.Impact.FIND_IMPACTED_ARTIFACTS)
+    public List<UUID> findImpactedArtifacts(@PathVariable UUID versionId,
+                                            @RequestBody @Valid ImpactQuery query) throws SafaError {
+        ProjectVersion projectVersion = getVersion(versionId);
+        return getServiceProvider().getImpactAnalysisService().findImpactedArtifacts(projectVersion, query);
+    }
+
+    /**
+     * Returns the shortest chain of trace links between two artifacts.
+     *
+     * @param versionId The id of the version to query.
+     * @param query     The artifacts to connect and the links to follow.
+     * @return The path between the artifacts.
+     * @throws SafaError If the user cannot view the project or an artifact is not in the version.
+     */
+    @PostMapping(AppRoutes.Impact.FIND_TRACE_PATH)
+    public TracePathAppEntity findTracePath(@PathVariable UUID versionId,
+                                            @RequestBody @Valid TracePathQuery query) throws SafaError {
+        ProjectVersion projectVersion = getVersion(versionId);
+        return getServiceProvider().getImpactAnalysisService().findShortestPath(projectVersion, query);
+    }
+
+    /**
+     * Returns the artifacts without trace links and the trace links without artifacts in the version.
+     *
+     * @param versionId The id of the version to check.
+     * @return The orphan artifacts and dangling trace links.
+     * @throws SafaError If the user cannot view the project.
+     */
+    @GetMapping(AppRoutes.Impact.CHECK_TRACE_INTEGRITY)
+    public TraceIntegrityAppEntity checkTraceIntegrity(@PathVariable UUID versionId) throws SafaError {
+        ProjectVersion projectVersion = getVersion(versionId);
+        return getServiceProvider().getImpactAnalysisService().checkIntegrity(projectVersion);
+    }
+
+    private ProjectVersion getVersion(UUID versionId) {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        return getResourceBuilder().fetchVersion(versionId)
+            .withPermission(ProjectPermission.VIEW, user).get();
+    }
+}
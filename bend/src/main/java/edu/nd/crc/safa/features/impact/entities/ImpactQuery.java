@@ -0,0 +1,36 @@
+package edu.nd.crc.safa.features.impact.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Selects the artifacts transitively traced to or from a set of artifacts.
+ */
+@Data
+public class ImpactQuery {
+    /**
+     * The artifacts whose impact is calculated.
+     */
+    @NotEmpty
+    private List<UUID> artifactIds = new ArrayList<>();
+    /**
+     * The direction trace links are followed in.
+     */
+    @NotNull
+    private TraceDirection direction = TraceDirection.DOWNSTREAM;
+    /**
+     * The types of the artifacts returned. All types are returned if empty.
+     */
+    private List<String> artifactTypes = new ArrayList<>();
+    /**
+     * The approval statuses of the trace links followed. Approved and unreviewed links are followed if empty.
+     */
+    private List<ApprovalStatus> approvalStatuses = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package edu.nd.crc.safa.features.impact.entities;
+
+/**
+ * The direction trace links are followed in. Trace links point from a child source artifact to a parent target.
+ */
+public enum TraceDirection {
+    /**
+     * From sources to targets, towards the artifacts an artifact traces to.
+     */
+    UPSTREAM,
+    /**
+     * From targets to sources, towards the artifacts tracing to an artifact.
+     */
+    DOWNSTREAM
+}
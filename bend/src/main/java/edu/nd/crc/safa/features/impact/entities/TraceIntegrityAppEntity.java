@@ -0,0 +1,25 @@
+package edu.nd.crc.safa.features.impact.entities;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The gaps in the trace graph of a version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceIntegrityAppEntity {
+    /**
+     * Artifacts without any approved or unreviewed trace links.
+     */
+    private List<UUID> orphanArtifactIds;
+    /**
+     * Visible trace links whose source or target is not in the version.
+     */
+    private List<UUID> danglingTraceLinkIds;
+}
@@ -0,0 +1,28 @@
+package edu.nd.crc.safa.features.impact.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A chain of trace links between two artifacts. Links may be followed in either direction.
+ */
+@Data
+@NoArgsConstructor
+public class TracePathAppEntity {
+    /**
+     * Whether the artifacts are connected.
+     */
+    private boolean found;
+    /**
+     * The artifacts along the path, starting with the source and ending with the target.
+     */
+    private List<UUID> artifactIds = new ArrayList<>();
+    /**
+     * The trace link between each consecutive pair of artifacts.
+     */
+    private List<UUID> traceLinkIds = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package edu.nd.crc.safa.features.impact.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Selects the shortest chain of trace links between two artifacts.
+ */
+@Data
+public class TracePathQuery {
+    @NotNull
+    private UUID sourceId;
+    @NotNull
+    private UUID targetId;
+    /**
+     * The approval statuses of the trace links followed. Approved and unreviewed links are followed if empty.
+     */
+    private List<ApprovalStatus> approvalStatuses = new ArrayList<>();
+}
@@ -0,0 +1,272 @@
+package edu.nd.crc.safa.features.impact.graph;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.Sized;
+import edu.nd.crc.safa.features.impact.entities.TraceDirection;
+import edu.nd.crc.safa.features.impact.entities.TracePathAppEntity;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+
+/**
+ * Adjacency index over the artifacts and visible trace links of a version, used to answer impact analysis
+ * queries without loading the project. Artifacts and trace links are given dense int ids and each artifact
+ * holds the ids of the links leading to its parents and children, along with the approval status of each link,
+ * so queries only touch int arrays. The index is immutable and may be shared between requests.
+ */
+public class TraceGraphIndex implements Sized {
+    private static final int NONE = -1;
+
+    private final UUID[] artifactIds;
+    private final Map<UUID, Integer> denseIds = new HashMap<>();
+    /**
+     * The lower-cased type name of each artifact.
+     */
+    private final String[] artifactTypes;
+    private final UUID[] traceLinkIds;
+    private final int[] traceSources;
+    private final int[] traceTargets;
+    private final ApprovalStatus[] traceApprovalStatuses;
+    /**
+     * The links whose target is each artifact, which lead downstream to their sources.
+     */
+    private final int[][] childTraces;
+    /**
+     * The links whose source is each artifact, which lead upstream to their targets.
+     */
+    private final int[][] parentTraces;
+    /**
+     * Visible links whose source or target is not an artifact in the version.
+     */
+    private final List<UUID> danglingTraceLinkIds = new ArrayList<>();
+
+    /**
+     * Indexes the artifacts and their visible trace links.
+     *
+     * @param artifacts The artifacts in the version.
+     * @param traces    The trace links active in the version, including hidden links and links to artifacts
+     *                  outside the version, which are recorded as dangling.
+     */
+    public TraceGraphIndex(List<ArtifactAppEntity> artifacts, List<TraceAppEntity> traces) {
+        this.artifactIds = new UUID[artifacts.size()];
+        this.artifactTypes = new String[artifacts.size()];
+        for (int i = 0; i < artifacts.size(); i++) {
+            ArtifactAppEntity artifact = artifacts.get(i);
+            artifactIds[i] = artifact.getId();
+            artifactTypes[i] = artifact.getType() == null ? "" : artifact.getType().toLowerCase(Locale.ROOT);
+            denseIds.put(artifact.getId(), i);
+        }
+
+        List<TraceAppEntity> edges = new ArrayList<>();
+        for (TraceAppEntity trace : traces) {
+            if (!trace.isVisible()) {
+                continue;
+            }
+            if (denseIds.containsKey(trace.getSourceId()) && denseIds.containsKey(trace.getTargetId())) {
+                edges.add(trace);
+            } else {
+                danglingTraceLinkIds.add(trace.getId());
+            }
+        }
+
+        this.traceLinkIds = new UUID[edges.size()];
+        this.traceSources = new int[edges.size()];
+        this.traceTargets = new int[edges.size()];
+        this.traceApprovalStatuses = new ApprovalStatus[edges.size()];
+        int[] nChildTraces = new int[artifactIds.length];
+        int[] nParentTraces = new int[artifactIds.length];
+        for (int i = 0; i < edges.size(); i++) {
+            TraceAppEntity trace = edges.get(i);
+            traceLinkIds[i] = trace.getId();
+            traceSources[i] = denseIds.get(trace.getSourceId());
+            traceTargets[i] = denseIds.get(trace.getTargetId());
+            traceApprovalStatuses[i] = trace.getApprovalStatus() == null
+                ? ApprovalStatus.APPROVED : trace.getApprovalStatus();
+            nChildTraces[traceTargets[i]]++;
+            nParentTraces[traceSources[i]]++;
+        }
+
+        this.childTraces = new int[artifactIds.length][];
+        this.parentTraces = new int[artifactIds.length][];
+        for (int artifact = 0; artifact < artifactIds.length; artifact++) {
+            childTraces[artifact] = new int[nChildTraces[artifact]];
+            parentTraces[artifact] = new int[nParentTraces[artifact]];
+        }
+        for (int trace = edges.size() - 1; trace >= 0; trace--) {
+            childTraces[traceTargets[trace]][--nChildTraces[traceTargets[trace]]] = trace;
+            parentTraces[traceSources[trace]][--nParentTraces[traceSources[trace]]] = trace;
+        }
+    }
+
+    /**
+     * @return The number of artifacts and trace links indexed, used to bound the size of caches.
+     */
+    @Override
+    public int getSize() {
+        return artifactIds.length + traceLinkIds.length;
+    }
+
+    /**
+     * @param artifactId The id of an artifact.
+     * @return Whether the artifact is in the index.
+     */
+    public boolean contains(UUID artifactId) {
+        return denseIds.containsKey(artifactId);
+    }
+
+    /**
+     * Finds the artifacts transitively reachable from the given artifacts by following trace links with
+     * one of the given approval statuses. Artifacts of other types are traversed but not returned.
+     *
+     * @param startIds         The ids of the artifacts to start from, which are not returned.
+     * @param direction        The direction trace links are followed in.
+     * @param artifactTypes    The types of artifacts returned, or empty for all types.
+     * @param approvalStatuses The approval statuses of the trace links followed.
+     * @return The ids of the reached artifacts, ordered by distance from the starting artifacts.
+     */
+    public List<UUID> findReachable(Collection<UUID> startIds,
+                                    TraceDirection direction,
+                                    Collection<String> artifactTypes,
+                                    Set<ApprovalStatus> approvalStatuses) {
+        boolean[] followed = toStatusFilter(approvalStatuses);
+        Set<String> types = new HashSet<>();
+        artifactTypes.forEach(type -> types.add(type.toLowerCase(Locale.ROOT)));
+        int[][] traces = direction == TraceDirection.DOWNSTREAM ? childTraces : parentTraces;
+        int[] ends = direction == TraceDirection.DOWNSTREAM ? traceSources : traceTargets;
+
+        BitSet visited = new BitSet(artifactIds.length);
+        int[] queue = new int[artifactIds.length];
+        int head = 0;
+        int tail = 0;
+        for (UUID startId : startIds) {
+            int start = denseIds.get(startId);
+            if (!visited.get(start)) {
+                visited.set(start);
+                queue[tail++] = start;
+            }
+        }
+        int nStarts = tail;
+
+        while (head < tail) {
+            int artifact = queue[head++];
+            for (int trace : traces[artifact]) {
+                int next = ends[trace];
+                if (followed[traceApprovalStatuses[trace].ordinal()] && !visited.get(next)) {
+                    visited.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        List<UUID> reached = new ArrayList<>();
+        for (int i = nStarts; i < tail; i++) {
+            if (types.isEmpty() || types.contains(artifactTypes[queue[i]])) {
+                reached.add(artifactIds[queue[i]]);
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Finds the shortest chain of trace links between two artifacts, following links in either direction.
+     *
+     * @param sourceId         The id of the artifact the path starts at.
+     * @param targetId         The id of the artifact the path ends at.
+     * @param approvalStatuses The approval statuses of the trace links followed.
+     * @return The artifacts and trace links along the path in order, or an empty path if none was found.
+     */
+    public TracePathAppEntity findShortestPath(UUID sourceId, UUID targetId, Set<ApprovalStatus> approvalStatuses) {
+        boolean[] followed = toStatusFilter(approvalStatuses);
+        int source = denseIds.get(sourceId);
+        int target = denseIds.get(targetId);
+        int[] previousTrace = new int[artifactIds.length];
+        BitSet visited = new BitSet(artifactIds.length);
+        int[] queue = new int[artifactIds.length];
+        int head = 0;
+        int tail = 0;
+        visited.set(source);
+        previousTrace[source] = NONE;
+        queue[tail++] = source;
+
+        while (head < tail && !visited.get(target)) {
+            int artifact = queue[head++];
+            for (int[] traces : new int[][]{childTraces[artifact], parentTraces[artifact]}) {
+                for (int trace : traces) {
+                    int next = traceSources[trace] == artifact ? traceTargets[trace] : traceSources[trace];
+                    if (followed[traceApprovalStatuses[trace].ordinal()] && !visited.get(next)) {
+                        visited.set(next);
+                        previousTrace[next] = trace;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        TracePathAppEntity path = new TracePathAppEntity();
+        if (!visited.get(target)) {
+            return path;
+        }
+
+        int artifact = target;
+        path.getArtifactIds().add(artifactIds[artifact]);
+        while (previousTrace[artifact] != NONE) {
+            int trace = previousTrace[artifact];
+            artifact = traceSources[trace] == artifact ? traceTargets[trace] : traceSources[trace];
+            path.getTraceLinkIds().add(traceLinkIds[trace]);
+            path.getArtifactIds().add(artifactIds[artifact]);
+        }
+        Collections.reverse(path.getArtifactIds());
+        Collections.reverse(path.getTraceLinkIds());
+        path.setFound(true);
+        return path;
+    }
+
+    /**
+     * Finds the artifacts without any trace links with one of the given approval statuses.
+     *
+     * @param approvalStatuses The approval statuses of the trace links considered.
+     * @return The ids of the artifacts without trace links.
+     */
+    public List<UUID> findOrphans(Set<ApprovalStatus> approvalStatuses) {
+        boolean[] followed = toStatusFilter(approvalStatuses);
+        List<UUID> orphans = new ArrayList<>();
+        for (int artifact = 0; artifact < artifactIds.length; artifact++) {
+            if (!hasTrace(childTraces[artifact], followed) && !hasTrace(parentTraces[artifact], followed)) {
+                orphans.add(artifactIds[artifact]);
+            }
+        }
+        return orphans;
+    }
+
+    /**
+     * @return The ids of the visible trace links whose source or target is not an artifact in the version.
+     */
+    public List<UUID> getDanglingTraceLinkIds() {
+        return Collections.unmodifiableList(danglingTraceLinkIds);
+    }
+
+    private boolean hasTrace(int[] traces, boolean[] followed) {
+        for (int trace : traces) {
+            if (followed[traceApprovalStatuses[trace].ordinal()]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean[] toStatusFilter(Set<ApprovalStatus> approvalStatuses) {
+        boolean[] followed = new boolean[ApprovalStatus.values().length];
+        approvalStatuses.forEach(status -> followed[status.ordinal()] = true);
+        return followed;
+    }
+}
@@ -0,0 +1,112 @@
+package edu.nd.crc.safa.features.impact.services;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.services.ArtifactService;
+import edu.nd.crc.safa.features.impact.entities.ImpactQuery;
+import edu.nd.crc.safa.features.impact.entities.TraceIntegrityAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathQuery;
+import edu.nd.crc.safa.features.impact.graph.TraceGraphIndex;
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.services.TraceService;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers impact analysis queries over the trace graph of a version. The graph of each version is indexed once
+ * and reused across requests until the version changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImpactAnalysisService {
+    /**
+     * The links followed when no approval statuses are given. Declined links are not displayed.
+     */
+    private static final Set<ApprovalStatus> DEFAULT_APPROVAL_STATUSES =
+        EnumSet.of(ApprovalStatus.APPROVED, ApprovalStatus.UNREVIEWED);
+
+    private final ArtifactService artifactService;
+    private final TraceService traceService;
+    private final TraceGraphIndexCache traceGraphIndexCache;
+
+    /**
+     * Finds the artifacts transitively traced to or from the given artifacts.
+     *
+     * @param projectVersion The version to query.
+     * @param query          The starting artifacts, direction, and filters.
+     * @return The ids of the impacted artifacts, ordered by distance from the starting artifacts.
+     * @throws SafaError If a starting artifact is not in the version.
+     */
+    public List<UUID> findImpactedArtifacts(ProjectVersion projectVersion, ImpactQuery query) {
+        TraceGraphIndex index = getIndex(projectVersion);
+        assertArtifactsInVersion(index, query.getArtifactIds());
+        return index.findReachable(query.getArtifactIds(), query.getDirection(), query.getArtifactTypes(),
+            toApprovalStatuses(query.getApprovalStatuses()));
+    }
+
+    /**
+     * Finds the shortest chain of trace links between two artifacts.
+     *
+     * @param projectVersion The version to query.
+     * @param query          The artifacts to connect and the links to follow.
+     * @return The path between the artifacts, which is empty if they are not connected.
+     * @throws SafaError If either artifact is not in the version.
+     */
+    public TracePathAppEntity findShortestPath(ProjectVersion projectVersion, TracePathQuery query) {
+        TraceGraphIndex index = getIndex(projectVersion);
+        assertArtifactsInVersion(index, List.of(query.getSourceId(), query.getTargetId()));
+        return index.findShortestPath(query.getSourceId(), query.getTargetId(),
+            toApprovalStatuses(query.getApprovalStatuses()));
+    }
+
+    /**
+     * Finds the artifacts without trace links and the trace links without artifacts in the version.
+     *
+     * @param projectVersion The version to check.
+     * @return The orphan artifacts and dangling trace links.
+     */
+    public TraceIntegrityAppEntity checkIntegrity(ProjectVersion projectVersion) {
+        TraceGraphIndex index = getIndex(projectVersion);
+        return new TraceIntegrityAppEntity(index.findOrphans(DEFAULT_APPROVAL_STATUSES),
+            index.getDanglingTraceLinkIds());
+    }
+
+    /**
+     * Returns the trace graph index of the version, building and caching it if it is not cached.
+     *
+     * @param projectVersion The version whose index is returned.
+     * @return The index of the artifacts and trace links in the version.
+     */
+    public TraceGraphIndex getIndex(ProjectVersion projectVersion) {
+        TraceGraphIndex index = traceGraphIndexCache.get(projectVersion);
+        if (index != null) {
+            return index;
+        }
+        long generation = traceGraphIndexCache.getGeneration(projectVersion);
+        index = new TraceGraphIndex(artifactService.getAppEntities(projectVersion),
+            traceService.getAllActiveTraces(projectVersion));
+        traceGraphIndexCache.put(projectVersion, generation, index);
+        return index;
+    }
+
+    private void assertArtifactsInVersion(TraceGraphIndex index, Collection<UUID> artifactIds) {
+        for (UUID artifactId : artifactIds) {
+            if (!index.contains(artifactId)) {
+                throw new SafaError("Artifact %s is not in this version.", artifactId);
+            }
+        }
+    }
+
+    private Set<ApprovalStatus> toApprovalStatuses(List<ApprovalStatus> approvalStatuses) {
+        return approvalStatuses == null || approvalStatuses.isEmpty()
+            ? DEFAULT_APPROVAL_STATUSES : EnumSet.copyOf(approvalStatuses);
+    }
+}
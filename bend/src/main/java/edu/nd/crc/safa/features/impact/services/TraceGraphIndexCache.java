@@ -0,0 +1,23 @@
+package edu.nd.crc.safa.features.impact.services;
+
+import java.util.Set;
+
+import edu.nd.crc.safa.features.impact.graph.TraceGraphIndex;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.versions.services.VersionKeyedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the trace graph index of recently queried project versions. The cache is bounded by the total number
+ * of artifacts and trace links indexed.
+ */
+@Service
+public class TraceGraphIndexCache extends VersionKeyedCache<TraceGraphIndex> {
+    public TraceGraphIndexCache(@Value("${impact.cache.enabled:true}") boolean enabled,
+                                @Value("${impact.cache.max-entities:1000000}") int maxSize) {
+        super(enabled, maxSize, Set.of(NotificationEntity.DOCUMENT, NotificationEntity.LAYOUT,
+            NotificationEntity.WARNINGS));
+    }
+}
@@ -10,5 +10,6 @@ import lombok.NoArgsConstructor;
 public class LayoutSettings {
     public static final int ARTIFACT_WIDTH = 225;
     public static final int ARTIFACT_HEIGHT = 200;
+    public static final int COMPONENT_SPACING = 100;
     public static final String LAYOUT_ALGORITHM = "org.eclipse.elk.mrtree";
 }
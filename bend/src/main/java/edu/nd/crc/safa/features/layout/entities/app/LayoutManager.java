@@ -1,22 +1,31 @@
 package edu.nd.crc.safa.features.layout.entities.app;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.commits.entities.app.AbstractProjectCommit;
 import edu.nd.crc.safa.features.common.ProjectEntities;
 import edu.nd.crc.safa.features.common.ServiceProvider;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectChange;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.documents.entities.db.Document;
 import edu.nd.crc.safa.features.layout.entities.db.ArtifactPosition;
+import edu.nd.crc.safa.features.layout.generator.ComponentLayoutGenerator;
 import edu.nd.crc.safa.features.layout.generator.KlayLayoutGenerator;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 
 /**
  * Responsible for managing common layout on a project
@@ -63,21 +72,36 @@ public class LayoutManager {
      * - Generates layout according to its entities
      * - Persists layout for document
      * - Notify all users of project that all layouts have been updated
+     * Layouts are generated concurrently and persisted in the order of the documents.
      */
     public void generateLayoutForProject() {
-        generateDefaultDocumentLayout();
-        this.serviceProvider
-            .getDocumentRepository()
-            .findByProject(this.project)
-            .forEach(this::generateDocumentLayout);
+        List<Document> documents = new ArrayList<>();
+        documents.add(null);
+        documents.addAll(this.serviceProvider.getDocumentRepository().findByProject(this.project));
+
+        // Step - Generate layout of default document followed by each document
+        List<Supplier<Map<UUID, LayoutPosition>>> jobs = new ArrayList<>();
+        for (Document document : documents) {
+            ProjectEntities entities = document == null
+                ? this.projectEntities
+                : this.projectEntities.getEntitiesInDocument(document);
+            jobs.add(() -> generateLayout(entities));
+        }
+        List<Map<UUID, LayoutPosition>> layouts = this.serviceProvider.getLayoutJobRunner().runAll(jobs);
+
+        // Step - Persist layouts
+        for (int i = 0; i < documents.size(); i++) {
+            createOrUpdateArtifactPositions(documents.get(i), layouts.get(i));
+        }
     }
 
     /**
      * 1. Generates list of affected documents
      * 2. For each document:
-     * - generate new layout
-     * - persist layout
+     * - generate new layout for the components containing changed artifacts
+     * - persist layout of those components
      * - notify users of document that new layout exists
+     * The components of all documents are laid out concurrently.
      *
      * @param projectCommitDefinition The changes to the artifact tree to calculate layout changes.
      */
@@ -86,17 +110,38 @@ public class LayoutManager {
         List<ArtifactAppEntity> affectedArtifacts = new ArrayList<>();
         affectedArtifacts.addAll(projectCommitDefinition.getArtifacts().getAdded());
         affectedArtifacts.addAll(projectCommitDefinition.getArtifacts().getRemoved());
+        Set<UUID> changedArtifactIds = getChangedArtifactIds(affectedArtifacts, projectCommitDefinition.getTraces());
 
-        // Step - Generate affected documents
-        List<Document> affectedDocuments = retrieveAffectedDocuments(affectedArtifacts);
+        // Step - Generate affected documents, followed by default document
+        List<Document> documents = new ArrayList<>(retrieveAffectedDocuments(affectedArtifacts));
+        documents.add(null);
 
-        // Step - Generate layout for those documents
-        for (Document affectedDocument : affectedDocuments) {
-            generateDocumentLayout(affectedDocument);
+        // Step - Find components to lay out in each document
+        List<ComponentLayoutGenerator> generators = new ArrayList<>();
+        List<Integer> jobCounts = new ArrayList<>();
+        List<Supplier<Map<UUID, LayoutPosition>>> jobs = new ArrayList<>();
+        for (Document document : documents) {
+            ProjectEntities entities = document == null
+                ? this.projectEntities
+                : this.projectEntities.getEntitiesInDocument(document);
+            ComponentLayoutGenerator generator = createComponentLayoutGenerator(document, entities, changedArtifactIds);
+            List<Supplier<Map<UUID, LayoutPosition>>> documentJobs = generator.getLayoutJobs();
+            generators.add(generator);
+            jobCounts.add(documentJobs.size());
+            jobs.addAll(documentJobs);
         }
 
-        // Step - Generate layout for default document
-        generateDefaultDocumentLayout();
+        // Step - Generate layout for those components
+        List<Map<UUID, LayoutPosition>> jobLayouts = this.serviceProvider.getLayoutJobRunner().runAll(jobs);
+
+        // Step - Place components and persist layout of each document
+        int start = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            ComponentLayoutGenerator generator = generators.get(i);
+            int end = start + jobCounts.get(i);
+            createOrUpdateArtifactPositions(documents.get(i), generator.placeLayouts(jobLayouts.subList(start, end)));
+            start = end;
+        }
     }
 
     /**
@@ -129,6 +174,41 @@ public class LayoutManager {
         return layout;
     }
 
+    /**
+     * Finds the components of a document containing changed artifacts, which are placed next to the unchanged
+     * components at their persisted positions.
+     *
+     * @param document           The document to update, or null for the default document.
+     * @param entities           The artifacts and trace links in the document.
+     * @param changedArtifactIds The artifacts whose component needs a new layout.
+     * @return Generator of the layout of the changed components.
+     */
+    private ComponentLayoutGenerator createComponentLayoutGenerator(Document document,
+                                                                    ProjectEntities entities,
+                                                                    Set<UUID> changedArtifactIds) {
+        UUID documentId = document == null ? null : document.getDocumentId();
+        Map<UUID, LayoutPosition> previousLayout = this.serviceProvider
+            .getArtifactPositionService()
+            .retrieveDocumentLayout(projectVersion, documentId);
+        return new ComponentLayoutGenerator(entities.getArtifacts(), entities.getTraces(), previousLayout,
+            changedArtifactIds);
+    }
+
+    private Set<UUID> getChangedArtifactIds(List<ArtifactAppEntity> affectedArtifacts,
+                                            ProjectChange<TraceAppEntity> traceChanges) {
+        Set<UUID> changedArtifactIds = new HashSet<>();
+        affectedArtifacts.forEach(artifact -> changedArtifactIds.add(artifact.getId()));
+        List<TraceAppEntity> changedTraces = new ArrayList<>();
+        changedTraces.addAll(traceChanges.getAdded());
+        changedTraces.addAll(traceChanges.getModified());
+        changedTraces.addAll(traceChanges.getRemoved());
+        for (TraceAppEntity trace : changedTraces) {
+            changedArtifactIds.add(trace.getSourceId());
+            changedArtifactIds.add(trace.getTargetId());
+        }
+        return changedArtifactIds;
+    }
+
     private List<Document> retrieveAffectedDocuments(List<ArtifactAppEntity> affectedArtifacts) {
         List<UUID> affectedDocumentIds = new ArrayList<>();
         List<Document> affectedDocuments = new ArrayList<>();
@@ -152,6 +232,15 @@ public class LayoutManager {
         for (Map.Entry<UUID, LayoutPosition> artifact2pos : layout.entrySet()) {
             createOrUpdateArtifactPosition(document, artifact2pos);
         }
+
+        // Step - Positions may be inherited by other versions
+        if (document == null && !layout.isEmpty()) {
+            Map<UUID, ModificationType> changedPositions = new HashMap<>();
+            layout.keySet().forEach(artifactId -> changedPositions.put(artifactId, ModificationType.MODIFIED));
+            this.serviceProvider.getEventPublisher()
+                .publishEvent(new ProjectVersionChangedEvent(this, projectVersion.getProject(),
+                    NotificationEntity.LAYOUT, changedPositions));
+        }
     }
 
     private void createOrUpdateArtifactPosition(Document document,
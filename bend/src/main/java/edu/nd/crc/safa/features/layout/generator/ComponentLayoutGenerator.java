@@ -0,0 +1,261 @@
+package edu.nd.crc.safa.features.layout.generator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.layout.LayoutSettings;
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+
+import lombok.Getter;
+
+/**
+ * Responsible for updating a layout by re-laying out only the connected components containing changed artifacts.
+ * Components are connected by the same visible trace links used to create the elk graph. Each re-laid out
+ * component keeps the top left corner of its previous bounding box, unless it would then overlap another
+ * component, in which case it is placed to the right of all other components. Components are laid out by
+ * independent jobs, which are then placed in order.
+ */
+public class ComponentLayoutGenerator {
+    private final List<ArtifactAppEntity> artifacts;
+    private final List<TraceAppEntity> traces;
+    private final Map<UUID, LayoutPosition> previousLayout;
+    /**
+     * Artifacts and trace links in each connected component, in order of their first artifact.
+     */
+    @Getter
+    private final List<ProjectEntities> components;
+    /**
+     * The components needing a new layout, in order.
+     */
+    private final List<ProjectEntities> changedComponents = new ArrayList<>();
+    /**
+     * The area covered by each component keeping its layout.
+     */
+    private final List<Box> unchangedBoxes = new ArrayList<>();
+
+    /**
+     * @param artifacts          The artifacts to lay out.
+     * @param traces             The trace links between the artifacts.
+     * @param previousLayout     The persisted position of each artifact.
+     * @param changedArtifactIds The artifacts whose component needs a new layout. Components containing an
+     *                           artifact without a previous position are also laid out again.
+     */
+    public ComponentLayoutGenerator(List<ArtifactAppEntity> artifacts,
+                                    List<TraceAppEntity> traces,
+                                    Map<UUID, LayoutPosition> previousLayout,
+                                    Set<UUID> changedArtifactIds) {
+        this.artifacts = artifacts;
+        this.traces = traces;
+        this.previousLayout = previousLayout;
+        this.components = createComponents(artifacts, traces);
+        for (ProjectEntities component : components) {
+            if (isChanged(component, previousLayout, changedArtifactIds)) {
+                changedComponents.add(component);
+            } else {
+                unchangedBoxes.add(Box.around(component, previousLayout));
+            }
+        }
+    }
+
+    /**
+     * Re-lays out the changed components on the calling thread.
+     *
+     * @return The new position of each artifact in a re-laid out component.
+     */
+    public Map<UUID, LayoutPosition> layoutChangedComponents() {
+        List<Map<UUID, LayoutPosition>> jobLayouts = new ArrayList<>();
+        getLayoutJobs().forEach(job -> jobLayouts.add(job.get()));
+        return placeLayouts(jobLayouts);
+    }
+
+    /**
+     * Returns the jobs laying out the changed components. Each job creates its own elk graph, so jobs may run
+     * concurrently. If every component needs to be laid out, a single job lays out the whole graph at once.
+     *
+     * @return The layout jobs, whose results are passed to {@link #placeLayouts(List)} in the same order.
+     */
+    public List<Supplier<Map<UUID, LayoutPosition>>> getLayoutJobs() {
+        List<Supplier<Map<UUID, LayoutPosition>>> jobs = new ArrayList<>();
+        if (changedComponents.isEmpty()) {
+            return jobs;
+        }
+        if (unchangedBoxes.isEmpty()) {
+            jobs.add(() -> new KlayLayoutGenerator(artifacts, traces).layout());
+            return jobs;
+        }
+        for (ProjectEntities component : changedComponents) {
+            jobs.add(() -> new KlayLayoutGenerator(component.getArtifacts(), component.getTraces()).layout());
+        }
+        return jobs;
+    }
+
+    /**
+     * Places the layouts of the changed components next to the unchanged components.
+     *
+     * @param jobLayouts The results of the jobs returned by {@link #getLayoutJobs()}, in order.
+     * @return The new position of each artifact in a re-laid out component.
+     */
+    public Map<UUID, LayoutPosition> placeLayouts(List<Map<UUID, LayoutPosition>> jobLayouts) {
+        Map<UUID, LayoutPosition> layout = new HashMap<>();
+        if (unchangedBoxes.isEmpty()) {
+            jobLayouts.forEach(layout::putAll);
+            return layout;
+        }
+
+        List<Box> placedBoxes = new ArrayList<>(unchangedBoxes);
+        for (int i = 0; i < changedComponents.size(); i++) {
+            ProjectEntities component = changedComponents.get(i);
+            Map<UUID, LayoutPosition> componentLayout = jobLayouts.get(i);
+            Box box = Box.around(component, componentLayout);
+            Box anchoredBox = box.moveTo(getPreviousCorner(component));
+            if (anchoredBox == null || anchoredBox.overlapsAny(placedBoxes)) {
+                anchoredBox = box.moveTo(getCornerRightOf(placedBoxes));
+            }
+            placedBoxes.add(anchoredBox);
+
+            double dx = anchoredBox.getMinX() - box.getMinX();
+            double dy = anchoredBox.getMinY() - box.getMinY();
+            componentLayout.forEach((artifactId, position) ->
+                layout.put(artifactId, new LayoutPosition(position.getX() + dx, position.getY() + dy)));
+        }
+        return layout;
+    }
+
+    private boolean isChanged(ProjectEntities component,
+                              Map<UUID, LayoutPosition> previousLayout,
+                              Set<UUID> changedArtifactIds) {
+        return component
+            .getArtifacts()
+            .stream()
+            .map(ArtifactAppEntity::getId)
+            .anyMatch(id -> changedArtifactIds.contains(id) || !previousLayout.containsKey(id));
+    }
+
+    /**
+     * @return The top left corner of the previous positions of the component, or null if none were positioned.
+     */
+    private LayoutPosition getPreviousCorner(ProjectEntities component) {
+        Box previousBox = Box.around(component, previousLayout);
+        return previousBox == null ? null : new LayoutPosition(previousBox.getMinX(), previousBox.getMinY());
+    }
+
+    private LayoutPosition getCornerRightOf(List<Box> boxes) {
+        double maxX = boxes.stream().mapToDouble(Box::getMaxX).max().orElse(0);
+        double minY = boxes.stream().mapToDouble(Box::getMinY).min().orElse(0);
+        return new LayoutPosition(maxX + LayoutSettings.COMPONENT_SPACING, minY);
+    }
+
+    private static List<ProjectEntities> createComponents(List<ArtifactAppEntity> artifacts,
+                                                          List<TraceAppEntity> traces) {
+        Map<UUID, Integer> artifactIndices = new HashMap<>();
+        for (ArtifactAppEntity artifact : artifacts) {
+            artifactIndices.putIfAbsent(artifact.getId(), artifactIndices.size());
+        }
+        int[] roots = new int[artifactIndices.size()];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = i;
+        }
+
+        List<TraceAppEntity> connectingTraces = new ArrayList<>();
+        for (TraceAppEntity trace : traces) {
+            Integer sourceIndex = artifactIndices.get(trace.getSourceId());
+            Integer targetIndex = artifactIndices.get(trace.getTargetId());
+            if (trace.isVisible() && sourceIndex != null && targetIndex != null) {
+                roots[findRoot(roots, sourceIndex)] = findRoot(roots, targetIndex);
+                connectingTraces.add(trace);
+            }
+        }
+
+        Map<Integer, List<ArtifactAppEntity>> componentArtifacts = new LinkedHashMap<>();
+        for (ArtifactAppEntity artifact : artifacts) {
+            int root = findRoot(roots, artifactIndices.get(artifact.getId()));
+            componentArtifacts.computeIfAbsent(root, key -> new ArrayList<>()).add(artifact);
+        }
+        Map<Integer, List<TraceAppEntity>> componentTraces = new HashMap<>();
+        for (TraceAppEntity trace : connectingTraces) {
+            int root = findRoot(roots, artifactIndices.get(trace.getSourceId()));
+            componentTraces.computeIfAbsent(root, key -> new ArrayList<>()).add(trace);
+        }
+
+        List<ProjectEntities> components = new ArrayList<>();
+        componentArtifacts.forEach((root, members) ->
+            components.add(new ProjectEntities(members, componentTraces.getOrDefault(root, new ArrayList<>()))));
+        return components;
+    }
+
+    private static int findRoot(int[] roots, int index) {
+        while (roots[index] != index) {
+            roots[index] = roots[roots[index]];
+            index = roots[index];
+        }
+        return index;
+    }
+
+    /**
+     * The area covered by the artifacts of a component.
+     */
+    @Getter
+    private static class Box {
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+
+        Box(double minX, double minY, double maxX, double maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        /**
+         * @return The box around the positioned artifacts of the component, or null if none are positioned.
+         */
+        static Box around(ProjectEntities component, Map<UUID, LayoutPosition> layout) {
+            Box box = null;
+            for (ArtifactAppEntity artifact : component.getArtifacts()) {
+                LayoutPosition position = layout.get(artifact.getId());
+                if (position == null) {
+                    continue;
+                }
+                Box artifactBox = new Box(position.getX(), position.getY(),
+                    position.getX() + LayoutSettings.ARTIFACT_WIDTH, position.getY() + LayoutSettings.ARTIFACT_HEIGHT);
+                box = box == null ? artifactBox : box.union(artifactBox);
+            }
+            return box;
+        }
+
+        Box union(Box other) {
+            return new Box(Math.min(minX, other.minX), Math.min(minY, other.minY),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY));
+        }
+
+        /**
+         * @return This box with its top left corner at given position, or null if there is no position.
+         */
+        Box moveTo(LayoutPosition corner) {
+            if (corner == null) {
+                return null;
+            }
+            return new Box(corner.getX(), corner.getY(),
+                corner.getX() + maxX - minX, corner.getY() + maxY - minY);
+        }
+
+        boolean overlapsAny(List<Box> boxes) {
+            return boxes.stream().anyMatch(this::overlaps);
+        }
+
+        boolean overlaps(Box other) {
+            return other != null && minX < other.maxX && other.minX < maxX && minY < other.maxY && other.minY < maxY;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package edu.nd.crc.safa.features.layout.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import edu.nd.crc.safa.utilities.TimedStages;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Runs independent layout jobs on a bounded pool of threads. Each job must create its own elk graph, as elk
+ * graphs are not safe to share between threads. Results are returned in the order the jobs were given, so
+ * persisting them gives the same result as running the jobs one after another.
+ */
+@AllArgsConstructor
+public class LayoutJobRunner {
+    /**
+     * The executor to run jobs on, or null to run them on the calling thread.
+     */
+    private final Executor executor;
+
+    /**
+     * Runs the jobs and waits for all of them to complete. Exceptions thrown by a job are rethrown as is.
+     *
+     * @param jobs The layout jobs to run.
+     * @param <T>  The type of result of each job.
+     * @return The result of each job, in the order of the jobs.
+     */
+    public <T> List<T> runAll(List<Supplier<T>> jobs) {
+        TimedStages stages = new TimedStages(jobs.size() > 1 ? executor : null);
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            futures.add(stages.submit("layout-" + i, jobs.get(i)));
+        }
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<T> future : futures) {
+            results.add(stages.join(future));
+        }
+        return results;
+    }
+}
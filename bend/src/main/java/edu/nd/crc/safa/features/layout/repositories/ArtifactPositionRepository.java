@@ -7,8 +7,11 @@ import java.util.UUID;
 import edu.nd.crc.safa.features.layout.entities.db.ArtifactPosition;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.repositories.VersionQueries;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 public interface ArtifactPositionRepository extends CrudRepository<ArtifactPosition, UUID> {
     Optional<ArtifactPosition> findByProjectVersionAndArtifactIdAndDocumentDocumentId(
@@ -19,7 +22,66 @@ public interface ArtifactPositionRepository extends CrudRepository<ArtifactPosit
     List<ArtifactPosition> findByProjectVersionProjectAndDocumentDocumentId(Project project,
                                                                             UUID documentId);
 
-    default List<ArtifactPosition> getByProjectAndDocumentId(Project project, UUID documentId) {
-        return findByProjectVersionProjectAndDocumentDocumentId(project, documentId);
+    /**
+     * Returns the latest position of each artifact in given document at or before given version.
+     *
+     * @param projectVersion The version whose positions are returned.
+     * @param documentId     The id of the document, or null for the default layout.
+     * @return List containing at most one position per artifact.
+     */
+    default List<ArtifactPosition> findLatestInDocument(ProjectVersion projectVersion, UUID documentId) {
+        return findLatestInDocumentAtVersion(projectVersion.getProject(), projectVersion.getOrdinal(), documentId);
     }
+
+    @Query(value =
+        "SELECT ap FROM ArtifactPosition ap "
+            + "JOIN FETCH ap.projectVersion pv "
+            + "LEFT JOIN ap.document d "
+            + "WHERE pv.project = :project "
+            + "AND (d.documentId = :documentId OR (:documentId IS NULL AND d IS NULL)) "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.id FROM ArtifactPosition newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     LEFT JOIN newer.document nd "
+            + "     WHERE newer.artifactId = ap.artifactId "
+            + "     AND npv.project = :project "
+            + "     AND (nd.documentId = :documentId OR (:documentId IS NULL AND nd IS NULL)) "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<ArtifactPosition> findLatestInDocumentAtVersion(@Param("project") Project project,
+                                                         @Param("ordinal") long ordinal,
+                                                         @Param("documentId") UUID documentId);
+
+    /**
+     * Returns the earliest position of each artifact in given document that only has positions after given version.
+     *
+     * @param projectVersion The version the positions are after.
+     * @param documentId     The id of the document, or null for the default layout.
+     * @return List containing at most one position per artifact.
+     */
+    default List<ArtifactPosition> findEarliestInDocumentAfter(ProjectVersion projectVersion, UUID documentId) {
+        return findEarliestInDocumentAfterVersion(projectVersion.getProject(), projectVersion.getOrdinal(),
+            documentId);
+    }
+
+    @Query(value =
+        "SELECT ap FROM ArtifactPosition ap "
+            + "JOIN FETCH ap.projectVersion pv "
+            + "LEFT JOIN ap.document d "
+            + "WHERE pv.project = :project "
+            + "AND (d.documentId = :documentId OR (:documentId IS NULL AND d IS NULL)) "
+            + "AND pv.ordinal > :ordinal "
+            + "AND NOT EXISTS ("
+            + "     SELECT older.id FROM ArtifactPosition older "
+            + "     JOIN older.projectVersion npv "
+            + "     LEFT JOIN older.document nd "
+            + "     WHERE older.artifactId = ap.artifactId "
+            + "     AND npv.project = :project "
+            + "     AND (nd.documentId = :documentId OR (:documentId IS NULL AND nd IS NULL)) "
+            + "     AND npv.ordinal < pv.ordinal)"
+    )
+    List<ArtifactPosition> findEarliestInDocumentAfterVersion(@Param("project") Project project,
+                                                              @Param("ordinal") long ordinal,
+                                                              @Param("documentId") UUID documentId);
 }
@@ -1,7 +1,6 @@
 package edu.nd.crc.safa.features.layout.services;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,9 +12,7 @@ import edu.nd.crc.safa.features.documents.entities.db.Document;
 import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
 import edu.nd.crc.safa.features.layout.entities.db.ArtifactPosition;
 import edu.nd.crc.safa.features.layout.repositories.ArtifactPositionRepository;
-import edu.nd.crc.safa.features.versions.VersionCalculator;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
-import edu.nd.crc.safa.utilities.ProjectDataStructures;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,7 +23,6 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 @Service
 public class ArtifactPositionService {
-    private final VersionCalculator versionCalculator = new VersionCalculator();
     private ArtifactPositionRepository artifactPositionRepository;
     private ArtifactRepository artifactRepository;
 
@@ -71,27 +67,27 @@ public class ArtifactPositionService {
         return artifactPosition;
     }
 
+    /**
+     * Returns the position of each artifact in given document at given version. Artifacts without a position
+     * at or before the version are placed at their earliest later position. Both are resolved by the database.
+     *
+     * @param projectVersion The version of the layout.
+     * @param documentId     The id of the document, or null for the default layout.
+     * @return Map of artifact ids to their position.
+     */
     public Map<UUID, LayoutPosition> retrieveDocumentLayout(ProjectVersion projectVersion, UUID documentId) {
         Map<UUID, LayoutPosition> layout = new HashMap<>();
-        List<ArtifactPosition> artifactPositionsAcrossVersions = this.artifactPositionRepository
-            .getByProjectAndDocumentId(projectVersion.getProject(), documentId);
-        Map<UUID, List<ArtifactPosition>> id2pos = ProjectDataStructures.createGroupLookup(
-            artifactPositionsAcrossVersions,
-                ArtifactPosition::getArtifactId);
-        for (Map.Entry<UUID, List<ArtifactPosition>> entry : id2pos.entrySet()) {
-            List<ArtifactPosition> artifactPositions = entry.getValue();
-            ArtifactPosition artifactPosition = versionCalculator.getEntityAtVersion(
-                artifactPositions,
-                projectVersion,
-                ArtifactPosition::getProjectVersion);
-            if (artifactPosition == null) { // layout for version not available, provide default
-                artifactPosition = artifactPositions.get(0);
-            }
-            LayoutPosition layoutPosition = new LayoutPosition(artifactPosition.getX(), artifactPosition.getY());
-            UUID artifactId = artifactPosition.getArtifactId();
-            layout.put(artifactId, layoutPosition);
-        }
-
+        this.artifactPositionRepository
+            .findLatestInDocument(projectVersion, documentId)
+            .forEach(position -> layout.put(position.getArtifactId(), toLayoutPosition(position)));
+        // layout for version not available, provide default
+        this.artifactPositionRepository
+            .findEarliestInDocumentAfter(projectVersion, documentId)
+            .forEach(position -> layout.putIfAbsent(position.getArtifactId(), toLayoutPosition(position)));
         return layout;
     }
+
+    private LayoutPosition toLayoutPosition(ArtifactPosition artifactPosition) {
+        return new LayoutPosition(artifactPosition.getX(), artifactPosition.getY());
+    }
 }
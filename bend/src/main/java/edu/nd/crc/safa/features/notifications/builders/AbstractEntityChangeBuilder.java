@@ -38,7 +38,13 @@ public abstract class AbstractEntityChangeBuilder<T extends AbstractEntityChange
 
     protected <EntityType extends Object> T withEntitiesUpdate(NotificationEntity entity,
                                                                List<EntityType> entities) {
-        return addChange(entity, NotificationAction.UPDATE, new ArrayList<>(), entities, true);
+        return withEntitiesUpdate(entity, entities, true);
+    }
+
+    protected <EntityType extends Object> T withEntitiesUpdate(NotificationEntity entity,
+                                                               List<EntityType> entities,
+                                                               boolean checkIfEmpty) {
+        return addChange(entity, NotificationAction.UPDATE, new ArrayList<>(), entities, checkIfEmpty);
     }
 
     protected T withEntityUpdate(NotificationEntity entity, List<UUID> entityIds) {
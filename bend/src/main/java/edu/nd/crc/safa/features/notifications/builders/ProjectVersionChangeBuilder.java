@@ -1,6 +1,5 @@
 package edu.nd.crc.safa.features.notifications.builders;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -8,6 +7,7 @@ import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.documents.entities.app.DocumentAppEntity;
 import edu.nd.crc.safa.features.notifications.TopicCreator;
 import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.rules.entities.app.ArtifactWarnings;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.types.entities.TypeAppEntity;
 import edu.nd.crc.safa.features.users.entities.IUser;
@@ -37,8 +37,8 @@ public class ProjectVersionChangeBuilder extends AbstractEntityChangeBuilder<Pro
         return withEntityDelete(NotificationEntity.ARTIFACTS, artifactIds);
     }
 
-    public ProjectVersionChangeBuilder withWarningsUpdate() {
-        return withEntityUpdate(NotificationEntity.WARNINGS, new ArrayList<>(), false);
+    public ProjectVersionChangeBuilder withWarningsUpdate(List<ArtifactWarnings> artifactWarnings) {
+        return withEntitiesUpdate(NotificationEntity.WARNINGS, artifactWarnings, false);
     }
 
     public ProjectVersionChangeBuilder withTracesUpdate(List<TraceAppEntity> traces) {
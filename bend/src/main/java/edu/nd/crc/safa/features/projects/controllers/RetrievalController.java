@@ -1,31 +1,50 @@
 package edu.nd.crc.safa.features.projects.controllers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import edu.nd.crc.safa.authentication.builders.ResourceBuilder;
 import edu.nd.crc.safa.config.AppRoutes;
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactPageQuery;
 import edu.nd.crc.safa.features.common.BaseController;
+import edu.nd.crc.safa.features.common.EntityPage;
 import edu.nd.crc.safa.features.common.ServiceProvider;
 import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
 import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
+import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.app.TracePageQuery;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Provides endpoints for retrieving, creating, and deleting project versions.
  */
 @RestController
 public class RetrievalController extends BaseController {
+    /**
+     * Allows clients to store responses, as long as they revalidate them before use.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final String SERVER_TIMING = "Server-Timing";
 
     @Autowired
     public RetrievalController(ResourceBuilder resourceBuilder,
@@ -36,34 +55,102 @@ public class RetrievalController extends BaseController {
 
     /**
      * Returns a project and associated artifacts at version associated with given id.
+     * Responds with 304 Not Modified if the client already has the current project. The time taken by each stage
+     * of retrieving the project is returned in the Server-Timing header.
      *
-     * @param versionId UUID of version whose artifacts and trace links are retrieved.
+     * @param versionId    UUID of version whose artifacts and trace links are retrieved.
+     * @param lazySubtrees Whether subtrees contain only the parents and children of each artifact, in which case
+     *                     the rest are retrieved with {@link #getSubtreesInVersion(UUID, List)}.
+     * @param request      The request, whose If-None-Match header is checked.
      * @return ProjectCreationResponse containing artifacts, traces, and warnings of project at version specified.
      * @throws SafaError Throws error if no version is associated with given id.
      */
     @GetMapping(AppRoutes.Retrieval.GET_PROJECT_IN_VERSION)
-    public ProjectAppEntity getProjectInVersion(@PathVariable UUID versionId) throws SafaError {
+    public ResponseEntity<ProjectAppEntity> getProjectInVersion(
+        @PathVariable UUID versionId,
+        @RequestParam(required = false, defaultValue = "false") boolean lazySubtrees,
+        WebRequest request) throws SafaError {
         SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
         ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
                 .withPermission(ProjectPermission.VIEW, user).get();
-        return getServiceProvider()
+        String etag = getServiceProvider().getProjectEtagService()
+            .getProjectEtag(user, projectVersion, !lazySubtrees);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        ProjectAppEntity project = getServiceProvider()
             .getProjectRetrievalService()
-            .getProjectAppEntity(projectVersion);
+            .getSharedProjectAppEntity(user, projectVersion, !lazySubtrees);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).header(SERVER_TIMING, project.getServerTiming())
+            .body(project);
+    }
+
+    /**
+     * Returns the parents, children, descendants, and ancestors of the given artifacts in a version.
+     *
+     * @param versionId   UUID of the version containing the artifacts.
+     * @param artifactIds The ids of the artifacts whose subtrees are returned.
+     * @return Map of artifact id to its subtree information.
+     * @throws SafaError If the user cannot view the project or an artifact is not in the version.
+     */
+    @PostMapping(AppRoutes.Retrieval.GET_SUBTREES_IN_VERSION)
+    public Map<UUID, SubtreeAppEntity> getSubtreesInVersion(@PathVariable UUID versionId,
+                                                            @RequestBody List<UUID> artifactIds) throws SafaError {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
+                .withPermission(ProjectPermission.VIEW, user).get();
+        return getServiceProvider().getProjectRetrievalService().getSubtrees(projectVersion, artifactIds);
+    }
+
+    /**
+     * Returns the same project as {@link #getProjectInVersion(UUID, boolean, WebRequest)} with lazy subtrees, but
+     * writes the artifacts and traces of the version to the response as they are read instead of building the
+     * project in memory first. Subtrees only contain the parents and children of each artifact; the rest are
+     * retrieved with {@link #getSubtreesInVersion(UUID, List)}. Responds with 304 Not Modified if the client
+     * already has the current project.
+     *
+     * @param versionId UUID of version whose artifacts and trace links are retrieved.
+     * @param request   The request, whose If-None-Match header is checked.
+     * @return The body writing the project at the version.
+     * @throws SafaError Throws error if no version is associated with given id.
+     */
+    @GetMapping(AppRoutes.Retrieval.STREAM_PROJECT_IN_VERSION)
+    public ResponseEntity<StreamingResponseBody> streamProjectInVersion(@PathVariable UUID versionId,
+                                                                        WebRequest request) throws SafaError {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
+                .withPermission(ProjectPermission.VIEW, user).get();
+        String etag = getServiceProvider().getProjectEtagService().getProjectEtag(user, projectVersion, false);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        StreamingResponseBody body = getServiceProvider()
+            .getProjectStreamingService()
+            .streamProjectAppEntity(user, projectVersion);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
 
     /**
      * Returns the current list of artifacts in the specified project version.
      *
+     * Responds with 304 Not Modified if the client already has the current artifacts.
+     *
      * @param versionId The UUID of the project version whose artifacts are being retrieved.
+     * @param request   The request, whose If-None-Match header is checked.
      * @return List of artifact app entities.
      * @throws SafaError Throws error is user does not have read permission on the project.
      */
     @GetMapping(AppRoutes.Retrieval.GET_ARTIFACTS_IN_VERSION)
-    public List<ArtifactAppEntity> getArtifactsInProjectVersion(@PathVariable UUID versionId) throws SafaError {
+    public ResponseEntity<List<ArtifactAppEntity>> getArtifactsInProjectVersion(@PathVariable UUID versionId,
+                                                                                WebRequest request)
+        throws SafaError {
         SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
         ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
                 .withPermission(ProjectPermission.VIEW, user).get();
-        return getServiceProvider().getArtifactService().getAppEntities(projectVersion, user);
+        String etag = getServiceProvider().getProjectEtagService().getVersionEntitiesEtag(projectVersion, "artifacts");
+        return respondIfModified(request, etag,
+            () -> getServiceProvider().getArtifactService().getAppEntities(projectVersion, user));
     }
 
     /**
@@ -86,15 +173,111 @@ public class RetrievalController extends BaseController {
     /**
      * Returns the current list of traces in the specified project version.
      *
+     * Responds with 304 Not Modified if the client already has the current traces.
+     *
      * @param versionId The UUID of the version whose traces are returned
+     * @param request   The request, whose If-None-Match header is checked.
      * @return List of trace app entities existing in specified version.
      * @throws SafaError Throws error is authorized user does not have read permission on the project.
      */
     @GetMapping(AppRoutes.Retrieval.GET_TRACES_IN_VERSION)
-    public List<TraceAppEntity> getTracesInVersion(@PathVariable UUID versionId) throws SafaError {
+    public ResponseEntity<List<TraceAppEntity>> getTracesInVersion(@PathVariable UUID versionId,
+                                                                   WebRequest request) throws SafaError {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
+                .withPermission(ProjectPermission.VIEW, user).get();
+        String etag = getServiceProvider().getProjectEtagService().getVersionEntitiesEtag(projectVersion, "traces");
+        return respondIfModified(request, etag,
+            () -> getServiceProvider().getTraceService().getAppEntities(projectVersion, user));
+    }
+
+    /**
+     * Returns a page of the artifacts in the specified project version, ordered by name. The next page is
+     * retrieved by passing the cursor of the page as the name to start after.
+     *
+     * @param versionId The UUID of the project version whose artifacts are being retrieved.
+     * @param query     The position, size, and filters of the page.
+     * @return Page of artifact app entities.
+     * @throws SafaError If the user does not have read permission on the project or the query is invalid.
+     */
+    @GetMapping(AppRoutes.Retrieval.GET_ARTIFACT_PAGE_IN_VERSION)
+    public EntityPage<ArtifactAppEntity> getArtifactPageInVersion(@PathVariable UUID versionId,
+                                                                  ArtifactPageQuery query) throws SafaError {
+        SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
+        ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
+                .withPermission(ProjectPermission.VIEW, user).get();
+        assertPageSize(query.getSize());
+        ProjectVersion modifiedSince = getModifiedSince(projectVersion, query.getModifiedSince(), user);
+        return getServiceProvider().getArtifactService().getAppEntityPage(projectVersion, query, modifiedSince);
+    }
+
+    /**
+     * Returns a page of the traces in the specified project version, ordered by id. The next page is retrieved
+     * by passing the cursor of the page as the id to start after.
+     *
+     * @param versionId The UUID of the version whose traces are returned.
+     * @param query     The position, size, and filters of the page.
+     * @return Page of trace app entities.
+     * @throws SafaError If the user does not have read permission on the project or the query is invalid.
+     */
+    @GetMapping(AppRoutes.Retrieval.GET_TRACE_PAGE_IN_VERSION)
+    public EntityPage<TraceAppEntity> getTracePageInVersion(@PathVariable UUID versionId,
+                                                            TracePageQuery query) throws SafaError {
         SafaUser user = getServiceProvider().getSafaUserService().getCurrentUser();
         ProjectVersion projectVersion = getResourceBuilder().fetchVersion(versionId)
                 .withPermission(ProjectPermission.VIEW, user).get();
-        return getServiceProvider().getTraceService().getAppEntities(projectVersion, user);
+        assertPageSize(query.getSize());
+        ProjectVersion modifiedSince = getModifiedSince(projectVersion, query.getModifiedSince(), user);
+        return getServiceProvider().getTraceService().getAppEntityPage(projectVersion, query, modifiedSince);
+    }
+
+    /**
+     * Checks that the requested page size is positive and no larger than {@link EntityPage#MAX_SIZE}.
+     *
+     * @param size The requested page size.
+     * @throws SafaError If the size is out of range.
+     */
+    private void assertPageSize(int size) throws SafaError {
+        if (size < 1 || size > EntityPage.MAX_SIZE) {
+            throw new SafaError("Page size must be between 1 and %s.", EntityPage.MAX_SIZE);
+        }
+    }
+
+    /**
+     * Retrieves the version entities must have been modified after to be included in a page.
+     *
+     * @param projectVersion  The version being retrieved.
+     * @param modifiedSinceId The id of the version to compare against, or null.
+     * @param user            The user making the request.
+     * @return The version to compare against, or null if none was given.
+     * @throws SafaError If the version is not in the same project.
+     */
+    private ProjectVersion getModifiedSince(ProjectVersion projectVersion, UUID modifiedSinceId, SafaUser user)
+        throws SafaError {
+        if (modifiedSinceId == null) {
+            return null;
+        }
+        ProjectVersion modifiedSince = getResourceBuilder().fetchVersion(modifiedSinceId)
+                .withPermission(ProjectPermission.VIEW, user).get();
+        if (!modifiedSince.getProject().getProjectId().equals(projectVersion.getProject().getProjectId())) {
+            throw new SafaError("Version %s is not in the same project.", modifiedSinceId);
+        }
+        return modifiedSince;
+    }
+
+    /**
+     * Responds with 304 Not Modified if the client sent the current entity tag. Otherwise, creates the body.
+     *
+     * @param request The request, whose If-None-Match header is checked.
+     * @param etag    The tag of the current body, calculated before the body is created.
+     * @param body    Creates the body of the response.
+     * @param <T>     The type of body.
+     * @return The response, tagged with the current entity tag.
+     */
+    private <T> ResponseEntity<T> respondIfModified(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
     }
 }
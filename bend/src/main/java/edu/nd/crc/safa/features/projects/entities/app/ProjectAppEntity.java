@@ -78,6 +78,18 @@ public class ProjectAppEntity implements IAppEntity {
 
     private List<String> permissions;
 
+    /**
+     * The time taken by each stage of retrieving the project, formatted as a Server-Timing header.
+     */
+    @JsonIgnore
+    private String serverTiming;
+
+    /**
+     * The position in the change log of the project when it was read. Used to retrieve later changes.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long changeCursor;
+
     private UUID orgId;
 
     private UUID teamId;
@@ -115,6 +127,7 @@ public class ProjectAppEntity implements IAppEntity {
         Project project = projectVersion.getProject();
         this.projectId = project.getProjectId();
         this.lastEdited = project.getLastEdited();
+        this.changeCursor = project.getContentRevision();
         this.name = project.getName();
         this.description = project.getDescription();
         this.specification = project.getSpecification();
@@ -3,9 +3,6 @@ package edu.nd.crc.safa.features.projects.entities.app;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
-
-import edu.nd.crc.safa.features.projects.graph.ArtifactNode;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,18 +16,18 @@ public class SubtreeAppEntity {
     private Set<UUID> supertree;
     private Set<UUID> neighbors;
 
-    public static SubtreeAppEntity fromArtifactNode(ArtifactNode artifactNode) {
-        Set<UUID> parents = convertSet(artifactNode.getParents());
-        Set<UUID> children = convertSet(artifactNode.getChildren());
-        Set<UUID> subtree = convertSet(artifactNode.getSubtree());
-        Set<UUID> supertree = convertSet(artifactNode.getSupertree());
-        Set<UUID> neighbors = new HashSet<>(subtree);
-        neighbors.addAll(supertree);
-
-        return new SubtreeAppEntity(parents, children, subtree, supertree, neighbors);
+    /**
+     * @return The parents and children of the artifact, with empty subtree, supertree, and neighbors.
+     */
+    public SubtreeAppEntity withoutClosures() {
+        return new SubtreeAppEntity(parents, children, new HashSet<>(), new HashSet<>(), new HashSet<>());
     }
 
-    private static Set<UUID> convertSet(Set<ArtifactNode> nodeSet) {
-        return nodeSet.stream().map(i -> i.getArtifact().getId()).collect(Collectors.toSet());
+    /**
+     * @return The number of artifact ids held across the relationships of the artifact, used to bound the size of
+     *     caches.
+     */
+    public int countArtifactIds() {
+        return parents.size() + children.size() + subtree.size() + supertree.size() + neighbors.size();
     }
 }
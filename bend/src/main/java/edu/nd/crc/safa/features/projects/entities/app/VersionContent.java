@@ -0,0 +1,82 @@
+package edu.nd.crc.safa.features.projects.entities.app;
+
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.common.Sized;
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+
+import lombok.Getter;
+
+/**
+ * The parts of a project version that are the same for every user: its entities, the subtrees derived from
+ * them, and its default layout.
+ */
+@Getter
+public class VersionContent implements Sized {
+    /**
+     * The number of characters of artifact text counted as one entity towards the size of the content.
+     */
+    private static final int CHARACTERS_PER_ENTITY = 1000;
+
+    /**
+     * The artifacts and trace links in the version.
+     */
+    private final ProjectEntities entities;
+    /**
+     * The position of each artifact in the default document.
+     */
+    private final Map<UUID, LayoutPosition> layout;
+    /**
+     * The subtree of each artifact.
+     */
+    private final Map<UUID, SubtreeAppEntity> subtrees;
+    /**
+     * The content revision of the project the content was loaded at, which clients use as the cursor of later
+     * changes.
+     */
+    private final long contentRevision;
+    /**
+     * The number of entities held by the content, counted once as the content is not modified after loading.
+     */
+    private final int size;
+
+    public VersionContent(ProjectEntities entities,
+                          Map<UUID, LayoutPosition> layout,
+                          Map<UUID, SubtreeAppEntity> subtrees,
+                          long contentRevision) {
+        this.entities = entities;
+        this.layout = layout;
+        this.subtrees = subtrees;
+        this.contentRevision = contentRevision;
+        this.size = countEntities(entities, subtrees);
+    }
+
+    /**
+     * Counts the artifacts and trace links in the version, the ids held by the subtree of every artifact, and
+     * the text of artifacts in units of {@link #CHARACTERS_PER_ENTITY} characters, so that versions with large
+     * closures or long artifact bodies are weighted by the memory they hold.
+     *
+     * @param entities The artifacts and trace links in the version.
+     * @param subtrees The subtree of each artifact.
+     * @return The number of entities held, capped at the largest int.
+     */
+    private static int countEntities(ProjectEntities entities, Map<UUID, SubtreeAppEntity> subtrees) {
+        long count = (long) entities.getArtifacts().size() + entities.getTraces().size();
+        long characters = 0;
+        for (ArtifactAppEntity artifact : entities.getArtifacts()) {
+            characters += length(artifact.getName()) + length(artifact.getSummary()) + length(artifact.getBody());
+        }
+        count += characters / CHARACTERS_PER_ENTITY;
+        for (SubtreeAppEntity subtree : subtrees.values()) {
+            count += subtree.countArtifactIds();
+        }
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
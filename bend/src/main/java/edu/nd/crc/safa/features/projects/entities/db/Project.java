@@ -64,6 +64,14 @@ public class Project implements Serializable, IEntityWithMembership {
 
     @Column(name = "last_edited")
     private LocalDateTime lastEdited;
+
+    /**
+     * Number of changes made to the contents of the project. Only incremented through
+     * {@link edu.nd.crc.safa.features.projects.repositories.ProjectRepository#incrementContentRevision(UUID)},
+     * so saving a stale project never moves it back.
+     */
+    @Column(name = "content_revision", insertable = false, updatable = false)
+    private long contentRevision;
     
     @OnDelete(action = OnDeleteAction.CASCADE)
     @ManyToOne
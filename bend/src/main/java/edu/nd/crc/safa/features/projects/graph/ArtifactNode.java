@@ -9,6 +9,7 @@ import java.util.UUID;
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * Represents an artifact node in a graph.
@@ -16,12 +17,11 @@ import lombok.Getter;
 @Getter
 public class ArtifactNode {
 
-    private final ArtifactAppEntity artifact;
+    @Setter
+    private ArtifactAppEntity artifact;
     private final Set<ArtifactNode> neighbors = new HashSet<>();
     private final Set<ArtifactNode> parents = new HashSet<>();
     private final Set<ArtifactNode> children = new HashSet<>();
-    private final Set<ArtifactNode> subtree = new HashSet<>();
-    private final Set<ArtifactNode> supertree = new HashSet<>();
 
     public ArtifactNode(ArtifactAppEntity artifact) {
         this.artifact = artifact;
@@ -47,6 +47,30 @@ public class ArtifactNode {
         this.children.add(childNode);
     }
 
+    /**
+     * Removes node as parent. The node remains a neighbor if it is also a child.
+     *
+     * @param parentNode Artifact node to remove as parent.
+     */
+    public void removeParent(ArtifactNode parentNode) {
+        this.parents.remove(parentNode);
+        if (!this.children.contains(parentNode)) {
+            this.neighbors.remove(parentNode);
+        }
+    }
+
+    /**
+     * Removes node as child. The node remains a neighbor if it is also a parent.
+     *
+     * @param childNode Artifact node to remove as child.
+     */
+    public void removeChild(ArtifactNode childNode) {
+        this.children.remove(childNode);
+        if (!this.parents.contains(childNode)) {
+            this.neighbors.remove(childNode);
+        }
+    }
+
     /**
      * Calculates artifacts in neighborhood containing types.
      *
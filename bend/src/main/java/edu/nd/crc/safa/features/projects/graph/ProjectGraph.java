@@ -1,8 +1,10 @@
 package edu.nd.crc.safa.features.projects.graph;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -12,14 +14,45 @@ import java.util.function.Function;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.common.Sized;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectChange;
 import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
 import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
 import edu.nd.crc.safa.features.traces.entities.db.TraceType;
 
-public class ProjectGraph {
-    private Map<UUID, ArtifactNode> artifactsMap = new HashMap<>();
+/**
+ * Graph of the artifacts in a project, with an edge from the target to the source of each displayed trace link.
+ * The graph can be kept up to date with the changes committed to a version. Once the subtrees of the graph
+ * are calculated, a change only marks the subtrees of the artifacts above and below the changed edges as stale,
+ * and only those are recalculated when the subtrees are next requested.
+ */
+public class ProjectGraph implements Sized {
+    /**
+     * When more than this fraction of the subtrees are stale, all subtrees are recalculated together.
+     */
+    private static final int MAX_STALE_FRACTION = 4;
+
+    private final Map<UUID, ArtifactNode> artifactsMap = new HashMap<>();
+    /**
+     * Every trace link added to the graph, including those not displayed.
+     */
+    private final Map<UUID, TraceAppEntity> traces = new LinkedHashMap<>();
+    /**
+     * Artifact id to the ids of the trace links it is the source or target of.
+     */
+    private final Map<UUID, Set<UUID>> artifactTraceIds = new HashMap<>();
+    private ReachabilityIndex reachabilityIndex;
+    /**
+     * The subtree information of each artifact, or null if it has not been calculated.
+     */
+    private Map<UUID, SubtreeAppEntity> subtrees;
+    private final Set<UUID> staleSubtrees = new HashSet<>();
+    /**
+     * The number of artifact ids held by the calculated subtrees, counted towards the size of the graph.
+     */
+    private int subtreesSize;
 
     public ProjectGraph(ProjectAppEntity projectAppEntity) {
         this.addProjectRelationships(projectAppEntity.getArtifacts(), projectAppEntity.getTraces());
@@ -36,24 +69,127 @@ public class ProjectGraph {
      * @param traces    The project traces to create graph from.
      */
     public void addProjectRelationships(List<ArtifactAppEntity> artifacts, List<TraceAppEntity> traces) {
-        for (ArtifactAppEntity artifact : artifacts) {
-            artifactsMap.put(artifact.getId(), new ArtifactNode(artifact));
+        artifacts.forEach(this::putArtifact);
+        traces.forEach(this::putTrace);
+    }
+
+    /**
+     * Applies the artifacts changed in a commit. Applying the same change more than once has no further effect.
+     *
+     * @param artifactChange The added, modified, and removed artifacts.
+     */
+    public void applyArtifactChange(ProjectChange<ArtifactAppEntity> artifactChange) {
+        artifactChange.getRemoved().forEach(artifact -> removeArtifact(artifact.getId()));
+        artifactChange.getAdded().forEach(this::putArtifact);
+        artifactChange.getModified().forEach(this::putArtifact);
+    }
+
+    /**
+     * Applies the trace links changed in a commit. Applying the same change more than once has no further
+     * effect.
+     *
+     * @param traceChange The added, modified, and removed trace links.
+     */
+    public void applyTraceChange(ProjectChange<TraceAppEntity> traceChange) {
+        traceChange.getRemoved().forEach(trace -> removeTrace(trace.getId()));
+        traceChange.getAdded().forEach(this::putTrace);
+        traceChange.getModified().forEach(this::putTrace);
+    }
+
+    /**
+     * Adds an artifact, or replaces the artifact with the same id. A new artifact is connected to the artifacts
+     * it has displayed trace links with.
+     *
+     * @param artifact The artifact to add.
+     */
+    public void putArtifact(ArtifactAppEntity artifact) {
+        ArtifactNode node = artifactsMap.get(artifact.getId());
+        if (node != null) {
+            node.setArtifact(artifact);
+            return;
+        }
+        artifactsMap.put(artifact.getId(), new ArtifactNode(artifact));
+        reachabilityIndex = null;
+        if (subtrees != null) {
+            staleSubtrees.add(artifact.getId());
+        }
+        for (UUID traceId : artifactTraceIds.getOrDefault(artifact.getId(), Set.of())) {
+            TraceAppEntity trace = traces.get(traceId);
+            if (isEdge(trace)) {
+                addEdge(trace);
+            }
         }
+    }
 
-        for (TraceAppEntity trace : traces) {
-            if (traceLinkIsVisible(trace)) {
-                ArtifactNode sourceNode = artifactsMap.get(trace.getSourceId());
-                ArtifactNode targetNode = artifactsMap.get(trace.getTargetId());
-                if (sourceNode == null || targetNode == null) {
-                    continue;
-                }
-                addRelationship(targetNode, sourceNode);
+    /**
+     * Removes an artifact along with its edges. Its trace links are kept in case the artifact is added again.
+     *
+     * @param artifactId The id of the artifact to remove.
+     */
+    public void removeArtifact(UUID artifactId) {
+        if (!artifactsMap.containsKey(artifactId)) {
+            return;
+        }
+        for (UUID traceId : List.copyOf(artifactTraceIds.getOrDefault(artifactId, Set.of()))) {
+            TraceAppEntity trace = traces.get(traceId);
+            if (isEdge(trace)) {
+                removeEdge(trace);
             }
         }
+        artifactsMap.remove(artifactId);
+        reachabilityIndex = null;
+        if (subtrees != null) {
+            putSubtree(artifactId, null);
+            staleSubtrees.remove(artifactId);
+        }
+    }
+
+    /**
+     * Adds a trace link, or replaces the trace link with the same id. The edge of the link is added if the link
+     * is displayed and both of its artifacts are in the graph.
+     *
+     * @param trace The trace link to add.
+     */
+    public void putTrace(TraceAppEntity trace) {
+        TraceAppEntity previous = traces.get(trace.getId());
+        if (previous != null && isEdge(previous) == isEdge(trace)
+            && previous.getSourceId().equals(trace.getSourceId())
+            && previous.getTargetId().equals(trace.getTargetId())) {
+            traces.put(trace.getId(), trace);
+            return;
+        }
+        if (previous != null) {
+            removeTrace(previous.getId());
+        }
+        traces.put(trace.getId(), trace);
+        artifactTraceIds.computeIfAbsent(trace.getSourceId(), id -> new HashSet<>()).add(trace.getId());
+        artifactTraceIds.computeIfAbsent(trace.getTargetId(), id -> new HashSet<>()).add(trace.getId());
+        if (isEdge(trace)) {
+            addEdge(trace);
+        }
+    }
 
-        for (ArtifactNode item : artifactsMap.values()) {
-            calculateSingleSubtree(item);
-            calculateSingleSupertree(item);
+    /**
+     * Removes a trace link. Its edge is kept while another displayed trace link connects the same artifacts.
+     *
+     * @param traceId The id of the trace link to remove.
+     */
+    public void removeTrace(UUID traceId) {
+        TraceAppEntity trace = traces.remove(traceId);
+        if (trace == null) {
+            return;
+        }
+        for (UUID artifactId : List.of(trace.getSourceId(), trace.getTargetId())) {
+            Set<UUID> traceIds = artifactTraceIds.get(artifactId);
+            if (traceIds != null) {
+                traceIds.remove(traceId);
+                if (traceIds.isEmpty()) {
+                    artifactTraceIds.remove(artifactId);
+                }
+            }
+        }
+        if (isEdge(trace)) {
+            removeEdge(trace);
         }
     }
 
@@ -63,18 +199,91 @@ public class ProjectGraph {
      * @param trace The trace link
      * @return Whether we should display the trace
      */
-    private boolean traceLinkIsVisible(TraceAppEntity trace) {
+    public static boolean traceLinkIsVisible(TraceAppEntity trace) {
         return trace.isVisible()
             && (trace.getTraceType() == TraceType.MANUAL || trace.getApprovalStatus() != ApprovalStatus.DECLINED);
     }
 
+    /**
+     * @param trace A trace link.
+     * @return Whether the trace link is displayed and both of its artifacts are in the graph.
+     */
+    private boolean isEdge(TraceAppEntity trace) {
+        return traceLinkIsVisible(trace)
+            && artifactsMap.containsKey(trace.getSourceId())
+            && artifactsMap.containsKey(trace.getTargetId());
+    }
+
+    private void addEdge(TraceAppEntity trace) {
+        ArtifactNode parent = artifactsMap.get(trace.getTargetId());
+        ArtifactNode child = artifactsMap.get(trace.getSourceId());
+        if (child.getParents().contains(parent)) {
+            return;
+        }
+        addRelationship(parent, child);
+        reachabilityIndex = null;
+        markStale(parent, child);
+    }
+
+    private void removeEdge(TraceAppEntity trace) {
+        ArtifactNode parent = artifactsMap.get(trace.getTargetId());
+        ArtifactNode child = artifactsMap.get(trace.getSourceId());
+        if (!child.getParents().contains(parent) || hasOtherEdge(trace)) {
+            return;
+        }
+        markStale(parent, child);
+        child.removeParent(parent);
+        parent.removeChild(child);
+        reachabilityIndex = null;
+    }
+
+    /**
+     * @param trace A trace link whose edge is being removed.
+     * @return Whether another displayed trace link has the same source and target.
+     */
+    private boolean hasOtherEdge(TraceAppEntity trace) {
+        for (UUID traceId : artifactTraceIds.getOrDefault(trace.getSourceId(), Set.of())) {
+            TraceAppEntity other = traces.get(traceId);
+            if (!traceId.equals(trace.getId())
+                && other.getSourceId().equals(trace.getSourceId())
+                && other.getTargetId().equals(trace.getTargetId())
+                && traceLinkIsVisible(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the subtrees changed by adding or removing the edge between two artifacts: the descendants of the
+     * parent and its ancestors, and the ancestors of the child and its descendants. Called after an edge is
+     * added and before it is removed, so the affected artifacts are reachable through the edge.
+     *
+     * @param parent The target of the changed edge.
+     * @param child  The source of the changed edge.
+     */
+    private void markStale(ArtifactNode parent, ArtifactNode child) {
+        if (subtrees == null) {
+            return;
+        }
+        staleSubtrees.add(parent.getArtifact().getId());
+        staleSubtrees.add(child.getArtifact().getId());
+        staleSubtrees.addAll(findReachable(parent, ArtifactNode::getParents));
+        staleSubtrees.addAll(findReachable(child, ArtifactNode::getChildren));
+        if (staleSubtrees.size() > artifactsMap.size() / MAX_STALE_FRACTION) {
+            subtrees = null;
+            subtreesSize = 0;
+            staleSubtrees.clear();
+        }
+    }
+
     /**
      * Adds edge between parent and child.
      *
      * @param parent The parent node.
      * @param child  The child node.
      */
-    public void addRelationship(ArtifactNode parent, ArtifactNode child) {
+    private void addRelationship(ArtifactNode parent, ArtifactNode child) {
         child.addParent(parent);
         parent.addChild(child);
     }
@@ -90,65 +299,139 @@ public class ProjectGraph {
     }
 
     /**
-     * Broadcasts this item into a supertree/subtree set all the way up/down its reachability chain.
-     *
-     * @param item               Item we are processing.
-     * @param subtreeRetriever   Function which will grab the supertree/subtree set from the app entity.
-     * @param nextItemsRetriever Function which will grab the parent/children set from the app entity.
+     * @return The number of artifacts and trace links in the graph, and the artifact ids held by its calculated
+     *     subtrees.
      */
-    private void broadcastTreeMembership(ArtifactNode item,
-                                         Function<ArtifactNode, Set<ArtifactNode>> subtreeRetriever,
-                                         Function<ArtifactNode, Set<ArtifactNode>> nextItemsRetriever) {
-
-        Queue<ArtifactNode> itemsToVisit = new LinkedList<>();
-        itemsToVisit.add(item);
-
-        Set<UUID> visited = new HashSet<>();
-
-        while (!itemsToVisit.isEmpty()) {
-            ArtifactNode currentItem = itemsToVisit.poll();
-            visited.add(currentItem.getArtifact().getId());
-
-            subtreeRetriever.apply(currentItem).add(item);
+    @Override
+    public int getSize() {
+        return artifactsMap.size() + traces.size() + subtreesSize;
+    }
 
-            for (ArtifactNode nextId : nextItemsRetriever.apply(currentItem)) {
-                if (!visited.contains(nextId.getArtifact().getId())) {
-                    itemsToVisit.add(nextId);
-                }
+    /**
+     * Get subtree information for the front end. All subtrees are calculated from the reachability index when
+     * first needed, after which only stale subtrees are recalculated.
+     *
+     * @return Subtree information for this project
+     */
+    public Map<UUID, SubtreeAppEntity> getSubtreeInfo() {
+        if (subtrees == null) {
+            subtrees = getReachabilityIndex().getSubtrees();
+            subtreesSize = 0;
+            for (SubtreeAppEntity subtree : subtrees.values()) {
+                subtreesSize += subtree.countArtifactIds();
+            }
+        } else {
+            for (UUID artifactId : staleSubtrees) {
+                putSubtree(artifactId, calculateSubtree(artifactsMap.get(artifactId)));
             }
         }
+        staleSubtrees.clear();
+        return new HashMap<>(subtrees);
+    }
 
-        subtreeRetriever.apply(item).remove(item);
+    /**
+     * Get the subtree information of some artifacts. If the subtrees of all artifacts have been calculated,
+     * they are reused, otherwise only the requested subtrees are calculated from the reachability index.
+     *
+     * @param artifactIds The ids of the artifacts whose subtrees are returned.
+     * @return Map of artifact id to its subtree information, omitting artifacts not in the graph.
+     */
+    public Map<UUID, SubtreeAppEntity> getSubtreeInfo(Collection<UUID> artifactIds) {
+        Map<UUID, SubtreeAppEntity> requestedSubtrees = new HashMap<>();
+        for (UUID artifactId : artifactIds) {
+            if (!artifactsMap.containsKey(artifactId)) {
+                continue;
+            }
+            SubtreeAppEntity subtree;
+            if (subtrees == null) {
+                subtree = getReachabilityIndex().getSubtree(artifactId);
+            } else if (staleSubtrees.remove(artifactId)) {
+                subtree = calculateSubtree(artifactsMap.get(artifactId));
+                putSubtree(artifactId, subtree);
+            } else {
+                subtree = subtrees.get(artifactId);
+            }
+            requestedSubtrees.put(artifactId, subtree);
+        }
+        return requestedSubtrees;
     }
 
     /**
-     * Calculates subtree information for this item by adding it to all of its ancestors' subtree sets.
+     * Replaces the calculated subtree of an artifact, keeping the count of artifact ids held by subtrees.
      *
-     * @param item The item we are processing.
+     * @param artifactId The id of the artifact.
+     * @param subtree    The new subtree of the artifact, or null to remove it.
      */
-    private void calculateSingleSubtree(ArtifactNode item) {
-        broadcastTreeMembership(item, ArtifactNode::getSubtree, ArtifactNode::getParents);
+    private void putSubtree(UUID artifactId, SubtreeAppEntity subtree) {
+        SubtreeAppEntity previous = subtree == null ? subtrees.remove(artifactId) : subtrees.put(artifactId, subtree);
+        if (previous != null) {
+            subtreesSize -= previous.countArtifactIds();
+        }
+        if (subtree != null) {
+            subtreesSize += subtree.countArtifactIds();
+        }
     }
 
     /**
-     * Calculates supertree information for this item by adding it to all of its descendants' supertree sets.
+     * Get the parents and children of every artifact, without calculating their subtrees.
      *
-     * @param item The item we are processing.
+     * @return Map of artifact id to its parents and children, with empty subtree, supertree, and neighbors.
      */
-    private void calculateSingleSupertree(ArtifactNode item) {
-        broadcastTreeMembership(item, ArtifactNode::getSupertree, ArtifactNode::getChildren);
+    public Map<UUID, SubtreeAppEntity> getDirectRelationships() {
+        Map<UUID, SubtreeAppEntity> relationships = new HashMap<>();
+        for (ArtifactNode node : artifactsMap.values()) {
+            relationships.put(node.getArtifact().getId(), new SubtreeAppEntity(toArtifactIds(node.getParents()),
+                toArtifactIds(node.getChildren()), new HashSet<>(), new HashSet<>(), new HashSet<>()));
+        }
+        return relationships;
     }
 
     /**
-     * Get subtree information for the front end.
+     * @return The reachability index of the artifacts and traces added to the graph.
+     */
+    public ReachabilityIndex getReachabilityIndex() {
+        if (reachabilityIndex == null) {
+            reachabilityIndex = new ReachabilityIndex(artifactsMap.keySet(), traces.values());
+        }
+        return reachabilityIndex;
+    }
+
+    private SubtreeAppEntity calculateSubtree(ArtifactNode node) {
+        UUID artifactId = node.getArtifact().getId();
+        Set<UUID> subtree = findReachable(node, ArtifactNode::getChildren);
+        Set<UUID> supertree = findReachable(node, ArtifactNode::getParents);
+        subtree.remove(artifactId);
+        supertree.remove(artifactId);
+        Set<UUID> neighbors = new HashSet<>(subtree);
+        neighbors.addAll(supertree);
+        return new SubtreeAppEntity(toArtifactIds(node.getParents()), toArtifactIds(node.getChildren()),
+            subtree, supertree, neighbors);
+    }
+
+    /**
+     * Finds the artifacts reachable from a node by repeatedly following the given edges.
      *
-     * @return Subtree information for this project
+     * @param start The node to start from, which is only included if it is on a cycle.
+     * @param edges The nodes each node leads to.
+     * @return The ids of the reached artifacts.
      */
-    public Map<UUID, SubtreeAppEntity> getSubtreeInfo() {
-        Map<UUID, SubtreeAppEntity> out = new HashMap<>();
-        for (UUID id : artifactsMap.keySet()) {
-            out.put(id, SubtreeAppEntity.fromArtifactNode(artifactsMap.get(id)));
+    private Set<UUID> findReachable(ArtifactNode start, Function<ArtifactNode, Set<ArtifactNode>> edges) {
+        Set<UUID> reached = new HashSet<>();
+        Queue<ArtifactNode> toVisit = new ArrayDeque<>(edges.apply(start));
+        while (!toVisit.isEmpty()) {
+            ArtifactNode current = toVisit.poll();
+            if (reached.add(current.getArtifact().getId())) {
+                toVisit.addAll(edges.apply(current));
+            }
+        }
+        return reached;
+    }
+
+    private Set<UUID> toArtifactIds(Set<ArtifactNode> nodes) {
+        Set<UUID> artifactIds = new HashSet<>();
+        for (ArtifactNode node : nodes) {
+            artifactIds.add(node.getArtifact().getId());
         }
-        return out;
+        return artifactIds;
     }
 }
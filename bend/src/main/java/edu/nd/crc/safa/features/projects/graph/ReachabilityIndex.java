@@ -0,0 +1,388 @@
+package edu.nd.crc.safa.features.projects.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+
+import org.javatuples.Pair;
+
+/**
+ * Answers which artifacts are above and below each artifact in the trace hierarchy. Artifacts are given dense
+ * int ids and artifacts on a cycle are condensed into a single strongly connected component, so the hierarchy
+ * between components is acyclic. Components are numbered in reverse topological order, meaning every component
+ * reachable from a component has a lower number. Closures are calculated when queried by marking components in
+ * a bitset while walking the numbers in that order, instead of storing the closure of every artifact.
+ */
+public class ReachabilityIndex {
+    private final UUID[] artifactIds;
+    private final Map<UUID, Integer> denseIds = new HashMap<>();
+    private final int[][] parents;
+    private final int[][] children;
+    /**
+     * The component of each artifact.
+     */
+    private final int[] components;
+    private final int[][] componentMembers;
+    private final int[][] componentParents;
+    private final int[][] componentChildren;
+
+    /**
+     * Creates an index of the artifacts, with each displayed trace as an edge from its target to its source.
+     * Traces to artifacts not in the index are ignored.
+     *
+     * @param artifactIds The ids of the artifacts in the project.
+     * @param traces      The trace links between the artifacts.
+     */
+    public ReachabilityIndex(Collection<UUID> artifactIds, Collection<TraceAppEntity> traces) {
+        this(artifactIds, traces
+            .stream()
+            .filter(ProjectGraph::traceLinkIsVisible)
+            .map(trace -> new Pair<>(trace.getSourceId(), trace.getTargetId()))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Creates an index of the artifacts, with each trace link as an edge from its target to its source, for
+     * callers holding only the ids of the entities. Links to artifacts not in the index are ignored.
+     *
+     * @param artifactIds The ids of the artifacts in the project.
+     * @param traceLinks  The source and target ids of the displayed trace links between the artifacts.
+     */
+    public ReachabilityIndex(Collection<UUID> artifactIds, List<Pair<UUID, UUID>> traceLinks) {
+        this.artifactIds = new LinkedHashSet<>(artifactIds).toArray(new UUID[0]);
+        for (int i = 0; i < this.artifactIds.length; i++) {
+            denseIds.put(this.artifactIds[i], i);
+        }
+
+        int[] edgeParents = new int[traceLinks.size()];
+        int[] edgeChildren = new int[traceLinks.size()];
+        int nEdges = 0;
+        for (Pair<UUID, UUID> traceLink : traceLinks) {
+            Integer parent = denseIds.get(traceLink.getValue1());
+            Integer child = denseIds.get(traceLink.getValue0());
+            if (parent != null && child != null) {
+                edgeParents[nEdges] = parent;
+                edgeChildren[nEdges] = child;
+                nEdges++;
+            }
+        }
+        this.parents = groupEdges(this.artifactIds.length, edgeChildren, edgeParents, nEdges);
+        this.children = groupEdges(this.artifactIds.length, edgeParents, edgeChildren, nEdges);
+
+        this.components = new int[this.artifactIds.length];
+        int nComponents = findComponents();
+        this.componentMembers = groupMembers(nComponents);
+        this.componentParents = condenseEdges(parents);
+        this.componentChildren = condenseEdges(children);
+    }
+
+    /**
+     * @param artifactId The id of an artifact.
+     * @return Whether the artifact is in the index.
+     */
+    public boolean contains(UUID artifactId) {
+        return denseIds.containsKey(artifactId);
+    }
+
+    /**
+     * @return The ids of the artifacts in the index.
+     */
+    public Set<UUID> getArtifactIds() {
+        return denseIds.keySet();
+    }
+
+    /**
+     * Returns the artifacts below an artifact, following trace links from targets to sources.
+     *
+     * @param artifactId The id of an artifact in the index.
+     * @return The ids of the descendants of the artifact, excluding the artifact.
+     */
+    public Set<UUID> getDescendants(UUID artifactId) {
+        int artifact = denseIds.get(artifactId);
+        BitSet reached = new BitSet(componentMembers.length);
+        markDescendants(components[artifact], reached);
+        return toArtifactIds(reached, artifact);
+    }
+
+    /**
+     * Returns the artifacts above an artifact, following trace links from sources to targets.
+     *
+     * @param artifactId The id of an artifact in the index.
+     * @return The ids of the ancestors of the artifact, excluding the artifact.
+     */
+    public Set<UUID> getAncestors(UUID artifactId) {
+        int artifact = denseIds.get(artifactId);
+        BitSet reached = new BitSet(componentMembers.length);
+        markAncestors(components[artifact], reached);
+        return toArtifactIds(reached, artifact);
+    }
+
+    /**
+     * Calculates the subtree information of an artifact.
+     *
+     * @param artifactId The id of an artifact in the index.
+     * @return The parents, children, descendants, and ancestors of the artifact.
+     */
+    public SubtreeAppEntity getSubtree(UUID artifactId) {
+        int artifact = denseIds.get(artifactId);
+        BitSet descendants = new BitSet(componentMembers.length);
+        BitSet ancestors = new BitSet(componentMembers.length);
+        markDescendants(components[artifact], descendants);
+        markAncestors(components[artifact], ancestors);
+        return createSubtree(artifact, descendants, ancestors);
+    }
+
+    /**
+     * Returns the parents and children of an artifact, without calculating its closures.
+     *
+     * @param artifactId The id of an artifact in the index.
+     * @return The parents and children of the artifact, with empty subtree, supertree, and neighbors.
+     */
+    public SubtreeAppEntity getDirectRelationships(UUID artifactId) {
+        int artifact = denseIds.get(artifactId);
+        return new SubtreeAppEntity(toArtifactIds(parents[artifact]), toArtifactIds(children[artifact]),
+            new HashSet<>(), new HashSet<>(), new HashSet<>());
+    }
+
+    /**
+     * Calculates the subtree information of every artifact. The closures of each component are calculated once
+     * and shared by its members.
+     *
+     * @return Map of artifact id to its subtree information.
+     */
+    public Map<UUID, SubtreeAppEntity> getSubtrees() {
+        Map<UUID, SubtreeAppEntity> subtrees = new HashMap<>();
+        BitSet descendants = new BitSet(componentMembers.length);
+        BitSet ancestors = new BitSet(componentMembers.length);
+        for (int component = 0; component < componentMembers.length; component++) {
+            descendants.clear();
+            ancestors.clear();
+            markDescendants(component, descendants);
+            markAncestors(component, ancestors);
+            for (int artifact : componentMembers[component]) {
+                subtrees.put(artifactIds[artifact], createSubtree(artifact, descendants, ancestors));
+            }
+        }
+        return subtrees;
+    }
+
+    private SubtreeAppEntity createSubtree(int artifact, BitSet descendants, BitSet ancestors) {
+        Set<UUID> subtree = toArtifactIds(descendants, artifact);
+        Set<UUID> supertree = toArtifactIds(ancestors, artifact);
+        Set<UUID> neighbors = new HashSet<>(subtree);
+        neighbors.addAll(supertree);
+        return new SubtreeAppEntity(
+            toArtifactIds(parents[artifact]),
+            toArtifactIds(children[artifact]),
+            subtree,
+            supertree,
+            neighbors);
+    }
+
+    /**
+     * Marks the components below a component. Descendants have lower numbers, so visiting the marked
+     * components from highest to lowest reaches each one after all of its ancestors in the closure.
+     *
+     * @param component The starting component, which is only marked if it is its own descendant.
+     * @param reached   The set the descendants are marked in.
+     */
+    private void markDescendants(int component, BitSet reached) {
+        for (int child : componentChildren[component]) {
+            reached.set(child);
+        }
+        for (int current = reached.previousSetBit(component - 1); current >= 0;
+             current = reached.previousSetBit(current - 1)) {
+            for (int child : componentChildren[current]) {
+                reached.set(child);
+            }
+        }
+    }
+
+    /**
+     * Marks the components above a component, visiting the marked components from lowest to highest.
+     *
+     * @param component The starting component.
+     * @param reached   The set the ancestors are marked in.
+     */
+    private void markAncestors(int component, BitSet reached) {
+        for (int parent : componentParents[component]) {
+            reached.set(parent);
+        }
+        for (int current = reached.nextSetBit(component + 1); current >= 0;
+             current = reached.nextSetBit(current + 1)) {
+            for (int parent : componentParents[current]) {
+                reached.set(parent);
+            }
+        }
+    }
+
+    /**
+     * Returns the artifacts in the reached components, along with the other artifacts on a cycle with the
+     * given artifact.
+     *
+     * @param reached  The reached components.
+     * @param artifact The artifact the components were reached from, which is excluded.
+     * @return The ids of the reached artifacts.
+     */
+    private Set<UUID> toArtifactIds(BitSet reached, int artifact) {
+        Set<UUID> artifactIds = new HashSet<>();
+        for (int component = reached.nextSetBit(0); component >= 0; component = reached.nextSetBit(component + 1)) {
+            for (int member : componentMembers[component]) {
+                artifactIds.add(this.artifactIds[member]);
+            }
+        }
+        for (int member : componentMembers[components[artifact]]) {
+            if (member != artifact) {
+                artifactIds.add(this.artifactIds[member]);
+            }
+        }
+        return artifactIds;
+    }
+
+    private Set<UUID> toArtifactIds(int[] artifacts) {
+        Set<UUID> artifactIds = new HashSet<>();
+        for (int artifact : artifacts) {
+            artifactIds.add(this.artifactIds[artifact]);
+        }
+        return artifactIds;
+    }
+
+    /**
+     * Groups the endpoints of the edges by their other endpoint.
+     *
+     * @param nNodes The number of nodes.
+     * @param from   The node each edge is grouped under.
+     * @param to     The node each edge leads to.
+     * @param nEdges The number of edges.
+     * @return The nodes each node leads to.
+     */
+    private static int[][] groupEdges(int nNodes, int[] from, int[] to, int nEdges) {
+        int[] degrees = new int[nNodes];
+        for (int i = 0; i < nEdges; i++) {
+            degrees[from[i]]++;
+        }
+        int[][] grouped = new int[nNodes][];
+        for (int node = 0; node < nNodes; node++) {
+            grouped[node] = new int[degrees[node]];
+        }
+        Arrays.fill(degrees, 0);
+        for (int i = 0; i < nEdges; i++) {
+            grouped[from[i]][degrees[from[i]]++] = to[i];
+        }
+        return grouped;
+    }
+
+    /**
+     * Finds the strongly connected components of the artifacts with Tarjan's algorithm, using explicit stacks
+     * so deep hierarchies do not overflow the call stack. Components are numbered in the order they are
+     * completed, which is reverse topological order.
+     *
+     * @return The number of components.
+     */
+    private int findComponents() {
+        int nArtifacts = artifactIds.length;
+        int[] order = new int[nArtifacts];
+        Arrays.fill(order, -1);
+        int[] lowLink = new int[nArtifacts];
+        boolean[] onStack = new boolean[nArtifacts];
+        int[] stack = new int[nArtifacts];
+        int stackSize = 0;
+        int[] callStack = new int[nArtifacts];
+        int[] nextChild = new int[nArtifacts];
+        int nextOrder = 0;
+        int nComponents = 0;
+
+        for (int root = 0; root < nArtifacts; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+            int callSize = 0;
+            order[root] = nextOrder;
+            lowLink[root] = nextOrder++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callSize++] = root;
+
+            while (callSize > 0) {
+                int node = callStack[callSize - 1];
+                if (nextChild[node] < children[node].length) {
+                    int child = children[node][nextChild[node]++];
+                    if (order[child] == -1) {
+                        order[child] = nextOrder;
+                        lowLink[child] = nextOrder++;
+                        stack[stackSize++] = child;
+                        onStack[child] = true;
+                        callStack[callSize++] = child;
+                    } else if (onStack[child]) {
+                        lowLink[node] = Math.min(lowLink[node], order[child]);
+                    }
+                    continue;
+                }
+
+                callSize--;
+                if (callSize > 0) {
+                    int caller = callStack[callSize - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
+                if (lowLink[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = nComponents;
+                    } while (member != node);
+                    nComponents++;
+                }
+            }
+        }
+        return nComponents;
+    }
+
+    private int[][] groupMembers(int nComponents) {
+        int[] artifacts = new int[artifactIds.length];
+        for (int artifact = 0; artifact < artifactIds.length; artifact++) {
+            artifacts[artifact] = artifact;
+        }
+        return groupEdges(nComponents, components, artifacts, artifactIds.length);
+    }
+
+    /**
+     * Replaces the edges between artifacts with edges between their components, dropping edges within a
+     * component and duplicate edges.
+     *
+     * @param edges The edges of each artifact.
+     * @return The edges of each component.
+     */
+    private int[][] condenseEdges(int[][] edges) {
+        int nComponents = componentMembers.length;
+        int[][] condensed = new int[nComponents][];
+        int[] lastAddedBy = new int[nComponents];
+        Arrays.fill(lastAddedBy, -1);
+        int[] buffer = new int[nComponents];
+        for (int component = 0; component < nComponents; component++) {
+            int nEdges = 0;
+            for (int member : componentMembers[component]) {
+                for (int other : edges[member]) {
+                    int otherComponent = components[other];
+                    if (otherComponent != component && lastAddedBy[otherComponent] != component) {
+                        lastAddedBy[otherComponent] = component;
+                        buffer[nEdges++] = otherComponent;
+                    }
+                }
+            }
+            condensed[component] = Arrays.copyOf(buffer, nEdges);
+        }
+        return condensed;
+    }
+}
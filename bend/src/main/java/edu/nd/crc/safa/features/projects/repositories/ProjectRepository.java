@@ -7,10 +7,12 @@ import edu.nd.crc.safa.features.installations.InstallationDTO;
 import edu.nd.crc.safa.features.organizations.entities.db.Team;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ProjectRepository extends CrudRepository<Project, UUID> {
@@ -19,6 +21,19 @@ public interface ProjectRepository extends CrudRepository<Project, UUID> {
 
     List<Project> findByOwningTeam(Team owningTeam);
 
+    /**
+     * Increments the number of changes made to the contents of the project.
+     *
+     * @param projectId The id of the changed project.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.contentRevision = p.contentRevision + 1 WHERE p.projectId = :projectId")
+    void incrementContentRevision(@Param("projectId") UUID projectId);
+
+    @Query("SELECT p.contentRevision FROM Project p WHERE p.projectId = :projectId")
+    long findContentRevision(@Param("projectId") UUID projectId);
+
     @Query(value =
         "SELECT new edu.nd.crc.safa.features.installations.InstallationDTO("
             + "  CAST(j.jiraProjectId AS string), "
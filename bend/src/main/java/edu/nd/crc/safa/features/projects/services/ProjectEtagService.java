@@ -0,0 +1,91 @@
+package edu.nd.crc.safa.features.projects.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.nd.crc.safa.features.documents.services.CurrentDocumentService;
+import edu.nd.crc.safa.features.memberships.services.MembershipService;
+import edu.nd.crc.safa.features.organizations.entities.app.MembershipAppEntity;
+import edu.nd.crc.safa.features.permissions.entities.Permission;
+import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.users.entities.db.SafaUser;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.utilities.StringUtil;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Calculates the entity tags of responses built from the contents of a project version. Tags are derived from
+ * the content revision of the project instead of the contents, so they are calculated without loading any
+ * artifacts or trace links. Tags must be calculated before the contents are loaded, so that a change committed
+ * in between results in a tag that no longer matches.
+ */
+@Service
+@AllArgsConstructor
+public class ProjectEtagService {
+    private final MembershipService membershipService;
+    private final CurrentDocumentService currentDocumentService;
+    private final ProjectService projectService;
+
+    /**
+     * Returns the tag of a response containing one kind of entity in a version, such as its artifacts.
+     *
+     * @param projectVersion The version whose entities are returned.
+     * @param entityName     The name of the kind of entity returned.
+     * @return The entity tag.
+     */
+    public String getVersionEntitiesEtag(ProjectVersion projectVersion, String entityName) {
+        Project project = projectVersion.getProject();
+        return StringUtil.sha256(
+            entityName,
+            projectVersion.getVersionId().toString(),
+            String.valueOf(project.getContentRevision()));
+    }
+
+    /**
+     * Returns the tag of the project at a version as seen by given user. Besides the contents of the version, it
+     * covers the parts of the project that change without a commit: its details, members, and the permissions
+     * and current document of the user.
+     *
+     * @param user           The user requesting the project.
+     * @param projectVersion The version of the project returned.
+     * @return The entity tag.
+     */
+    public String getProjectEtag(SafaUser user, ProjectVersion projectVersion) {
+        Project project = projectVersion.getProject();
+        List<String> fields = new ArrayList<>(List.of(
+            getVersionEntitiesEtag(projectVersion, "project"),
+            project.getName(),
+            project.getDescription(),
+            String.valueOf(project.getSpecification()),
+            String.valueOf(project.getLastEdited()),
+            user.getUserId().toString(),
+            String.valueOf(currentDocumentService.getCurrentDocumentId(user))));
+        for (MembershipAppEntity member : membershipService.getMembershipsInProject(project, user)) {
+            fields.add(String.join(":", String.valueOf(member.getId()), member.getEmail(), member.getRole(),
+                String.valueOf(member.getEntityType()), String.valueOf(member.getEntityId())));
+        }
+        projectService.getUserPermissions(project, user)
+            .stream()
+            .filter(permission -> permission instanceof ProjectPermission)
+            .map(Permission::getName)
+            .forEach(fields::add);
+        return StringUtil.sha256(fields.toArray(String[]::new));
+    }
+
+    /**
+     * Returns the tag of the project at a version like {@link #getProjectEtag(SafaUser, ProjectVersion)}, for a
+     * response that may only contain the parents and children of each artifact in its subtrees.
+     *
+     * @param user           The user requesting the project.
+     * @param projectVersion The version of the project returned.
+     * @param withClosures   Whether the subtrees contain the descendants and ancestors of each artifact.
+     * @return The entity tag.
+     */
+    public String getProjectEtag(SafaUser user, ProjectVersion projectVersion, boolean withClosures) {
+        String etag = getProjectEtag(user, projectVersion);
+        return withClosures ? etag : StringUtil.sha256(etag, "without-closures");
+    }
+}
@@ -0,0 +1,112 @@
+package edu.nd.crc.safa.features.projects.services;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.graph.ProjectGraph;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+import edu.nd.crc.safa.features.versions.services.VersionKeyedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the graphs of recently retrieved project versions. Unlike {@link VersionContentCache}, a graph is not
+ * evicted when a commit changes its version; the committed artifacts and trace links are applied to the graph
+ * instead, so only the subtrees they affect are recalculated. Versions after the committed version may or may
+ * not see the change, so their graphs are evicted. The cache is bounded by the total number of artifacts, trace
+ * links, and subtree artifact ids held. Queries on a graph are run while holding its lock, as the graph is
+ * changed in place, and the graph is recounted afterwards, as queries may calculate subtrees.
+ */
+@Service
+public class ProjectGraphCache extends VersionKeyedCache<ProjectGraph> {
+    public ProjectGraphCache(@Value("${projects.graph-cache.enabled:true}") boolean enabled,
+                             @Value("${projects.graph-cache.max-entities:500000}") int maxSize) {
+        super(enabled, maxSize, Set.of(NotificationEntity.DOCUMENT, NotificationEntity.LAYOUT,
+            NotificationEntity.WARNINGS));
+    }
+
+    /**
+     * Runs a query on the graph of given version. If the graph is not cached, it is created from the entities
+     * of the version and cached, unless the project changed since the entities were loaded.
+     *
+     * @param projectVersion The version whose graph is queried.
+     * @param generation     The generation of the project before the entities were loaded.
+     * @param entities       Loads the artifacts and trace links of the version, if the graph is not cached.
+     * @param query          The query to run on the graph.
+     * @param <T>            The type of result returned by the query.
+     * @return The result of the query, which must not reference the graph.
+     */
+    public <T> T query(ProjectVersion projectVersion,
+                       long generation,
+                       Supplier<ProjectEntities> entities,
+                       Function<ProjectGraph, T> query) {
+        ProjectGraph graph = isEnabled() ? get(projectVersion) : null;
+        if (graph == null) {
+            graph = new ProjectGraph(entities.get());
+            put(projectVersion, generation, graph);
+        }
+        return queryAndResize(projectVersion, graph, query);
+    }
+
+    /**
+     * Runs a query on the graph of given version, if it is cached.
+     *
+     * @param projectVersion The version whose graph is queried.
+     * @param query          The query to run on the graph.
+     * @param <T>            The type of result returned by the query.
+     * @return The result of the query, or empty if the graph is not cached.
+     */
+    public <T> Optional<T> queryIfCached(ProjectVersion projectVersion, Function<ProjectGraph, T> query) {
+        ProjectGraph graph = get(projectVersion);
+        if (graph == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(queryAndResize(projectVersion, graph, query));
+    }
+
+    /**
+     * Runs a query on a graph while holding its lock, then recounts the size of the graph in the cache. The
+     * cache lock is only taken after the graph lock is released, as updates take the graph lock while holding
+     * the cache lock.
+     */
+    private <T> T queryAndResize(ProjectVersion projectVersion, ProjectGraph graph, Function<ProjectGraph, T> query) {
+        T result;
+        int graphSize;
+        synchronized (graph) {
+            result = query.apply(graph);
+            graphSize = graph.getSize();
+        }
+        resize(projectVersion, graph, graphSize);
+        return result;
+    }
+
+    /**
+     * Applies a commit to the graph of the committed version. Applying a commit is idempotent, so a graph
+     * created from entities that already include the commit is not affected. Other affected graphs are evicted.
+     */
+    @Override
+    protected boolean update(ProjectVersionChangedEvent event, UUID versionId, ProjectGraph graph) {
+        ProjectCommitAppEntity commit = event.getCommit();
+        if (commit == null || !event.getProjectVersion().getVersionId().equals(versionId)) {
+            return false;
+        }
+        synchronized (graph) {
+            if (event.getEntity() == NotificationEntity.ARTIFACTS) {
+                graph.applyArtifactChange(commit.getArtifacts());
+                return true;
+            } else if (event.getEntity() == NotificationEntity.TRACES) {
+                graph.applyTraceChange(commit.getTraces());
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,8 +1,14 @@
 package edu.nd.crc.safa.features.projects.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
@@ -20,7 +26,10 @@ import edu.nd.crc.safa.features.permissions.entities.Permission;
 import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
 import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
 import edu.nd.crc.safa.features.projects.entities.app.ProjectParsingErrors;
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
+import edu.nd.crc.safa.features.projects.entities.app.VersionContent;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.projects.graph.ProjectGraph;
 import edu.nd.crc.safa.features.rules.parser.RuleName;
 import edu.nd.crc.safa.features.rules.services.WarningService;
@@ -33,13 +42,18 @@ import edu.nd.crc.safa.features.types.services.TypeService;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.users.services.SafaUserService;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.utilities.TimedStages;
 
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Responsible for all providing an API to retrieve and collect AppEntities including:
@@ -55,6 +69,7 @@ import org.springframework.stereotype.Service;
 @Scope("singleton")
 @RequiredArgsConstructor
 public class ProjectRetrievalService {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectRetrievalService.class);
 
     private final ArtifactService artifactService;
     private final TraceService traceService;
@@ -67,81 +82,217 @@ public class ProjectRetrievalService {
     private final CommitErrorRetrievalService commitErrorRetrievalService;
     private final SafaUserService safaUserService;
     private final TraceMatrixService traceMatrixService;
+    private final VersionContentCache versionContentCache;
+    private final ProjectGraphCache projectGraphCache;
 
     @Setter(onMethod = @__({@Autowired, @Lazy}))
     private ProjectService projectService;
+    @Setter(onMethod = @__({@Autowired, @Qualifier("retrievalExecutor")}))
+    private Executor retrievalExecutor;
 
     /**
      * Creates a project application entity containing the entities (e.g. traces, artifacts) from
      * the given version. Further, gathers the list of project members at the time of being called.
+     * The independent parts of the project are retrieved concurrently, unless called within a transaction
+     * whose uncommitted changes would not be visible to other threads.
      *
      * @param projectVersion The point in the project whose entities are being retrieved.
      * @param user           The user making the request
      * @return ProjectAppEntity Entity containing project name, description, artifacts, and traces.
      */
     public ProjectAppEntity getProjectAppEntity(SafaUser user, ProjectVersion projectVersion) {
+        return retrieveProjectAppEntity(user, projectVersion, false, true, true);
+    }
+
+    /**
+     * Creates a project application entity containing the entities (e.g. traces, artifacts) from
+     * the given version. Further, gathers the list of project members at the time of being called.
+     *
+     * @param projectVersion The point in the project whose entities are being retrieved.
+     * @return ProjectAppEntity Entity containing project name, description, artifacts, and traces.
+     */
+    public ProjectAppEntity getProjectAppEntity(ProjectVersion projectVersion) {
+        return getProjectAppEntity(safaUserService.getCurrentUser(), projectVersion);
+    }
+
+    /**
+     * Creates a project application entity like {@link #getProjectAppEntity(SafaUser, ProjectVersion)}, but
+     * reuses the artifacts, traces, layout, and subtrees of recently retrieved versions. These are shared with
+     * other callers, so the returned entity must not be modified.
+     *
+     * @param user           The user making the request
+     * @param projectVersion The point in the project whose entities are being retrieved.
+     * @return ProjectAppEntity Entity containing project name, description, artifacts, and traces.
+     */
+    public ProjectAppEntity getSharedProjectAppEntity(SafaUser user, ProjectVersion projectVersion) {
+        return getSharedProjectAppEntity(user, projectVersion, true);
+    }
+
+    /**
+     * Creates a shared project application entity like
+     * {@link #getSharedProjectAppEntity(SafaUser, ProjectVersion)}, optionally without the subtree, supertree,
+     * and neighbors of each artifact. Those grow with the square of the number of artifacts on deep hierarchies,
+     * so clients may retrieve them for selected artifacts with {@link #getSubtrees(ProjectVersion, Collection)}.
+     *
+     * @param user           The user making the request
+     * @param projectVersion The point in the project whose entities are being retrieved.
+     * @param withClosures   Whether subtrees include the descendants and ancestors of each artifact, instead of
+     *                       only its parents and children.
+     * @return ProjectAppEntity Entity containing project name, description, artifacts, and traces.
+     */
+    public ProjectAppEntity getSharedProjectAppEntity(SafaUser user,
+                                                      ProjectVersion projectVersion,
+                                                      boolean withClosures) {
+        return retrieveProjectAppEntity(user, projectVersion, true, true, withClosures);
+    }
+
+    /**
+     * Creates a project application entity like {@link #getProjectAppEntity(SafaUser, ProjectVersion)}, but
+     * without the artifacts, traces, warnings, and subtrees of the version, for callers that retrieve those
+     * separately.
+     *
+     * @param user           The user making the request
+     * @param projectVersion The point in the project whose entities are being retrieved.
+     * @return ProjectAppEntity Entity containing the project without its versioned entities.
+     */
+    public ProjectAppEntity getProjectAppEntityWithoutEntities(SafaUser user, ProjectVersion projectVersion) {
+        return retrieveProjectAppEntity(user, projectVersion, false, false, true);
+    }
+
+    private ProjectAppEntity retrieveProjectAppEntity(SafaUser user,
+                                                      ProjectVersion projectVersion,
+                                                      boolean shared,
+                                                      boolean withEntities,
+                                                      boolean withClosures) {
+        Project project = projectVersion.getProject();
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        TimedStages stages = new TimedStages(inTransaction ? null : retrievalExecutor);
+
+        // Version content shared between users
+        boolean cacheable = shared && !inTransaction && versionContentCache.isEnabled();
+        long generation = versionContentCache.getGeneration(projectVersion);
+        VersionContent cachedContent = cacheable
+            ? versionContentCache.get(projectVersion, project.getContentRevision())
+            : null;
+        long graphGeneration = projectGraphCache.getGeneration(projectVersion);
+        long warningsGeneration = warningService.getGeneration(projectVersion);
+
         // Versioned Entities
-        ProjectEntities entities = retrieveProjectEntitiesAtProjectVersion(projectVersion);
+        CompletableFuture<ProjectEntities> entities;
+        if (cachedContent != null) {
+            entities = CompletableFuture.completedFuture(cachedContent.getEntities());
+        } else if (withEntities) {
+            entities = stages.submit("entities", () -> retrieveProjectEntitiesAtProjectVersion(projectVersion));
+        } else {
+            entities = CompletableFuture.completedFuture(new ProjectEntities(new ArrayList<>(), new ArrayList<>()));
+        }
 
         // Project Entities
-        List<MembershipAppEntity> projectMembers =
-            this.membershipService.getMembershipsInProject(projectVersion.getProject(), user);
+        CompletableFuture<List<MembershipAppEntity>> projectMembers = stages.submit("members",
+            () -> this.membershipService.getMembershipsInProject(project, user));
 
         // Documents
-        List<DocumentAppEntity> documents = this.documentService.getAppEntities(projectVersion, user);
+        CompletableFuture<List<DocumentAppEntity>> documents = stages.submit("documents",
+            () -> this.documentService.getAppEntities(projectVersion, user));
 
         // Current document
-        String currentDocumentId = this.currentDocumentService.getCurrentDocumentId(user);
+        CompletableFuture<String> currentDocumentId = stages.submit("currentDocument",
+            () -> this.currentDocumentService.getCurrentDocumentId(user));
 
         // Artifact types
-        List<TypeAppEntity> artifactTypes = this.typeService.getAppEntities(projectVersion, user);
+        CompletableFuture<List<TypeAppEntity>> artifactTypes = stages.submit("types",
+            () -> this.typeService.getAppEntities(projectVersion, user));
 
         // Version errors
-        ProjectParsingErrors errors = this.commitErrorRetrievalService.collectErrorsInVersion(projectVersion);
+        CompletableFuture<ProjectParsingErrors> errors = stages.submit("errors",
+            () -> this.commitErrorRetrievalService.collectErrorsInVersion(projectVersion));
 
         // Artifact warnings
-        Map<UUID, List<RuleName>> warnings
-            = this.warningService.retrieveWarningsForAppEntities(projectVersion.getProject(), entities);
+        CompletableFuture<Map<UUID, List<RuleName>>> warnings = withEntities
+            ? stages.submit("warnings", entities, versionEntities ->
+                this.warningService.retrieveWarningsForAppEntities(projectVersion, warningsGeneration,
+                    versionEntities))
+            : CompletableFuture.completedFuture(new HashMap<>());
 
         // Layout
-        Map<UUID, LayoutPosition> layout = artifactPositionService.retrieveDocumentLayout(projectVersion, null);
+        CompletableFuture<Map<UUID, LayoutPosition>> layout = cachedContent != null
+            ? CompletableFuture.completedFuture(cachedContent.getLayout())
+            : stages.submit("layout", () -> artifactPositionService.retrieveDocumentLayout(projectVersion, null));
 
-        ProjectGraph graph = new ProjectGraph(entities);
-        Map<UUID, SubtreeAppEntity> subtrees = graph.getSubtreeInfo();
+        // Subtrees
+        Function<ProjectGraph, Map<UUID, SubtreeAppEntity>> subtreeQuery = withClosures
+            ? ProjectGraph::getSubtreeInfo
+            : ProjectGraph::getDirectRelationships;
+        CompletableFuture<Map<UUID, SubtreeAppEntity>> subtrees;
+        if (cachedContent != null) {
+            subtrees = CompletableFuture.completedFuture(withClosures
+                ? cachedContent.getSubtrees()
+                : withoutClosures(cachedContent.getSubtrees()));
+        } else if (withEntities) {
+            subtrees = stages.submit("subtrees", entities, versionEntities -> inTransaction
+                ? subtreeQuery.apply(new ProjectGraph(versionEntities))
+                : projectGraphCache.query(projectVersion, graphGeneration, () -> versionEntities, subtreeQuery));
+        } else {
+            subtrees = CompletableFuture.completedFuture(new HashMap<>());
+        }
 
-        List<TraceMatrixAppEntity> traceMatrices = traceMatrixService.getAppEntities(projectVersion, user);
+        CompletableFuture<List<TraceMatrixAppEntity>> traceMatrices = stages.submit("traceMatrices",
+            () -> traceMatrixService.getAppEntities(projectVersion, user));
 
-        List<String> permissions = projectService.getUserPermissions(projectVersion.getProject(), user)
-            .stream()
-            .filter(permission -> permission instanceof ProjectPermission)
-            .map(Permission::getName)
-            .collect(Collectors.toUnmodifiableList());
+        CompletableFuture<List<String>> permissions = stages.submit("permissions",
+            () -> projectService.getUserPermissions(project, user)
+                .stream()
+                .filter(permission -> permission instanceof ProjectPermission)
+                .map(Permission::getName)
+                .collect(Collectors.toUnmodifiableList()));
 
-        return new ProjectAppEntity(
+        ProjectAppEntity projectAppEntity = new ProjectAppEntity(
             projectVersion,
-            entities.getArtifacts(),
-            entities.getTraces(),
-            projectMembers,
-            documents,
-            currentDocumentId,
-            artifactTypes,
-            warnings,
-            errors,
-            layout,
-            subtrees,
-            traceMatrices,
-            permissions);
+            stages.join(entities).getArtifacts(),
+            stages.join(entities).getTraces(),
+            stages.join(projectMembers),
+            stages.join(documents),
+            stages.join(currentDocumentId),
+            stages.join(artifactTypes),
+            stages.join(warnings),
+            stages.join(errors),
+            stages.join(layout),
+            stages.join(subtrees),
+            stages.join(traceMatrices),
+            stages.join(permissions));
+        projectAppEntity.setServerTiming(stages.getServerTiming());
+        if (cacheable && cachedContent == null && withClosures) {
+            versionContentCache.put(projectVersion, generation,
+                new VersionContent(stages.join(entities), stages.join(layout), stages.join(subtrees),
+                    project.getContentRevision()));
+        }
+        logger.debug("Retrieved project version {} in {} ms (cached content: {}). Stages (ms): {}",
+            projectVersion.getVersionId(), stages.getElapsedTime(), cachedContent != null,
+            stages.getStageDurations());
+        return projectAppEntity;
     }
 
     /**
-     * Creates a project application entity containing the entities (e.g. traces, artifacts) from
-     * the given version. Further, gathers the list of project members at the time of being called.
+     * Retrieves the subtree information of some artifacts in a version, from the cached graph of the version if
+     * there is one.
      *
-     * @param projectVersion The point in the project whose entities are being retrieved.
-     * @return ProjectAppEntity Entity containing project name, description, artifacts, and traces.
+     * @param projectVersion The version containing the artifacts.
+     * @param artifactIds    The ids of the artifacts whose subtrees are returned.
+     * @return Map of artifact id to its parents, children, descendants, and ancestors.
+     * @throws SafaError If an artifact is not in the version.
      */
-    public ProjectAppEntity getProjectAppEntity(ProjectVersion projectVersion) {
-        return getProjectAppEntity(safaUserService.getCurrentUser(), projectVersion);
+    public Map<UUID, SubtreeAppEntity> getSubtrees(ProjectVersion projectVersion, Collection<UUID> artifactIds)
+        throws SafaError {
+        Map<UUID, SubtreeAppEntity> subtrees = projectGraphCache.query(projectVersion,
+            projectGraphCache.getGeneration(projectVersion),
+            () -> retrieveProjectEntitiesAtProjectVersion(projectVersion),
+            graph -> graph.getSubtreeInfo(artifactIds));
+        for (UUID artifactId : artifactIds) {
+            if (!subtrees.containsKey(artifactId)) {
+                throw new SafaError("Artifact %s is not in this version.", artifactId);
+            }
+        }
+        return subtrees;
     }
 
     /**
@@ -161,4 +312,10 @@ public class ProjectRetrievalService {
             .retrieveActiveTraces(projectVersion, artifactIds);
         return new ProjectEntities(artifacts, traces);
     }
+
+    private static Map<UUID, SubtreeAppEntity> withoutClosures(Map<UUID, SubtreeAppEntity> subtrees) {
+        Map<UUID, SubtreeAppEntity> relationships = new HashMap<>();
+        subtrees.forEach((artifactId, subtree) -> relationships.put(artifactId, subtree.withoutClosures()));
+        return relationships;
+    }
 }
@@ -0,0 +1,163 @@
+package edu.nd.crc.safa.features.projects.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.services.ArtifactService;
+import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
+import edu.nd.crc.safa.features.projects.graph.ProjectGraph;
+import edu.nd.crc.safa.features.projects.graph.ReachabilityIndex;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+import edu.nd.crc.safa.features.rules.services.WarningService;
+import edu.nd.crc.safa.features.traces.services.TraceService;
+import edu.nd.crc.safa.features.users.entities.db.SafaUser;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.javatuples.Pair;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes projects as JSON while their artifacts and trace links are read from the database, instead of
+ * building the whole {@link ProjectAppEntity} before serializing it. Only the ids and types of the artifacts and
+ * the ids of the ends of the trace links are held in memory, which are needed to select the trace links,
+ * calculate warnings, and relate artifacts. Subtrees only contain the parents and children of each artifact, as
+ * the descendants and ancestors of every artifact grow with the square of the number of artifacts on deep
+ * hierarchies. The written document has the same fields as a serialized {@link ProjectAppEntity}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectStreamingService {
+    private static final String ARTIFACTS = "artifacts";
+    private static final String TRACES = "traces";
+    private static final String WARNINGS = "warnings";
+    private static final String SUBTREES = "subtrees";
+
+    private final ProjectRetrievalService projectRetrievalService;
+    private final ArtifactService artifactService;
+    private final TraceService traceService;
+    private final WarningService warningService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Retrieves the parts of the project that are not versioned entities, then returns a body writing the
+     * project. Retrieving these parts up front means errors are reported before the response is committed.
+     *
+     * @param user           The user making the request.
+     * @param projectVersion The version of the project to write.
+     * @return The body writing the project at the version.
+     */
+    public StreamingResponseBody streamProjectAppEntity(SafaUser user, ProjectVersion projectVersion) {
+        ProjectAppEntity project = projectRetrievalService.getProjectAppEntityWithoutEntities(user, projectVersion);
+        ObjectNode projectFields = objectMapper.valueToTree(project);
+        projectFields.remove(List.of(ARTIFACTS, TRACES, WARNINGS, SUBTREES));
+        return outputStream -> writeProject(projectFields, projectVersion, outputStream);
+    }
+
+    /**
+     * Writes the given fields of the project, followed by the artifacts and trace links of the version as they
+     * are read, then the warnings and subtrees.
+     *
+     * @param projectFields  The fields of the project other than its versioned entities.
+     * @param projectVersion The version whose entities are written.
+     * @param outputStream   The stream written to.
+     * @throws IOException If the project could not be written.
+     */
+    private void writeProject(ObjectNode projectFields, ProjectVersion projectVersion, OutputStream outputStream)
+        throws IOException {
+        long warningsGeneration = warningService.getGeneration(projectVersion);
+        Map<UUID, String> artifactTypes = new LinkedHashMap<>();
+        List<Pair<UUID, UUID>> traceLinks = new ArrayList<>();
+        List<Pair<UUID, UUID>> displayedLinks = new ArrayList<>();
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = projectFields.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            try {
+                transaction.executeWithoutResult(status ->
+                    writeEntities(generator, projectVersion, artifactTypes, traceLinks, displayedLinks));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            Map<UUID, List<RuleName>> warnings = warningService.retrieveWarningsForLinks(projectVersion,
+                warningsGeneration, artifactTypes, traceLinks);
+            generator.writeObjectField(WARNINGS, warnings);
+
+            ReachabilityIndex index = new ReachabilityIndex(artifactTypes.keySet(), displayedLinks);
+            generator.writeObjectFieldStart(SUBTREES);
+            for (UUID artifactId : artifactTypes.keySet()) {
+                generator.writeObjectField(artifactId.toString(), index.getDirectRelationships(artifactId));
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the artifacts and the trace links of the version as they are read, collecting their ids.
+     *
+     * @param generator      The generator writing the project.
+     * @param projectVersion The version whose entities are written.
+     * @param artifactTypes  The map the type name of each artifact is added to.
+     * @param traceLinks     The list the source and target ids of each trace link are added to.
+     * @param displayedLinks The list the source and target ids of each trace link shown as an edge are added to.
+     */
+    private void writeEntities(JsonGenerator generator,
+                               ProjectVersion projectVersion,
+                               Map<UUID, String> artifactTypes,
+                               List<Pair<UUID, UUID>> traceLinks,
+                               List<Pair<UUID, UUID>> displayedLinks) {
+        try {
+            generator.writeArrayFieldStart(ARTIFACTS);
+            artifactService.forEachAppEntity(projectVersion, artifact -> {
+                artifactTypes.put(artifact.getId(), artifact.getType());
+                writeObject(generator, artifact);
+            });
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart(TRACES);
+            traceService.forEachActiveTrace(projectVersion, artifactTypes.keySet(), trace -> {
+                Pair<UUID, UUID> traceLink = new Pair<>(trace.getSourceId(), trace.getTargetId());
+                traceLinks.add(traceLink);
+                if (ProjectGraph.traceLinkIsVisible(trace)) {
+                    displayedLinks.add(traceLink);
+                }
+                writeObject(generator, trace);
+            });
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeObject(JsonGenerator generator, Object value) {
+        try {
+            generator.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
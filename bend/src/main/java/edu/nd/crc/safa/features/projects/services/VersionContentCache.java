@@ -0,0 +1,39 @@
+package edu.nd.crc.safa.features.projects.services;
+
+import java.util.Set;
+
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.entities.app.VersionContent;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.services.VersionKeyedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the content of recently retrieved project versions. The cache is bounded by the total number of
+ * entities held, counting artifacts, trace links, the artifact ids in subtrees, and artifact text (see
+ * {@link VersionContent#getSize()}). Content is only returned to requests reading the same content revision of
+ * the project, so the change cursor sent with the content always matches it.
+ */
+@Service
+public class VersionContentCache extends VersionKeyedCache<VersionContent> {
+    public VersionContentCache(@Value("${projects.cache.enabled:true}") boolean enabled,
+                               @Value("${projects.cache.max-entities:200000}") int maxSize) {
+        super(enabled, maxSize, Set.of(NotificationEntity.DOCUMENT, NotificationEntity.WARNINGS));
+    }
+
+    /**
+     * Returns the cached content of given version if it was loaded at given content revision of the project.
+     * Between a change being committed and its event evicting the version, the cached content is older than
+     * the revision read from the database.
+     *
+     * @param projectVersion  The version whose content is returned.
+     * @param contentRevision The content revision of the project read by the request.
+     * @return The cached content, or null if the version is not cached at that revision.
+     */
+    public VersionContent get(ProjectVersion projectVersion, long contentRevision) {
+        VersionContent content = get(projectVersion);
+        return content == null || content.getContentRevision() != contentRevision ? null : content;
+    }
+}
@@ -8,6 +8,7 @@ import edu.nd.crc.safa.authentication.builders.ResourceBuilder;
 import edu.nd.crc.safa.config.AppRoutes;
 import edu.nd.crc.safa.features.common.BaseController;
 import edu.nd.crc.safa.features.common.ServiceProvider;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.permissions.entities.ProjectPermission;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
@@ -17,6 +18,7 @@ import edu.nd.crc.safa.features.rules.parser.ParserRule;
 import edu.nd.crc.safa.features.rules.parser.RuleName;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -69,6 +71,8 @@ public class RuleController extends BaseController {
         // Step - Create and save persistent rule
         Rule rule = new Rule(project, ruleAppEntity);
         getServiceProvider().getRuleRepository().save(rule);
+        getServiceProvider().getEventPublisher()
+            .publishEvent(new ProjectVersionChangedEvent(this, project, NotificationEntity.WARNINGS));
         ruleAppEntity.setId(rule.getId().toString());
 
         return ruleAppEntity;
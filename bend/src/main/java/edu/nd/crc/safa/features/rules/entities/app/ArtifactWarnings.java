@@ -0,0 +1,27 @@
+package edu.nd.crc.safa.features.rules.entities.app;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The warnings of a single artifact. Sent to clients when the warnings of an artifact change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtifactWarnings {
+    /**
+     * The id of the artifact.
+     */
+    private UUID artifactId;
+    /**
+     * The rules violated by the artifact. Empty if the artifact no longer has warnings.
+     */
+    private List<RuleName> warnings;
+}
@@ -0,0 +1,69 @@
+package edu.nd.crc.safa.features.rules.entities.app;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.common.Sized;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+
+/**
+ * The warnings of the artifacts in a project version, which can be updated with the warnings changed by a commit.
+ */
+public class VersionWarnings implements Sized {
+    /**
+     * Artifact id to the rules it violates. Artifacts without warnings are not included.
+     */
+    private final Map<UUID, List<RuleName>> warnings;
+
+    public VersionWarnings(Map<UUID, List<RuleName>> warnings) {
+        this.warnings = new HashMap<>(warnings);
+    }
+
+    /**
+     * @return A copy of the warnings of each artifact.
+     */
+    public synchronized Map<UUID, List<RuleName>> getWarnings() {
+        return new HashMap<>(warnings);
+    }
+
+    /**
+     * @param artifactIds The ids of the artifacts whose warnings are returned.
+     * @return The warnings of the given artifacts that have warnings.
+     */
+    public synchronized Map<UUID, List<RuleName>> getWarnings(Collection<UUID> artifactIds) {
+        Map<UUID, List<RuleName>> artifactWarnings = new HashMap<>();
+        for (UUID artifactId : artifactIds) {
+            List<RuleName> ruleNames = warnings.get(artifactId);
+            if (ruleNames != null) {
+                artifactWarnings.put(artifactId, ruleNames);
+            }
+        }
+        return artifactWarnings;
+    }
+
+    /**
+     * Replaces the warnings of the given artifacts.
+     *
+     * @param changedWarnings The new warnings of each changed artifact.
+     */
+    public synchronized void apply(List<ArtifactWarnings> changedWarnings) {
+        for (ArtifactWarnings artifactWarnings : changedWarnings) {
+            if (artifactWarnings.getWarnings().isEmpty()) {
+                warnings.remove(artifactWarnings.getArtifactId());
+            } else {
+                warnings.put(artifactWarnings.getArtifactId(), artifactWarnings.getWarnings());
+            }
+        }
+    }
+
+    /**
+     * @return The number of artifacts with warnings, plus one for the version itself.
+     */
+    @Override
+    public synchronized int getSize() {
+        return warnings.size() + 1;
+    }
+}
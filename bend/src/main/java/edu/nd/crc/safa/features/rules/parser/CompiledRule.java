@@ -0,0 +1,58 @@
+package edu.nd.crc.safa.features.rules.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+
+/**
+ * A rule whose functions have been parsed once so it can be evaluated against many artifacts.
+ * Evaluating the rule substitutes the result of each function into the remaining tokens and
+ * reduces them the same way as {@link ParserRule}.
+ */
+public class CompiledRule {
+    private static final Token TRUE = new Token(TokenType.TRUE, "True");
+    private static final Token FALSE = new Token(TokenType.FALSE, "False");
+
+    private final ParserRule rule;
+    /**
+     * The functions of the rule in the order they appear.
+     */
+    @Getter
+    private final List<Function> functions;
+    /**
+     * The position of each function's result within the token template.
+     */
+    private final List<Integer> positions;
+    /**
+     * The tokens of the rule with each function collapsed into a single placeholder token.
+     */
+    private final List<Token> template;
+
+    CompiledRule(ParserRule rule, List<Function> functions, List<Integer> positions, List<Token> template) {
+        this.rule = rule;
+        this.functions = functions;
+        this.positions = positions;
+        this.template = template;
+    }
+
+    public RuleName getRuleName() {
+        return rule.getMRuleName();
+    }
+
+    /**
+     * Evaluates the rule using given function results.
+     *
+     * @param functionResult Returns whether a function of the rule is satisfied.
+     * @return Whether the rule is satisfied.
+     */
+    public boolean isSatisfied(Predicate<Function> functionResult) {
+        List<Token> tokens = new ArrayList<>(template);
+        for (int i = 0; i < functions.size(); i++) {
+            tokens.set(positions.get(i), functionResult.test(functions.get(i)) ? TRUE : FALSE);
+        }
+        rule.reduceSingle(tokens);
+        return tokens.get(0).getTokenType() == TokenType.TRUE;
+    }
+}
@@ -138,6 +138,41 @@ public class ParserRule {
         return Optional.of(function);
     }
 
+    /**
+     * Parses the functions of this rule once so it can be evaluated without being re-parsed.
+     *
+     * @return The compiled rule.
+     */
+    public CompiledRule compile() {
+        ParserRule rule = new ParserRule(this);
+        List<Function> functions = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        while (true) {
+            Optional<Function> ruleFunctionQuery = rule.parseFunction();
+            if (ruleFunctionQuery.isEmpty()) {
+                break;
+            }
+            functions.add(ruleFunctionQuery.get());
+            positions.add(rule.getFunctionStart());
+            rule.setFunctionResult(true);
+        }
+        return new CompiledRule(this, functions, positions, rule.mTokens);
+    }
+
+    private int getFunctionStart() {
+        int start = -1;
+        for (int i = 0; i < mTokens.size(); i++) {
+            final Token t = mTokens.get(i);
+            if (t.getTokenType() == TokenType.FUNC_START) {
+                start = i;
+            }
+            if (t.getTokenType() == TokenType.FUNC_END) {
+                break;
+            }
+        }
+        return start;
+    }
+
     public void setFunctionResult(final boolean rulePassed) {
         int start = -1;
         int end = -1;
@@ -0,0 +1,89 @@
+package edu.nd.crc.safa.features.rules.parser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Indexes trace links by the artifacts they connect and the types of those artifacts, so the number
+ * of links matching a rule function is looked up instead of scanning every link.
+ */
+class TraceIndex {
+    /**
+     * Artifact id to the number of links where the artifact is the target, by source type.
+     */
+    private final Map<UUID, Map<String, Integer>> childCounts = new HashMap<>();
+    /**
+     * Artifact id to the number of links where the artifact is the source, by target type.
+     */
+    private final Map<UUID, Map<String, Integer>> parentCounts = new HashMap<>();
+    /**
+     * Artifact id to the number of links touching the artifact, by source and target type.
+     */
+    private final Map<UUID, Map<List<String>, Integer>> linkCounts = new HashMap<>();
+
+    /**
+     * Adds a trace link to the index.
+     *
+     * @param sourceId   The id of the source artifact.
+     * @param sourceType The type of the source artifact.
+     * @param targetId   The id of the target artifact.
+     * @param targetType The type of the target artifact.
+     */
+    void addLink(UUID sourceId, String sourceType, UUID targetId, String targetType) {
+        sourceType = sourceType.toLowerCase();
+        targetType = targetType.toLowerCase();
+        increment(childCounts, targetId, sourceType);
+        increment(parentCounts, sourceId, targetType);
+
+        List<String> linkType = List.of(sourceType, targetType);
+        increment(linkCounts, sourceId, linkType);
+        if (!sourceId.equals(targetId)) {
+            increment(linkCounts, targetId, linkType);
+        }
+    }
+
+    /**
+     * Returns the number of links to given artifact whose source is of given type.
+     *
+     * @param artifactId The id of the target artifact.
+     * @param childType  The type of the source artifacts.
+     * @return The number of children.
+     */
+    int countChildren(UUID artifactId, String childType) {
+        return getCount(childCounts, artifactId, childType.toLowerCase());
+    }
+
+    /**
+     * Returns the number of links to or from given artifact whose other artifact is of given type.
+     *
+     * @param artifactId  The id of the artifact.
+     * @param siblingType The type of the artifacts on the other end of the links.
+     * @return The number of siblings.
+     */
+    int countSiblings(UUID artifactId, String siblingType) {
+        String type = siblingType.toLowerCase();
+        return getCount(childCounts, artifactId, type) + getCount(parentCounts, artifactId, type);
+    }
+
+    /**
+     * Returns the number of links touching given artifact between artifacts of given types.
+     *
+     * @param artifactId The id of the artifact.
+     * @param sourceType The type of the source artifacts.
+     * @param targetType The type of the target artifacts.
+     * @return The number of links.
+     */
+    int countLinks(UUID artifactId, String sourceType, String targetType) {
+        return getCount(linkCounts, artifactId, List.of(sourceType.toLowerCase(), targetType.toLowerCase()));
+    }
+
+    private static <K> void increment(Map<UUID, Map<K, Integer>> counts, UUID artifactId, K key) {
+        counts.computeIfAbsent(artifactId, id -> new HashMap<>()).merge(key, 1, Integer::sum);
+    }
+
+    private static <K> int getCount(Map<UUID, Map<K, Integer>> counts, UUID artifactId, K key) {
+        return counts.getOrDefault(artifactId, Map.of()).getOrDefault(key, 0);
+    }
+}
@@ -4,8 +4,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
@@ -14,27 +15,39 @@ import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLink;
 
 import lombok.AllArgsConstructor;
+import org.javatuples.Pair;
 
 /**
  * Responsible for applying a set of rules to a set of artifacts and links between them
  * generating warnings if the rules are not met.
  */
 public class TreeVerifier {
+    /**
+     * The number of artifacts above which artifacts are evaluated in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1000;
 
-    public static final Retrievers<ArtifactVersion, TraceLink> dbEntityRetrievers = new Retrievers<>(
+    private static final Retrievers<ArtifactVersion, TraceLink> dbEntityRetrievers = new Retrievers<>(
         a -> a.getArtifact().getArtifactId(),
         ArtifactVersion::getTypeName,
         t -> t.getSourceArtifact().getArtifactId(),
         t -> t.getTargetArtifact().getArtifactId()
     );
 
-    public static final Retrievers<ArtifactAppEntity, TraceAppEntity> appEntityRetrievers = new Retrievers<>(
+    private static final Retrievers<ArtifactAppEntity, TraceAppEntity> appEntityRetrievers = new Retrievers<>(
         ArtifactAppEntity::getId,
         ArtifactAppEntity::getType,
         TraceAppEntity::getSourceId,
         TraceAppEntity::getTargetId
     );
 
+    private static final Retrievers<Map.Entry<UUID, String>, Pair<UUID, UUID>> idRetrievers = new Retrievers<>(
+        Map.Entry::getKey,
+        Map.Entry::getValue,
+        Pair::getValue0,
+        Pair::getValue1
+    );
+
     /**
      * Applies given list of rules to tree formed by given artifacts connected via trace links.
      *
@@ -64,8 +77,41 @@ public class TreeVerifier {
         return findRuleViolations(artifactBodies, traceLinks, rulesToApply, appEntityRetrievers);
     }
 
+    /**
+     * Applies given list of rules to tree formed by artifacts of given types connected via trace links, for
+     * callers holding only the ids of the entities.
+     *
+     * @param artifactTypes - The type name of each node of the graph
+     * @param traceLinks    - The source and target ids of the links connecting the nodes
+     * @param rulesToApply  - The list of rules to apply to the artifact tree
+     * @return A mapping between artifact Ids and the list of rules it violated
+     */
+    public final Map<UUID, List<RuleName>> findRuleViolations(Map<UUID, String> artifactTypes,
+                                                              List<Pair<UUID, UUID>> traceLinks,
+                                                              List<ParserRule> rulesToApply) {
+        return findRuleViolations(new ArrayList<>(artifactTypes.entrySet()), traceLinks, rulesToApply,
+            idRetrievers);
+    }
+
+    /**
+     * Checks a single function of a rule against an artifact, regardless of the type of the artifact.
+     *
+     * @param function        - The function to check
+     * @param artifactId      - The id of the artifact checked
+     * @param projectEntities - The entities of the graph
+     * @return Whether the artifact satisfies the function
+     */
+    public final boolean isFunctionSatisfied(Function function, UUID artifactId, ProjectEntities projectEntities) {
+        TraceIndex traceIndex = createTraceIndex(projectEntities.getArtifacts(), projectEntities.getTraces(),
+            appEntityRetrievers);
+        return isRuleSatisfied(function, artifactId, traceIndex);
+    }
+
     /**
      * Applies given list of rules to tree formed by given artifacts connected via trace links.
+     * Rules are parsed once and links are indexed by artifact and type before artifacts are evaluated.
+     * Links whose source or target is not among the given artifacts are skipped, as the type of their other
+     * end is unknown.
      *
      * @param artifactBodies - The nodes of the graph
      * @param traceLinks     - The traceLinks (links) connecting the nodes (artifacts)
@@ -77,137 +123,74 @@ public class TreeVerifier {
                                                                 List<T> traceLinks,
                                                                 List<ParserRule> rulesToApply,
                                                                 Retrievers<A, T> retrievers) {
-        Map<UUID, List<RuleName>> results = new HashMap<>();
-
-        Map<UUID, A> idToArtifact = new HashMap<>();
-        artifactBodies.forEach(a -> idToArtifact.put(retrievers.idRetriever.apply(a), a));
-
-        artifactBodies.forEach(artifactBody -> {
-
-            List<RuleName> artifactWarnings = new ArrayList<>();
-            for (ParserRule rule : rulesToApply) {
-                rule = new ParserRule(rule);
-                while (true) {
-                    Optional<Function> ruleFunctionQuery = rule.parseFunction();
-                    if (ruleFunctionQuery.isPresent()) {
-                        Function ruleFunction = ruleFunctionQuery.get();
-                        String type = retrievers.typeRetriever.apply(artifactBody);
-
-                        if (type.equalsIgnoreCase(ruleFunction.getTargetArtifactType())) {
-                            boolean isSatisfied = isRuleSatisfied(ruleFunction, artifactBody, traceLinks,
-                                idToArtifact, retrievers);
-                            rule.setFunctionResult(isSatisfied);
-                        } else {
-                            rule.setFunctionResult(true);
-                        }
-                    } else {
-                        break;
-                    }
-                }
-
-                rule.reduce();
-
-                if (!rule.isRuleSatisfied()) {
-                    artifactWarnings.add(rule.getMRuleName());
-                }
-            }
-            if (!artifactWarnings.isEmpty()) {
-                UUID artifactId = retrievers.idRetriever.apply(artifactBody);
-                results.put(artifactId, artifactWarnings);
-            }
-        });
+        List<CompiledRule> compiledRules = rulesToApply
+            .stream()
+            .map(ParserRule::compile)
+            .collect(Collectors.toList());
+        TraceIndex traceIndex = createTraceIndex(artifactBodies, traceLinks, retrievers);
+
+        Stream<A> artifactStream = artifactBodies.size() >= PARALLEL_THRESHOLD
+            ? artifactBodies.parallelStream()
+            : artifactBodies.stream();
+        return artifactStream
+            .map(artifactBody -> new Pair<>(retrievers.idRetriever.apply(artifactBody),
+                findArtifactViolations(artifactBody, compiledRules, traceIndex, retrievers)))
+            .filter(result -> !result.getValue1().isEmpty())
+            .collect(Collectors.toMap(Pair::getValue0, Pair::getValue1, (a, b) -> b, HashMap::new));
+    }
 
-        return results;
+    private <A, T> List<RuleName> findArtifactViolations(A artifactBody,
+                                                         List<CompiledRule> rules,
+                                                         TraceIndex traceIndex,
+                                                         Retrievers<A, T> retrievers) {
+        UUID artifactId = retrievers.idRetriever.apply(artifactBody);
+        String type = retrievers.typeRetriever.apply(artifactBody);
+
+        List<RuleName> artifactWarnings = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            boolean isSatisfied = rule.isSatisfied(ruleFunction ->
+                !type.equalsIgnoreCase(ruleFunction.getTargetArtifactType())
+                    || isRuleSatisfied(ruleFunction, artifactId, traceIndex));
+            if (!isSatisfied) {
+                artifactWarnings.add(rule.getRuleName());
+            }
+        }
+        return artifactWarnings;
     }
 
-    private <A, T> boolean isRuleSatisfied(final Function ruleToApply, A targetArtifact, final List<T> traceLinks,
-                                           final Map<UUID, A> idToArtifact, Retrievers<A, T> retrievers) {
-        UUID artifactId = retrievers.idRetriever.apply(targetArtifact);
+    private <A, T> TraceIndex createTraceIndex(List<A> artifactBodies,
+                                               List<T> traceLinks,
+                                               Retrievers<A, T> retrievers) {
+        Map<UUID, String> idToType = new HashMap<>();
+        artifactBodies.forEach(a -> idToType.put(retrievers.idRetriever.apply(a), retrievers.typeRetriever.apply(a)));
+
+        TraceIndex traceIndex = new TraceIndex();
+        for (T traceLink : traceLinks) {
+            UUID sourceId = retrievers.sourceIdRetriever.apply(traceLink);
+            UUID targetId = retrievers.targetIdRetriever.apply(traceLink);
+            String sourceType = idToType.get(sourceId);
+            String targetType = idToType.get(targetId);
+            if (sourceType != null && targetType != null) {
+                traceIndex.addLink(sourceId, sourceType, targetId, targetType);
+            }
+        }
+        return traceIndex;
+    }
 
+    private boolean isRuleSatisfied(final Function ruleToApply, UUID artifactId, TraceIndex traceIndex) {
         switch (ruleToApply.getArtifactRelationship()) {
             case BIDIRECTIONAL_LINK:
-                return satisfiesLinkCountRule(ruleToApply, artifactId, traceLinks, idToArtifact, retrievers);
+                return matchesRuleCount(ruleToApply, traceIndex.countLinks(artifactId,
+                    ruleToApply.getSourceArtifactType(), ruleToApply.getTargetArtifactType()));
             case CHILD:
-                return satisfiesChildCountRule(ruleToApply, artifactId, traceLinks, idToArtifact, retrievers);
+                return matchesRuleCount(ruleToApply,
+                    traceIndex.countChildren(artifactId, ruleToApply.getSourceArtifactType()));
             case SIBLING:
-                return handleSiblingFunction(ruleToApply, artifactId, traceLinks, idToArtifact, retrievers);
+                return matchesRuleCount(ruleToApply,
+                    traceIndex.countSiblings(artifactId, ruleToApply.getSourceArtifactType()));
             default:
                 return true;
         }
-
-    }
-
-    public <A, T> boolean satisfiesLinkCountRule(final Function rule, final UUID artifactId, final List<T> traceLinks,
-                                                 final Map<UUID, A> idToArtifact, Retrievers<A, T> retrievers) {
-
-        long childCount = traceLinks
-            .stream()
-            // Get all traceLinks where we are the source or target
-            .filter(t -> {
-                A sourceEntity = idToArtifact.get(retrievers.sourceIdRetriever.apply(t));
-                A targetEntity = idToArtifact.get(retrievers.targetIdRetriever.apply(t));
-
-                UUID sourceId = retrievers.idRetriever.apply(sourceEntity);
-                UUID targetId = retrievers.idRetriever.apply(targetEntity);
-
-                if (sourceId.equals(artifactId) || targetId.equals(artifactId)) {
-                    String sourceType = retrievers.typeRetriever.apply(sourceEntity);
-                    String targetType = retrievers.typeRetriever.apply(targetEntity);
-
-                    return rule.getSourceArtifactType().equalsIgnoreCase(sourceType)
-                        && rule.getTargetArtifactType().equalsIgnoreCase(targetType);
-                } else {
-                    return false;
-                }
-            })
-            .count();
-        return matchesRuleCount(rule, childCount);
-    }
-
-    public <A, T> boolean satisfiesChildCountRule(final Function childCountRule, final UUID targetArtifactId,
-                                                  final List<T> traceLinks, final Map<UUID, A> idToArtifact,
-                                                  Retrievers<A, T> retrievers) {
-        long childCount = traceLinks
-            .stream()
-            // Get all traceLinks where we are the source
-            .filter(link -> retrievers.targetIdRetriever.apply(link).equals(targetArtifactId))
-            // Get all traceLinks where the target matches the required target type
-            .filter(link -> {
-                A artifact = idToArtifact.get(retrievers.sourceIdRetriever.apply(link));
-                String type = retrievers.typeRetriever.apply(artifact);
-                return type.equalsIgnoreCase(childCountRule.getSourceArtifactType());
-            })
-            .count();
-        return matchesRuleCount(childCountRule, childCount);
-    }
-
-    public <A, T> boolean handleSiblingFunction(final Function r, final UUID artifactId, final List<T> traceLinks,
-                                                final Map<UUID, A> idToArtifact, Retrievers<A, T> retrievers) {
-
-        Long siblingCountAsTarget = traceLinks
-            .stream()
-            // Get traceLinks that finish with this node
-            .filter(t -> retrievers.targetIdRetriever.apply(t).equals(artifactId))
-            .filter(t -> {
-                A artifact = idToArtifact.get(retrievers.sourceIdRetriever.apply(t));
-                String type = retrievers.typeRetriever.apply(artifact);
-                return type.equalsIgnoreCase(r.getSourceArtifactType());
-            })
-            .count();
-
-        Long siblingCountAsSource = traceLinks
-            .stream()
-            // Get traceLinks that finish with this node
-            .filter(t -> retrievers.sourceIdRetriever.apply(t).equals(artifactId))
-            .filter(t -> {
-                A artifact = idToArtifact.get(retrievers.targetIdRetriever.apply(t));
-                String type = retrievers.typeRetriever.apply(artifact);
-                return type.equalsIgnoreCase(r.getSourceArtifactType());
-            })
-            .count();
-        long siblingCount = siblingCountAsTarget + siblingCountAsSource;
-
-        return matchesRuleCount(r, siblingCount);
     }
 
     private boolean matchesRuleCount(Function r, long childCount) {
@@ -16,6 +16,7 @@ import edu.nd.crc.safa.features.rules.repositories.RuleRepository;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLink;
 
 import lombok.AllArgsConstructor;
+import org.javatuples.Pair;
 import org.springframework.stereotype.Service;
 
 /**
@@ -56,6 +57,22 @@ public class RuleService {
         return verifier.findRuleViolations(projectEntities, rulesToApply);
     }
 
+    /**
+     * Returns the warnings of artifacts of given types using default and project rules.
+     *
+     * @param project       The project whose rules are applied.
+     * @param artifactTypes The type name of each artifact being checked for violations.
+     * @param traceLinks    The source and target ids of the trace links between the artifacts.
+     * @return Returns a map of artifact id's to a list of warning associated with that artifact.
+     */
+    public Map<UUID, List<RuleName>> generateWarningsOnEntities(Project project,
+                                                                Map<UUID, String> artifactTypes,
+                                                                List<Pair<UUID, UUID>> traceLinks) {
+        TreeVerifier verifier = new TreeVerifier();
+        List<ParserRule> rulesToApply = new ArrayList<>(this.getProjectRules(project));
+        return verifier.findRuleViolations(artifactTypes, traceLinks, rulesToApply);
+    }
+
     /**
      * Returns list of warning rules defined on given project.
      *
@@ -0,0 +1,48 @@
+package edu.nd.crc.safa.features.rules.services;
+
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.rules.entities.app.VersionWarnings;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+import edu.nd.crc.safa.features.versions.services.VersionKeyedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the warnings of recently retrieved project versions. A commit to a cached version is applied to its
+ * warnings once the commit is persisted, using the warnings the commit changed. Any other change evicts the
+ * affected versions. The cache is bounded by the total number of artifact warnings held.
+ */
+@Service
+public class WarningCache extends VersionKeyedCache<VersionWarnings> {
+    public WarningCache(@Value("${rules.warnings-cache.enabled:true}") boolean enabled,
+                        @Value("${rules.warnings-cache.max-entities:500000}") int maxSize) {
+        super(enabled, maxSize, Set.of(NotificationEntity.DOCUMENT, NotificationEntity.LAYOUT));
+    }
+
+    /**
+     * Applies the warnings changed by a commit to the warnings of the committed version. The changed artifacts
+     * and trace links of the commit keep the warnings, as the warnings they change are published after them.
+     */
+    @Override
+    protected boolean update(ProjectVersionChangedEvent event, UUID versionId, VersionWarnings warnings) {
+        ProjectCommitAppEntity commit = event.getCommit();
+        if (commit == null || !event.getProjectVersion().getVersionId().equals(versionId)) {
+            return false;
+        }
+        switch (event.getEntity()) {
+            case WARNINGS:
+                warnings.apply(commit.getWarnings());
+                return true;
+            case ARTIFACTS:
+            case TRACES:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
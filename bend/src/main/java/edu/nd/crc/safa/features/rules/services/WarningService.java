@@ -1,31 +1,46 @@
 package edu.nd.crc.safa.features.rules.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
 import edu.nd.crc.safa.features.artifacts.repositories.ArtifactVersionRepository;
+import edu.nd.crc.safa.features.artifacts.services.ArtifactService;
 import edu.nd.crc.safa.features.common.ProjectEntities;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.rules.entities.app.ArtifactWarnings;
+import edu.nd.crc.safa.features.rules.entities.app.VersionWarnings;
 import edu.nd.crc.safa.features.rules.parser.RuleName;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLink;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
 import edu.nd.crc.safa.features.traces.repositories.TraceLinkVersionRepository;
+import edu.nd.crc.safa.features.traces.services.TraceService;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.javatuples.Pair;
 import org.springframework.stereotype.Service;
 
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Service
 public class WarningService {
-
     private final ArtifactVersionRepository artifactVersionRepository;
     private final TraceLinkVersionRepository traceLinkVersionRepository;
     private final RuleService ruleService;
+    private final ArtifactService artifactService;
+    private final TraceService traceService;
+    private final WarningCache warningCache;
 
     /**
      * Returns mapping of artifact UUID to the list of violations it is inhibiting.
@@ -57,4 +72,161 @@ public class WarningService {
     public Map<UUID, List<RuleName>> retrieveWarningsForAppEntities(Project project, ProjectEntities entities) {
         return this.ruleService.generateWarningsOnEntities(project, entities);
     }
+
+    /**
+     * Returns the generation of the cached warnings of the project the version belongs to. Must be read before
+     * loading the entities later passed to {@link #retrieveWarningsForAppEntities(ProjectVersion, long,
+     * ProjectEntities)}.
+     *
+     * @param projectVersion The version whose entities will be loaded.
+     * @return The number of changes published for the project.
+     */
+    public long getGeneration(ProjectVersion projectVersion) {
+        return warningCache.getGeneration(projectVersion);
+    }
+
+    /**
+     * Returns the warnings of the entities in given project version, computing them from given entities
+     * only if the warnings of the version are not cached.
+     *
+     * @param projectVersion The version the entities belong to.
+     * @param generation     The generation of the project before the entities were loaded.
+     * @param entities       The entities in the project version.
+     * @return A mapping of artifact UUIDs to their resulting violations
+     */
+    public Map<UUID, List<RuleName>> retrieveWarningsForAppEntities(ProjectVersion projectVersion,
+                                                                    long generation,
+                                                                    ProjectEntities entities) {
+        VersionWarnings cachedWarnings = warningCache.get(projectVersion);
+        if (cachedWarnings != null) {
+            return cachedWarnings.getWarnings();
+        }
+        Map<UUID, List<RuleName>> warnings = retrieveWarningsForAppEntities(projectVersion.getProject(), entities);
+        warningCache.put(projectVersion, generation, new VersionWarnings(warnings));
+        return warnings;
+    }
+
+    /**
+     * Returns the warnings of the entities in given project version, computing them from the types of its
+     * artifacts and the links between them only if the warnings of the version are not cached.
+     *
+     * @param projectVersion The version the entities belong to.
+     * @param generation     The generation of the project before the entities were loaded.
+     * @param artifactTypes  The type name of each artifact in the project version.
+     * @param traceLinks     The source and target ids of the trace links in the project version.
+     * @return A mapping of artifact UUIDs to their resulting violations
+     */
+    public Map<UUID, List<RuleName>> retrieveWarningsForLinks(ProjectVersion projectVersion,
+                                                              long generation,
+                                                              Map<UUID, String> artifactTypes,
+                                                              List<Pair<UUID, UUID>> traceLinks) {
+        VersionWarnings cachedWarnings = warningCache.get(projectVersion);
+        if (cachedWarnings != null) {
+            return cachedWarnings.getWarnings();
+        }
+        Map<UUID, List<RuleName>> warnings = ruleService.generateWarningsOnEntities(projectVersion.getProject(),
+            artifactTypes, traceLinks);
+        warningCache.put(projectVersion, generation, new VersionWarnings(warnings));
+        return warnings;
+    }
+
+    /**
+     * Re-evaluates the warnings of the artifacts affected by a change. Affected artifacts are the changed
+     * artifacts, the artifacts at either end of the changed trace links, and their direct trace neighbours.
+     * The cached warnings of the version are not modified; they are updated once the change is committed, see
+     * {@link WarningCache}.
+     *
+     * @param projectVersion The version that was changed.
+     * @param artifactIds    The ids of the artifacts added, modified, or removed.
+     * @param traces         The trace links added, modified, or removed.
+     * @return The new warnings of each affected artifact whose warnings differ from the cached warnings, or of
+     *     every affected artifact if the warnings of the version are not cached.
+     */
+    public List<ArtifactWarnings> calculateWarningChanges(ProjectVersion projectVersion,
+                                                          Collection<UUID> artifactIds,
+                                                          Collection<TraceAppEntity> traces) {
+        Set<UUID> changedIds = new HashSet<>(artifactIds);
+        traces.forEach(trace -> {
+            changedIds.add(trace.getSourceId());
+            changedIds.add(trace.getTargetId());
+        });
+        changedIds.remove(null);
+        if (changedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Step - Neighbours of changed artifacts depend on their presence and type.
+        Set<UUID> affectedIds = new HashSet<>(changedIds);
+        affectedIds.addAll(getLinkedArtifactIds(getVisibleTraces(projectVersion, changedIds)));
+        Map<UUID, List<RuleName>> newWarnings = evaluateArtifacts(projectVersion, affectedIds);
+
+        VersionWarnings cachedWarnings = warningCache.get(projectVersion);
+        Map<UUID, List<RuleName>> previousWarnings = cachedWarnings == null ? null : cachedWarnings.getWarnings();
+        List<ArtifactWarnings> changedWarnings = new ArrayList<>();
+        for (UUID artifactId : affectedIds) {
+            List<RuleName> warnings = newWarnings.getOrDefault(artifactId, new ArrayList<>());
+            if (previousWarnings == null
+                || !Objects.equals(warnings, previousWarnings.getOrDefault(artifactId, new ArrayList<>()))) {
+                changedWarnings.add(new ArtifactWarnings(artifactId, warnings));
+            }
+        }
+        return changedWarnings;
+    }
+
+    /**
+     * Returns the warnings of given artifacts in the version, from the cached warnings of the version if there are
+     * any, otherwise by evaluating only those artifacts.
+     *
+     * @param projectVersion The version containing the artifacts.
+     * @param artifactIds    The ids of the artifacts whose warnings are returned.
+     * @return The warnings of each given artifact. Artifacts without warnings, including artifacts no longer in
+     *     the version, map to an empty list.
+     */
+    public Map<UUID, List<RuleName>> retrieveWarningsOfArtifacts(ProjectVersion projectVersion,
+                                                                 Collection<UUID> artifactIds) {
+        VersionWarnings cachedWarnings = warningCache.get(projectVersion);
+        Map<UUID, List<RuleName>> warnings = cachedWarnings != null
+            ? cachedWarnings.getWarnings(artifactIds)
+            : evaluateArtifacts(projectVersion, new HashSet<>(artifactIds));
+        Map<UUID, List<RuleName>> artifactWarnings = new HashMap<>();
+        artifactIds.forEach(artifactId ->
+            artifactWarnings.put(artifactId, warnings.getOrDefault(artifactId, new ArrayList<>())));
+        return artifactWarnings;
+    }
+
+    /**
+     * Evaluates the rules of the project on given artifacts, loading them with all of their visible links and
+     * linked artifacts.
+     */
+    private Map<UUID, List<RuleName>> evaluateArtifacts(ProjectVersion projectVersion, Set<UUID> artifactIds) {
+        List<TraceAppEntity> traces = getVisibleTraces(projectVersion, artifactIds);
+        Set<UUID> loadedIds = new HashSet<>(artifactIds);
+        loadedIds.addAll(getLinkedArtifactIds(traces));
+        List<ArtifactAppEntity> artifacts = artifactService.getAppEntitiesByIds(projectVersion,
+            new ArrayList<>(loadedIds));
+        Set<UUID> activeIds = artifacts.stream().map(ArtifactAppEntity::getId).collect(Collectors.toSet());
+        List<TraceAppEntity> activeTraces = traces
+            .stream()
+            .filter(t -> activeIds.contains(t.getSourceId()) && activeIds.contains(t.getTargetId()))
+            .collect(Collectors.toList());
+        return retrieveWarningsForAppEntities(projectVersion.getProject(),
+            new ProjectEntities(artifacts, activeTraces));
+    }
+
+    private List<TraceAppEntity> getVisibleTraces(ProjectVersion projectVersion, Set<UUID> artifactIds) {
+        return traceService
+            .getTracesRelatedToArtifacts(projectVersion, new ArrayList<>(artifactIds))
+            .stream()
+            .filter(TraceAppEntity::isVisible)
+            .collect(Collectors.toList());
+    }
+
+    private Set<UUID> getLinkedArtifactIds(List<TraceAppEntity> traces) {
+        Set<UUID> artifactIds = new HashSet<>();
+        traces.forEach(trace -> {
+            artifactIds.add(trace.getSourceId());
+            artifactIds.add(trace.getTargetId());
+        });
+        return artifactIds;
+    }
 }
@@ -0,0 +1,33 @@
+package edu.nd.crc.safa.features.traces.entities.app;
+
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.common.EntityPage;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+
+import lombok.Data;
+
+/**
+ * Selects a page of the trace links in a version, ordered by id.
+ */
+@Data
+public class TracePageQuery {
+    /**
+     * The id of the trace link the page starts after, or null to start from the first trace link.
+     */
+    private UUID after;
+    private int size = EntityPage.DEFAULT_SIZE;
+    /**
+     * The approval status to filter by.
+     */
+    private ApprovalStatus approvalStatus;
+    /**
+     * The trace type to filter by.
+     */
+    private TraceType traceType;
+    /**
+     * The id of a version of the project, whose trace links are selected only if modified after it.
+     */
+    private UUID modifiedSince;
+}
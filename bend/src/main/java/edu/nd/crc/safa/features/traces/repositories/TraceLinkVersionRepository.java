@@ -1,24 +1,59 @@
 package edu.nd.crc.safa.features.traces.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import edu.nd.crc.safa.features.artifacts.repositories.IVersionRepository;
+import edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLink;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.repositories.VersionQueries;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TraceLinkVersionRepository extends CrudRepository<TraceLinkVersion, UUID>,
+public interface TraceLinkVersionRepository extends JpaRepository<TraceLinkVersion, UUID>,
     IVersionRepository<TraceLinkVersion, TraceAppEntity> {
 
+    /**
+     * Selects the columns of the latest version of each trace link at or before a version, excluding removed
+     * links.
+     */
+    String ACTIVE_APP_ENTITIES_QUERY =
+        "SELECT new edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity("
+            + "     tl.traceLinkId, source.name, source.artifactId, target.name, target.artifactId, "
+            + "     tv.approvalStatus, tv.score, tv.traceType, tv.isVisible, tv.explanation) "
+            + "FROM TraceLinkVersion tv "
+            + "JOIN tv.traceLink tl "
+            + "JOIN tl.sourceArtifact source "
+            + "JOIN tl.targetArtifact target "
+            + "JOIN tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND tv.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")";
+
     default List<TraceLinkVersion> getTraceVersionsRelatedToArtifacts(List<UUID> artifactIds) {
         return findByTraceLinkSourceArtifactArtifactIdInOrTraceLinkTargetArtifactArtifactIdIn(artifactIds, artifactIds);
     }
@@ -55,4 +90,261 @@ public interface TraceLinkVersionRepository extends CrudRepository<TraceLinkVers
     Optional<TraceLinkVersion> findByProjectVersionAndTraceLink(ProjectVersion projectVersion, TraceLink traceLink);
 
     int countByProjectVersion(ProjectVersion projectVersion);
+
+    /**
+     * Returns the latest version of each trace link at or before given version, excluding removed links.
+     * The selection is done by the database so only the active rows are transferred.
+     *
+     * @param projectVersion The version whose active trace links are returned.
+     * @return List of trace link versions active in version.
+     */
+    default List<TraceLinkVersion> findActiveInProjectVersion(ProjectVersion projectVersion) {
+        return findActiveInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value =
+        "SELECT tv FROM TraceLinkVersion tv "
+            + "JOIN tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND tv.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<TraceLinkVersion> findActiveInProjectAtVersion(@Param("project") Project project,
+                                                        @Param("ordinal") long ordinal,
+                                                        @Param("removed") ModificationType removed);
+
+    /**
+     * Returns the latest version of each trace link at or before given version as app entities, excluding
+     * removed links. Only the columns of the app entity are selected and no entities are loaded into the
+     * persistence context.
+     *
+     * @param projectVersion The version whose active trace links are returned.
+     * @return List of trace links active in version.
+     */
+    default List<TraceAppEntity> findActiveAppEntitiesInProjectVersion(ProjectVersion projectVersion) {
+        return findActiveAppEntitiesInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value = ACTIVE_APP_ENTITIES_QUERY)
+    List<TraceAppEntity> findActiveAppEntitiesInProjectAtVersion(@Param("project") Project project,
+                                                                 @Param("ordinal") long ordinal,
+                                                                 @Param("removed") ModificationType removed);
+
+    /**
+     * Streams the trace links active in given version as app entities, like
+     * {@link #findActiveAppEntitiesInProjectVersion(ProjectVersion)}, fetching rows in batches as the stream is
+     * consumed. Must be consumed and closed within a transaction.
+     *
+     * @param projectVersion The version whose active trace links are returned.
+     * @return Stream of trace links active in version.
+     */
+    default Stream<TraceAppEntity> streamActiveAppEntitiesInProjectVersion(ProjectVersion projectVersion) {
+        return streamActiveAppEntitiesInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED);
+    }
+
+    @Query(value = ACTIVE_APP_ENTITIES_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VersionQueries.STREAM_FETCH_SIZE))
+    Stream<TraceAppEntity> streamActiveAppEntitiesInProjectAtVersion(@Param("project") Project project,
+                                                                     @Param("ordinal") long ordinal,
+                                                                     @Param("removed") ModificationType removed);
+
+    /**
+     * Returns a page of the visible trace links active in given version as app entities, ordered by id. Unused
+     * filters are passed as values matching every trace link so the query has no optional parameters.
+     *
+     * @param projectVersion   The version whose active trace links are returned.
+     * @param afterId          The id the page starts after.
+     * @param approvalStatuses The approval statuses of the returned trace links.
+     * @param traceTypes       The types of the returned trace links.
+     * @param sinceOrdinal     The ordinal of the version after which returned trace links were last modified.
+     * @param size             The maximum number of trace links returned.
+     * @return List of at most size trace links active in version.
+     */
+    default List<TraceAppEntity> findActiveAppEntityPageInProjectVersion(ProjectVersion projectVersion,
+                                                                        UUID afterId,
+                                                                        Collection<ApprovalStatus> approvalStatuses,
+                                                                        Collection<TraceType> traceTypes,
+                                                                        long sinceOrdinal,
+                                                                        int size) {
+        return findActiveAppEntityPageInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED,
+            afterId,
+            approvalStatuses,
+            traceTypes,
+            sinceOrdinal,
+            PageRequest.of(0, size));
+    }
+
+    @Query(value =
+        "SELECT new edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity("
+            + "     tl.traceLinkId, source.name, source.artifactId, target.name, target.artifactId, "
+            + "     tv.approvalStatus, tv.score, tv.traceType, tv.isVisible, tv.explanation) "
+            + "FROM TraceLinkVersion tv "
+            + "JOIN tv.traceLink tl "
+            + "JOIN tl.sourceArtifact source "
+            + "JOIN tl.targetArtifact target "
+            + "JOIN tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND tv.modificationType <> :removed "
+            + "AND tv.isVisible = true "
+            + "AND tl.traceLinkId > :afterId "
+            + "AND tv.approvalStatus IN :approvalStatuses "
+            + "AND tv.traceType IN :traceTypes "
+            + "AND pv.ordinal > :sinceOrdinal "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ") "
+            + "ORDER BY tl.traceLinkId"
+    )
+    List<TraceAppEntity> findActiveAppEntityPageInProjectAtVersion(
+        @Param("project") Project project,
+        @Param("ordinal") long ordinal,
+        @Param("removed") ModificationType removed,
+        @Param("afterId") UUID afterId,
+        @Param("approvalStatuses") Collection<ApprovalStatus> approvalStatuses,
+        @Param("traceTypes") Collection<TraceType> traceTypes,
+        @Param("sinceOrdinal") long sinceOrdinal,
+        Pageable pageable);
+
+    /**
+     * Returns the latest version of each trace link at or before given version whose source or target is one
+     * of given artifacts, excluding removed links. Related entities are fetched in the same query.
+     *
+     * @param projectVersion The version whose active trace links are returned.
+     * @param artifactIds    The ids of the artifacts at either end of the links.
+     * @return List of trace link versions active in version.
+     */
+    default List<TraceLinkVersion> findActiveRelatedToArtifactsInProjectVersion(ProjectVersion projectVersion,
+                                                                                Collection<UUID> artifactIds) {
+        return findActiveRelatedToArtifactsInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED,
+            artifactIds);
+    }
+
+    @Query(value =
+        "SELECT tv FROM TraceLinkVersion tv "
+            + "JOIN FETCH tv.traceLink tl "
+            + "JOIN FETCH tl.sourceArtifact source "
+            + "JOIN FETCH tl.targetArtifact target "
+            + "JOIN FETCH tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND (source.artifactId IN :artifactIds OR target.artifactId IN :artifactIds) "
+            + "AND tv.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<TraceLinkVersion> findActiveRelatedToArtifactsInProjectAtVersion(
+        @Param("project") Project project,
+        @Param("ordinal") long ordinal,
+        @Param("removed") ModificationType removed,
+        @Param("artifactIds") Collection<UUID> artifactIds);
+
+    /**
+     * Returns the latest version of each given trace link at or before given version, excluding removed links.
+     * Related entities are fetched in the same query.
+     *
+     * @param projectVersion The version whose active trace links are returned.
+     * @param traceLinkIds   The ids of the trace links.
+     * @return List of trace link versions active in version.
+     */
+    default List<TraceLinkVersion> findActiveByTraceLinkIdsInProjectVersion(ProjectVersion projectVersion,
+                                                                            Collection<UUID> traceLinkIds) {
+        return findActiveByTraceLinkIdsInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal(),
+            ModificationType.REMOVED,
+            traceLinkIds);
+    }
+
+    @Query(value =
+        "SELECT tv FROM TraceLinkVersion tv "
+            + "JOIN FETCH tv.traceLink tl "
+            + "JOIN FETCH tl.sourceArtifact "
+            + "JOIN FETCH tl.targetArtifact "
+            + "JOIN FETCH tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND tl.traceLinkId IN :traceLinkIds "
+            + "AND tv.modificationType <> :removed "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<TraceLinkVersion> findActiveByTraceLinkIdsInProjectAtVersion(
+        @Param("project") Project project,
+        @Param("ordinal") long ordinal,
+        @Param("removed") ModificationType removed,
+        @Param("traceLinkIds") Collection<UUID> traceLinkIds);
+
+    /**
+     * Returns the digest of the latest version of each trace link at or before given version, including
+     * versions marking the link as removed. Trace link versions do not store a content hash.
+     *
+     * @param projectVersion The version whose latest trace link versions are returned.
+     * @return List containing at most one digest per trace link.
+     */
+    default List<VersionEntityDigest> findLatestDigestsInProjectVersion(ProjectVersion projectVersion) {
+        return findLatestDigestsInProjectAtVersion(
+            projectVersion.getProject(),
+            projectVersion.getOrdinal());
+    }
+
+    @Query(value =
+        "SELECT new edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest("
+            + "     tv.traceLink.traceLinkId, tv.traceLinkVersionId, pv.versionId, tv.modificationType) "
+            + "FROM TraceLinkVersion tv "
+            + "JOIN tv.projectVersion pv "
+            + "WHERE pv.project = :project "
+            + "AND " + VersionQueries.PV_AT_OR_BEFORE_TARGET + " "
+            + "AND NOT EXISTS ("
+            + "     SELECT newer.traceLinkVersionId FROM TraceLinkVersion newer "
+            + "     JOIN newer.projectVersion npv "
+            + "     WHERE newer.traceLink = tv.traceLink "
+            + "     AND " + VersionQueries.NPV_BETWEEN_PV_AND_TARGET + ")"
+    )
+    List<VersionEntityDigest> findLatestDigestsInProjectAtVersion(@Param("project") Project project,
+                                                                  @Param("ordinal") long ordinal);
+
+    /**
+     * Returns the trace link versions with given ids. Related entities are fetched in the same query.
+     *
+     * @param traceLinkVersionIds The ids of the trace link versions.
+     * @return List of trace link versions found.
+     */
+    @Query(value =
+        "SELECT tv FROM TraceLinkVersion tv "
+            + "JOIN FETCH tv.traceLink tl "
+            + "JOIN FETCH tl.sourceArtifact "
+            + "JOIN FETCH tl.targetArtifact "
+            + "JOIN FETCH tv.projectVersion "
+            + "WHERE tv.traceLinkVersionId IN :ids"
+    )
+    List<TraceLinkVersion> findWithRelationsByIdIn(@Param("ids") Collection<UUID> traceLinkVersionIds);
 }
@@ -1,11 +1,17 @@
 package edu.nd.crc.safa.features.traces.repositories;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
 import edu.nd.crc.safa.features.artifacts.repositories.ArtifactRepository;
+import edu.nd.crc.safa.features.commits.entities.db.VersionEntityDigest;
 import edu.nd.crc.safa.features.commits.repositories.GenericVersionRepository;
 import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.notifications.builders.EntityChangeBuilder;
@@ -25,8 +31,10 @@ import edu.nd.crc.safa.features.traces.services.TraceMatrixService;
 import edu.nd.crc.safa.features.types.entities.db.ArtifactType;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
 
 import lombok.Setter;
+import org.javatuples.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
@@ -45,6 +53,8 @@ public class TraceLinkVersionRepositoryImpl
     private TraceMatrixService traceMatrixService;
     @Setter(onMethod = @__({@Autowired}))
     private NotificationService notificationService;
+    @Setter(onMethod = @__({@Autowired}))
+    private VersionSnapshotService versionSnapshotService;
 
     @Override
     public TraceLinkVersion save(TraceLinkVersion traceLinkVersion) {
@@ -52,6 +62,12 @@ public class TraceLinkVersionRepositoryImpl
         return this.traceLinkVersionRepository.save(traceLinkVersion);
     }
 
+    @Override
+    protected void saveVersionEntities(List<TraceLinkVersion> traceLinkVersions) {
+        traceLinkVersions.forEach(this::checkArtifactProjects);
+        this.traceLinkVersionRepository.saveAllAndFlush(traceLinkVersions);
+    }
+
     private void checkArtifactProjects(TraceLinkVersion traceLinkVersion) {
         Project project = traceLinkVersion.getProjectVersion().getProject();
         UUID sourceProjectId = traceLinkVersion.getTraceLink().getSourceArtifact().getProjectId();
@@ -122,6 +138,64 @@ public class TraceLinkVersionRepositoryImpl
         return traceLinkVersionRepository.findByProjectVersionProject(project);
     }
 
+    @Override
+    protected List<VersionEntityDigest> queryLatestDigestsAtProjectVersion(ProjectVersion projectVersion) {
+        return traceLinkVersionRepository.findLatestDigestsInProjectVersion(projectVersion);
+    }
+
+    @Override
+    protected List<TraceLinkVersion> retrieveVersionEntitiesByIds(Collection<UUID> versionEntityIds) {
+        return traceLinkVersionRepository.findWithRelationsByIdIn(versionEntityIds);
+    }
+
+    /**
+     * Trace link versions are compared by their scalar fields, so no content hash is stored.
+     *
+     * @param traceAppEntity The trace link being committed.
+     * @return Null.
+     */
+    @Override
+    protected String calculateContentHash(TraceAppEntity traceAppEntity) {
+        return null;
+    }
+
+    @Override
+    protected List<TraceLinkVersion> queryActiveVersionEntitiesAtProjectVersion(ProjectVersion projectVersion) {
+        if (versionSnapshotService.isEnabled()) {
+            return versionSnapshotService.getTraceLinkVersions(projectVersion);
+        }
+        return traceLinkVersionRepository.findActiveInProjectVersion(projectVersion);
+    }
+
+    /**
+     * Returns the trace links active in given version by selecting only the columns of the app entities.
+     *
+     * @param projectVersion The version of the trace links to return.
+     * @return List of trace links in version.
+     */
+    @Override
+    public List<TraceAppEntity> retrieveAppEntitiesByProjectVersion(ProjectVersion projectVersion) {
+        if (versionSnapshotService.isEnabled()) {
+            return versionSnapshotService.getTraceAppEntities(projectVersion);
+        }
+        return traceLinkVersionRepository.findActiveAppEntitiesInProjectVersion(projectVersion);
+    }
+
+    /**
+     * Streams the trace links active in given version to the consumer as their rows are read.
+     *
+     * @param projectVersion The version of the trace links to read.
+     * @param consumer       Receives each trace link.
+     */
+    @Override
+    public void forEachAppEntityInProjectVersion(ProjectVersion projectVersion, Consumer<TraceAppEntity> consumer) {
+        try (Stream<TraceAppEntity> traces = versionSnapshotService.isEnabled()
+            ? versionSnapshotService.streamTraceAppEntities(projectVersion)
+            : traceLinkVersionRepository.streamActiveAppEntitiesInProjectVersion(projectVersion)) {
+            traces.forEach(consumer);
+        }
+    }
+
     @Override
     public List<TraceLinkVersion> retrieveVersionEntitiesByBaseIds(List<UUID> baseIds) {
         return traceLinkVersionRepository.findByTraceLinkTraceLinkIdIn(baseIds);
@@ -158,44 +232,58 @@ public class TraceLinkVersionRepositoryImpl
     @Override
     public void updateTimInfo(ProjectVersion projectVersion, TraceLinkVersion versionEntity,
                               TraceLinkVersion previousVersionEntity, SafaUser user) {
-        ApprovalStatus approvalStatus = versionEntity.getApprovalStatus();
-
-        boolean added = approvalStatus != ApprovalStatus.DECLINED
-            && (previousVersionEntity == null || previousVersionEntity.getApprovalStatus() == ApprovalStatus.DECLINED);
-
-        boolean removed = approvalStatus == ApprovalStatus.DECLINED
-            && (previousVersionEntity.getApprovalStatus() != ApprovalStatus.DECLINED);
-
-        boolean modified = previousVersionEntity != null
-            && versionEntity.getApprovalStatus() != previousVersionEntity.getApprovalStatus();
-
-        if (added || removed || modified) {
-            // TODO this might need to get a table lock somehow if simultaneous updates come in from different sources
-
-            ArtifactType sourceType = versionEntity.getTraceLink().getSourceType();
-            ArtifactType targetType = versionEntity.getTraceLink().getTargetType();
-            TraceMatrixEntry traceMatrixEntry =
-                traceMatrixService.getOrCreateEntry(projectVersion, sourceType, targetType);
-
-            if (added) {
-                updateTraceMatrixEntry(traceMatrixEntry, versionEntity, 1);
-                notifyTraceMatrixUpdate(traceMatrixEntry, user);
-            } else if (removed) {
-                updateTraceMatrixEntry(traceMatrixEntry, previousVersionEntity, -1);
+        updateTimInfo(projectVersion, List.of(new Pair<>(versionEntity, previousVersionEntity)), user);
+    }
 
-                if (traceMatrixEntry.getCount() == 0) {
-                    traceMatrixService.delete(traceMatrixEntry);
-                    notifyTraceMatrixDelete(traceMatrixEntry, user);
+    @Override
+    public void updateTimInfo(ProjectVersion projectVersion,
+                              List<Pair<TraceLinkVersion, TraceLinkVersion>> changedEntities,
+                              SafaUser user) {
+        Map<Pair<UUID, UUID>, TraceMatrixEntry> changedEntries = new LinkedHashMap<>();
+        for (Pair<TraceLinkVersion, TraceLinkVersion> changedEntity : changedEntities) {
+            TraceLinkVersion versionEntity = changedEntity.getValue0();
+            TraceLinkVersion previousVersionEntity = changedEntity.getValue1();
+            ApprovalStatus approvalStatus = versionEntity.getApprovalStatus();
+
+            boolean added = approvalStatus != ApprovalStatus.DECLINED
+                && (previousVersionEntity == null
+                || previousVersionEntity.getApprovalStatus() == ApprovalStatus.DECLINED);
+
+            boolean removed = approvalStatus == ApprovalStatus.DECLINED
+                && previousVersionEntity != null
+                && previousVersionEntity.getApprovalStatus() != ApprovalStatus.DECLINED;
+
+            boolean modified = previousVersionEntity != null
+                && versionEntity.getApprovalStatus() != previousVersionEntity.getApprovalStatus();
+
+            if (added || removed || modified) {
+                // TODO this might need a table lock if simultaneous updates come in from different sources
+
+                ArtifactType sourceType = versionEntity.getTraceLink().getSourceType();
+                ArtifactType targetType = versionEntity.getTraceLink().getTargetType();
+                TraceMatrixEntry traceMatrixEntry = changedEntries.computeIfAbsent(
+                    new Pair<>(sourceType.getId(), targetType.getId()),
+                    key -> traceMatrixService.getOrCreateEntry(projectVersion, sourceType, targetType));
+
+                if (added) {
+                    updateTraceMatrixEntry(traceMatrixEntry, versionEntity, 1);
+                } else if (removed) {
+                    updateTraceMatrixEntry(traceMatrixEntry, previousVersionEntity, -1);
                 } else {
-                    notifyTraceMatrixUpdate(traceMatrixEntry, user);
+                    updateTraceMatrixEntry(traceMatrixEntry, previousVersionEntity, -1);
+                    updateTraceMatrixEntry(traceMatrixEntry, versionEntity, 1);
                 }
+            }
+        }
+
+        for (TraceMatrixEntry traceMatrixEntry : changedEntries.values()) {
+            if (traceMatrixEntry.getCount() <= 0) {
+                traceMatrixService.delete(traceMatrixEntry);
+                notifyTraceMatrixDelete(traceMatrixEntry, user);
             } else {
-                updateTraceMatrixEntry(traceMatrixEntry, previousVersionEntity, -1);
-                updateTraceMatrixEntry(traceMatrixEntry, versionEntity, 1);
+                traceMatrixService.updateEntry(traceMatrixEntry);
                 notifyTraceMatrixUpdate(traceMatrixEntry, user);
             }
-
-            traceMatrixService.updateEntry(traceMatrixEntry);
         }
     }
 
@@ -1,22 +1,27 @@
 package edu.nd.crc.safa.features.traces.services;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.services.ArtifactService;
+import edu.nd.crc.safa.features.common.EntityPage;
 import edu.nd.crc.safa.features.common.IAppEntityService;
-import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.app.TracePageQuery;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
 import edu.nd.crc.safa.features.traces.repositories.TraceLinkVersionRepository;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
-import edu.nd.crc.safa.features.versions.VersionCalculator;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
-import edu.nd.crc.safa.utilities.ProjectDataStructures;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -55,7 +60,7 @@ public class TraceService implements IAppEntityService<TraceAppEntity> {
             .stream()
             .map(ArtifactAppEntity::getId)
             .collect(Collectors.toList());
-        return getTracesRelatedToArtifacts(projectVersion, projectVersionArtifactIds)
+        return getTracesInVersionRelatedToArtifacts(projectVersion, projectVersionArtifactIds)
             .stream().filter(tracePredicate).collect(Collectors.toList());
     }
 
@@ -70,12 +75,13 @@ public class TraceService implements IAppEntityService<TraceAppEntity> {
     @Override
     public List<TraceAppEntity> getAppEntitiesByIds(ProjectVersion projectVersion, SafaUser user,
                                                     List<UUID> appEntityIds) {
-        List<TraceLinkVersion> allVersions = this.traceLinkVersionRepository.findByTraceLinkTraceLinkIdIn(appEntityIds)
+        if (appEntityIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.traceLinkVersionRepository
+            .findActiveByTraceLinkIdsInProjectVersion(projectVersion, appEntityIds)
             .stream()
             .filter(TraceLinkVersion::isVisible)
-            .collect(Collectors.toList());
-        return VersionCalculator.getEntitiesAtVersion(projectVersion, allVersions)
-            .stream()
             .map(this.traceLinkVersionRepository::retrieveAppEntityFromVersionEntity)
             .collect(Collectors.toList());
     }
@@ -89,12 +95,91 @@ public class TraceService implements IAppEntityService<TraceAppEntity> {
      */
     public List<TraceAppEntity> retrieveActiveTraces(ProjectVersion projectVersion,
                                                      List<UUID> existingArtifactIds) {
-        return this.getTracesRelatedToArtifacts(projectVersion, existingArtifactIds)
+        return this.getTracesInVersionRelatedToArtifacts(projectVersion, existingArtifactIds)
             .stream()
             .filter(TraceAppEntity::isVisible)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Returns every trace link active in the given version, including hidden links and links whose source or
+     * target is no longer in the version.
+     *
+     * @param projectVersion The project version to retrieve trace links from.
+     * @return List of trace links active in version.
+     */
+    public List<TraceAppEntity> getAllActiveTraces(ProjectVersion projectVersion) {
+        return this.traceLinkVersionRepository.retrieveAppEntitiesByProjectVersion(projectVersion);
+    }
+
+    /**
+     * Passes each visible trace link active in the given version whose source or target is one of the given
+     * artifacts to the consumer as it is read from the database. Must be called within a transaction.
+     *
+     * @param projectVersion      The project version to read trace links from.
+     * @param existingArtifactIds The ids of the artifacts in the version.
+     * @param consumer            Receives each trace link.
+     */
+    public void forEachActiveTrace(ProjectVersion projectVersion,
+                                   Set<UUID> existingArtifactIds,
+                                   Consumer<TraceAppEntity> consumer) {
+        this.traceLinkVersionRepository.forEachAppEntityInProjectVersion(projectVersion, trace -> {
+            if (trace.isVisible() && (existingArtifactIds.contains(trace.getSourceId())
+                || existingArtifactIds.contains(trace.getTargetId()))) {
+                consumer.accept(trace);
+            }
+        });
+    }
+
+    /**
+     * Returns a page of the visible trace links present in the given version, ordered by id. The page is selected
+     * by the database, so only the trace links in the page are read.
+     *
+     * @param projectVersion The project version to retrieve trace links from.
+     * @param query          The position, size, and filters of the page.
+     * @param modifiedSince  The version after which the returned trace links were modified, or null for all.
+     * @return The page of trace links, whose cursor is the id of its last trace link.
+     */
+    public EntityPage<TraceAppEntity> getAppEntityPage(ProjectVersion projectVersion,
+                                                       TracePageQuery query,
+                                                       ProjectVersion modifiedSince) {
+        List<TraceAppEntity> traces = this.traceLinkVersionRepository.findActiveAppEntityPageInProjectVersion(
+            projectVersion,
+            query.getAfter() == null ? new UUID(0, 0) : query.getAfter(),
+            query.getApprovalStatus() == null
+                ? Arrays.asList(ApprovalStatus.values()) : List.of(query.getApprovalStatus()),
+            query.getTraceType() == null ? Arrays.asList(TraceType.values()) : List.of(query.getTraceType()),
+            modifiedSince == null ? Long.MIN_VALUE : modifiedSince.getOrdinal(),
+            query.getSize() + 1);
+
+        EntityPage<TraceAppEntity> page = new EntityPage<>();
+        if (traces.size() > query.getSize()) {
+            traces = new ArrayList<>(traces.subList(0, query.getSize()));
+            page.setNextCursor(traces.get(traces.size() - 1).getId().toString());
+        }
+        page.setEntities(traces);
+        return page;
+    }
+
+    /**
+     * Returns the traces active in project version whose source or target is one of the given artifacts.
+     * Unlike {@link #getTracesRelatedToArtifacts(ProjectVersion, List)}, the active links are resolved by
+     * the database, so this is preferred when the artifacts span the whole version.
+     *
+     * @param projectVersion The project version used to retrieve active links.
+     * @param artifactIds    The artifact ids referenced by trace links.
+     * @return List of traces active in version and associated with artifacts.
+     */
+    private List<TraceAppEntity> getTracesInVersionRelatedToArtifacts(ProjectVersion projectVersion,
+                                                                      List<UUID> artifactIds) {
+        Set<UUID> artifactIdSet = new HashSet<>(artifactIds);
+        return this.traceLinkVersionRepository
+            .retrieveAppEntitiesByProjectVersion(projectVersion)
+            .stream()
+            .filter(t -> artifactIdSet.contains(t.getSourceId()) || artifactIdSet.contains(t.getTargetId()))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Returns list of traces current active in project version containing
      * source or target as given artifact.
@@ -107,18 +192,12 @@ public class TraceService implements IAppEntityService<TraceAppEntity> {
         ProjectVersion projectVersion,
         List<UUID> artifactIds
     ) {
-        List<TraceLinkVersion> traceVersions = this.traceLinkVersionRepository.getTraceVersionsRelatedToArtifacts(
-            artifactIds);
-        Map<UUID, List<TraceLinkVersion>> baseEntityTable = ProjectDataStructures.createGroupLookup(
-            traceVersions,
-            TraceLinkVersion::getBaseEntityId
-        );
-        List<TraceLinkVersion> traceLinksAtVersion =
-            VersionCalculator.calculateVersionEntitiesAtProjectVersion(projectVersion,
-                baseEntityTable);
-        return traceLinksAtVersion
+        if (artifactIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.traceLinkVersionRepository
+            .findActiveRelatedToArtifactsInProjectVersion(projectVersion, artifactIds)
             .stream()
-            .filter(t -> t.getModificationType() != ModificationType.REMOVED)
             .map(this.traceLinkVersionRepository::retrieveAppEntityFromVersionEntity)
             .collect(Collectors.toList());
     }
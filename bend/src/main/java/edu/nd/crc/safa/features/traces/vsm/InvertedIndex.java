@@ -0,0 +1,105 @@
+package edu.nd.crc.safa.features.traces.vsm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Indexes a set of target documents by the terms they contain, so a source document is only scored
+ * against the targets sharing at least one of its terms. The index is not modified once built, so it can be
+ * searched from several threads.
+ */
+class InvertedIndex {
+    /**
+     * The norm of each target, by target index.
+     */
+    private final double[] targetNorms;
+    /**
+     * Term id to the indices of the targets containing the term, ordered by ascending target norm.
+     */
+    private final int[][] postings;
+
+    /**
+     * Builds the index over given target vectors.
+     *
+     * @param targets        The target document vectors.
+     * @param vocabularySize The number of terms in the vocabulary the vectors were built with.
+     */
+    InvertedIndex(List<SparseVector> targets, int vocabularySize) {
+        this.targetNorms = targets.stream().mapToDouble(SparseVector::getNorm).toArray();
+
+        int[] postingCounts = new int[vocabularySize];
+        targets.forEach(target -> Arrays.stream(target.getTermIds()).forEach(termId -> postingCounts[termId]++));
+        this.postings = new int[vocabularySize][];
+        for (int termId = 0; termId < vocabularySize; termId++) {
+            this.postings[termId] = new int[postingCounts[termId]];
+        }
+
+        // Adding targets in norm order keeps each posting list sorted by norm.
+        int[] postingSizes = new int[vocabularySize];
+        IntStream.range(0, targets.size())
+            .boxed()
+            .sorted(Comparator.comparingDouble(i -> targetNorms[i]))
+            .forEach(targetIndex -> {
+                for (int termId : targets.get(targetIndex).getTermIds()) {
+                    postings[termId][postingSizes[termId]++] = targetIndex;
+                }
+            });
+    }
+
+    /**
+     * Returns the targets whose similarity to given source is above the threshold.
+     *
+     * <p>Each target accumulates the squared source weight of every term it shares with the source, which is
+     * divided by the norms of both vectors. This matches the score the vector-space model has always produced.
+     * Since the accumulated value is at most the squared source norm, a target can only pass the threshold if
+     * its norm is below {@code sourceNorm / threshold}, so postings are cut off once they reach that norm.</p>
+     *
+     * @param source    The source document vector.
+     * @param threshold The score a target must exceed.
+     * @param scorer    Receives each matching target index and its score, in ascending target index order.
+     */
+    void search(SparseVector source, double threshold, TargetScoreConsumer scorer) {
+        double sourceNorm = source.getNorm();
+        if (sourceNorm == 0) {
+            return;
+        }
+        double maxTargetNorm = threshold > 0 ? sourceNorm / threshold : Double.POSITIVE_INFINITY;
+
+        double[] accumulator = new double[targetNorms.length];
+        boolean[] touched = new boolean[targetNorms.length];
+        List<Integer> candidates = new ArrayList<>();
+        int[] termIds = source.getTermIds();
+        double[] weights = source.getWeights();
+        for (int i = 0; i < termIds.length; i++) {
+            double contribution = weights[i] * weights[i];
+            for (int targetIndex : postings[termIds[i]]) {
+                if (targetNorms[targetIndex] >= maxTargetNorm) {
+                    break;
+                }
+                if (!touched[targetIndex]) {
+                    touched[targetIndex] = true;
+                    candidates.add(targetIndex);
+                }
+                accumulator[targetIndex] += contribution;
+            }
+        }
+
+        candidates.sort(Integer::compare);
+        for (int targetIndex : candidates) {
+            double score = accumulator[targetIndex] / (sourceNorm * targetNorms[targetIndex]);
+            if (score > threshold) {
+                scorer.accept(targetIndex, score);
+            }
+        }
+    }
+
+    /**
+     * Receives the score of a target matching a source document.
+     */
+    interface TargetScoreConsumer {
+        void accept(int targetIndex, double score);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.nd.crc.safa.features.traces.vsm;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * A document vector containing only the terms present in the document, ordered by term id.
+ */
+@Getter
+class SparseVector {
+    /**
+     * The ids of the terms in the document, in ascending order.
+     */
+    private final int[] termIds;
+    /**
+     * The weight of each term, parallel to {@link #termIds}.
+     */
+    private final double[] weights;
+    /**
+     * The euclidean length of the vector.
+     */
+    private final double norm;
+
+    private SparseVector(int[] termIds, double[] weights) {
+        this.termIds = termIds;
+        this.weights = weights;
+        double squaredNorm = 0;
+        for (double weight : weights) {
+            squaredNorm += weight * weight;
+        }
+        this.norm = Math.sqrt(squaredNorm);
+    }
+
+    /**
+     * Creates the term frequency vector of a document.
+     *
+     * @param tokenIds The ids of the terms in the document, including repetitions.
+     * @return The number of times each term appears in the document.
+     */
+    static SparseVector fromTermIds(int[] tokenIds) {
+        int[] sortedIds = tokenIds.clone();
+        Arrays.sort(sortedIds);
+        int[] termIds = new int[sortedIds.length];
+        double[] counts = new double[sortedIds.length];
+        int size = 0;
+        for (int tokenId : sortedIds) {
+            if (size == 0 || termIds[size - 1] != tokenId) {
+                termIds[size++] = tokenId;
+            }
+            counts[size - 1]++;
+        }
+        return new SparseVector(Arrays.copyOf(termIds, size), Arrays.copyOf(counts, size));
+    }
+
+    /**
+     * Multiplies each term by its weight, dropping the terms whose weight is zero.
+     *
+     * @param termWeights The weight of each term, by term id.
+     * @return The weighted vector.
+     */
+    SparseVector weight(double[] termWeights) {
+        int[] weightedIds = new int[termIds.length];
+        double[] weightedValues = new double[termIds.length];
+        int size = 0;
+        for (int i = 0; i < termIds.length; i++) {
+            double termWeight = termWeights[termIds[i]];
+            if (termWeight != 0) {
+                weightedIds[size] = termIds[i];
+                weightedValues[size] = weights[i] * termWeight;
+                size++;
+            }
+        }
+        return new SparseVector(Arrays.copyOf(weightedIds, size), Arrays.copyOf(weightedValues, size));
+    }
+}
@@ -2,10 +2,11 @@ package edu.nd.crc.safa.features.traces.vsm;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import edu.nd.crc.safa.config.ProjectVariables;
 import edu.nd.crc.safa.features.generation.common.GenerationArtifact;
@@ -14,105 +15,122 @@ import edu.nd.crc.safa.features.generation.common.TraceLayer;
 import edu.nd.crc.safa.features.jobs.logging.JobLogger;
 import edu.nd.crc.safa.features.traces.ITraceGenerationController;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.utilities.text.TextAnalyzer;
+import edu.nd.crc.safa.utilities.text.Vocabulary;
 
 /**
- * Vector Space Model using TF-IDF scores for evaluating document relevance
+ * Vector Space Model using TF-IDF scores for evaluating document relevance.
+ * Holds no state between calls, so a single controller can trace several datasets concurrently.
  */
 public class VSMController implements ITraceGenerationController {
-    private Map<String, Double> idf;
+    private final TextAnalyzer analyzer;
+
+    public VSMController() {
+        this(TextAnalyzer.standard());
+    }
+
+    public VSMController(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
 
     /**
      * Generates set of trace links between source and target pairs of artifacts using the
-     * vector-space model
+     * vector-space model. The term frequencies of each artifact type are computed once and shared by
+     * every layer it appears in, while the child artifacts of each layer are scored in parallel.
      *
      * @param generationDataset The dataset to trace.
+     * @param jobLogger         Optional logger receiving the progress of each layer.
      * @return List of trace links.
      */
     @Override
     public List<TraceAppEntity> generateLinks(GenerationDataset generationDataset, JobLogger jobLogger) {
-        List<TraceAppEntity> generatedLinks = new ArrayList<>();
+        Vocabulary vocabulary = new Vocabulary();
+        Map<String, List<GenerationArtifact>> typeArtifacts = new HashMap<>();
+        Map<String, List<SparseVector>> typeTermFrequencies = new HashMap<>();
+        // Terms are interned on this thread so term ids, and the order scores are summed in, are deterministic.
         for (TraceLayer layer : generationDataset.getLayers()) {
-            Map<String, String> childLayer = generationDataset
-                .getArtifacts(layer.getChild())
-                .stream()
-                .collect(Collectors.toMap(GenerationArtifact::getId, GenerationArtifact::getContent));
-            Map<String, String> parentLayer = generationDataset
-                .getArtifacts(layer.getParent())
-                .stream()
-                .collect(Collectors.toMap(GenerationArtifact::getId, GenerationArtifact::getContent));
-
-            Map<String, Collection<String>> childTokens = tokenizeArtifactAppEntities(childLayer);
-            Map<String, Collection<String>> parentTokens = tokenizeArtifactAppEntities(parentLayer);
-            TraceLinkConstructor<String, TraceAppEntity> traceLinkConstructor = (s, t, score) ->
-                new TraceAppEntity(s, t).asGeneratedTrace(score);
-            generatedLinks.addAll(generateLinksFromTokens(childTokens, parentTokens, traceLinkConstructor));
+            for (String artifactType : List.of(layer.getChild(), layer.getParent())) {
+                List<GenerationArtifact> artifacts = typeArtifacts.computeIfAbsent(artifactType,
+                    generationDataset::getArtifacts);
+                typeTermFrequencies.computeIfAbsent(artifactType, type -> artifacts
+                    .stream()
+                    .map(artifact -> SparseVector.fromTermIds(analyzer.analyze(artifact.getContent(), vocabulary)))
+                    .collect(Collectors.toList()));
+            }
         }
 
-        return generatedLinks;
-    }
-
-    private <K, L> List<L> generateLinksFromTokens(Map<K, Collection<String>> sTokens,
-                                                   Map<K, Collection<String>> tTokens,
-                                                   TraceLinkConstructor<K, L> traceLinkConstructor) {
-        this.buildIndex(tTokens.values());
-
-        List<L> generatedLS = new ArrayList<>();
-        for (Map.Entry<K, Collection<String>> source : sTokens.entrySet()) {
-            for (Map.Entry<K, Collection<String>> target : tTokens.entrySet()) {
-                double score = this.getSimilarityScore(source.getValue(), target.getValue());
-                if (score > ProjectVariables.TRACE_THRESHOLD) {
-                    L value = traceLinkConstructor.createTraceLink(source.getKey(), target.getKey(), score);
-                    generatedLS.add(value);
-                }
-            }
+        List<TraceAppEntity> generatedLinks = new ArrayList<>();
+        List<TraceLayer> layers = generationDataset.getLayers();
+        for (int i = 0; i < layers.size(); i++) {
+            TraceLayer layer = layers.get(i);
+            List<GenerationArtifact> children = typeArtifacts.get(layer.getChild());
+            List<GenerationArtifact> parents = typeArtifacts.get(layer.getParent());
+            List<TraceAppEntity> layerLinks = generateLinksInLayer(
+                typeTermFrequencies.get(layer.getChild()),
+                typeTermFrequencies.get(layer.getParent()),
+                vocabulary.size(),
+                (childIndex, parentIndex, score) -> new TraceAppEntity(children.get(childIndex).getId(),
+                    parents.get(parentIndex).getId()).asGeneratedTrace(score));
+            generatedLinks.addAll(layerLinks);
+            log(jobLogger, String.format("Traced layer %d/%d (%s -> %s): %d links.",
+                i + 1, layers.size(), layer.getChild(), layer.getParent(), layerLinks.size()));
         }
-        return generatedLS;
+        return generatedLinks;
     }
 
-    private Map<String, Collection<String>> tokenizeArtifactAppEntities(Map<String, String> artifacts) {
-        return artifacts
-            .entrySet()
+    /**
+     * Scores each child document against the parent documents sharing at least one of its terms. Documents are
+     * weighted by tf-idf, using the document frequencies of the parent documents. Children are scored in parallel
+     * on the common fork-join pool, and the links are returned in child order.
+     */
+    private <L> List<L> generateLinksInLayer(List<SparseVector> childTermFrequencies,
+                                             List<SparseVector> parentTermFrequencies,
+                                             int vocabularySize,
+                                             TraceLinkConstructor<Integer, L> traceLinkConstructor) {
+        double[] idf = getInverseDocumentFrequencies(parentTermFrequencies, vocabularySize);
+        List<SparseVector> parentVectors = parentTermFrequencies
             .stream()
-            .collect(Collectors.toMap(entry -> entry.getKey(),
-                entry -> getWordsInArtifactAppEntity(entry.getValue())));
-    }
+            .map(termFrequencies -> termFrequencies.weight(idf))
+            .collect(Collectors.toList());
+        InvertedIndex index = new InvertedIndex(parentVectors, vocabularySize);
 
-    private void buildIndex(Collection<Collection<String>> docTokens) {
-        Iterable<Map<String, Double>> tfs = TfIdf.tfs(docTokens);
-        idf = TfIdf.idfFromTfs(tfs);
+        return IntStream.range(0, childTermFrequencies.size())
+            .parallel()
+            .mapToObj(childIndex -> {
+                List<L> childLinks = new ArrayList<>();
+                SparseVector childVector = childTermFrequencies.get(childIndex).weight(idf);
+                index.search(childVector, ProjectVariables.TRACE_THRESHOLD, (parentIndex, score) ->
+                    childLinks.add(traceLinkConstructor.createTraceLink(childIndex, parentIndex, score)));
+                return childLinks;
+            })
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
     }
 
-    private List<String> getWordsInArtifactAppEntity(String content) {
-        String[] artifactWords = content.split(" ");
-        return Arrays.asList(artifactWords);
-    }
-
-    private double getSimilarityScore(Collection<String> sTokens, Collection<String> tTokens) {
-        Map<String, Double> vec1 = TfIdf.tfIdf(TfIdf.tf(sTokens), idf);
-        Map<String, Double> vec2 = TfIdf.tfIdf(TfIdf.tf(tTokens), idf);
-        return cosineSim(vec1, vec2);
-    }
+    /**
+     * Returns the smoothed, add-one inverse document frequency of each term, by term id. Terms absent
+     * from every document have a frequency of zero.
+     */
+    private double[] getInverseDocumentFrequencies(List<SparseVector> documents, int vocabularySize) {
+        int[] documentFrequencies = new int[vocabularySize];
+        documents.forEach(document -> Arrays
+            .stream(document.getTermIds())
+            .forEach(termId -> documentFrequencies[termId]++));
 
-    private double cosineSim(Map<String, Double> vec1, Map<String, Double> vec2) {
-        double acc = 0;
-        double l1 = 0;
-        double l2 = 0;
-        for (Map.Entry<String, Double> entry : vec1.entrySet()) {
-            String term = entry.getKey();
-            if (vec2.containsKey(term)) {
-                acc += entry.getValue() * entry.getValue();
+        // Smoothing counts an extra document containing every term.
+        double nDocuments = documents.size() + 1;
+        double[] idf = new double[vocabularySize];
+        for (int termId = 0; termId < vocabularySize; termId++) {
+            if (documentFrequencies[termId] > 0) {
+                idf[termId] = Math.log(nDocuments / (documentFrequencies[termId] + 1)) + 1;
             }
-            l1 += entry.getValue() * entry.getValue();
-        }
-        for (Map.Entry<String, Double> entry : vec2.entrySet()) {
-            l2 += entry.getValue() * entry.getValue();
         }
-        double base = (Math.sqrt(l1) * Math.sqrt(l2));
-        if (base == 0) {
-            return 0;
-        } else {
-            return acc / base;
+        return idf;
+    }
+
+    private void log(JobLogger jobLogger, String message) {
+        if (jobLogger != null) {
+            jobLogger.log(message);
         }
     }
 }
-
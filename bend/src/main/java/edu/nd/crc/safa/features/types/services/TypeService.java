@@ -10,6 +10,7 @@ import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
 import edu.nd.crc.safa.features.artifacts.repositories.ArtifactRepository;
 import edu.nd.crc.safa.features.common.IAppEntityService;
 import edu.nd.crc.safa.features.notifications.builders.EntityChangeBuilder;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.notifications.services.NotificationService;
 import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.app.SafaItemNotFoundError;
@@ -21,10 +22,12 @@ import edu.nd.crc.safa.features.types.repositories.ArtifactTypeRepository;
 import edu.nd.crc.safa.features.users.entities.IUser;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 import edu.nd.crc.safa.features.versions.services.VersionService;
 import edu.nd.crc.safa.utilities.GeneralRepositoryUtility;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -38,6 +41,7 @@ public class TypeService implements IAppEntityService<TypeAppEntity> {
     private NotificationService notificationService;
     private ArtifactTypeCountService typeCountService;
     private VersionService versionService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<TypeAppEntity> getAppEntities(ProjectVersion projectVersion, SafaUser user) {
@@ -221,6 +225,7 @@ public class TypeService implements IAppEntityService<TypeAppEntity> {
             .map(Artifact::getArtifactId)
             .collect(Collectors.toList());
 
+        eventPublisher.publishEvent(new ProjectVersionChangedEvent(this, project, NotificationEntity.TYPES));
         notificationService.broadcastChange(
             EntityChangeBuilder.create(user, project)
                 .withTypeUpdate(new TypeAppEntity(artifactType))
@@ -228,6 +233,8 @@ public class TypeService implements IAppEntityService<TypeAppEntity> {
     }
 
     private void notifyTypeDeleted(ArtifactType artifactType, SafaUser user) {
+        eventPublisher.publishEvent(new ProjectVersionChangedEvent(this, artifactType.getProject(),
+            NotificationEntity.TYPES));
         notificationService.broadcastChange(
             EntityChangeBuilder
                 .create(user, artifactType.getProject())
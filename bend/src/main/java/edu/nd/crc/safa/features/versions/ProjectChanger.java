@@ -1,6 +1,7 @@
 package edu.nd.crc.safa.features.versions;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -17,12 +18,14 @@ import edu.nd.crc.safa.features.layout.entities.app.LayoutManager;
 import edu.nd.crc.safa.features.notifications.builders.AbstractEntityChangeBuilder;
 import edu.nd.crc.safa.features.notifications.builders.EntityChangeBuilder;
 import edu.nd.crc.safa.features.notifications.builders.ProjectVersionChangeBuilder;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.projects.entities.app.IAppEntity;
 import edu.nd.crc.safa.features.projects.entities.db.ProjectEntityType;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 
 import lombok.AllArgsConstructor;
 import org.javatuples.Pair;
@@ -74,11 +77,15 @@ public class ProjectChanger {
         List<TraceAppEntity> traces = projectEntities.getTraces();
         List<Pair<ArtifactVersion, CommitError>> artifactResponse = serviceProvider
             .getArtifactVersionRepository()
-            .commitAllAppEntitiesToProjectVersion(projectVersion, artifacts, true, user);
+            .replaceAppEntitiesInProjectVersion(projectVersion, artifacts, user);
         List<Pair<TraceLinkVersion, CommitError>> traceResponse = serviceProvider.getTraceLinkVersionRepository()
-            .commitAllAppEntitiesToProjectVersion(projectVersion, traces, true, user);
+            .replaceAppEntitiesInProjectVersion(projectVersion, traces, user);
         saveCommitErrors(artifactResponse, ProjectEntityType.ARTIFACTS);
         saveCommitErrors(traceResponse, ProjectEntityType.TRACES);
+        serviceProvider.getVersionSnapshotService().updateSnapshot(projectVersion,
+            getCommittedIds(artifactResponse), getCommittedIds(traceResponse));
+        serviceProvider.getEventPublisher().publishEvent(
+            new ProjectVersionChangedEvent(this, projectVersion, NotificationEntity.VERSION, null));
 
         LayoutManager layoutManager = new LayoutManager(serviceProvider, projectVersion, user);
         layoutManager.generateLayoutForProject();
@@ -101,6 +108,15 @@ public class ProjectChanger {
         }
     }
 
+    private <T extends IVersionEntity<?>> List<UUID> getCommittedIds(List<Pair<T, CommitError>> commitResponse) {
+        return commitResponse
+            .stream()
+            .map(Pair::getValue0)
+            .filter(Objects::nonNull)
+            .map(IVersionEntity::getBaseEntityId)
+            .collect(Collectors.toList());
+    }
+
     public ProjectVersionChangeBuilder createChangeNotification(
         SafaUser user,
         List<Pair<ArtifactVersion, CommitError>> artifactResponse,
@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import edu.nd.crc.safa.config.AppConstraints;
 import edu.nd.crc.safa.features.organizations.entities.db.IEntityWithMembership;
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -14,13 +15,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -40,6 +45,12 @@ import org.hibernate.type.SqlTypes;
 @Data
 @NoArgsConstructor
 public class ProjectVersion implements Serializable, IEntityWithMembership {
+    /**
+     * The number of bits the minor version and the revision each take in the ordinal.
+     */
+    private static final int ORDINAL_FIELD_BITS = 20;
+    private static final int MAX_ORDINAL_FIELD = (1 << ORDINAL_FIELD_BITS) - 1;
+    private static final int MAX_ORDINAL_MAJOR = (1 << (Long.SIZE - 1 - 2 * ORDINAL_FIELD_BITS)) - 1;
 
     @Id
     @GeneratedValue
@@ -69,6 +80,15 @@ public class ProjectVersion implements Serializable, IEntityWithMembership {
     @Column(name = "revision", nullable = false)
     private int revision;
 
+    /**
+     * Orders the versions of a project so version ranges can be queried with a single column.
+     * See {@link #calculateOrdinal(int, int, int)}.
+     */
+    @Column(name = "version_ordinal", nullable = false)
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    private long ordinal;
+
     public ProjectVersion(Project project,
                           int majorVersion,
                           int minorVersion,
@@ -77,6 +97,42 @@ public class ProjectVersion implements Serializable, IEntityWithMembership {
         this.minorVersion = minorVersion;
         this.revision = revision;
         this.project = project;
+        this.ordinal = calculateOrdinal(majorVersion, minorVersion, revision);
+    }
+
+    /**
+     * Packs a version number into a single value ordered the same way as the version numbers.
+     * The major version takes the upper 23 bits, and the minor version and revision take 20 bits each.
+     *
+     * @param majorVersion The major version.
+     * @param minorVersion The minor version.
+     * @param revision     The revision.
+     * @return The ordinal of the version.
+     */
+    public static long calculateOrdinal(int majorVersion, int minorVersion, int revision) {
+        if (majorVersion < 0 || majorVersion > MAX_ORDINAL_MAJOR
+            || minorVersion < 0 || minorVersion > MAX_ORDINAL_FIELD
+            || revision < 0 || revision > MAX_ORDINAL_FIELD) {
+            throw new SafaError("Version %s.%s.%s is outside of the supported range.",
+                majorVersion, minorVersion, revision);
+        }
+        return ((long) majorVersion << (2 * ORDINAL_FIELD_BITS))
+            | ((long) minorVersion << ORDINAL_FIELD_BITS)
+            | revision;
+    }
+
+    /**
+     * @return The ordinal of this version, calculated from its current version numbers.
+     */
+    @JsonIgnore
+    public long getOrdinal() {
+        return calculateOrdinal(this.majorVersion, this.minorVersion, this.revision);
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateOrdinal() {
+        this.ordinal = getOrdinal();
     }
 
     public boolean isLessThanOrEqualTo(ProjectVersion other) {
@@ -84,25 +140,11 @@ public class ProjectVersion implements Serializable, IEntityWithMembership {
     }
 
     public boolean isLessThan(ProjectVersion other) {
-        if (this.majorVersion < other.majorVersion) {
-            return true;
-        } else if (other.majorVersion == this.majorVersion) {
-            if (this.minorVersion < other.minorVersion) {
-                return true;
-            } else if (other.minorVersion == this.minorVersion) {
-                return this.revision < other.revision;
-            } else {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return this.getOrdinal() < other.getOrdinal();
     }
 
     public boolean isEqualTo(ProjectVersion other) {
-        return this.majorVersion == other.majorVersion
-            && this.minorVersion == other.minorVersion
-            && this.revision == other.revision;
+        return this.getOrdinal() == other.getOrdinal();
     }
 
     public boolean isGreaterThan(ProjectVersion other) {
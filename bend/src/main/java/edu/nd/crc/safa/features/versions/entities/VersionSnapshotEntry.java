@@ -0,0 +1,71 @@
+package edu.nd.crc.safa.features.versions.entities;
+
+import java.util.UUID;
+
+import edu.nd.crc.safa.config.AppConstraints;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Materialized pointer from a base entity (artifact or trace link) to the version entity
+ * active in a project version. Only one of the artifact or trace link versions is set.
+ */
+@Entity
+@Table(name = "version_snapshot",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {
+            "version_id", "base_entity_id"
+        }, name = AppConstraints.SINGLE_SNAPSHOT_ENTRY_PER_VERSION)
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class VersionSnapshotEntry {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @GeneratedValue
+    @Column
+    private UUID id;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "version_id", nullable = false)
+    private ProjectVersion projectVersion;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "base_entity_id", nullable = false)
+    private UUID baseEntityId;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "artifact_version_id")
+    private ArtifactVersion artifactVersion;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "trace_link_version_id")
+    private TraceLinkVersion traceLinkVersion;
+
+    public VersionSnapshotEntry(ProjectVersion projectVersion, UUID baseEntityId) {
+        this.projectVersion = projectVersion;
+        this.baseEntityId = baseEntityId;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.nd.crc.safa.features.versions.entities.events;
+
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the contents of project versions change. A change committed to a version is visible in the
+ * later versions that do not override it, so the version and all later versions are affected. Changes to
+ * entities that are not versioned, such as types or layouts, affect every version of the project.
+ */
+@Getter
+public class ProjectVersionChangedEvent extends ApplicationEvent {
+    private final Project project;
+    /**
+     * The earliest version affected, or null if all versions of the project are affected.
+     */
+    private final ProjectVersion projectVersion;
+    /**
+     * The kind of entity changed.
+     */
+    private final NotificationEntity entity;
+    /**
+     * The id of each changed entity and how it changed, or null if any entity of the kind may have changed.
+     */
+    private final Map<UUID, ModificationType> changes;
+    /**
+     * The commit that made the change, with the changed entities as saved, or null if the change was not made
+     * by a commit.
+     */
+    private final ProjectCommitAppEntity commit;
+
+    public ProjectVersionChangedEvent(Object source,
+                                      ProjectVersion projectVersion,
+                                      NotificationEntity entity,
+                                      Map<UUID, ModificationType> changes) {
+        this(source, projectVersion, entity, changes, null);
+    }
+
+    public ProjectVersionChangedEvent(Object source,
+                                      ProjectVersion projectVersion,
+                                      NotificationEntity entity,
+                                      Map<UUID, ModificationType> changes,
+                                      ProjectCommitAppEntity commit) {
+        super(source);
+        this.project = projectVersion.getProject();
+        this.projectVersion = projectVersion;
+        this.entity = entity;
+        this.changes = changes;
+        this.commit = commit;
+    }
+
+    public ProjectVersionChangedEvent(Object source, Project project, NotificationEntity entity) {
+        this(source, project, entity, null);
+    }
+
+    public ProjectVersionChangedEvent(Object source,
+                                      Project project,
+                                      NotificationEntity entity,
+                                      Map<UUID, ModificationType> changes) {
+        super(source);
+        this.project = project;
+        this.projectVersion = null;
+        this.entity = entity;
+        this.changes = changes;
+        this.commit = null;
+    }
+
+    /**
+     * Returns whether the contents of given version of the project may have changed.
+     *
+     * @param ordinal The ordinal of a version of the project.
+     * @return True if the version is affected by the change.
+     */
+    public boolean affectsVersion(long ordinal) {
+        return projectVersion == null || projectVersion.getOrdinal() <= ordinal;
+    }
+}
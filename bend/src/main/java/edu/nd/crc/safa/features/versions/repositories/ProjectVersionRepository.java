@@ -14,18 +14,18 @@ import org.springframework.stereotype.Repository;
 public interface ProjectVersionRepository extends CrudRepository<ProjectVersion, UUID> {
 
     default Optional<ProjectVersion> getCurrentVersion(Project project) {
-        return findTopByProjectOrderByMajorVersionDescMinorVersionDescRevisionDesc(project);
+        return findTopByProjectOrderByOrdinalDesc(project);
     }
 
-    Optional<ProjectVersion> findTopByProjectOrderByMajorVersionDescMinorVersionDescRevisionDesc(Project project);
+    Optional<ProjectVersion> findTopByProjectOrderByOrdinalDesc(Project project);
 
     List<ProjectVersion> findByProject(Project project);
 
     default List<ProjectVersion> findByProjectInBackwardsOrder(Project project) {
-        return findByProjectOrderByMajorVersionDescMinorVersionDescRevisionDesc(project);
+        return findByProjectOrderByOrdinalDesc(project);
     }
 
-    List<ProjectVersion> findByProjectOrderByMajorVersionDescMinorVersionDescRevisionDesc(Project project);
+    List<ProjectVersion> findByProjectOrderByOrdinalDesc(Project project);
 
     ProjectVersion findByVersionId(UUID versionId);
 }
@@ -0,0 +1,31 @@
+package edu.nd.crc.safa.features.versions.repositories;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPQL fragments for comparing project versions inside the database. Queries using these fragments
+ * must alias the version of the row being tested as {@code pv}, the version of any competing row as
+ * {@code npv}, and bind the ordinal of the target version through the {@code :ordinal} parameter.
+ * Versions are compared by their ordinal so the comparisons are range scans on the
+ * (project, ordinal) index.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class VersionQueries {
+
+    /**
+     * Matches rows whose version {@code pv} is less than or equal to the target version.
+     */
+    public static final String PV_AT_OR_BEFORE_TARGET = "pv.ordinal <= :ordinal";
+
+    /**
+     * Matches rows whose version {@code npv} is after {@code pv} but not after the target version.
+     * Used in a NOT EXISTS clause to keep only the latest row of each entity.
+     */
+    public static final String NPV_BETWEEN_PV_AND_TARGET = "npv.ordinal > pv.ordinal AND npv.ordinal <= :ordinal";
+
+    /**
+     * The number of rows fetched at a time by queries whose results are streamed.
+     */
+    public static final String STREAM_FETCH_SIZE = "1000";
+}
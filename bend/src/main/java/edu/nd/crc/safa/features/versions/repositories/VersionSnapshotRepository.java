@@ -0,0 +1,121 @@
+package edu.nd.crc.safa.features.versions.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.VersionSnapshotEntry;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface VersionSnapshotRepository extends CrudRepository<VersionSnapshotEntry, UUID> {
+
+    /**
+     * Selects the columns of the artifacts in the snapshot of a version.
+     */
+    String ARTIFACT_APP_ENTITIES_QUERY =
+        "SELECT new edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity("
+            + "     a.artifactId, t.name, a.name, av.summary, av.content, av.customAttributes) "
+            + "FROM VersionSnapshotEntry s "
+            + "JOIN s.artifactVersion av "
+            + "JOIN av.artifact a "
+            + "JOIN a.type t "
+            + "WHERE s.projectVersion = :projectVersion";
+
+    /**
+     * Selects the columns of the trace links in the snapshot of a version.
+     */
+    String TRACE_APP_ENTITIES_QUERY =
+        "SELECT new edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity("
+            + "     tl.traceLinkId, source.name, source.artifactId, target.name, target.artifactId, "
+            + "     tv.approvalStatus, tv.score, tv.traceType, tv.isVisible, tv.explanation) "
+            + "FROM VersionSnapshotEntry s "
+            + "JOIN s.traceLinkVersion tv "
+            + "JOIN tv.traceLink tl "
+            + "JOIN tl.sourceArtifact source "
+            + "JOIN tl.targetArtifact target "
+            + "WHERE s.projectVersion = :projectVersion";
+
+    /**
+     * Copies the snapshot entries of a version to another version within the database, without loading them.
+     *
+     * @param previousVersion The version whose entries are copied.
+     * @param newVersion      The version the copies belong to.
+     */
+    @Modifying
+    @Transactional
+    @Query(value =
+        "INSERT INTO VersionSnapshotEntry (projectVersion, baseEntityId, artifactVersion, traceLinkVersion) "
+            + "SELECT :newVersion, s.baseEntityId, av, tv FROM VersionSnapshotEntry s "
+            + "LEFT JOIN s.artifactVersion av "
+            + "LEFT JOIN s.traceLinkVersion tv "
+            + "WHERE s.projectVersion = :previousVersion"
+    )
+    void copySnapshot(@Param("previousVersion") ProjectVersion previousVersion,
+                      @Param("newVersion") ProjectVersion newVersion);
+
+    List<VersionSnapshotEntry> findByProjectVersionAndBaseEntityIdIn(ProjectVersion projectVersion,
+                                                                     Collection<UUID> baseEntityIds);
+
+    @Query(value =
+        "SELECT s.artifactVersion FROM VersionSnapshotEntry s "
+            + "WHERE s.projectVersion = :projectVersion "
+            + "AND s.artifactVersion IS NOT NULL"
+    )
+    List<ArtifactVersion> findArtifactVersionsInSnapshot(@Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value =
+        "SELECT s.traceLinkVersion FROM VersionSnapshotEntry s "
+            + "WHERE s.projectVersion = :projectVersion "
+            + "AND s.traceLinkVersion IS NOT NULL"
+    )
+    List<TraceLinkVersion> findTraceLinkVersionsInSnapshot(@Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value = ARTIFACT_APP_ENTITIES_QUERY)
+    List<ArtifactAppEntity> findArtifactAppEntitiesInSnapshot(@Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value = ARTIFACT_APP_ENTITIES_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VersionQueries.STREAM_FETCH_SIZE))
+    Stream<ArtifactAppEntity> streamArtifactAppEntitiesInSnapshot(
+        @Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value = TRACE_APP_ENTITIES_QUERY)
+    List<TraceAppEntity> findTraceAppEntitiesInSnapshot(@Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value = TRACE_APP_ENTITIES_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VersionQueries.STREAM_FETCH_SIZE))
+    Stream<TraceAppEntity> streamTraceAppEntitiesInSnapshot(@Param("projectVersion") ProjectVersion projectVersion);
+
+    @Query(value =
+        "SELECT av FROM ArtifactVersion av "
+            + "WHERE av.projectVersion = :projectVersion "
+            + "AND av.artifact.artifactId IN :artifactIds"
+    )
+    List<ArtifactVersion> findArtifactVersionsCommittedInVersion(
+        @Param("projectVersion") ProjectVersion projectVersion,
+        @Param("artifactIds") Collection<UUID> artifactIds);
+
+    @Query(value =
+        "SELECT tv FROM TraceLinkVersion tv "
+            + "WHERE tv.projectVersion = :projectVersion "
+            + "AND tv.traceLink.traceLinkId IN :traceLinkIds"
+    )
+    List<TraceLinkVersion> findTraceLinkVersionsCommittedInVersion(
+        @Param("projectVersion") ProjectVersion projectVersion,
+        @Param("traceLinkIds") Collection<UUID> traceLinkIds);
+}
@@ -0,0 +1,206 @@
+package edu.nd.crc.safa.features.versions.services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.nd.crc.safa.features.common.Sized;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caches a value per project version, keyed by version id. The cache is bounded by the total size of the values
+ * held; the least recently used versions are evicted first.
+ * <p>
+ * The values of versions affected by a {@link ProjectVersionChangedEvent} are evicted once the transaction
+ * publishing the change commits, unless {@link #update(ProjectVersionChangedEvent, UUID, Sized)} applies the
+ * change to them instead. Each change also increments the generation of its project, and values loaded before
+ * a change are rejected when put. Values of versions changed by a transaction that rolls back are evicted, as
+ * they may have been loaded from its uncommitted changes.
+ *
+ * @param <V> The type of value cached.
+ */
+public abstract class VersionKeyedCache<V extends Sized> {
+    /**
+     * Version id to cached value, in order of least recent access.
+     */
+    private final LinkedHashMap<UUID, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Project id to the number of changes published for the project.
+     */
+    private final Map<UUID, Long> projectGenerations = new ConcurrentHashMap<>();
+    /**
+     * Kinds of entities whose changes do not affect cached values.
+     */
+    private final Set<NotificationEntity> ignoredEntities;
+    private final int maxSize;
+    /**
+     * Whether values are kept between requests.
+     */
+    @Getter
+    private final boolean enabled;
+    private int size = 0;
+
+    protected VersionKeyedCache(boolean enabled, int maxSize, Set<NotificationEntity> ignoredEntities) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ignoredEntities = ignoredEntities;
+    }
+
+    /**
+     * Returns the cached value of given version.
+     *
+     * @param projectVersion The version whose value is returned.
+     * @return The cached value, or null if the version is not cached.
+     */
+    public synchronized V get(ProjectVersion projectVersion) {
+        Entry<V> entry = entries.get(projectVersion.getVersionId());
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Returns the generation of the project the version belongs to. Must be read before loading the data of the
+     * value later passed to {@link #put(ProjectVersion, long, Sized)}.
+     *
+     * @param projectVersion The version whose value will be loaded.
+     * @return The number of changes published for the project.
+     */
+    public long getGeneration(ProjectVersion projectVersion) {
+        return projectGenerations.getOrDefault(projectVersion.getProject().getId(), 0L);
+    }
+
+    /**
+     * Caches the value of given version, unless the project changed since the data of the value was loaded.
+     *
+     * @param projectVersion The version the value belongs to.
+     * @param generation     The generation of the project before the data of the value was loaded.
+     * @param value          The value of the version.
+     */
+    public synchronized void put(ProjectVersion projectVersion, long generation, V value) {
+        if (!enabled || generation != getGeneration(projectVersion) || value.getSize() > maxSize) {
+            return;
+        }
+        Entry<V> previous = entries.put(projectVersion.getVersionId(),
+            new Entry<>(projectVersion.getProject().getId(), projectVersion.getOrdinal(), value, value.getSize()));
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += value.getSize();
+        evictLeastRecentlyUsed();
+    }
+
+    /**
+     * Recounts the size of a cached value that grew or shrank in place, such as when it calculates data on
+     * demand, and evicts the least recently used versions if the cache is over its bound. Nothing is done if the
+     * version no longer holds the value.
+     *
+     * @param projectVersion The version the value belongs to.
+     * @param value          The value whose size changed.
+     * @param valueSize      The size of the value, counted while the value could not change.
+     */
+    protected synchronized void resize(ProjectVersion projectVersion, V value, int valueSize) {
+        Entry<V> entry = entries.get(projectVersion.getVersionId());
+        if (entry == null || entry.getValue() != value) {
+            return;
+        }
+        size += valueSize - entry.getSize();
+        entry.setSize(valueSize);
+        evictLeastRecentlyUsed();
+    }
+
+    /**
+     * Updates or evicts the versions affected by a change once the transaction publishing it commits.
+     *
+     * @param event The change to the contents of a project.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void handleProjectVersionChanged(ProjectVersionChangedEvent event) {
+        if (ignoredEntities.contains(event.getEntity())) {
+            return;
+        }
+        UUID projectId = event.getProject().getId();
+        projectGenerations.merge(projectId, 1L, Long::sum);
+        Iterator<Map.Entry<UUID, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Entry<V>> versionEntry = iterator.next();
+            Entry<V> entry = versionEntry.getValue();
+            if (!entry.getProjectId().equals(projectId) || !event.affectsVersion(entry.getOrdinal())) {
+                continue;
+            }
+            size -= entry.getSize();
+            if (update(event, versionEntry.getKey(), entry.getValue())) {
+                entry.setSize(entry.getValue().getSize());
+                size += entry.getSize();
+            } else {
+                iterator.remove();
+            }
+        }
+        evictLeastRecentlyUsed();
+    }
+
+    /**
+     * Evicts the versions affected by a change whose transaction rolled back, and rejects values loaded before.
+     *
+     * @param event The change that was rolled back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public synchronized void handleProjectVersionChangeRolledBack(ProjectVersionChangedEvent event) {
+        if (ignoredEntities.contains(event.getEntity())) {
+            return;
+        }
+        UUID projectId = event.getProject().getId();
+        projectGenerations.merge(projectId, 1L, Long::sum);
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (entry.getProjectId().equals(projectId) && event.affectsVersion(entry.getOrdinal())) {
+                size -= entry.getSize();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Applies a committed change to the cached value of an affected version. Called while holding the lock of
+     * the cache. By default, values are not updated and are evicted instead.
+     *
+     * @param event     The committed change.
+     * @param versionId The id of the affected version.
+     * @param value     The cached value of the version.
+     * @return Whether the value was brought up to date and should be kept.
+     */
+    protected boolean update(ProjectVersionChangedEvent event, UUID versionId, V value) {
+        return false;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Entry<V>> leastRecentlyUsed = entries.values().iterator();
+        while (size > maxSize && leastRecentlyUsed.hasNext()) {
+            size -= leastRecentlyUsed.next().getSize();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry<V> {
+        private final UUID projectId;
+        private final long ordinal;
+        private final V value;
+        /**
+         * The size of the value when last counted, as values may be updated in place.
+         */
+        @Setter
+        private int size;
+    }
+}
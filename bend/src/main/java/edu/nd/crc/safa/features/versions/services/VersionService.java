@@ -31,6 +31,7 @@ public class VersionService {
     private final ProjectVersionRepository projectVersionRepository;
     private final ArtifactTypeCountService typeCountService;
     private final TraceMatrixService traceMatrixService;
+    private final VersionSnapshotService versionSnapshotService;
     @Setter(onMethod = @__({@Autowired, @Lazy}))
     private TypeService typeService;
 
@@ -49,6 +50,9 @@ public class VersionService {
         newVersion = this.projectVersionRepository.save(newVersion);
         createTypeCountEntries(newVersion, prevVersion);
         createTraceCountEntries(newVersion, prevVersion);
+        if (prevVersion != null) {
+            versionSnapshotService.copySnapshot(prevVersion, newVersion);
+        }
         return newVersion;
     }
 
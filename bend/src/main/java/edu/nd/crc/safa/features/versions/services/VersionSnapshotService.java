@@ -0,0 +1,220 @@
+package edu.nd.crc.safa.features.versions.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.common.IVersionEntity;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.VersionSnapshotEntry;
+import edu.nd.crc.safa.features.versions.repositories.ProjectVersionRepository;
+import edu.nd.crc.safa.features.versions.repositories.VersionSnapshotRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the materialized snapshot mapping each project version to the artifact and trace versions
+ * active in it. Reads of a version can then select the live rows directly instead of replaying history.
+ */
+@Service
+@RequiredArgsConstructor
+public class VersionSnapshotService {
+    private final VersionSnapshotRepository versionSnapshotRepository;
+    private final ProjectVersionRepository projectVersionRepository;
+
+    /**
+     * Whether version reads are served from the snapshot. The snapshot is maintained regardless.
+     */
+    @Getter
+    @Value("${versions.snapshots.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Returns the artifact versions active in given project version.
+     *
+     * @param projectVersion The version whose artifacts are retrieved.
+     * @return List of active artifact versions.
+     */
+    public List<ArtifactVersion> getArtifactVersions(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.findArtifactVersionsInSnapshot(projectVersion);
+    }
+
+    /**
+     * Returns the trace link versions active in given project version.
+     *
+     * @param projectVersion The version whose trace links are retrieved.
+     * @return List of active trace link versions.
+     */
+    public List<TraceLinkVersion> getTraceLinkVersions(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.findTraceLinkVersionsInSnapshot(projectVersion);
+    }
+
+    /**
+     * Returns the artifacts active in given project version as app entities, without loading their versions.
+     * Document ids are not set.
+     *
+     * @param projectVersion The version whose artifacts are retrieved.
+     * @return List of active artifacts.
+     */
+    public List<ArtifactAppEntity> getArtifactAppEntities(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.findArtifactAppEntitiesInSnapshot(projectVersion);
+    }
+
+    /**
+     * Returns the trace links active in given project version as app entities, without loading their versions.
+     *
+     * @param projectVersion The version whose trace links are retrieved.
+     * @return List of active trace links.
+     */
+    public List<TraceAppEntity> getTraceAppEntities(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.findTraceAppEntitiesInSnapshot(projectVersion);
+    }
+
+    /**
+     * Streams the artifacts active in given project version as app entities. Must be consumed and closed within a
+     * transaction. Document ids are not set.
+     *
+     * @param projectVersion The version whose artifacts are retrieved.
+     * @return Stream of active artifacts.
+     */
+    public Stream<ArtifactAppEntity> streamArtifactAppEntities(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.streamArtifactAppEntitiesInSnapshot(projectVersion);
+    }
+
+    /**
+     * Streams the trace links active in given project version as app entities. Must be consumed and closed
+     * within a transaction.
+     *
+     * @param projectVersion The version whose trace links are retrieved.
+     * @return Stream of active trace links.
+     */
+    public Stream<TraceAppEntity> streamTraceAppEntities(ProjectVersion projectVersion) {
+        return versionSnapshotRepository.streamTraceAppEntitiesInSnapshot(projectVersion);
+    }
+
+    /**
+     * Initializes the snapshot of a new version with the contents of the version it was created from.
+     *
+     * @param previousVersion The version the new version was created from.
+     * @param newVersion      The newly created version.
+     */
+    public void copySnapshot(ProjectVersion previousVersion, ProjectVersion newVersion) {
+        versionSnapshotRepository.copySnapshot(previousVersion, newVersion);
+    }
+
+    /**
+     * Updates the snapshot entries of the artifacts and trace links committed to given version.
+     * Changes are propagated to later versions until a version containing its own entry for the entity.
+     *
+     * @param projectVersion The version the entities were committed to.
+     * @param artifactIds    The ids of the artifacts committed.
+     * @param traceLinkIds   The ids of the trace links committed.
+     */
+    public void updateSnapshot(ProjectVersion projectVersion,
+                               Collection<UUID> artifactIds,
+                               Collection<UUID> traceLinkIds) {
+        List<ProjectVersion> affectedVersions = getVersionsFrom(projectVersion);
+        updateSnapshot(affectedVersions, artifactIds,
+            versionSnapshotRepository::findArtifactVersionsCommittedInVersion,
+            VersionSnapshotEntry::setArtifactVersion);
+        updateSnapshot(affectedVersions, traceLinkIds,
+            versionSnapshotRepository::findTraceLinkVersionsCommittedInVersion,
+            VersionSnapshotEntry::setTraceLinkVersion);
+    }
+
+    private <V extends IVersionEntity<?>> void updateSnapshot(
+        List<ProjectVersion> affectedVersions,
+        Collection<UUID> baseEntityIds,
+        BiFunction<ProjectVersion, Collection<UUID>, List<V>> committedEntitiesQuery,
+        BiConsumer<VersionSnapshotEntry, V> entrySetter) {
+        if (affectedVersions.isEmpty() || baseEntityIds.isEmpty()) {
+            return;
+        }
+        ProjectVersion commitVersion = affectedVersions.get(0);
+        Map<UUID, V> activeEntities = new HashMap<>();
+        committedEntitiesQuery
+            .apply(commitVersion, baseEntityIds)
+            .forEach(v -> activeEntities.put(v.getBaseEntityId(), v));
+
+        // Entities without an entry in the commit version were not changed.
+        Set<UUID> pendingIds = new HashSet<>(activeEntities.keySet());
+        applyToVersion(commitVersion, pendingIds, activeEntities, entrySetter);
+
+        for (ProjectVersion laterVersion : affectedVersions.subList(1, affectedVersions.size())) {
+            if (pendingIds.isEmpty()) {
+                return;
+            }
+            // Later versions with their own entry are not affected by the change.
+            committedEntitiesQuery
+                .apply(laterVersion, pendingIds)
+                .forEach(v -> pendingIds.remove(v.getBaseEntityId()));
+            applyToVersion(laterVersion, pendingIds, activeEntities, entrySetter);
+        }
+    }
+
+    private <V extends IVersionEntity<?>> void applyToVersion(ProjectVersion version,
+                                                              Set<UUID> baseEntityIds,
+                                                              Map<UUID, V> activeEntities,
+                                                              BiConsumer<VersionSnapshotEntry, V> entrySetter) {
+        if (baseEntityIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, VersionSnapshotEntry> existingEntries = new HashMap<>();
+        versionSnapshotRepository
+            .findByProjectVersionAndBaseEntityIdIn(version, baseEntityIds)
+            .forEach(entry -> existingEntries.put(entry.getBaseEntityId(), entry));
+
+        List<VersionSnapshotEntry> savedEntries = new ArrayList<>();
+        List<VersionSnapshotEntry> removedEntries = new ArrayList<>();
+        for (UUID baseEntityId : baseEntityIds) {
+            V versionEntity = activeEntities.get(baseEntityId);
+            VersionSnapshotEntry entry = existingEntries.get(baseEntityId);
+            if (versionEntity.getModificationType() == ModificationType.REMOVED) {
+                if (entry != null) {
+                    removedEntries.add(entry);
+                }
+            } else {
+                if (entry == null) {
+                    entry = new VersionSnapshotEntry(version, baseEntityId);
+                }
+                entrySetter.accept(entry, versionEntity);
+                savedEntries.add(entry);
+            }
+        }
+        versionSnapshotRepository.deleteAll(removedEntries);
+        versionSnapshotRepository.saveAll(savedEntries);
+    }
+
+    /**
+     * Returns the versions of the project at or after given version in ascending order.
+     *
+     * @param projectVersion The earliest version to include.
+     * @return List of project versions.
+     */
+    private List<ProjectVersion> getVersionsFrom(ProjectVersion projectVersion) {
+        List<ProjectVersion> versions = new ArrayList<>(projectVersionRepository
+            .findByProjectInBackwardsOrder(projectVersion.getProject())
+            .stream()
+            .filter(v -> !v.isLessThan(projectVersion))
+            .toList());
+        Collections.reverse(versions);
+        return versions;
+    }
+}
@@ -1,9 +1,18 @@
 package edu.nd.crc.safa.utilities;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.StringJoiner;
 
 public class StringUtil {
+    /**
+     * Separates the fields of a hashed value. The unit separator does not appear in user text.
+     */
+    private static final String HASH_FIELD_SEPARATOR = "\u001F";
+
     /**
      * Joins elements with delimiter.
      *
@@ -18,4 +27,25 @@ public class StringUtil {
         }
         return joiner.toString();
     }
+
+    /**
+     * Calculates the SHA-256 digest of the UTF-8 encoded fields joined by the unit separator.
+     * Null fields are hashed as empty strings.
+     *
+     * @param fields The fields to hash.
+     * @return The digest as 64 lowercase hexadecimal characters.
+     */
+    public static String sha256(String... fields) {
+        StringJoiner joiner = new StringJoiner(HASH_FIELD_SEPARATOR);
+        for (String field : fields) {
+            joiner.add(field == null ? "" : field);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(joiner.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package edu.nd.crc.safa.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent stages of a computation on an executor and records how long each stage took.
+ * Without an executor, stages run on the calling thread as they are submitted.
+ */
+public class TimedStages {
+    private final Executor executor;
+    private final Map<String, Long> stageDurations = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final long start = System.currentTimeMillis();
+
+    /**
+     * @param executor The executor to run stages on, or null to run them on the calling thread.
+     */
+    public TimedStages(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a stage.
+     *
+     * @param name  The name the duration of the stage is recorded under.
+     * @param stage The computation of the stage.
+     * @param <T>   The type of result.
+     * @return Future completed with the result of the stage.
+     */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> stage) {
+        Supplier<T> timedStage = () -> {
+            long stageStart = System.currentTimeMillis();
+            try {
+                return stage.get();
+            } finally {
+                stageDurations.put(name, System.currentTimeMillis() - stageStart);
+            }
+        };
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(timedStage.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(timedStage, executor);
+    }
+
+    /**
+     * Starts a stage once the stage it depends on completes.
+     *
+     * @param name       The name the duration of the stage is recorded under.
+     * @param dependency The stage whose result is used.
+     * @param stage      The computation of the stage.
+     * @param <D>        The type of result of the dependency.
+     * @param <T>        The type of result.
+     * @return Future completed with the result of the stage.
+     */
+    public <D, T> CompletableFuture<T> submit(String name, CompletableFuture<D> dependency, Function<D, T> stage) {
+        return dependency.thenCompose(result -> submit(name, () -> stage.apply(result)));
+    }
+
+    /**
+     * Waits for a stage to complete. Exceptions thrown by the stage are rethrown as is.
+     *
+     * @param future The future of the stage.
+     * @param <T>    The type of result.
+     * @return The result of the stage.
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return The duration in milliseconds of each completed stage, in order of completion.
+     */
+    public Map<String, Long> getStageDurations() {
+        synchronized (stageDurations) {
+            return new LinkedHashMap<>(stageDurations);
+        }
+    }
+
+    /**
+     * @return The milliseconds elapsed since the stages were created.
+     */
+    public long getElapsedTime() {
+        return System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Formats the durations of the completed stages and the elapsed time as the value of a Server-Timing header,
+     * e.g. {@code entities;dur=12, members;dur=3, total;dur=15}.
+     *
+     * @return The header value.
+     */
+    public String getServerTiming() {
+        List<String> metrics = new ArrayList<>();
+        getStageDurations().forEach((name, duration) -> metrics.add(name + ";dur=" + duration));
+        metrics.add("total;dur=" + getElapsedTime());
+        return String.join(", ", metrics);
+    }
+}
@@ -0,0 +1,31 @@
+package edu.nd.crc.safa.utilities.text;
+
+/**
+ * Reduces plural English words to their singular form, following the S-stemmer (Harman, 1991).
+ * Conservative compared to suffix-stripping stemmers, so distinct words are rarely merged.
+ * Expects lower-case tokens.
+ */
+public class PluralStemmer implements TokenFilter {
+    /**
+     * Tokens of this length or shorter are left unchanged.
+     */
+    private static final int MIN_LENGTH = 3;
+
+    @Override
+    public String apply(String token) {
+        int length = token.length();
+        if (length <= MIN_LENGTH || token.charAt(length - 1) != 's') {
+            return token;
+        }
+        if (token.endsWith("ies") && !token.endsWith("eies") && !token.endsWith("aies")) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (token.endsWith("es") && !token.endsWith("aes") && !token.endsWith("ees") && !token.endsWith("oes")) {
+            return token.substring(0, length - 1);
+        }
+        if (!token.endsWith("us") && !token.endsWith("ss")) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,31 @@
+package edu.nd.crc.safa.utilities.text;
+
+import java.util.Set;
+
+/**
+ * Removes common words carrying no meaning on their own. Expects lower-case tokens.
+ */
+public class StopwordFilter implements TokenFilter {
+    /**
+     * Common English words.
+     */
+    public static final Set<String> ENGLISH = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it", "no", "not",
+        "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they", "this", "to", "was",
+        "will", "with");
+
+    private final Set<String> stopwords;
+
+    public StopwordFilter() {
+        this(ENGLISH);
+    }
+
+    public StopwordFilter(Set<String> stopwords) {
+        this.stopwords = stopwords;
+    }
+
+    @Override
+    public String apply(String token) {
+        return stopwords.contains(token) ? null : token;
+    }
+}
@@ -0,0 +1,138 @@
+package edu.nd.crc.safa.utilities.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into tokens and passes each token through a chain of filters. Tokens are runs of letters and
+ * digits, optionally split further at the word boundaries of camelCase identifiers. Analyzers hold no state
+ * between calls and can be shared across threads.
+ */
+public class TextAnalyzer {
+    private final boolean splitIdentifiers;
+    private final List<TokenFilter> filters;
+
+    public TextAnalyzer(boolean splitIdentifiers, List<TokenFilter> filters) {
+        this.splitIdentifiers = splitIdentifiers;
+        this.filters = filters;
+    }
+
+    /**
+     * Creates the analyzer used for tracing natural language and code artifacts. Identifiers are split,
+     * lower-cased, stripped of stopwords, and stemmed.
+     *
+     * @return The analyzer.
+     */
+    public static TextAnalyzer standard() {
+        return new TextAnalyzer(true, List.of(TokenFilter.lowerCase(), new StopwordFilter(), new PluralStemmer()));
+    }
+
+    /**
+     * Returns the terms in given text.
+     *
+     * @param text The text to analyze.
+     * @return The terms, in order of appearance and including repetitions.
+     */
+    public List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, terms::add);
+        return terms;
+    }
+
+    /**
+     * Returns the ids of the terms in given text, interning new terms.
+     *
+     * @param text       The text to analyze.
+     * @param vocabulary The vocabulary assigning term ids.
+     * @return The term ids, in order of appearance and including repetitions.
+     */
+    public int[] analyze(String text, Vocabulary vocabulary) {
+        TermIdBuffer termIds = new TermIdBuffer(vocabulary, text.length());
+        analyze(text, termIds);
+        return termIds.toArray();
+    }
+
+    /**
+     * Passes each term in given text to the consumer.
+     *
+     * @param text     The text to analyze.
+     * @param consumer Receives the terms, in order of appearance and including repetitions.
+     */
+    public void analyze(String text, Consumer<String> consumer) {
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (!Character.isLetterOrDigit(c)) {
+                if (start >= 0) {
+                    emit(text.substring(start, i), consumer);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            } else if (splitIdentifiers && isWordBoundary(text, i)) {
+                emit(text.substring(start, i), consumer);
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Returns whether a new word starts at given index of an identifier, as in getValue or HTTPServer.
+     */
+    private boolean isWordBoundary(String text, int index) {
+        char current = text.charAt(index);
+        if (!Character.isUpperCase(current)) {
+            return false;
+        }
+        char previous = text.charAt(index - 1);
+        if (Character.isLowerCase(previous) || Character.isDigit(previous)) {
+            return true;
+        }
+        if (!Character.isUpperCase(previous) || index + 1 >= text.length()) {
+            return false;
+        }
+        // Keeps the plural of an acronym, as in UAVs, in one word.
+        boolean isAcronymPlural = text.charAt(index + 1) == 's'
+            && (index + 2 >= text.length() || !Character.isLowerCase(text.charAt(index + 2)));
+        return Character.isLowerCase(text.charAt(index + 1)) && !isAcronymPlural;
+    }
+
+    private void emit(String token, Consumer<String> consumer) {
+        for (TokenFilter filter : filters) {
+            token = filter.apply(token);
+            if (token == null) {
+                return;
+            }
+        }
+        consumer.accept(token);
+    }
+
+    /**
+     * Collects term ids into a growing primitive array.
+     */
+    private static class TermIdBuffer implements Consumer<String> {
+        private final Vocabulary vocabulary;
+        private int[] termIds;
+        private int size = 0;
+
+        TermIdBuffer(Vocabulary vocabulary, int textLength) {
+            this.vocabulary = vocabulary;
+            this.termIds = new int[Math.max(textLength / 4, 1)];
+        }
+
+        @Override
+        public void accept(String term) {
+            if (size == termIds.length) {
+                termIds = Arrays.copyOf(termIds, size * 2);
+            }
+            termIds[size++] = vocabulary.intern(term);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(termIds, size);
+        }
+    }
+}
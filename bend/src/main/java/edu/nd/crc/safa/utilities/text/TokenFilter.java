@@ -0,0 +1,26 @@
+package edu.nd.crc.safa.utilities.text;
+
+import java.util.Locale;
+
+/**
+ * A step of a {@link TextAnalyzer}, transforming or removing a single token.
+ */
+@FunctionalInterface
+public interface TokenFilter {
+    /**
+     * Lower-cases tokens.
+     *
+     * @return The filter.
+     */
+    static TokenFilter lowerCase() {
+        return token -> token.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Transforms a token.
+     *
+     * @param token The token to transform.
+     * @return The transformed token, or null to remove the token.
+     */
+    String apply(String token);
+}
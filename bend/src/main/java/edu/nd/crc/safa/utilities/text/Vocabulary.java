@@ -0,0 +1,29 @@
+package edu.nd.crc.safa.utilities.text;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns the terms of a set of documents as consecutive integer ids, so documents
+ * can be stored and compared as primitive arrays. Not safe for concurrent interning.
+ */
+public class Vocabulary {
+    private final Map<String, Integer> termIds = new HashMap<>();
+
+    /**
+     * Returns the id of given term, assigning the next id if the term is new.
+     *
+     * @param term The term to intern.
+     * @return The id of the term.
+     */
+    public int intern(String term) {
+        return termIds.computeIfAbsent(term, t -> termIds.size());
+    }
+
+    /**
+     * @return The number of interned terms.
+     */
+    public int size() {
+        return termIds.size();
+    }
+}
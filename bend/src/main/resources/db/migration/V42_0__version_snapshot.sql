@@ -0,0 +1,55 @@
+-- Materialized mapping from each project version to the artifact and trace versions active in it
+CREATE TABLE version_snapshot
+(
+    id                    BINARY(16)   NOT NULL PRIMARY KEY,
+    version_id            VARCHAR(255) NOT NULL,
+    base_entity_id        VARCHAR(255) NOT NULL,
+    artifact_version_id   VARCHAR(255),
+    trace_link_version_id VARCHAR(255),
+    CONSTRAINT SINGLE_SNAPSHOT_ENTRY_PER_VERSION UNIQUE (version_id, base_entity_id),
+    FOREIGN KEY (version_id) REFERENCES project_version (version_id) ON DELETE CASCADE,
+    FOREIGN KEY (artifact_version_id) REFERENCES artifact_body (entity_version_id) ON DELETE CASCADE,
+    FOREIGN KEY (trace_link_version_id) REFERENCES trace_link_version (trace_link_version_id) ON DELETE CASCADE
+);
+
+-- Backfill artifacts: latest non-removed body at or before each version
+INSERT INTO version_snapshot (id, version_id, base_entity_id, artifact_version_id)
+SELECT (SELECT ${uuid_generator}), target.version_id, body.artifact_id, body.entity_version_id
+FROM project_version target
+         JOIN project_version pv ON pv.project_id = target.project_id
+         JOIN artifact_body body ON body.version_id = pv.version_id
+WHERE body.modification_type <> 2
+  AND (pv.major_version < target.major_version
+    OR (pv.major_version = target.major_version AND (pv.minor_version < target.minor_version
+        OR (pv.minor_version = target.minor_version AND pv.revision <= target.revision))))
+  AND NOT EXISTS(SELECT 1
+                 FROM artifact_body newer
+                          JOIN project_version npv ON npv.version_id = newer.version_id
+                 WHERE newer.artifact_id = body.artifact_id
+                   AND (npv.major_version < target.major_version
+                     OR (npv.major_version = target.major_version AND (npv.minor_version < target.minor_version
+                         OR (npv.minor_version = target.minor_version AND npv.revision <= target.revision))))
+                   AND (npv.major_version > pv.major_version
+                     OR (npv.major_version = pv.major_version AND (npv.minor_version > pv.minor_version
+                         OR (npv.minor_version = pv.minor_version AND npv.revision > pv.revision)))));
+
+-- Backfill trace links: latest non-removed trace version at or before each version
+INSERT INTO version_snapshot (id, version_id, base_entity_id, trace_link_version_id)
+SELECT (SELECT ${uuid_generator}), target.version_id, link.trace_link_id, link.trace_link_version_id
+FROM project_version target
+         JOIN project_version pv ON pv.project_id = target.project_id
+         JOIN trace_link_version link ON link.version_id = pv.version_id
+WHERE link.modification_type <> 2
+  AND (pv.major_version < target.major_version
+    OR (pv.major_version = target.major_version AND (pv.minor_version < target.minor_version
+        OR (pv.minor_version = target.minor_version AND pv.revision <= target.revision))))
+  AND NOT EXISTS(SELECT 1
+                 FROM trace_link_version newer
+                          JOIN project_version npv ON npv.version_id = newer.version_id
+                 WHERE newer.trace_link_id = link.trace_link_id
+                   AND (npv.major_version < target.major_version
+                     OR (npv.major_version = target.major_version AND (npv.minor_version < target.minor_version
+                         OR (npv.minor_version = target.minor_version AND npv.revision <= target.revision))))
+                   AND (npv.major_version > pv.major_version
+                     OR (npv.major_version = pv.major_version AND (npv.minor_version > pv.minor_version
+                         OR (npv.minor_version = pv.minor_version AND npv.revision > pv.revision)))));
@@ -0,0 +1,6 @@
+-- Digest of the summary, content, and custom attributes of each artifact body, so bodies are compared without
+-- reading their content. Existing rows are filled in by the vendor specific V43_1 migration.
+ALTER TABLE artifact_body
+    ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX artifact_body_content_hash ON artifact_body (artifact_id, content_hash);
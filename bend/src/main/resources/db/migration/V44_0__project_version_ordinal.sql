@@ -0,0 +1,12 @@
+-- Orders the versions of a project with a single column so version ranges are resolved by an index.
+-- Must match ProjectVersion#calculateOrdinal: major, minor, and revision packed into 23, 20, and 20 bits.
+ALTER TABLE project_version
+    ADD COLUMN version_ordinal BIGINT;
+
+UPDATE project_version
+SET version_ordinal = major_version * 1099511627776 + minor_version * 1048576 + revision;
+
+ALTER TABLE project_version
+    MODIFY COLUMN version_ordinal BIGINT NOT NULL;
+
+CREATE INDEX project_version_ordinal ON project_version (project_id, version_ordinal);
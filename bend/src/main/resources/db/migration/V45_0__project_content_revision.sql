@@ -0,0 +1,4 @@
+-- Counts the changes to the contents of a project, so responses built from its contents can be validated
+-- without loading them.
+ALTER TABLE project
+    ADD COLUMN content_revision BIGINT NOT NULL DEFAULT 0;
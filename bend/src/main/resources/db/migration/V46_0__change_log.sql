@@ -0,0 +1,16 @@
+-- Records which entities changed at each content revision of a project, so clients can retrieve the changes
+-- made since the revision they last read.
+CREATE TABLE change_log
+(
+    id                BINARY(16)   NOT NULL PRIMARY KEY,
+    project_id        VARCHAR(255) NOT NULL,
+    version_id        VARCHAR(255),
+    revision          BIGINT       NOT NULL,
+    entity            VARCHAR(32)  NOT NULL,
+    entity_id         VARCHAR(255),
+    modification_type INT,
+    FOREIGN KEY (project_id) REFERENCES project (project_id) ON DELETE CASCADE,
+    FOREIGN KEY (version_id) REFERENCES project_version (version_id) ON DELETE CASCADE
+);
+
+CREATE INDEX change_log_revision ON change_log (project_id, revision);
@@ -0,0 +1,29 @@
+package edu.nd.crc.safa.test.common;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Times the calculations compared by benchmarks. Benchmarks are tagged with {@link #TAG} and are run by the
+ * benchmark task instead of the test task.
+ */
+public class Benchmarks {
+    public static final String TAG = "benchmark";
+
+    /**
+     * Runs a calculation and logs how long it took.
+     *
+     * @param logger      The logger of the benchmark.
+     * @param label       Describes the calculation and the size of its input.
+     * @param calculation The calculation to time.
+     * @param <T>         The type of result.
+     * @return The result of the calculation.
+     */
+    public static <T> T measure(Logger logger, String label, Supplier<T> calculation) {
+        long start = System.nanoTime();
+        T result = calculation.get();
+        logger.info("{} in {} ms", label, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.nd.crc.safa.test.features.delta.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.common.IVersionEntity;
+import edu.nd.crc.safa.features.delta.entities.app.EntityDelta;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.versions.VersionCalculator;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Compares the number of statements and latency of the set-based delta against resolving
+ * the history of each artifact individually.
+ */
+class TestDeltaQueryCount extends ApplicationBaseTest {
+    private static final Logger logger = LoggerFactory.getLogger(TestDeltaQueryCount.class);
+    private static final String TYPE_NAME = "requirement";
+    private static final int N_ARTIFACTS = 100;
+    private static final int N_CHANGED = 10;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testDeltaQueriesDoNotScaleWithArtifacts() {
+        dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, TYPE_NAME)
+            .newVersion(projectName)
+            .newVersion(projectName);
+
+        // Step - Create artifacts, then modify, remove, and add some in the next version.
+        IntStream.range(0, N_ARTIFACTS).forEach(i ->
+            dbEntityBuilder.newArtifactAndBody(projectName, 0, TYPE_NAME, "A" + i, "summary", "body"));
+        for (int i = 0; i < N_CHANGED; i++) {
+            dbEntityBuilder
+                .newArtifactBody(projectName, 1, ModificationType.MODIFIED, "A" + i, "summary", "changed")
+                .newArtifactBody(projectName, 1, ModificationType.REMOVED, "A" + (N_CHANGED + i), "", "")
+                .newArtifactAndBody(projectName, 1, TYPE_NAME, "B" + i, "summary", "body");
+        }
+        ProjectVersion baselineVersion = dbEntityBuilder.getProjectVersion(projectName, 0);
+        ProjectVersion targetVersion = dbEntityBuilder.getProjectVersion(projectName, 1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // Step - Measure resolving history per artifact
+        List<ArtifactVersion> perEntityChanges = measure(statistics, "per-entity",
+            () -> calculateChangesPerEntity(baselineVersion, targetVersion));
+        long perEntityStatements = statistics.getPrepareStatementCount();
+
+        // Step - Measure set-based delta
+        EntityDelta<ArtifactAppEntity> delta = measure(statistics, "set-based",
+            () -> artifactVersionRepository.calculateEntityDelta(baselineVersion, targetVersion));
+        long setBasedStatements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        // VP - Set-based delta finds the same changes
+        assertThat(delta.getAdded()).hasSize(N_CHANGED);
+        assertThat(delta.getModified()).hasSize(N_CHANGED);
+        assertThat(delta.getRemoved()).hasSize(N_CHANGED);
+        assertThat(perEntityChanges).hasSize(3 * N_CHANGED);
+
+        // VP - Set-based delta issues fewer statements than there are artifacts
+        assertThat(perEntityStatements).isGreaterThan(N_ARTIFACTS);
+        assertThat(setBasedStatements).isLessThan(N_ARTIFACTS);
+    }
+
+    /**
+     * Resolves the changed artifacts by retrieving the versions of each artifact in the project.
+     */
+    private List<ArtifactVersion> calculateChangesPerEntity(ProjectVersion baselineVersion,
+                                                            ProjectVersion targetVersion) {
+        VersionCalculator versionCalculator = new VersionCalculator();
+        Project project = baselineVersion.getProject();
+        List<ArtifactVersion> changes = new ArrayList<>();
+        for (Artifact artifact : artifactRepository.findByProjectId(project.getId())) {
+            List<ArtifactVersion> bodies = artifactVersionRepository.findByArtifact(artifact);
+            ArtifactVersion before = versionCalculator.getEntityAtVersion(bodies, baselineVersion,
+                IVersionEntity::getProjectVersion);
+            ArtifactVersion after = versionCalculator.getEntityAtVersion(bodies, targetVersion,
+                IVersionEntity::getProjectVersion);
+            if (before == null || after == null) {
+                changes.add(before == null ? after : before);
+            } else if (!before.hasSameContent(after)) {
+                changes.add(after);
+            }
+        }
+        return changes;
+    }
+
+    private <T> T measure(Statistics statistics, String label, Supplier<T> calculation) {
+        statistics.clear();
+        long start = System.currentTimeMillis();
+        T result = calculation.get();
+        long duration = System.currentTimeMillis() - start;
+        logger.info("Delta ({}): {} statements in {} ms", label, statistics.getPrepareStatementCount(), duration);
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+package edu.nd.crc.safa.test.features.impact;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.impact.entities.ImpactQuery;
+import edu.nd.crc.safa.features.impact.entities.TraceDirection;
+import edu.nd.crc.safa.features.impact.entities.TraceIntegrityAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathAppEntity;
+import edu.nd.crc.safa.features.impact.entities.TracePathQuery;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that impact analysis queries follow the trace graph of a version.
+ */
+class TestImpactAnalysis extends ApplicationBaseTest {
+    private ProjectVersion projectVersion;
+
+    @BeforeEach
+    void createProject() {
+        projectVersion = dbEntityBuilder.newProject(projectName)
+            .newType(projectName, "requirement")
+            .newType(projectName, "design")
+            .newType(projectName, "code")
+            .newVersionWithReturn(projectName);
+        dbEntityBuilder.newArtifactAndBody(projectName, "requirement", "R1", "", "")
+            .newArtifactAndBody(projectName, "design", "D1", "", "")
+            .newArtifactAndBody(projectName, "design", "D2", "", "")
+            .newArtifactAndBody(projectName, "design", "D3", "", "")
+            .newArtifactAndBody(projectName, "code", "C1", "", "")
+            .newArtifactAndBody(projectName, "code", "C2", "", "")
+            .newArtifact(projectName, "code", "removed")
+            .newTraceLink(projectName, "D1", "R1", 0)
+            .newTraceLink(projectName, "C1", "D1", 0)
+            .newGeneratedTraceLink(projectName, "D2", "R1", 0.5, 0)
+            .newTraceLink(projectName, "C2", "removed", 0);
+        TraceLinkVersion declinedLink = dbEntityBuilder.newTraceLinkWithReturn(projectName, "D3", "R1", 0);
+        declinedLink.setTraceType(TraceType.GENERATED);
+        declinedLink.setApprovalStatus(ApprovalStatus.DECLINED);
+        dbEntityBuilder.saveTraceLinkVersion(declinedLink);
+    }
+
+    @Test
+    void testImpactedArtifacts() {
+        // VP - Downstream follows approved and unreviewed links
+        assertThat(findImpacted("R1", TraceDirection.DOWNSTREAM, List.of(), List.of()))
+            .containsExactlyInAnyOrder(getId("D1"), getId("D2"), getId("C1"));
+
+        // VP - Artifacts of other types are traversed but not returned
+        assertThat(findImpacted("R1", TraceDirection.DOWNSTREAM, List.of("code"), List.of()))
+            .containsExactly(getId("C1"));
+
+        // VP - Only links with given approval status are followed
+        assertThat(findImpacted("R1", TraceDirection.DOWNSTREAM, List.of(), List.of(ApprovalStatus.DECLINED)))
+            .containsExactly(getId("D3"));
+
+        // VP - Upstream is ordered by distance
+        assertThat(findImpacted("C1", TraceDirection.UPSTREAM, List.of(), List.of()))
+            .containsExactly(getId("D1"), getId("R1"));
+
+        // VP - Artifact outside version is rejected
+        ImpactQuery query = new ImpactQuery();
+        query.setArtifactIds(List.of(UUID.randomUUID()));
+        SafaRequest
+            .withRoute(AppRoutes.Impact.FIND_IMPACTED_ARTIFACTS)
+            .withVersion(projectVersion)
+            .postWithJsonObject(query, status().is4xxClientError());
+    }
+
+    @Test
+    void testTracePath() {
+        TracePathAppEntity path = findPath("C1", "D2");
+
+        // VP - Links are followed in either direction
+        assertThat(path.isFound()).isTrue();
+        assertThat(path.getArtifactIds()).containsExactly(getId("C1"), getId("D1"), getId("R1"), getId("D2"));
+        assertThat(path.getTraceLinkIds()).hasSize(3);
+
+        // VP - Declined links are not followed by default
+        assertThat(findPath("D3", "R1").isFound()).isFalse();
+    }
+
+    @Test
+    void testTraceIntegrity() throws Exception {
+        TraceIntegrityAppEntity integrity = SafaRequest
+            .withRoute(AppRoutes.Impact.CHECK_TRACE_INTEGRITY)
+            .withVersion(projectVersion)
+            .getAsType(TraceIntegrityAppEntity.class);
+
+        // VP - Artifacts with only declined or dangling links are orphans
+        assertThat(integrity.getOrphanArtifactIds()).containsExactlyInAnyOrder(getId("D3"), getId("C2"));
+
+        // VP - Link to artifact outside version is dangling
+        assertThat(integrity.getDanglingTraceLinkIds()).hasSize(1);
+    }
+
+    private List<UUID> findImpacted(String artifactName,
+                                    TraceDirection direction,
+                                    List<String> artifactTypes,
+                                    List<ApprovalStatus> approvalStatuses) {
+        ImpactQuery query = new ImpactQuery();
+        query.setArtifactIds(List.of(getId(artifactName)));
+        query.setDirection(direction);
+        query.setArtifactTypes(artifactTypes);
+        query.setApprovalStatuses(approvalStatuses);
+        return SafaRequest
+            .withRoute(AppRoutes.Impact.FIND_IMPACTED_ARTIFACTS)
+            .withVersion(projectVersion)
+            .postAndParseResponse(query, new TypeReference<>() {
+            });
+    }
+
+    private TracePathAppEntity findPath(String sourceName, String targetName) {
+        TracePathQuery query = new TracePathQuery();
+        query.setSourceId(getId(sourceName));
+        query.setTargetId(getId(targetName));
+        return SafaRequest
+            .withRoute(AppRoutes.Impact.FIND_TRACE_PATH)
+            .withVersion(projectVersion)
+            .postAndParseResponse(query, new TypeReference<>() {
+            });
+    }
+
+    private UUID getId(String artifactName) {
+        return dbEntityBuilder.getArtifact(projectName, artifactName).getArtifactId();
+    }
+}
@@ -0,0 +1,62 @@
+package edu.nd.crc.safa.test.features.layout.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import edu.nd.crc.safa.features.layout.LayoutSettings;
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
+import edu.nd.crc.safa.test.features.layout.base.AbstractCorrectnessTest;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that committing artifacts only re-lays out the connected components they belong to.
+ */
+class TestIncrementalLayout extends AbstractCorrectnessTest {
+    private final String a4Name = "R4";
+    private final String a5Name = "R5";
+
+    @Test
+    void testUnchangedComponentsKeepPositions() throws Exception {
+        // Step - Create project
+        createProject();
+        ProjectAppEntity project = retrievalService.getProjectAtVersion(projectVersion);
+        List<LayoutPosition> treePositions = getPositions(project, a1Name, a2Name, a3Name);
+
+        // Step - Add unconnected artifact
+        commitService.commit(CommitBuilder.withVersion(projectVersion)
+            .withAddedArtifact(createArtifact(a4Name)));
+        project = retrievalService.getProjectAtVersion(projectVersion);
+        LayoutPosition a4Pos = getPosition(project, a4Name);
+
+        // VP - Existing component is not moved
+        assertThat(getPositions(project, a1Name, a2Name, a3Name)).isEqualTo(treePositions);
+
+        // VP - New component does not overlap existing component
+        for (LayoutPosition treePosition : treePositions) {
+            assertThat(overlaps(treePosition, a4Pos)).isFalse();
+        }
+
+        // Step - Add child to new artifact
+        commitService.commit(CommitBuilder.withVersion(projectVersion)
+            .withAddedArtifact(createArtifact(a5Name))
+            .withAddedTrace(jsonBuilder.createTrace(a5Name, a4Name)));
+        project = retrievalService.getProjectAtVersion(projectVersion);
+
+        // VP - Only the changed component is laid out again
+        assertThat(getPositions(project, a1Name, a2Name, a3Name)).isEqualTo(treePositions);
+        assertThat(getPosition(project, a4Name).getY()).isLessThan(getPosition(project, a5Name).getY());
+    }
+
+    private List<LayoutPosition> getPositions(ProjectAppEntity project, String... artifactNames) {
+        return List.of(artifactNames).stream().map(name -> getPosition(project, name)).toList();
+    }
+
+    private boolean overlaps(LayoutPosition first, LayoutPosition second) {
+        return Math.abs(first.getX() - second.getX()) < LayoutSettings.ARTIFACT_WIDTH
+            && Math.abs(first.getY() - second.getY()) < LayoutSettings.ARTIFACT_HEIGHT;
+    }
+}
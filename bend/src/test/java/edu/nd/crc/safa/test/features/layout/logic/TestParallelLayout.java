@@ -0,0 +1,101 @@
+package edu.nd.crc.safa.test.features.layout.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.layout.entities.app.LayoutPosition;
+import edu.nd.crc.safa.features.layout.generator.ComponentLayoutGenerator;
+import edu.nd.crc.safa.features.layout.generator.KlayLayoutGenerator;
+import edu.nd.crc.safa.features.layout.generator.LayoutJobRunner;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that layout jobs run on a pool of threads produce the same layout as when run one after another.
+ */
+class TestParallelLayout {
+    private static final int N_COMPONENTS = 12;
+    private static final int N_CHILDREN = 4;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final LayoutJobRunner runner = new LayoutJobRunner(executor);
+    private final List<ArtifactAppEntity> artifacts = new ArrayList<>();
+    private final List<TraceAppEntity> traces = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testDocumentLayoutsMatchSerialLayouts() {
+        List<UUID> rootIds = new ArrayList<>();
+        for (int i = 0; i < N_COMPONENTS; i++) {
+            rootIds.add(addTree());
+        }
+
+        // Step - Lay out every prefix of the graph as a separate document
+        List<Supplier<Map<UUID, LayoutPosition>>> jobs = new ArrayList<>();
+        for (int i = 1; i <= N_COMPONENTS; i++) {
+            int nArtifacts = i * (N_CHILDREN + 1);
+            jobs.add(() -> layout(artifacts.subList(0, nArtifacts)));
+        }
+        List<Map<UUID, LayoutPosition>> serialLayouts = new ArrayList<>();
+        jobs.forEach(job -> serialLayouts.add(job.get()));
+
+        // VP - Same layouts in the same order
+        assertThat(runner.runAll(jobs)).isEqualTo(serialLayouts);
+
+        // Step - Change some components of the full layout
+        Map<UUID, LayoutPosition> previousLayout = serialLayouts.get(N_COMPONENTS - 1);
+        addTree();
+        Set<UUID> changedArtifactIds = Set.of(rootIds.get(2), rootIds.get(7));
+        ComponentLayoutGenerator generator =
+            new ComponentLayoutGenerator(artifacts, traces, previousLayout, changedArtifactIds);
+
+        // VP - Changed components are placed the same way
+        Map<UUID, LayoutPosition> serialLayout = generator.layoutChangedComponents();
+        assertThat(generator.placeLayouts(runner.runAll(generator.getLayoutJobs()))).isEqualTo(serialLayout);
+        assertThat(serialLayout).hasSize(3 * (N_CHILDREN + 1));
+    }
+
+    private Map<UUID, LayoutPosition> layout(List<ArtifactAppEntity> documentArtifacts) {
+        return new KlayLayoutGenerator(documentArtifacts, traces).layout();
+    }
+
+    /**
+     * Adds a root artifact with children.
+     *
+     * @return The id of the root artifact.
+     */
+    private UUID addTree() {
+        ArtifactAppEntity root = newArtifact();
+        for (int i = 0; i < N_CHILDREN; i++) {
+            ArtifactAppEntity child = newArtifact();
+            traces.add(new TraceAppEntity(UUID.randomUUID(), "", child.getId(), "", root.getId(),
+                ApprovalStatus.APPROVED, 1, TraceType.MANUAL, true, ""));
+        }
+        return root.getId();
+    }
+
+    private ArtifactAppEntity newArtifact() {
+        ArtifactAppEntity artifact = new ArtifactAppEntity(UUID.randomUUID(), "type", "", "", "",
+            new LinkedHashMap<>());
+        artifacts.add(artifact);
+        return artifact;
+    }
+}
@@ -0,0 +1,139 @@
+package edu.nd.crc.safa.test.features.projects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.impact.entities.ImpactQuery;
+import edu.nd.crc.safa.features.impact.entities.TraceDirection;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+import edu.nd.crc.safa.utilities.JsonFileUtilities;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that projects reopened after a commit reflect the commit when they are served from the version snapshot
+ * and the caches of version content, project graphs, and trace graph indices.
+ */
+class TestCachedRetrieval extends ApplicationBaseTest {
+
+    @Test
+    void testReopenedProjectReflectsCommits() throws Exception {
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName).newVersionWithReturn(projectName);
+        jsonBuilder.withProject(projectName, projectName, "");
+        ProjectCommitDefinition addCommit = commitService.commit(CommitBuilder.withVersion(projectVersion)
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "R1", "requirement", "body"))
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "D1", "design", "body"))
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "C1", "code", "body"))
+            .withAddedTrace(jsonBuilder.withTraceAndReturn(projectName, "D1", "R1"))
+            .withAddedTrace(jsonBuilder.withTraceAndReturn(projectName, "C1", "D1")));
+
+        // Step - Open project twice, so the second open is served from the caches
+        getProject(projectVersion);
+        JSONObject project = getProject(projectVersion);
+        Map<String, String> artifactIds = getArtifactIds(project);
+
+        // VP - Committed artifacts, subtrees, and impact are returned
+        assertThat(artifactIds).containsOnlyKeys("R1", "D1", "C1");
+        assertThat(getSubtreeInProject(project, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("C1"));
+        assertThat(getSubtreeOfArtifact(projectVersion, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("C1"));
+        assertThat(findImpacted(projectVersion, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("C1"));
+
+        // Step - Add artifact below requirement and remove code
+        ArtifactAppEntity removedArtifact = addCommit.getArtifacts().filterAdded(a -> a.getName().equals("C1"));
+        commitService.commit(CommitBuilder.withVersion(projectVersion)
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "D2", "design", "body"))
+            .withAddedTrace(jsonBuilder.withTraceAndReturn(projectName, "D2", "R1"))
+            .withRemovedArtifact(JsonFileUtilities.toJson(removedArtifact)));
+
+        // VP - Reopened project reflects commit
+        project = getProject(projectVersion);
+        artifactIds = getArtifactIds(project);
+        assertThat(artifactIds).containsOnlyKeys("R1", "D1", "D2");
+        assertThat(getSubtreeInProject(project, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("D2"));
+        assertThat(getSubtreeOfArtifact(projectVersion, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("D2"));
+        assertThat(findImpacted(projectVersion, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("D2"));
+
+        // VP - Version created afterwards starts from the same snapshot
+        ProjectVersion nextVersion = serviceProvider.getVersionService()
+            .createNextRevision(projectVersion.getProject());
+        JSONObject nextProject = getProject(nextVersion);
+        assertThat(getArtifactIds(nextProject)).isEqualTo(artifactIds);
+        assertThat(getSubtreeInProject(nextProject, artifactIds.get("R1"))).containsExactlyInAnyOrder(
+            artifactIds.get("D1"), artifactIds.get("D2"));
+    }
+
+    private JSONObject getProject(ProjectVersion projectVersion) throws Exception {
+        return SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_PROJECT_IN_VERSION)
+            .withVersion(projectVersion)
+            .getWithJsonObject();
+    }
+
+    private Set<String> getSubtreeOfArtifact(ProjectVersion projectVersion, String artifactId) {
+        JSONObject subtrees = SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_SUBTREES_IN_VERSION)
+            .withVersion(projectVersion)
+            .postWithJsonObject(List.of(UUID.fromString(artifactId)));
+        return getSubtree(subtrees, artifactId);
+    }
+
+    private Set<String> findImpacted(ProjectVersion projectVersion, String artifactId) {
+        ImpactQuery query = new ImpactQuery();
+        query.setArtifactIds(List.of(UUID.fromString(artifactId)));
+        query.setDirection(TraceDirection.DOWNSTREAM);
+        query.setArtifactTypes(List.of());
+        query.setApprovalStatuses(List.of());
+        List<UUID> impactedIds = SafaRequest
+            .withRoute(AppRoutes.Impact.FIND_IMPACTED_ARTIFACTS)
+            .withVersion(projectVersion)
+            .postAndParseResponse(query, new TypeReference<>() {
+            });
+        Set<String> ids = new HashSet<>();
+        impactedIds.forEach(id -> ids.add(id.toString()));
+        return ids;
+    }
+
+    private Set<String> getSubtreeInProject(JSONObject project, String artifactId) {
+        return getSubtree(project.getJSONObject("subtrees"), artifactId);
+    }
+
+    private Set<String> getSubtree(JSONObject subtrees, String artifactId) {
+        JSONArray subtree = subtrees.getJSONObject(artifactId).getJSONArray("subtree");
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < subtree.length(); i++) {
+            ids.add(subtree.getString(i));
+        }
+        return ids;
+    }
+
+    private Map<String, String> getArtifactIds(JSONObject project) {
+        JSONArray artifacts = project.getJSONArray("artifacts");
+        Map<String, String> artifactIds = new HashMap<>();
+        for (int i = 0; i < artifacts.length(); i++) {
+            JSONObject artifact = artifacts.getJSONObject(i);
+            artifactIds.put(artifact.getString("name"), artifact.getString("id"));
+        }
+        return artifactIds;
+    }
+}
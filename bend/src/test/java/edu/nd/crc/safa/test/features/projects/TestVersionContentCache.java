@@ -0,0 +1,138 @@
+package edu.nd.crc.safa.test.features.projects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
+import edu.nd.crc.safa.features.projects.entities.app.VersionContent;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.projects.services.VersionContentCache;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestVersionContentCache {
+    private Project project;
+    private ProjectVersion firstVersion;
+    private ProjectVersion secondVersion;
+
+    @BeforeEach
+    void createVersions() {
+        project = new Project("project", "", null);
+        project.setProjectId(UUID.randomUUID());
+        firstVersion = createVersion(project, 1);
+        secondVersion = createVersion(project, 2);
+    }
+
+    @Test
+    void testChangeEvictsVersionAndLaterVersions() {
+        VersionContentCache cache = new VersionContentCache(true, 100);
+        Project otherProject = new Project("other", "", null);
+        otherProject.setProjectId(UUID.randomUUID());
+        ProjectVersion otherVersion = createVersion(otherProject, 1);
+        putContent(cache, firstVersion, 1);
+        putContent(cache, secondVersion, 1);
+        putContent(cache, otherVersion, 1);
+
+        cache.handleProjectVersionChanged(
+            new ProjectVersionChangedEvent(this, secondVersion, NotificationEntity.ARTIFACTS, null));
+
+        // VP - Only changed version and later versions of the project are evicted
+        assertThat(cache.get(firstVersion)).isNotNull();
+        assertThat(cache.get(secondVersion)).isNull();
+        assertThat(cache.get(otherVersion)).isNotNull();
+
+        cache.handleProjectVersionChanged(new ProjectVersionChangedEvent(this, project, NotificationEntity.TYPES));
+
+        // VP - Project-wide change evicts every version of project
+        assertThat(cache.get(firstVersion)).isNull();
+        assertThat(cache.get(otherVersion)).isNotNull();
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvictedWhenFull() {
+        VersionContentCache cache = new VersionContentCache(true, 5);
+        ProjectVersion thirdVersion = createVersion(project, 3);
+        putContent(cache, firstVersion, 2);
+        putContent(cache, secondVersion, 2);
+        cache.get(firstVersion);
+        putContent(cache, thirdVersion, 2);
+
+        // VP - Least recently read version is evicted
+        assertThat(cache.get(firstVersion)).isNotNull();
+        assertThat(cache.get(secondVersion)).isNull();
+        assertThat(cache.get(thirdVersion)).isNotNull();
+
+        // VP - Content larger than cache is not stored
+        putContent(cache, firstVersion, 6);
+        assertThat(cache.get(firstVersion).getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void testContentLoadedBeforeChangeIsNotCached() {
+        VersionContentCache cache = new VersionContentCache(true, 100);
+        long generation = cache.getGeneration(firstVersion);
+
+        cache.handleProjectVersionChanged(
+            new ProjectVersionChangedEvent(this, firstVersion, NotificationEntity.ARTIFACTS, null));
+        cache.put(firstVersion, generation, createContent(1));
+
+        // VP - Stale content is rejected
+        assertThat(cache.get(firstVersion)).isNull();
+    }
+
+    @Test
+    void testContentOfOtherRevisionIsNotReturned() {
+        VersionContentCache cache = new VersionContentCache(true, 100);
+        putContent(cache, firstVersion, 1);
+
+        // VP - Content is only returned at the revision it was loaded at
+        assertThat(cache.get(firstVersion, 0)).isNotNull();
+        assertThat(cache.get(firstVersion, 1)).isNull();
+    }
+
+    @Test
+    void testSizeCountsSubtreesAndArtifactText() {
+        UUID artifactId = UUID.randomUUID();
+        ArtifactAppEntity artifact = new ArtifactAppEntity(artifactId, "type", "artifact", "", "x".repeat(2000),
+            new HashMap<>());
+        Map<UUID, SubtreeAppEntity> subtrees = new HashMap<>();
+        subtrees.put(artifactId, new SubtreeAppEntity(Set.of(UUID.randomUUID()), Set.of(), Set.of(),
+            Set.of(UUID.randomUUID(), UUID.randomUUID()), Set.of(UUID.randomUUID())));
+        VersionContent content = new VersionContent(new ProjectEntities(List.of(artifact), new ArrayList<>()),
+            new HashMap<>(), subtrees, 0);
+
+        // VP - One artifact, two entities of text, and four artifact ids in its relationships
+        assertThat(content.getSize()).isEqualTo(7);
+    }
+
+    private void putContent(VersionContentCache cache, ProjectVersion projectVersion, int nArtifacts) {
+        cache.put(projectVersion, cache.getGeneration(projectVersion), createContent(nArtifacts));
+    }
+
+    private VersionContent createContent(int nArtifacts) {
+        List<ArtifactAppEntity> artifacts = new ArrayList<>();
+        for (int i = 0; i < nArtifacts; i++) {
+            artifacts.add(new ArtifactAppEntity(UUID.randomUUID(), "type", "artifact" + i, "", "", new HashMap<>()));
+        }
+        return new VersionContent(new ProjectEntities(artifacts, new ArrayList<>()), new HashMap<>(),
+            new HashMap<>(), 0);
+    }
+
+    private ProjectVersion createVersion(Project project, int majorVersion) {
+        ProjectVersion projectVersion = new ProjectVersion(project, majorVersion, 0, 0);
+        projectVersion.setVersionId(UUID.randomUUID());
+        return projectVersion;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.nd.crc.safa.test.features.projects.crud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.HashMap;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.requests.RouteBuilder;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Tests that retrieval endpoints respond with 304 Not Modified to clients that have the current entity tag.
+ */
+class TestConditionalRetrieval extends ApplicationBaseTest {
+
+    @Test
+    void testArtifactsNotModifiedUntilCommit() throws Exception {
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName).newVersionWithReturn(projectName);
+        String route = AppRoutes.Retrieval.GET_ARTIFACTS_IN_VERSION;
+
+        // VP - Response is tagged
+        MockHttpServletResponse response = sendGet(route, projectVersion, null);
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(etag).isNotBlank();
+
+        // VP - Current tag is not modified
+        response = sendGet(route, projectVersion, etag);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getContentAsString()).isEmpty();
+
+        // VP - Commit changes tag
+        ArtifactAppEntity artifact = new ArtifactAppEntity(null, "Requirement", "R0", "", "body", new HashMap<>());
+        commitService.commit(CommitBuilder.withVersion(projectVersion).withAddedArtifact(artifact));
+        response = sendGet(route, projectVersion, etag);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(response.getContentAsString()).contains("R0");
+    }
+
+    @Test
+    void testProjectNotModified() throws Exception {
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName).newVersionWithReturn(projectName);
+        String route = AppRoutes.Retrieval.GET_PROJECT_IN_VERSION;
+
+        MockHttpServletResponse response = sendGet(route, projectVersion, null);
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        // VP - Retrieval stages are timed
+        assertThat(response.getHeader("Server-Timing")).contains("entities;dur=", "total;dur=");
+        assertThat(response.getContentAsString()).doesNotContain("serverTiming");
+
+        response = sendGet(route, projectVersion, etag);
+
+        // VP - Current tag is not modified
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+
+        // VP - Outdated tag receives project
+        response = sendGet(route, projectVersion, "\"outdated\"");
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    private MockHttpServletResponse sendGet(String route, ProjectVersion projectVersion, String etag)
+        throws Exception {
+        String endpoint = RouteBuilder.withRoute(route).withVersion(projectVersion).buildEndpoint();
+        MockHttpServletRequestBuilder request = get(endpoint).cookie(SafaRequest.getAuthorizationToken());
+        if (etag != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        return SafaRequest.getMockMvc().perform(request).andReturn().getResponse();
+    }
+}
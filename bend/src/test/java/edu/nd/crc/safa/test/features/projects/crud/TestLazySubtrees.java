@@ -0,0 +1,108 @@
+package edu.nd.crc.safa.test.features.projects.crud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a project can be retrieved with only the direct relationships of its artifacts, and the subtrees
+ * of selected artifacts retrieved separately.
+ */
+class TestLazySubtrees extends ApplicationBaseTest {
+    private ProjectVersion projectVersion;
+    private String parentId;
+    private String middleId;
+    private String childId;
+
+    @BeforeEach
+    void createProject() {
+        String typeName = "type";
+        projectVersion = dbEntityBuilder.newProject(projectName)
+            .newType(projectName, typeName)
+            .newVersionWithReturn(projectName);
+        for (String artifactName : List.of("parent", "middle", "child")) {
+            dbEntityBuilder.newArtifactAndBody(projectName, typeName, artifactName, "", "");
+        }
+        dbEntityBuilder.newTraceLink(projectName, "child", "middle", 0)
+            .newTraceLink(projectName, "middle", "parent", 0);
+        parentId = getArtifactId("parent");
+        middleId = getArtifactId("middle");
+        childId = getArtifactId("child");
+    }
+
+    @Test
+    void testProjectWithoutClosures() throws Exception {
+        JSONObject project = SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_PROJECT_IN_VERSION)
+            .withVersion(projectVersion)
+            .withQueryParam("lazySubtrees", "true")
+            .getWithJsonObject();
+
+        assertOnlyDirectRelationships(project);
+    }
+
+    @Test
+    void testStreamedProjectWithoutClosures() throws Exception {
+        JSONObject project = SafaRequest
+            .withRoute(AppRoutes.Retrieval.STREAM_PROJECT_IN_VERSION)
+            .withVersion(projectVersion)
+            .getWithJsonObject();
+
+        assertOnlyDirectRelationships(project);
+    }
+
+    private void assertOnlyDirectRelationships(JSONObject project) {
+        // VP - Only parents and children are included
+        JSONObject middle = project.getJSONObject("subtrees").getJSONObject(middleId);
+        assertThat(getIds(middle.getJSONArray("parents"))).containsExactly(parentId);
+        assertThat(getIds(middle.getJSONArray("children"))).containsExactly(childId);
+        assertThat(middle.getJSONArray("subtree").length()).isZero();
+        assertThat(middle.getJSONArray("supertree").length()).isZero();
+    }
+
+    @Test
+    void testSubtreesOfSelectedArtifacts() {
+        JSONObject subtrees = SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_SUBTREES_IN_VERSION)
+            .withVersion(projectVersion)
+            .postWithJsonObject(List.of(UUID.fromString(parentId)));
+
+        // VP - Only requested artifacts are included, with their descendants
+        assertThat(subtrees.keySet()).containsExactly(parentId);
+        assertThat(getIds(subtrees.getJSONObject(parentId).getJSONArray("subtree")))
+            .containsExactlyInAnyOrder(middleId, childId);
+        assertThat(subtrees.getJSONObject(parentId).getJSONArray("supertree").length()).isZero();
+
+        // VP - Artifacts not in the version are rejected
+        SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_SUBTREES_IN_VERSION)
+            .withVersion(projectVersion)
+            .postWithJsonObject(List.of(UUID.randomUUID()), status().is4xxClientError());
+    }
+
+    private String getArtifactId(String artifactName) {
+        return dbEntityBuilder.getArtifact(projectName, artifactName).getArtifactId().toString();
+    }
+
+    private Set<String> getIds(JSONArray ids) {
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < ids.length(); i++) {
+            values.add(ids.getString(i));
+        }
+        return values;
+    }
+}
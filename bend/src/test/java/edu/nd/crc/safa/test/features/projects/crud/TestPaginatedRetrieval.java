@@ -0,0 +1,144 @@
+package edu.nd.crc.safa.test.features.projects.crud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.documents.entities.db.Document;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that artifacts and traces can be retrieved in filtered pages.
+ */
+class TestPaginatedRetrieval extends ApplicationBaseTest {
+    private static final String REQUIREMENT = "requirement";
+    private static final String DESIGN = "design";
+
+    private ProjectVersion firstVersion;
+    private ProjectVersion secondVersion;
+
+    @BeforeEach
+    void createProject() {
+        dbEntityBuilder.newProject(projectName)
+            .newType(projectName, REQUIREMENT)
+            .newType(projectName, DESIGN);
+        firstVersion = dbEntityBuilder.newVersionWithReturn(projectName);
+        secondVersion = dbEntityBuilder.newVersionWithReturn(projectName);
+        for (String artifactName : List.of("R1", "R2", "R3", "R4")) {
+            dbEntityBuilder.newArtifactAndBody(projectName, REQUIREMENT, artifactName, "", "");
+        }
+        dbEntityBuilder.newArtifactAndBody(projectName, DESIGN, "D1", "", "")
+            .newArtifactBody(projectName, 1, ModificationType.MODIFIED, "R3", "", "modified")
+            .newDocument(projectName, "document", "")
+            .newDocumentArtifact(projectName, 0, "document", "R2")
+            .newDocumentArtifact(projectName, 0, "document", "R4")
+            .newTraceLink(projectName, "R1", "D1", 0)
+            .newGeneratedTraceLink(projectName, "R2", "D1", 0.5, 0);
+    }
+
+    @Test
+    void testPageThroughArtifacts() throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int nPages = 0;
+        do {
+            SafaRequest request = SafaRequest
+                .withRoute(AppRoutes.Retrieval.GET_ARTIFACT_PAGE_IN_VERSION)
+                .withVersion(secondVersion)
+                .withQueryParam("size", "2");
+            if (cursor != null) {
+                request.withQueryParam("after", cursor);
+            }
+            JSONObject page = request.getWithJsonObject();
+            names.addAll(getValues(page, "name"));
+            cursor = page.isNull("nextCursor") ? null : page.getString("nextCursor");
+            nPages++;
+        } while (cursor != null);
+
+        // VP - Every artifact is returned once, in order of name
+        assertThat(names).containsExactly("D1", "R1", "R2", "R3", "R4");
+        assertThat(nPages).isEqualTo(3);
+    }
+
+    @Test
+    void testFilterArtifacts() throws Exception {
+        // VP - Filter by type
+        JSONObject page = getArtifactPage("type", DESIGN);
+        assertThat(getValues(page, "name")).containsExactly("D1");
+
+        // VP - Filter by document, including document ids
+        Document document = dbEntityBuilder.getDocument(projectName, "document");
+        page = getArtifactPage("documentId", document.getDocumentId().toString());
+        assertThat(getValues(page, "name")).containsExactly("R2", "R4");
+        assertThat(page.getJSONArray("entities").getJSONObject(0).getJSONArray("documentIds").getString(0))
+            .isEqualTo(document.getDocumentId().toString());
+
+        // VP - Filter by modification since version
+        page = getArtifactPage("modifiedSince", firstVersion.getVersionId().toString());
+        assertThat(getValues(page, "name")).containsExactly("R3");
+
+        // VP - Invalid page size is rejected
+        SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_ARTIFACT_PAGE_IN_VERSION)
+            .withVersion(secondVersion)
+            .withQueryParam("size", "0")
+            .getWithJsonObject(status().is4xxClientError());
+    }
+
+    @Test
+    void testFilterAndPageTraces() throws Exception {
+        // VP - Filter by approval status
+        JSONObject page = getTracePage("approvalStatus", ApprovalStatus.UNREVIEWED.name());
+        assertThat(getValues(page, "sourceName")).containsExactly("R2");
+
+        // VP - Filter by trace type
+        page = getTracePage("traceType", TraceType.MANUAL.name());
+        assertThat(getValues(page, "sourceName")).containsExactly("R1");
+
+        // VP - Second page continues after cursor of first page
+        page = getTracePage("size", "1");
+        String cursor = page.getString("nextCursor");
+        assertThat(page.getJSONArray("entities")).hasSize(1);
+        JSONObject nextPage = getTracePage("after", cursor);
+        assertThat(getValues(nextPage, "traceLinkId")).hasSize(1).doesNotContain(cursor);
+        assertThat(nextPage.isNull("nextCursor")).isTrue();
+    }
+
+    private JSONObject getArtifactPage(String paramName, String paramValue) throws Exception {
+        return SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_ARTIFACT_PAGE_IN_VERSION)
+            .withVersion(secondVersion)
+            .withQueryParam(paramName, paramValue)
+            .getWithJsonObject();
+    }
+
+    private JSONObject getTracePage(String paramName, String paramValue) throws Exception {
+        return SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_TRACE_PAGE_IN_VERSION)
+            .withVersion(secondVersion)
+            .withQueryParam(paramName, paramValue)
+            .getWithJsonObject();
+    }
+
+    private List<String> getValues(JSONObject page, String field) {
+        JSONArray entities = page.getJSONArray("entities");
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < entities.length(); i++) {
+            values.add(entities.getJSONObject(i).getString(field));
+        }
+        return values;
+    }
+}
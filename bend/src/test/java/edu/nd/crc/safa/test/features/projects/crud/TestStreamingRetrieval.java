@@ -0,0 +1,94 @@
+package edu.nd.crc.safa.test.features.projects.crud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.features.rules.TestRules;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that streaming a project writes the same project as retrieving it, with only the parents and children of
+ * each artifact in its subtrees.
+ */
+class TestStreamingRetrieval extends ApplicationBaseTest {
+
+    @Test
+    void testStreamedProjectMatchesRetrievedProject() throws Exception {
+        String typeName = "Requirement";
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName)
+            .newType(projectName, typeName)
+            .newVersionWithReturn(projectName);
+        TestRules.getDefaultRules().forEach(rule ->
+            serviceProvider.getRuleService().addRule(projectVersion.getProject(), rule));
+        for (String artifactName : List.of("parent", "middle", "child")) {
+            dbEntityBuilder.newArtifactWithReturn(projectName, typeName, artifactName);
+            dbEntityBuilder.newArtifactBody(projectName, 0, artifactName, "", "");
+        }
+        dbEntityBuilder.newTraceLink(projectName, "child", "middle", 0)
+            .newTraceLink(projectName, "middle", "parent", 0);
+        TraceLinkVersion hiddenLink = dbEntityBuilder.newTraceLinkWithReturn(projectName, "parent", "child", 0);
+        hiddenLink.setVisible(false);
+        dbEntityBuilder.saveTraceLinkVersion(hiddenLink);
+
+        // Step - Stream first, so warnings are calculated from the streamed links rather than cached
+        JSONObject streamed = getProject(AppRoutes.Retrieval.STREAM_PROJECT_IN_VERSION, projectVersion);
+        JSONObject retrieved = getProject(AppRoutes.Retrieval.GET_PROJECT_IN_VERSION, projectVersion);
+
+        // VP - Same fields are written
+        assertThat(streamed.keySet()).isEqualTo(retrieved.keySet());
+        assertThat(streamed.getString("name")).isEqualTo(retrieved.getString("name"));
+        assertThat(streamed.getLong("changeCursor")).isEqualTo(retrieved.getLong("changeCursor"));
+
+        // VP - Same artifacts and visible traces are written
+        assertThat(getIds(streamed.getJSONArray("artifacts"), "id")).hasSize(3)
+            .isEqualTo(getIds(retrieved.getJSONArray("artifacts"), "id"));
+        assertThat(getIds(streamed.getJSONArray("traces"), "traceLinkId")).hasSize(2)
+            .isEqualTo(getIds(retrieved.getJSONArray("traces"), "traceLinkId"));
+
+        // VP - Same warnings are written, on the artifact without a child
+        JSONObject streamedWarnings = streamed.getJSONObject("warnings");
+        assertThat(streamedWarnings.keySet()).hasSize(1)
+            .isEqualTo(retrieved.getJSONObject("warnings").keySet());
+
+        // VP - Same parents and children are written, without closures
+        JSONObject streamedSubtrees = streamed.getJSONObject("subtrees");
+        JSONObject retrievedSubtrees = retrieved.getJSONObject("subtrees");
+        assertThat(streamedSubtrees.keySet()).isEqualTo(retrievedSubtrees.keySet());
+        for (String artifactId : retrievedSubtrees.keySet()) {
+            JSONObject streamedSubtree = streamedSubtrees.getJSONObject(artifactId);
+            for (String field : List.of("parents", "children")) {
+                assertThat(getIds(streamedSubtree.getJSONArray(field), null))
+                    .isEqualTo(getIds(retrievedSubtrees.getJSONObject(artifactId).getJSONArray(field), null));
+            }
+            for (String field : List.of("subtree", "supertree", "neighbors")) {
+                assertThat(streamedSubtree.getJSONArray(field).length()).isZero();
+            }
+        }
+    }
+
+    private JSONObject getProject(String route, ProjectVersion projectVersion) throws Exception {
+        return SafaRequest
+            .withRoute(route)
+            .withVersion(projectVersion)
+            .getWithJsonObject();
+    }
+
+    private Set<String> getIds(JSONArray entities, String idField) {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < entities.length(); i++) {
+            ids.add(idField == null ? entities.getString(i) : entities.getJSONObject(i).getString(idField));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,142 @@
+package edu.nd.crc.safa.test.features.projects.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.delta.entities.app.ProjectChange;
+import edu.nd.crc.safa.features.projects.graph.ProjectGraph;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Applies random commits to a graph and verifies that its subtrees match those of a graph created from the
+ * resulting artifacts and trace links.
+ */
+class TestIncrementalProjectGraph {
+    private static final int N_ARTIFACTS = 2000;
+    private static final int N_COMMITS = 100;
+    private static final int PARENT_WINDOW = 50;
+
+    private final Random random = new Random(7);
+    private final Map<UUID, ArtifactAppEntity> artifacts = new LinkedHashMap<>();
+    private final Map<UUID, TraceAppEntity> traces = new LinkedHashMap<>();
+
+    @Test
+    void testCommitsMatchRebuild() {
+        List<UUID> artifactIds = new ArrayList<>();
+        for (int i = 0; i < N_ARTIFACTS; i++) {
+            ArtifactAppEntity artifact = newArtifact();
+            artifacts.put(artifact.getId(), artifact);
+            artifactIds.add(artifact.getId());
+            if (i > 0) {
+                TraceAppEntity trace = newTrace(artifact.getId(),
+                    artifactIds.get(Math.max(0, i - 1 - random.nextInt(PARENT_WINDOW))));
+                traces.put(trace.getId(), trace);
+            }
+        }
+        ProjectGraph graph = new ProjectGraph(getEntities());
+        assertThat(graph.getSubtreeInfo()).hasSize(N_ARTIFACTS);
+
+        for (int i = 0; i < N_COMMITS; i++) {
+            ProjectChange<ArtifactAppEntity> artifactChange = new ProjectChange<>();
+            ProjectChange<TraceAppEntity> traceChange = new ProjectChange<>();
+            createChanges(artifactChange, traceChange);
+
+            graph.applyArtifactChange(artifactChange);
+            graph.applyTraceChange(traceChange);
+            if (i % 10 == 0) {
+                // Step - Apply same commit again
+                graph.applyArtifactChange(artifactChange);
+                graph.applyTraceChange(traceChange);
+            }
+
+            // VP - Subtrees match graph created from scratch
+            ProjectGraph rebuilt = new ProjectGraph(getEntities());
+            assertThat(graph.getSubtreeInfo()).isEqualTo(rebuilt.getSubtreeInfo());
+
+            // VP - Size counts the recalculated subtrees
+            assertThat(graph.getSize()).isEqualTo(rebuilt.getSize());
+        }
+    }
+
+    /**
+     * Creates a commit adding, modifying, and removing artifacts and trace links, and applies it to the
+     * expected entities.
+     */
+    private void createChanges(ProjectChange<ArtifactAppEntity> artifactChange,
+                               ProjectChange<TraceAppEntity> traceChange) {
+        // Step - Add artifact traced to an existing artifact
+        ArtifactAppEntity added = newArtifact();
+        UUID parentId = pick(artifacts).getId();
+        artifacts.put(added.getId(), added);
+        artifactChange.getAdded().add(added);
+        addTrace(traceChange, newTrace(added.getId(), parentId));
+
+        // Step - Add trace between existing artifacts, which may create a cycle
+        addTrace(traceChange, newTrace(pick(artifacts).getId(), pick(artifacts).getId()));
+
+        // Step - Decline a trace, hiding it unless it is manual
+        TraceAppEntity declined = copy(pick(traces));
+        declined.setApprovalStatus(ApprovalStatus.DECLINED);
+        traces.put(declined.getId(), declined);
+        traceChange.getModified().add(declined);
+
+        // Step - Remove trace
+        TraceAppEntity removedTrace = pick(traces);
+        traces.remove(removedTrace.getId());
+        traceChange.getRemoved().add(removedTrace);
+
+        // Step - Remove artifact along with its traces
+        ArtifactAppEntity removed = pick(artifacts);
+        artifacts.remove(removed.getId());
+        artifactChange.getRemoved().add(removed);
+        for (TraceAppEntity trace : List.copyOf(traces.values())) {
+            if (trace.getSourceId().equals(removed.getId()) || trace.getTargetId().equals(removed.getId())) {
+                traces.remove(trace.getId());
+                traceChange.getRemoved().add(trace);
+            }
+        }
+        artifactChange.getAdded().removeIf(artifact -> !artifacts.containsKey(artifact.getId()));
+        traceChange.getAdded().removeIf(trace -> !traces.containsKey(trace.getId()));
+        traceChange.getModified().removeIf(trace -> !traces.containsKey(trace.getId()));
+    }
+
+    private void addTrace(ProjectChange<TraceAppEntity> traceChange, TraceAppEntity trace) {
+        traces.put(trace.getId(), trace);
+        traceChange.getAdded().add(trace);
+    }
+
+    private ProjectEntities getEntities() {
+        return new ProjectEntities(new ArrayList<>(artifacts.values()), new ArrayList<>(traces.values()));
+    }
+
+    private ArtifactAppEntity newArtifact() {
+        return new ArtifactAppEntity(UUID.randomUUID(), "type", "", "", "", new LinkedHashMap<>());
+    }
+
+    private TraceAppEntity newTrace(UUID sourceId, UUID targetId) {
+        TraceType traceType = random.nextBoolean() ? TraceType.MANUAL : TraceType.GENERATED;
+        return new TraceAppEntity(UUID.randomUUID(), "", sourceId, "", targetId, ApprovalStatus.UNREVIEWED, 1,
+            traceType, true, "");
+    }
+
+    private TraceAppEntity copy(TraceAppEntity trace) {
+        return new TraceAppEntity(trace.getTraceLinkId(), "", trace.getSourceId(), "", trace.getTargetId(),
+            trace.getApprovalStatus(), trace.getScore(), trace.getTraceType(), trace.isVisible(), "");
+    }
+
+    private <T> T pick(Map<UUID, T> entities) {
+        return new ArrayList<>(entities.values()).get(random.nextInt(entities.size()));
+    }
+}
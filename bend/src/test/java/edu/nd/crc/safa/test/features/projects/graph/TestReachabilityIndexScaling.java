@@ -0,0 +1,142 @@
+package edu.nd.crc.safa.test.features.projects.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import edu.nd.crc.safa.features.projects.entities.app.SubtreeAppEntity;
+import edu.nd.crc.safa.features.projects.graph.ReachabilityIndex;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+import edu.nd.crc.safa.test.common.Benchmarks;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the reachability index against a breadth-first search from every artifact, on a synthetic deep
+ * hierarchy containing shared children and cycles.
+ */
+class TestReachabilityIndexScaling {
+    private static final Logger logger = LoggerFactory.getLogger(TestReachabilityIndexScaling.class);
+
+    @Test
+    void testIndexMatchesSearch() {
+        compareClosures(2000, 50);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmarkIndex() {
+        compareClosures(50000, 500);
+    }
+
+    /**
+     * @param nArtifacts   The number of artifacts in the hierarchy.
+     * @param parentWindow How far back in creation order a parent is chosen from, which sets the depth of the
+     *                     hierarchy. Every this many artifacts has a second parent, and ten times as many close
+     *                     a cycle.
+     */
+    private void compareClosures(int nArtifacts, int parentWindow) {
+        Random random = new Random(42);
+        List<UUID> artifactIds = new ArrayList<>();
+        List<TraceAppEntity> traces = new ArrayList<>();
+        Map<UUID, Set<UUID>> children = new HashMap<>();
+        Map<UUID, Set<UUID>> parents = new HashMap<>();
+        for (int i = 0; i < nArtifacts; i++) {
+            UUID artifactId = UUID.randomUUID();
+            artifactIds.add(artifactId);
+            children.put(artifactId, new HashSet<>());
+            parents.put(artifactId, new HashSet<>());
+            if (i == 0) {
+                continue;
+            }
+            UUID parentId = artifactIds.get(Math.max(0, i - 1 - random.nextInt(parentWindow)));
+            addTrace(traces, children, parents, parentId, artifactId);
+            if (i % parentWindow == 0) {
+                addTrace(traces, children, parents,
+                    artifactIds.get(Math.max(0, i - 1 - random.nextInt(parentWindow))), artifactId);
+            }
+            if (i % (10 * parentWindow) == 0) {
+                addTrace(traces, children, parents, artifactId, parentId);
+            }
+        }
+
+        String size = nArtifacts + " artifacts";
+
+        // Step - Build index
+        ReachabilityIndex index = Benchmarks.measure(logger, "Reachability (index construction): " + size,
+            () -> new ReachabilityIndex(artifactIds, traces));
+
+        // Step - Calculate closure sizes by searching from every artifact
+        long searchTotal = Benchmarks.measure(logger, "Reachability (search): " + size,
+            () -> sumClosureSizes(artifactIds, id -> search(id, children), id -> search(id, parents)));
+
+        // Step - Calculate closure sizes with index
+        long indexTotal = Benchmarks.measure(logger, "Reachability (index): " + size,
+            () -> sumClosureSizes(artifactIds, index::getDescendants, index::getAncestors));
+
+        // VP - Same number of reachable artifacts
+        assertThat(indexTotal).isPositive().isEqualTo(searchTotal);
+
+        // VP - Same subtrees on a sample of artifacts
+        for (int i = 0; i < nArtifacts; i += nArtifacts / 50 - 3) {
+            UUID artifactId = artifactIds.get(i);
+            SubtreeAppEntity subtree = index.getSubtree(artifactId);
+            assertThat(subtree.getSubtree()).isEqualTo(search(artifactId, children));
+            assertThat(subtree.getSupertree()).isEqualTo(search(artifactId, parents));
+            assertThat(subtree.getChildren()).isEqualTo(children.get(artifactId));
+            assertThat(subtree.getParents()).isEqualTo(parents.get(artifactId));
+        }
+    }
+
+    private void addTrace(List<TraceAppEntity> traces,
+                          Map<UUID, Set<UUID>> children,
+                          Map<UUID, Set<UUID>> parents,
+                          UUID parentId,
+                          UUID childId) {
+        traces.add(new TraceAppEntity(UUID.randomUUID(), "", childId, "", parentId, ApprovalStatus.APPROVED, 1,
+            TraceType.MANUAL, true, ""));
+        children.get(parentId).add(childId);
+        parents.get(childId).add(parentId);
+    }
+
+    private long sumClosureSizes(List<UUID> artifactIds,
+                                 Function<UUID, Set<UUID>> descendants,
+                                 Function<UUID, Set<UUID>> ancestors) {
+        long total = 0;
+        for (UUID artifactId : artifactIds) {
+            total += descendants.apply(artifactId).size() + ancestors.apply(artifactId).size();
+        }
+        return total;
+    }
+
+    /**
+     * Finds the artifacts reachable from an artifact with a breadth-first search over hash sets.
+     */
+    private Set<UUID> search(UUID artifactId, Map<UUID, Set<UUID>> edges) {
+        Set<UUID> visited = new HashSet<>();
+        Queue<UUID> toVisit = new ArrayDeque<>(edges.get(artifactId));
+        while (!toVisit.isEmpty()) {
+            UUID currentId = toVisit.poll();
+            if (visited.add(currentId)) {
+                toVisit.addAll(edges.get(currentId));
+            }
+        }
+        visited.remove(artifactId);
+        return visited;
+    }
+}
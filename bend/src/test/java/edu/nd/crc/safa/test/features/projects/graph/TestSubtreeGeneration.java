@@ -2,7 +2,6 @@ package edu.nd.crc.safa.test.features.projects.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -63,7 +62,8 @@ class TestSubtreeGeneration extends ApplicationBaseTest {
         hiddenLink1.setVisible(false);
         hiddenLink2.setTraceType(TraceType.GENERATED);
         hiddenLink2.setApprovalStatus(ApprovalStatus.DECLINED);
-        traceLinkVersionRepository.saveAll(List.of(hiddenLink1, hiddenLink2));
+        dbEntityBuilder.saveTraceLinkVersion(hiddenLink1);
+        dbEntityBuilder.saveTraceLinkVersion(hiddenLink2);
 
         ProjectAppEntity project = projectRetrievalService.getProjectAppEntity(getCurrentUser(), version);
         Map<UUID, SubtreeAppEntity> subtrees = project.getSubtrees();
@@ -2,22 +2,26 @@ package edu.nd.crc.safa.test.features.rules.logic;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
 import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.common.ProjectEntities;
 import edu.nd.crc.safa.features.rules.parser.ArtifactRelationship;
 import edu.nd.crc.safa.features.rules.parser.Condition;
 import edu.nd.crc.safa.features.rules.parser.Function;
+import edu.nd.crc.safa.features.rules.parser.ParserRule;
 import edu.nd.crc.safa.features.rules.parser.RuleName;
 import edu.nd.crc.safa.features.rules.parser.TreeVerifier;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLink;
 import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
-import edu.nd.crc.safa.features.types.entities.db.ArtifactType;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
 import edu.nd.crc.safa.test.common.ApplicationBaseTest;
 import edu.nd.crc.safa.test.features.rules.TestRules;
@@ -32,10 +36,8 @@ class SmokeTests extends ApplicationBaseTest {
 
     @Test
     void testLinkNodesFunction() {
-        String sourceName = "EntityPackage";
-        String targetName = "RE-8";
-        TreeVerifier verifier = new TreeVerifier();
-
+        ArtifactAppEntity packageArtifact = createArtifact("Package", "EntityPackage");
+        ArtifactAppEntity requirement = createArtifact("Requirement", "RE-8");
         Function function = new Function();
         function.setArtifactRelationship(ArtifactRelationship.BIDIRECTIONAL_LINK);
         function.setTargetArtifactType("Requirement");
@@ -43,97 +45,70 @@ class SmokeTests extends ApplicationBaseTest {
         function.setCondition(Condition.EXACTLY);
         function.setCount(0);
 
-        ArtifactType sourceType = new ArtifactType();
-        sourceType.setName("package");
-        Artifact sourceArtifact = new Artifact();
-        sourceArtifact.setName(sourceName);
-        sourceArtifact.setType(sourceType);
-        sourceArtifact.setArtifactId(UUID.randomUUID());
-
-        ArtifactType targetType = new ArtifactType();
-        targetType.setName("requirement");
-        Artifact targetArtifact = new Artifact();
-        targetArtifact.setName(targetName);
-        targetArtifact.setType(targetType);
-        targetArtifact.setArtifactId(UUID.randomUUID());
-
-        TraceLink link = new TraceLink(sourceArtifact, targetArtifact);
-
-        List<TraceLink> links = new ArrayList<>();
-        links.add(link);
-
-        ArtifactVersion sourceVersion = new ArtifactVersion();
-        sourceVersion.setArtifact(sourceArtifact);
-        sourceVersion.setEntityVersionId(UUID.randomUUID());
-
-        ArtifactVersion targetVersion = new ArtifactVersion();
-        targetVersion.setArtifact(targetArtifact);
-        targetVersion.setEntityVersionId(UUID.randomUUID());
-
-        Map<UUID, ArtifactVersion> artifactMap = Map.of(
-            sourceArtifact.getArtifactId(), sourceVersion,
-            targetArtifact.getArtifactId(), targetVersion
-        );
-
-        boolean result = verifier.satisfiesLinkCountRule(function, sourceArtifact.getArtifactId(),
-            links, artifactMap, TreeVerifier.dbEntityRetrievers);
-        assertThat(result).isFalse();
-        result = verifier.satisfiesLinkCountRule(function, targetArtifact.getArtifactId(),
-            links, artifactMap, TreeVerifier.dbEntityRetrievers);
-        assertThat(result).isFalse();
+        ProjectEntities entities = new ProjectEntities(List.of(packageArtifact, requirement),
+            List.of(createTrace(packageArtifact, requirement)));
+        TreeVerifier verifier = new TreeVerifier();
+
+        // VP - Both ends of the link violate the rule
+        assertThat(verifier.isFunctionSatisfied(function, packageArtifact.getId(), entities)).isFalse();
+        assertThat(verifier.isFunctionSatisfied(function, requirement.getId(), entities)).isFalse();
+
+        // VP - Artifacts without the link satisfy the rule
+        ProjectEntities unlinked = new ProjectEntities(List.of(packageArtifact, requirement), List.of());
+        assertThat(verifier.isFunctionSatisfied(function, packageArtifact.getId(), unlinked)).isTrue();
+        assertThat(verifier.isFunctionSatisfied(function, requirement.getId(), unlinked)).isTrue();
     }
 
     @Test
     void testChildFunction() {
-        String sourceName = "EntityPackage";
-        String targetName = "RE-8";
+        ArtifactAppEntity packageArtifact = createArtifact("Package", "EntityPackage");
+        ArtifactAppEntity requirement = createArtifact("Requirement", "RE-8");
+        ParserRule rule = new ParserRule("No package children", "Requirements must not have package children.",
+            "exactly-n(0, Requirement, child, Package)");
+
+        ProjectEntities entities = new ProjectEntities(List.of(packageArtifact, requirement),
+            List.of(createTrace(packageArtifact, requirement)));
+
+        Map<UUID, List<RuleName>> violatedRules = new TreeVerifier().findRuleViolations(entities, List.of(rule));
+
+        // VP - Only the parent of the package violates the rule
+        assertThat(violatedRules).containsOnlyKeys(requirement.getId());
+    }
+
+    @Test
+    void testSiblingFunction() {
+        ArtifactAppEntity packageArtifact = createArtifact("Package", "EntityPackage");
+        ArtifactAppEntity requirement = createArtifact("Requirement", "RE-8");
+        ParserRule rule = new ParserRule("Linked package", "Requirements should be linked to a package.",
+            "at-least-one(Requirement, sibling, Package)");
+        List<ArtifactAppEntity> artifacts = List.of(packageArtifact, requirement);
         TreeVerifier verifier = new TreeVerifier();
 
-        Function function = new Function();
-        function.setArtifactRelationship(ArtifactRelationship.CHILD);
-        function.setTargetArtifactType("Requirement");
-        function.setSourceArtifactType("Package");
-        function.setCondition(Condition.EXACTLY);
-        function.setCount(0);
+        // VP - Links in either direction count as siblings
+        assertThat(verifier.findRuleViolations(new ProjectEntities(artifacts,
+            List.of(createTrace(packageArtifact, requirement))), List.of(rule))).isEmpty();
+        assertThat(verifier.findRuleViolations(new ProjectEntities(artifacts,
+            List.of(createTrace(requirement, packageArtifact))), List.of(rule))).isEmpty();
 
-        ArtifactType sourceType = new ArtifactType();
-        sourceType.setName("package");
-        Artifact sourceArtifact = new Artifact();
-        sourceArtifact.setName(sourceName);
-        sourceArtifact.setType(sourceType);
-        sourceArtifact.setArtifactId(UUID.randomUUID());
-
-        ArtifactType targetType = new ArtifactType();
-        targetType.setName("requirement");
-        Artifact targetArtifact = new Artifact();
-        targetArtifact.setName(targetName);
-        targetArtifact.setType(targetType);
-        targetArtifact.setArtifactId(UUID.randomUUID());
-
-        TraceLink link = new TraceLink(sourceArtifact, targetArtifact);
-
-        List<TraceLink> links = new ArrayList<>();
-        links.add(link);
-
-        ArtifactVersion sourceVersion = new ArtifactVersion();
-        sourceVersion.setArtifact(sourceArtifact);
-        sourceVersion.setEntityVersionId(UUID.randomUUID());
-
-        ArtifactVersion targetVersion = new ArtifactVersion();
-        targetVersion.setArtifact(targetArtifact);
-        targetVersion.setEntityVersionId(UUID.randomUUID());
-
-        Map<UUID, ArtifactVersion> artifactMap = Map.of(
-            sourceArtifact.getArtifactId(), sourceVersion,
-            targetArtifact.getArtifactId(), targetVersion
-        );
-
-        boolean isSatisfied = verifier.satisfiesChildCountRule(function, sourceArtifact.getArtifactId(),
-            links, artifactMap, TreeVerifier.dbEntityRetrievers);
-        assertThat(isSatisfied).isTrue();
-        isSatisfied = verifier.satisfiesChildCountRule(function, targetArtifact.getArtifactId(),
-            links, artifactMap, TreeVerifier.dbEntityRetrievers);
-        assertThat(isSatisfied).isFalse();
+        // VP - Requirement without links violates the rule
+        assertThat(verifier.findRuleViolations(new ProjectEntities(artifacts, List.of()), List.of(rule)))
+            .containsOnlyKeys(requirement.getId());
+    }
+
+    @Test
+    void testLinksToMissingArtifactsAreSkipped() {
+        ArtifactAppEntity packageArtifact = createArtifact("Package", "EntityPackage");
+        ArtifactAppEntity requirement = createArtifact("Requirement", "RE-8");
+        ParserRule rule = new ParserRule("Linked package", "Requirements should be linked to a package.",
+            "at-least-one(Requirement, sibling, Package)");
+
+        // Step - Evaluate requirement linked to a package that is not given
+        Map<UUID, List<RuleName>> violatedRules = new TreeVerifier().findRuleViolations(
+            new ProjectEntities(List.of(requirement), List.of(createTrace(packageArtifact, requirement))),
+            List.of(rule));
+
+        // VP - Link is not counted
+        assertThat(violatedRules).containsOnlyKeys(requirement.getId());
     }
 
     @Test
@@ -177,4 +152,12 @@ class SmokeTests extends ApplicationBaseTest {
         assertThat(targetRule).contains("must not have package children");
     }
 
+    private ArtifactAppEntity createArtifact(String type, String name) {
+        return new ArtifactAppEntity(UUID.randomUUID(), type, name, "", "", new HashMap<>());
+    }
+
+    private TraceAppEntity createTrace(ArtifactAppEntity source, ArtifactAppEntity target) {
+        return new TraceAppEntity(UUID.randomUUID(), source.getName(), source.getId(), target.getName(),
+            target.getId(), ApprovalStatus.APPROVED, 1, TraceType.MANUAL, true, "");
+    }
 }
@@ -0,0 +1,92 @@
+package edu.nd.crc.safa.test.features.rules.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.projects.services.ProjectRetrievalService;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.features.rules.TestRules;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests that the cached warnings of a version are kept equal to recomputing the warnings
+ * of the whole version after each commit.
+ */
+class TestIncrementalWarnings extends ApplicationBaseTest {
+    private static final String REQUIREMENT = "requirement";
+    private static final String DESIGN = "design";
+
+    @Autowired
+    private ProjectRetrievalService projectRetrievalService;
+
+    @Test
+    void testCachedWarningsFollowCommits() {
+        ProjectVersion projectVersion = dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, REQUIREMENT)
+            .newType(projectName, DESIGN)
+            .newVersionWithReturn(projectName);
+        TestRules.getDefaultRules().forEach(rule ->
+            serviceProvider.getRuleService().addRule(projectVersion.getProject(), rule));
+
+        // Step - Commit requirement without children
+        ArtifactAppEntity requirement = commitService.commit(CommitBuilder
+                .withVersion(projectVersion)
+                .withAddedArtifact(createArtifact(REQUIREMENT, "R1")))
+            .getArtifact(ModificationType.ADDED, 0);
+
+        // VP - Requirement is missing children
+        Map<UUID, List<RuleName>> warnings = verifyCachedWarnings(projectVersion);
+        assertThat(warnings).containsOnlyKeys(requirement.getId());
+
+        // Step - Commit design linked to requirement
+        ProjectCommitDefinition designCommit = commitService.commit(CommitBuilder
+            .withVersion(projectVersion)
+            .withAddedArtifact(createArtifact(DESIGN, "D1"))
+            .withAddedTrace(new TraceAppEntity("D1", "R1").asManualTrace()));
+
+        // VP - Requirement warning is resolved
+        assertThat(verifyCachedWarnings(projectVersion)).isEmpty();
+
+        // Step - Remove design
+        commitService.commit(CommitBuilder
+            .withVersion(projectVersion)
+            .withRemovedArtifact(designCommit.getArtifact(ModificationType.ADDED, 0)));
+
+        // VP - Requirement warning returns
+        assertThat(verifyCachedWarnings(projectVersion)).containsOnlyKeys(requirement.getId());
+    }
+
+    /**
+     * Verifies that the warnings returned with the project match recomputing them from the project entities.
+     */
+    private Map<UUID, List<RuleName>> verifyCachedWarnings(ProjectVersion projectVersion) {
+        Map<UUID, List<RuleName>> cachedWarnings = projectRetrievalService
+            .getProjectAppEntity(getCurrentUser(), projectVersion)
+            .getWarnings();
+        ProjectEntities entities = projectRetrievalService.retrieveProjectEntitiesAtProjectVersion(projectVersion);
+        Map<UUID, List<RuleName>> expectedWarnings = serviceProvider
+            .getWarningService()
+            .retrieveWarningsForAppEntities(projectVersion.getProject(), entities);
+        assertThat(cachedWarnings).isEqualTo(expectedWarnings);
+        return cachedWarnings;
+    }
+
+    private ArtifactAppEntity createArtifact(String type, String name) {
+        return new ArtifactAppEntity(null, type, name, "", "", new HashMap<>());
+    }
+}
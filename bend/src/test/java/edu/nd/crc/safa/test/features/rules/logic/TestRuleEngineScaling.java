@@ -0,0 +1,165 @@
+package edu.nd.crc.safa.test.features.rules.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.common.ProjectEntities;
+import edu.nd.crc.safa.features.rules.parser.Function;
+import edu.nd.crc.safa.features.rules.parser.ParserRule;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+import edu.nd.crc.safa.features.rules.parser.TreeVerifier;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+import edu.nd.crc.safa.test.common.Benchmarks;
+import edu.nd.crc.safa.test.features.rules.TestRules;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the compiled rule engine against evaluating each rule by re-parsing it and scanning
+ * every trace link, on a synthetic project.
+ */
+class TestRuleEngineScaling {
+    private static final Logger logger = LoggerFactory.getLogger(TestRuleEngineScaling.class);
+    private static final List<String> TYPES = List.of("Requirement", "Design", "Process", "Package");
+
+    @Test
+    void testCompiledRulesMatchLinkScan() {
+        compareEngines(1200, 3000);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmarkCompiledRules() {
+        compareEngines(10000, 50000);
+    }
+
+    private void compareEngines(int nArtifacts, int nLinks) {
+        Random random = new Random(42);
+        List<ArtifactAppEntity> artifacts = new ArrayList<>();
+        for (int i = 0; i < nArtifacts; i++) {
+            String type = TYPES.get(random.nextInt(TYPES.size()));
+            artifacts.add(new ArtifactAppEntity(UUID.randomUUID(), type, "A" + i, "", "", new HashMap<>()));
+        }
+        List<TraceAppEntity> traces = new ArrayList<>();
+        for (int i = 0; i < nLinks; i++) {
+            ArtifactAppEntity source = artifacts.get(random.nextInt(nArtifacts));
+            ArtifactAppEntity target = artifacts.get(random.nextInt(nArtifacts));
+            traces.add(new TraceAppEntity(UUID.randomUUID(), source.getName(), source.getId(), target.getName(),
+                target.getId(), ApprovalStatus.APPROVED, 1, TraceType.MANUAL, true, ""));
+        }
+        List<ParserRule> rules = new ArrayList<>(TestRules.getDefaultRules());
+        rules.add(new ParserRule("Sibling",
+            "Designs should be linked to less than three processes or to a requirement.",
+            "less-than-n(3, Design, sibling, Process) || at-least-one(Design, sibling, Requirement)"));
+
+        String size = String.format("%d artifacts, %d links", nArtifacts, nLinks);
+
+        // Step - Evaluate rules by scanning links per artifact
+        Map<UUID, List<RuleName>> expected = Benchmarks.measure(logger, "Rules (link scan): " + size,
+            () -> findViolationsByLinkScan(artifacts, traces, rules));
+
+        // Step - Evaluate rules with compiled engine
+        Map<UUID, List<RuleName>> actual = Benchmarks.measure(logger, "Rules (compiled): " + size,
+            () -> new TreeVerifier().findRuleViolations(new ProjectEntities(artifacts, traces), rules));
+
+        // VP - Both engines report the same warnings
+        assertThat(expected).isNotEmpty();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Evaluates rules by re-parsing each rule for every artifact and scanning all links for each function, as rules
+     * were evaluated before links were indexed.
+     */
+    private Map<UUID, List<RuleName>> findViolationsByLinkScan(List<ArtifactAppEntity> artifacts,
+                                                               List<TraceAppEntity> traces,
+                                                               List<ParserRule> rules) {
+        Map<UUID, ArtifactAppEntity> idToArtifact = new HashMap<>();
+        artifacts.forEach(a -> idToArtifact.put(a.getId(), a));
+
+        Map<UUID, List<RuleName>> results = new HashMap<>();
+        for (ArtifactAppEntity artifact : artifacts) {
+            List<RuleName> warnings = new ArrayList<>();
+            for (ParserRule rule : rules) {
+                rule = new ParserRule(rule);
+                Optional<Function> ruleFunctionQuery = rule.parseFunction();
+                while (ruleFunctionQuery.isPresent()) {
+                    Function function = ruleFunctionQuery.get();
+                    boolean isSatisfied = true;
+                    if (artifact.getType().equalsIgnoreCase(function.getTargetArtifactType())) {
+                        switch (function.getArtifactRelationship()) {
+                            case CHILD:
+                                isSatisfied = matchesCount(function,
+                                    countChildren(function, artifact.getId(), traces, idToArtifact));
+                                break;
+                            case SIBLING:
+                                isSatisfied = matchesCount(function,
+                                    countSiblings(function, artifact.getId(), traces, idToArtifact));
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    rule.setFunctionResult(isSatisfied);
+                    ruleFunctionQuery = rule.parseFunction();
+                }
+                rule.reduce();
+                if (!rule.isRuleSatisfied()) {
+                    warnings.add(rule.getMRuleName());
+                }
+            }
+            if (!warnings.isEmpty()) {
+                results.put(artifact.getId(), warnings);
+            }
+        }
+        return results;
+    }
+
+    private long countChildren(Function function, UUID artifactId, List<TraceAppEntity> traces,
+                               Map<UUID, ArtifactAppEntity> idToArtifact) {
+        return traces
+            .stream()
+            .filter(trace -> trace.getTargetId().equals(artifactId))
+            .filter(trace -> idToArtifact.get(trace.getSourceId()).getType()
+                .equalsIgnoreCase(function.getSourceArtifactType()))
+            .count();
+    }
+
+    private long countSiblings(Function function, UUID artifactId, List<TraceAppEntity> traces,
+                               Map<UUID, ArtifactAppEntity> idToArtifact) {
+        long asTarget = countChildren(function, artifactId, traces, idToArtifact);
+        long asSource = traces
+            .stream()
+            .filter(trace -> trace.getSourceId().equals(artifactId))
+            .filter(trace -> idToArtifact.get(trace.getTargetId()).getType()
+                .equalsIgnoreCase(function.getSourceArtifactType()))
+            .count();
+        return asTarget + asSource;
+    }
+
+    private boolean matchesCount(Function function, long count) {
+        switch (function.getCondition()) {
+            case AT_LEAST:
+                return count >= function.getCount();
+            case EXACTLY:
+                return count == function.getCount();
+            case LESS_THAN:
+                return count < function.getCount();
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package edu.nd.crc.safa.test.features.rules.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitAppEntity;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.rules.entities.app.ArtifactWarnings;
+import edu.nd.crc.safa.features.rules.entities.app.VersionWarnings;
+import edu.nd.crc.safa.features.rules.parser.RuleName;
+import edu.nd.crc.safa.features.rules.services.WarningCache;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestWarningCache {
+    private static final RuleName RULE = new RuleName("rule", "message");
+
+    private final WarningCache cache = new WarningCache(true, 100);
+    private final UUID firstArtifactId = UUID.randomUUID();
+    private final UUID secondArtifactId = UUID.randomUUID();
+    private ProjectVersion projectVersion;
+
+    @BeforeEach
+    void createVersion() {
+        Project project = new Project("project", "", null);
+        project.setProjectId(UUID.randomUUID());
+        projectVersion = new ProjectVersion(project, 1, 0, 0);
+        projectVersion.setVersionId(UUID.randomUUID());
+        cache.put(projectVersion, cache.getGeneration(projectVersion),
+            new VersionWarnings(Map.of(firstArtifactId, List.of(RULE))));
+    }
+
+    @Test
+    void testCommittedWarningsAreApplied() {
+        ProjectCommitAppEntity commit = new ProjectCommitAppEntity();
+        commit.setWarnings(List.of(
+            new ArtifactWarnings(firstArtifactId, List.of()),
+            new ArtifactWarnings(secondArtifactId, List.of(RULE))));
+
+        cache.handleProjectVersionChanged(new ProjectVersionChangedEvent(this, projectVersion,
+            NotificationEntity.ARTIFACTS, Map.of(secondArtifactId, ModificationType.ADDED), commit));
+        cache.handleProjectVersionChanged(new ProjectVersionChangedEvent(this, projectVersion,
+            NotificationEntity.WARNINGS, Map.of(firstArtifactId, ModificationType.MODIFIED,
+            secondArtifactId, ModificationType.MODIFIED), commit));
+
+        // VP - Resolved warnings are removed and new warnings added
+        assertThat(cache.get(projectVersion).getWarnings()).containsOnlyKeys(secondArtifactId);
+    }
+
+    @Test
+    void testOtherChangesEvictWarnings() {
+        cache.handleProjectVersionChanged(
+            new ProjectVersionChangedEvent(this, projectVersion.getProject(), NotificationEntity.WARNINGS));
+
+        // VP - Rule change evicts warnings
+        assertThat(cache.get(projectVersion)).isNull();
+    }
+
+    @Test
+    void testRolledBackChangeEvictsWarnings() {
+        long generation = cache.getGeneration(projectVersion);
+
+        cache.handleProjectVersionChangeRolledBack(new ProjectVersionChangedEvent(this, projectVersion,
+            NotificationEntity.ARTIFACTS, Map.of(firstArtifactId, ModificationType.MODIFIED),
+            new ProjectCommitAppEntity()));
+
+        // VP - Warnings possibly computed from the rolled back change are evicted
+        assertThat(cache.get(projectVersion)).isNull();
+
+        // VP - Warnings computed before the rollback are rejected
+        cache.put(projectVersion, generation, new VersionWarnings(Map.of()));
+        assertThat(cache.get(projectVersion)).isNull();
+    }
+}
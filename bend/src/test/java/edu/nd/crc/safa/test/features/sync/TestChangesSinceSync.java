@@ -0,0 +1,78 @@
+package edu.nd.crc.safa.test.features.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+
+import edu.nd.crc.safa.config.AppRoutes;
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.features.rules.TestRules;
+import edu.nd.crc.safa.test.requests.SafaRequest;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that clients receive the changes made to a version since the cursor they last saw.
+ */
+class TestChangesSinceSync extends ApplicationBaseTest {
+
+    @Test
+    void testChangesSinceCursor() throws Exception {
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName).newVersionWithReturn(projectName);
+        TestRules.getDefaultRules().forEach(rule ->
+            serviceProvider.getRuleService().addRule(projectVersion.getProject(), rule));
+        long cursor = SafaRequest
+            .withRoute(AppRoutes.Retrieval.GET_PROJECT_IN_VERSION)
+            .withVersion(projectVersion)
+            .getWithJsonObject()
+            .getLong("changeCursor");
+
+        // VP - No changes since current cursor
+        JSONObject changes = getChangesSince(projectVersion, cursor);
+        assertThat(changes.getLong("cursor")).isEqualTo(cursor);
+        assertThat(changes.getBoolean("reloadRequired")).isFalse();
+        assertThat(changes.getJSONObject("entities").getJSONObject("artifacts").getJSONObject("added").length())
+            .isZero();
+
+        // VP - Added artifact is returned with its warnings only
+        ArtifactAppEntity artifact = new ArtifactAppEntity(null, "Requirement", "R0", "", "body", new HashMap<>());
+        ProjectCommitDefinition commit =
+            commitService.commit(CommitBuilder.withVersion(projectVersion).withAddedArtifact(artifact));
+        artifact = commit.getArtifact(ModificationType.ADDED, 0);
+        changes = getChangesSince(projectVersion, cursor);
+        JSONObject artifacts = changes.getJSONObject("entities").getJSONObject("artifacts");
+        assertThat(changes.getLong("cursor")).isGreaterThan(cursor);
+        assertThat(changes.getBoolean("reloadRequired")).isFalse();
+        assertThat(artifacts.getJSONObject("added").has(artifact.getId().toString())).isTrue();
+        JSONObject warnings = changes.getJSONObject("warnings");
+        assertThat(warnings.length()).isEqualTo(1);
+        assertThat(warnings.getJSONArray(artifact.getId().toString()).length()).isPositive();
+        cursor = changes.getLong("cursor");
+
+        // VP - Removed artifact is returned by id, with its warnings resolved
+        commitService.commit(CommitBuilder.withVersion(projectVersion).withRemovedArtifact(artifact));
+        changes = getChangesSince(projectVersion, cursor);
+        artifacts = changes.getJSONObject("entities").getJSONObject("artifacts");
+        assertThat(artifacts.getJSONObject("added").length()).isZero();
+        assertThat(artifacts.getJSONObject("removed").has(artifact.getId().toString())).isTrue();
+        assertThat(changes.getJSONObject("warnings").getJSONArray(artifact.getId().toString()).length()).isZero();
+
+        // VP - Cursor ahead of project requires reload
+        changes = getChangesSince(projectVersion, cursor + 100);
+        assertThat(changes.getBoolean("reloadRequired")).isTrue();
+    }
+
+    private JSONObject getChangesSince(ProjectVersion projectVersion, long cursor) throws Exception {
+        return SafaRequest
+            .withRoute(AppRoutes.Sync.GET_CHANGES_SINCE)
+            .withVersion(projectVersion)
+            .withCursor(cursor)
+            .getWithJsonObject();
+    }
+}
@@ -0,0 +1,159 @@
+package edu.nd.crc.safa.test.features.traces.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import edu.nd.crc.safa.config.ProjectVariables;
+import edu.nd.crc.safa.features.generation.common.GenerationArtifact;
+import edu.nd.crc.safa.features.generation.common.GenerationDataset;
+import edu.nd.crc.safa.features.generation.common.TraceLayer;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.vsm.VSMController;
+import edu.nd.crc.safa.test.common.Benchmarks;
+import edu.nd.crc.safa.utilities.text.TextAnalyzer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the indexed, parallel vector-space model against scoring every child and parent pair of each layer,
+ * on a synthetic dataset.
+ */
+class TestVSMScaling {
+    private static final Logger logger = LoggerFactory.getLogger(TestVSMScaling.class);
+    private static final String CHILD_TYPE = "Design";
+    private static final String PARENT_TYPE = "Requirement";
+    private static final int N_WORDS = 2000;
+    private static final int N_DOCUMENT_WORDS = 12;
+
+    @Test
+    void testIndexedScoresMatchPairwiseScores() {
+        compareScores(100);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmarkIndexedScores() {
+        compareScores(500);
+    }
+
+    /**
+     * @param nArtifacts The number of children and of parents in the dataset.
+     */
+    private void compareScores(int nArtifacts) {
+        Random random = new Random(42);
+        List<GenerationArtifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < nArtifacts; i++) {
+            List<String> words = createWords(random);
+            artifacts.add(createArtifact("C" + i, CHILD_TYPE, words));
+            // Every other parent shares part of a child's words so some pairs are above the threshold.
+            List<String> parentWords = i % 2 == 0 ? createWords(random) : new ArrayList<>(words.subList(0, 8));
+            parentWords.addAll(createWords(random).subList(0, 2));
+            artifacts.add(createArtifact("P" + i, PARENT_TYPE, parentWords));
+        }
+        List<TraceLayer> layers = List.of(new TraceLayer(CHILD_TYPE, PARENT_TYPE),
+            new TraceLayer(PARENT_TYPE, CHILD_TYPE));
+        GenerationDataset dataset = new GenerationDataset(artifacts, layers);
+
+        String size = String.format("%d x %d artifacts", nArtifacts, nArtifacts);
+
+        // Step - Score every pair
+        Map<String, Double> expected = Benchmarks.measure(logger, "VSM (pairwise): " + size, () -> {
+            Map<String, Double> scores = new HashMap<>();
+            layers.forEach(layer -> scores.putAll(scorePairs(dataset, layer)));
+            return scores;
+        });
+
+        // Step - Score with inverted index, splitting words as the pairwise scoring does
+        TextAnalyzer analyzer = new TextAnalyzer(false, List.of());
+        Map<String, Double> actual = Benchmarks.measure(logger, "VSM (indexed): " + size,
+            () -> new VSMController(analyzer)
+                .generateLinks(dataset, null)
+                .stream()
+                .collect(Collectors.toMap(t -> t.getSourceName() + "->" + t.getTargetName(),
+                    TraceAppEntity::getScore)));
+
+        // VP - Both find the same links with the same scores
+        assertThat(expected).isNotEmpty();
+        assertThat(actual).containsOnlyKeys(expected.keySet());
+        expected.forEach((link, score) -> assertThat(actual.get(link)).isCloseTo(score, within(1e-9)));
+    }
+
+    /**
+     * Scores every child against every parent in a layer, re-weighting both documents for each pair.
+     */
+    private Map<String, Double> scorePairs(GenerationDataset dataset, TraceLayer layer) {
+        List<GenerationArtifact> children = dataset.getArtifacts(layer.getChild());
+        List<GenerationArtifact> parents = dataset.getArtifacts(layer.getParent());
+
+        // Smoothed, add-one inverse document frequency over the parents
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        parents.forEach(p -> tf(p).keySet().forEach(term -> documentFrequency.merge(term, 2, (a, b) -> a + 1)));
+        Map<String, Double> idf = new HashMap<>();
+        documentFrequency.forEach((term, df) -> idf.put(term, Math.log((parents.size() + 1.0) / df) + 1));
+
+        Map<String, Double> scores = new HashMap<>();
+        for (GenerationArtifact child : children) {
+            for (GenerationArtifact parent : parents) {
+                Map<String, Double> childVector = tfIdf(tf(child), idf);
+                Map<String, Double> parentVector = tfIdf(tf(parent), idf);
+                double shared = 0;
+                for (Map.Entry<String, Double> entry : childVector.entrySet()) {
+                    if (parentVector.containsKey(entry.getKey())) {
+                        shared += entry.getValue() * entry.getValue();
+                    }
+                }
+                double base = norm(childVector) * norm(parentVector);
+                double score = base == 0 ? 0 : shared / base;
+                if (score > ProjectVariables.TRACE_THRESHOLD) {
+                    scores.put(child.getId() + "->" + parent.getId(), score);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Double> tf(GenerationArtifact artifact) {
+        Map<String, Double> tf = new HashMap<>();
+        Arrays.stream(artifact.getContent().split(" ")).forEach(term -> tf.merge(term, 1.0, Double::sum));
+        return tf;
+    }
+
+    private Map<String, Double> tfIdf(Map<String, Double> tf, Map<String, Double> idf) {
+        Map<String, Double> weights = new HashMap<>();
+        tf.forEach((term, frequency) -> {
+            if (idf.containsKey(term)) {
+                weights.put(term, frequency * idf.get(term));
+            }
+        });
+        return weights;
+    }
+
+    private double norm(Map<String, Double> vector) {
+        return Math.sqrt(vector.values().stream().mapToDouble(weight -> weight * weight).sum());
+    }
+
+    private List<String> createWords(Random random) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < N_DOCUMENT_WORDS; i++) {
+            // Square the sample so a few words are common across documents.
+            double sample = random.nextDouble();
+            words.add("w" + (int) (sample * sample * N_WORDS));
+        }
+        return words;
+    }
+
+    private GenerationArtifact createArtifact(String name, String type, List<String> words) {
+        return new GenerationArtifact(name, String.join(" ", words), "", type, null);
+    }
+}
@@ -0,0 +1,131 @@
+package edu.nd.crc.safa.test.features.versions.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.db.Artifact;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.common.IVersionEntity;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.versions.VersionCalculator;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that resolving the active entities of a version in the database matches
+ * the in-memory calculation over the full project history.
+ */
+class TestActiveEntitiesQuery extends ApplicationBaseTest {
+    private static final String TYPE_NAME = "Requirement";
+
+    @Test
+    void testParityWithVersionCalculator() {
+        dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, TYPE_NAME)
+            .newVersion(projectName)
+            .newVersion(projectName)
+            .newVersion(projectName)
+            .newVersion(projectName);
+
+        // Step - Create history: A is modified, B is removed and re-added, C is added late.
+        dbEntityBuilder
+            .newArtifactAndBody(projectName, 0, TYPE_NAME, "A", "summary", "first")
+            .newArtifactAndBody(projectName, 0, TYPE_NAME, "B", "summary", "first")
+            .newArtifactBody(projectName, 1, ModificationType.MODIFIED, "A", "summary", "second")
+            .newArtifactBody(projectName, 2, ModificationType.REMOVED, "B", "", "")
+            .newArtifactAndBody(projectName, 2, TYPE_NAME, "C", "summary", "first")
+            .newArtifactBody(projectName, 3, ModificationType.ADDED, "B", "summary", "back");
+
+        // Step - Create trace history: link is added, then removed in a later version.
+        TraceLinkVersion link = dbEntityBuilder.newTraceLinkWithReturn(projectName, "A", "B", 0);
+        dbEntityBuilder.newTraceLink(projectName, "C", "A", 2);
+        TraceLinkVersion removedLink = new TraceLinkVersion()
+            .withProjectVersion(dbEntityBuilder.getProjectVersion(projectName, 1))
+            .withTraceLink(link.getTraceLink())
+            .withModificationType(ModificationType.REMOVED)
+            .withManualTraceType();
+        dbEntityBuilder.saveTraceLinkVersion(removedLink);
+
+        Project project = dbEntityBuilder.getProject(projectName);
+        List<ArtifactVersion> artifactHistory = artifactVersionRepository.findByProjectVersionProject(project);
+        List<TraceLinkVersion> traceHistory = traceLinkVersionRepository.findByProjectVersionProject(project);
+        List<UUID> artifactIds = artifactRepository
+            .findByProjectId(project.getId())
+            .stream()
+            .map(Artifact::getArtifactId)
+            .toList();
+
+        for (ProjectVersion projectVersion : dbEntityBuilder.getProjectVersions(projectName)) {
+            // VP - Artifacts resolved in database match calculation in memory
+            List<ArtifactVersion> expectedArtifacts = VersionCalculator.getEntitiesAtVersion(projectVersion,
+                artifactHistory);
+            List<ArtifactVersion> actualArtifacts = artifactVersionRepository
+                .retrieveVersionEntitiesByProjectVersion(projectVersion);
+            assertThat(getVersionEntityIds(actualArtifacts))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedArtifacts));
+            assertThat(getVersionEntityIds(artifactVersionRepository
+                .findActiveByArtifactIdsInProjectVersion(projectVersion, artifactIds)))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedArtifacts));
+
+            // VP - Traces resolved in database match calculation in memory
+            List<TraceLinkVersion> expectedTraces = VersionCalculator.getEntitiesAtVersion(projectVersion,
+                traceHistory);
+            List<TraceLinkVersion> actualTraces = traceLinkVersionRepository
+                .retrieveVersionEntitiesByProjectVersion(projectVersion);
+            assertThat(getVersionEntityIds(actualTraces))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedTraces));
+            assertThat(getVersionEntityIds(traceLinkVersionRepository
+                .findActiveRelatedToArtifactsInProjectVersion(projectVersion, artifactIds)))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedTraces));
+
+            // VP - Projected app entities match converting the active version entities
+            assertThat(artifactVersionRepository.retrieveAppEntitiesByProjectVersion(projectVersion))
+                .containsExactlyInAnyOrderElementsOf(actualArtifacts
+                    .stream()
+                    .map(artifactVersionRepository::retrieveAppEntityFromVersionEntity)
+                    .toList());
+            assertThat(traceLinkVersionRepository.retrieveAppEntitiesByProjectVersion(projectVersion))
+                .containsExactlyInAnyOrderElementsOf(actualTraces
+                    .stream()
+                    .map(traceLinkVersionRepository::retrieveAppEntityFromVersionEntity)
+                    .toList());
+        }
+
+        // VP - Spot check final version contents
+        ProjectVersion lastVersion = dbEntityBuilder.getProjectVersion(projectName, 3);
+        assertThat(artifactVersionRepository.retrieveVersionEntitiesByProjectVersion(lastVersion)).hasSize(3);
+        assertThat(traceLinkVersionRepository.retrieveVersionEntitiesByProjectVersion(lastVersion)).hasSize(1);
+    }
+
+    @Test
+    void testOrdinalFollowsVersionNumbers() {
+        List<ProjectVersion> versions = List.of(
+            new ProjectVersion(null, 1, 0, 0),
+            new ProjectVersion(null, 1, 0, 1),
+            new ProjectVersion(null, 1, 0, 1048575),
+            new ProjectVersion(null, 1, 1, 0),
+            new ProjectVersion(null, 2, 0, 0));
+
+        // VP - Ordinals increase with the version numbers
+        for (int i = 1; i < versions.size(); i++) {
+            assertThat(versions.get(i - 1).getOrdinal()).isLessThan(versions.get(i).getOrdinal());
+            assertThat(versions.get(i - 1).isLessThan(versions.get(i))).isTrue();
+        }
+
+        // VP - Version numbers outside of the packed range are rejected
+        assertThatThrownBy(() -> ProjectVersion.calculateOrdinal(1, 0, 1048576)).isInstanceOf(SafaError.class);
+    }
+
+    private List<UUID> getVersionEntityIds(List<? extends IVersionEntity<?>> versionEntities) {
+        return versionEntities.stream().map(IVersionEntity::getVersionEntityId).toList();
+    }
+}
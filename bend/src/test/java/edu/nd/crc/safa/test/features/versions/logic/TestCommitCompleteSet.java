@@ -0,0 +1,223 @@
+package edu.nd.crc.safa.test.features.versions.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.delta.entities.db.ModificationType;
+import edu.nd.crc.safa.features.errors.entities.db.CommitError;
+import edu.nd.crc.safa.features.projects.entities.app.ProjectAppEntity;
+import edu.nd.crc.safa.features.projects.services.ProjectRetrievalService;
+import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
+import edu.nd.crc.safa.features.traces.entities.app.TraceMatrixAppEntity;
+import edu.nd.crc.safa.features.traces.entities.db.ApprovalStatus;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.traces.entities.db.TraceType;
+import edu.nd.crc.safa.features.types.entities.TypeAppEntity;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests that committing a complete set of entities in bulk saves each entity once,
+ * removes missing entities, and keeps type counts and trace matrices consistent.
+ */
+class TestCommitCompleteSet extends ApplicationBaseTest {
+    private static final String TYPE_ONE = "type1";
+    private static final String TYPE_TWO = "type2";
+
+    @Autowired
+    private ProjectRetrievalService projectRetrievalService;
+
+    @Test
+    void testBulkCommitUpdatesCounts() {
+        dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, TYPE_ONE)
+            .newType(projectName, TYPE_TWO);
+        ProjectVersion version = dbEntityBuilder.newVersionWithReturn(projectName);
+
+        // Step - Commit artifacts, with the first artifact appearing twice
+        List<Pair<ArtifactVersion, CommitError>> artifactResponse = serviceProvider
+            .getArtifactVersionRepository()
+            .commitAllAppEntitiesToProjectVersion(version, List.of(
+                createArtifact(TYPE_ONE, "A1", "first"),
+                createArtifact(TYPE_TWO, "A2", "body"),
+                createArtifact(TYPE_TWO, "A3", "body"),
+                createArtifact(TYPE_ONE, "A1", "second")
+            ), true, getCurrentUser());
+
+        // Step - Commit traces
+        List<Pair<TraceLinkVersion, CommitError>> traceResponse = serviceProvider
+            .getTraceLinkVersionRepository()
+            .commitAllAppEntitiesToProjectVersion(version, List.of(
+                createTrace("A1", "A2", ApprovalStatus.APPROVED, TraceType.MANUAL),
+                createTrace("A1", "A3", ApprovalStatus.UNREVIEWED, TraceType.GENERATED),
+                createTrace("A2", "A3", ApprovalStatus.APPROVED, TraceType.GENERATED)
+            ), true, getCurrentUser());
+
+        // VP - No entity failed to commit
+        assertThat(artifactResponse).allMatch(response -> response.getValue1() == null);
+        assertThat(traceResponse).allMatch(response -> response.getValue1() == null);
+
+        // VP - Duplicate artifact overwrites its earlier entry
+        ProjectAppEntity project = projectRetrievalService.getProjectAppEntity(getCurrentUser(), version);
+        assertThat(project.getArtifacts()).hasSize(3);
+        ArtifactAppEntity duplicate = project.getArtifacts()
+            .stream()
+            .filter(a -> a.getName().equals("A1"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(duplicate.getBody()).isEqualTo("second");
+
+        // VP - Type counts and trace matrices are updated once per key
+        verifyCounts(project);
+
+        // Step - Commit same traces again
+        serviceProvider
+            .getTraceLinkVersionRepository()
+            .commitAllAppEntitiesToProjectVersion(version, project.getTraces(), true, getCurrentUser());
+
+        // VP - Unchanged entities do not affect counts
+        verifyCounts(projectRetrievalService.getProjectAppEntity(getCurrentUser(), version));
+    }
+
+    @Test
+    void testReplaceRemovesMissingEntitiesOnce() {
+        dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, TYPE_ONE)
+            .newType(projectName, TYPE_TWO);
+        ProjectVersion version = dbEntityBuilder.newVersionWithReturn(projectName);
+        serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(version, List.of(
+                createArtifact(TYPE_ONE, "A1", "body"),
+                createArtifact(TYPE_TWO, "A2", "body"),
+                createArtifact(TYPE_TWO, "A3", "body")
+            ), getCurrentUser());
+
+        // Step - Replace contents with first artifact only
+        List<Pair<ArtifactVersion, CommitError>> response = serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(version,
+                List.of(createArtifact(TYPE_ONE, "A1", "body")), getCurrentUser());
+
+        // VP - Missing artifacts are removed
+        List<String> removedNames = response
+            .stream()
+            .map(Pair::getValue0)
+            .filter(v -> v.getModificationType() == ModificationType.REMOVED)
+            .map(v -> v.getArtifact().getName())
+            .collect(Collectors.toList());
+        assertThat(removedNames).containsExactlyInAnyOrder("A2", "A3");
+
+        // Step - Replace contents again
+        response = serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(version,
+                List.of(createArtifact(TYPE_ONE, "A1", "body")), getCurrentUser());
+
+        // VP - Removed artifacts are not removed again
+        assertThat(response).hasSize(1);
+        ProjectAppEntity project = projectRetrievalService.getProjectAppEntity(getCurrentUser(), version);
+        assertThat(project.getArtifacts()).hasSize(1);
+        Map<String, Integer> typeCounts = project.getArtifactTypes()
+            .stream()
+            .collect(Collectors.toMap(TypeAppEntity::getName, TypeAppEntity::getCount));
+        assertThat(typeCounts).containsEntry(TYPE_ONE, 1).containsEntry(TYPE_TWO, 0);
+    }
+
+    @Test
+    void testReplaceSkipsUnchangedContent() {
+        dbEntityBuilder
+            .newProject(projectName)
+            .newType(projectName, TYPE_ONE);
+        ProjectVersion baseVersion = dbEntityBuilder.newVersionWithReturn(projectName);
+        ProjectVersion nextVersion = dbEntityBuilder.newVersionWithReturn(projectName);
+        serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(baseVersion, createArtifactsWithAttribute("value"), getCurrentUser());
+
+        // VP - Stored content hash matches the committed content
+        ArtifactVersion body = serviceProvider
+            .getArtifactVersionRepository()
+            .findByProjectVersion(baseVersion)
+            .get(0);
+        assertThat(body.getContentHash()).isEqualTo(
+            ArtifactVersion.calculateContentHash(body.getSummary(), body.getContent(), body.getCustomAttributes()));
+
+        // Step - Replace next version with the same artifacts
+        List<Pair<ArtifactVersion, CommitError>> response = serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(nextVersion, createArtifactsWithAttribute("value"), getCurrentUser());
+
+        // VP - Artifacts with custom attributes are unchanged
+        assertThat(response).allMatch(r -> r.getValue0().getModificationType() == ModificationType.NO_MODIFICATION);
+        assertThat(serviceProvider.getArtifactVersionRepository().countByProjectVersion(nextVersion)).isZero();
+
+        // Step - Replace next version with a changed attribute
+        List<ArtifactAppEntity> changedArtifacts = createArtifactsWithAttribute("value");
+        changedArtifacts.get(0).getAttributes().put("key", TextNode.valueOf("changed"));
+        response = serviceProvider
+            .getArtifactVersionRepository()
+            .replaceAppEntitiesInProjectVersion(nextVersion, changedArtifacts, getCurrentUser());
+
+        // VP - Only the changed artifact is modified
+        List<String> modifiedNames = response
+            .stream()
+            .map(Pair::getValue0)
+            .filter(v -> v.getModificationType() == ModificationType.MODIFIED)
+            .map(v -> v.getArtifact().getName())
+            .collect(Collectors.toList());
+        assertThat(modifiedNames).containsExactly("A1");
+    }
+
+    private void verifyCounts(ProjectAppEntity project) {
+        Map<String, Integer> typeCounts = project.getArtifactTypes()
+            .stream()
+            .collect(Collectors.toMap(TypeAppEntity::getName, TypeAppEntity::getCount));
+        assertThat(typeCounts).containsEntry(TYPE_ONE, 1).containsEntry(TYPE_TWO, 2);
+
+        assertThat(project.getTraceMatrices()).hasSize(2);
+        for (TraceMatrixAppEntity traceMatrix : project.getTraceMatrices()) {
+            if (TYPE_ONE.equalsIgnoreCase(traceMatrix.getSourceType())) {
+                assertThat(traceMatrix.getCount()).isEqualTo(2);
+                assertThat(traceMatrix.getGeneratedCount()).isEqualTo(1);
+                assertThat(traceMatrix.getApprovedCount()).isZero();
+            } else {
+                assertThat(traceMatrix.getCount()).isEqualTo(1);
+                assertThat(traceMatrix.getGeneratedCount()).isEqualTo(1);
+                assertThat(traceMatrix.getApprovedCount()).isEqualTo(1);
+            }
+        }
+    }
+
+    private ArtifactAppEntity createArtifact(String typeName, String name, String body) {
+        return new ArtifactAppEntity(null, typeName, name, "", body, new HashMap<>());
+    }
+
+    private List<ArtifactAppEntity> createArtifactsWithAttribute(String value) {
+        List<ArtifactAppEntity> artifacts = new ArrayList<>();
+        for (String name : List.of("A1", "A2", "A3")) {
+            ArtifactAppEntity artifact = createArtifact(TYPE_ONE, name, "body");
+            artifact.getAttributes().put("key", TextNode.valueOf(value));
+            artifacts.add(artifact);
+        }
+        return artifacts;
+    }
+
+    private TraceAppEntity createTrace(String sourceName, String targetName, ApprovalStatus status, TraceType type) {
+        return new TraceAppEntity(null, sourceName, null, targetName, null, status, 1, type, true, "");
+    }
+}
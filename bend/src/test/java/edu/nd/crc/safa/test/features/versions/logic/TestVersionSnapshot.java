@@ -0,0 +1,117 @@
+package edu.nd.crc.safa.test.features.versions.logic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import edu.nd.crc.safa.features.artifacts.entities.ArtifactAppEntity;
+import edu.nd.crc.safa.features.artifacts.entities.db.ArtifactVersion;
+import edu.nd.crc.safa.features.commits.entities.app.ProjectCommitDefinition;
+import edu.nd.crc.safa.features.common.IVersionEntity;
+import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.traces.entities.db.TraceLinkVersion;
+import edu.nd.crc.safa.features.versions.VersionCalculator;
+import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
+import edu.nd.crc.safa.test.common.ApplicationBaseTest;
+import edu.nd.crc.safa.test.services.builders.CommitBuilder;
+import edu.nd.crc.safa.utilities.JsonFileUtilities;
+
+import org.javatuples.Pair;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the version snapshot maintained by commits matches the history of the project.
+ */
+class TestVersionSnapshot extends ApplicationBaseTest {
+    private static final String TYPE_NAME = "requirement";
+
+    @Test
+    void testSnapshotMaintainedByCommits() throws Exception {
+        // Step - Create before and after version
+        Pair<ProjectVersion, ProjectVersion> versionPair = creationService
+            .createDualVersions(projectName, false);
+        ProjectVersion beforeVersion = versionPair.getValue0();
+        ProjectVersion afterVersion = versionPair.getValue1();
+
+        // Step - Commit artifacts and trace to the first version
+        jsonBuilder.withProject(projectName, projectName, "");
+        JSONObject artifactOne = jsonBuilder
+            .withArtifactAndReturn(projectName, null, "RE-1", TYPE_NAME, "body");
+        JSONObject artifactTwo = jsonBuilder
+            .withArtifactAndReturn(projectName, null, "RE-2", TYPE_NAME, "body");
+        JSONObject traceJson = jsonBuilder
+            .withTraceAndReturn(projectName, "RE-1", "RE-2");
+        ProjectCommitDefinition addCommit = commitService.commit(CommitBuilder.withVersion(beforeVersion)
+            .withAddedArtifact(artifactOne)
+            .withAddedArtifact(artifactTwo)
+            .withAddedTrace(traceJson));
+        verifySnapshotMatchesHistory();
+
+        // Step - Remove artifact in later version
+        ArtifactAppEntity removedArtifact = addCommit.getArtifacts().filterAdded(a -> a.getName().equals("RE-1"));
+        commitService.commit(CommitBuilder
+            .withVersion(afterVersion)
+            .withRemovedArtifact(JsonFileUtilities.toJson(removedArtifact)));
+        verifySnapshotMatchesHistory();
+
+        // VP - Removal only affects later version
+        VersionSnapshotService snapshotService = serviceProvider.getVersionSnapshotService();
+        assertThat(snapshotService.getArtifactVersions(beforeVersion)).hasSize(2);
+        assertThat(snapshotService.getTraceLinkVersions(beforeVersion)).hasSize(1);
+        assertThat(snapshotService.getArtifactVersions(afterVersion)).hasSize(1);
+        assertThat(snapshotService.getTraceLinkVersions(afterVersion)).isEmpty();
+    }
+
+    @Test
+    void testSnapshotCopiedToNewVersion() throws Exception {
+        ProjectVersion projectVersion = dbEntityBuilder.newProject(projectName).newVersionWithReturn(projectName);
+        jsonBuilder.withProject(projectName, projectName, "");
+        commitService.commit(CommitBuilder.withVersion(projectVersion)
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "RE-1", TYPE_NAME, "body"))
+            .withAddedArtifact(jsonBuilder.withArtifactAndReturn(projectName, null, "RE-2", TYPE_NAME, "body"))
+            .withAddedTrace(jsonBuilder.withTraceAndReturn(projectName, "RE-1", "RE-2")));
+
+        // Step - Create version from committed version
+        ProjectVersion nextVersion = serviceProvider.getVersionService()
+            .createNextRevision(projectVersion.getProject());
+
+        // VP - New version points to the same artifact and trace versions
+        VersionSnapshotService snapshotService = serviceProvider.getVersionSnapshotService();
+        assertThat(getVersionEntityIds(snapshotService.getArtifactVersions(nextVersion)))
+            .hasSize(2)
+            .containsExactlyInAnyOrderElementsOf(
+                getVersionEntityIds(snapshotService.getArtifactVersions(projectVersion)));
+        assertThat(getVersionEntityIds(snapshotService.getTraceLinkVersions(nextVersion)))
+            .hasSize(1)
+            .containsExactlyInAnyOrderElementsOf(
+                getVersionEntityIds(snapshotService.getTraceLinkVersions(projectVersion)));
+    }
+
+    private void verifySnapshotMatchesHistory() {
+        VersionSnapshotService snapshotService = serviceProvider.getVersionSnapshotService();
+        Project project = dbEntityBuilder.getProject(projectName);
+        List<ArtifactVersion> artifactHistory = artifactVersionRepository.findByProjectVersionProject(project);
+        List<TraceLinkVersion> traceHistory = traceLinkVersionRepository.findByProjectVersionProject(project);
+
+        for (ProjectVersion projectVersion : dbEntityBuilder.getProjectVersions(projectName)) {
+            // VP - Snapshot artifacts match history
+            List<ArtifactVersion> expectedArtifacts = VersionCalculator.getEntitiesAtVersion(projectVersion,
+                artifactHistory);
+            assertThat(getVersionEntityIds(snapshotService.getArtifactVersions(projectVersion)))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedArtifacts));
+
+            // VP - Snapshot traces match history
+            List<TraceLinkVersion> expectedTraces = VersionCalculator.getEntitiesAtVersion(projectVersion,
+                traceHistory);
+            assertThat(getVersionEntityIds(snapshotService.getTraceLinkVersions(projectVersion)))
+                .containsExactlyInAnyOrderElementsOf(getVersionEntityIds(expectedTraces));
+        }
+    }
+
+    private List<UUID> getVersionEntityIds(List<? extends IVersionEntity<?>> versionEntities) {
+        return versionEntities.stream().map(IVersionEntity::getVersionEntityId).toList();
+    }
+}
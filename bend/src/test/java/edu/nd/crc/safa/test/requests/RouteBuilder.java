@@ -108,6 +108,11 @@ public class RouteBuilder<T extends RouteBuilder<T>> {
         return (T) this;
     }
 
+    public T withCursor(long cursor) {
+        this.path = this.path.replace("{cursor}", Long.toString(cursor));
+        return (T) this;
+    }
+
     public T withStepNum(int stepNum) {
         this.path = this.path.replace("{stepNum}", Integer.toString(stepNum));
         return (T) this;
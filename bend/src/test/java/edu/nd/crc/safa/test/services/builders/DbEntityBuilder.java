@@ -20,6 +20,7 @@ import edu.nd.crc.safa.features.memberships.entities.db.IEntityMembership;
 import edu.nd.crc.safa.features.memberships.services.OrganizationMembershipService;
 import edu.nd.crc.safa.features.memberships.services.ProjectMembershipService;
 import edu.nd.crc.safa.features.memberships.services.TeamMembershipService;
+import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.organizations.entities.db.IEntityWithMembership;
 import edu.nd.crc.safa.features.organizations.entities.db.IRole;
 import edu.nd.crc.safa.features.organizations.entities.db.Organization;
@@ -43,12 +44,15 @@ import edu.nd.crc.safa.features.types.entities.db.ArtifactType;
 import edu.nd.crc.safa.features.types.services.TypeService;
 import edu.nd.crc.safa.features.users.entities.db.SafaUser;
 import edu.nd.crc.safa.features.versions.entities.ProjectVersion;
+import edu.nd.crc.safa.features.versions.entities.events.ProjectVersionChangedEvent;
 import edu.nd.crc.safa.features.versions.repositories.ProjectVersionRepository;
 import edu.nd.crc.safa.features.versions.services.VersionService;
+import edu.nd.crc.safa.features.versions.services.VersionSnapshotService;
 
 import lombok.Setter;
 import org.junit.jupiter.api.AfterEach;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
@@ -71,6 +75,8 @@ public class DbEntityBuilder extends AbstractBuilder {
     private final TraceLinkVersionRepository traceLinkVersionRepository;
     private final ProjectService projectService;
     private final VersionService versionService;
+    private final VersionSnapshotService versionSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
     private final TeamService teamService;
     private final OrganizationService organizationService;
     private final TeamMembershipService teamMembershipService;
@@ -101,6 +107,8 @@ public class DbEntityBuilder extends AbstractBuilder {
         this.traceLinkRepository = serviceProvider.getTraceLinkRepository();
         this.traceLinkVersionRepository = serviceProvider.getTraceLinkVersionRepository();
         this.versionService = serviceProvider.getVersionService();
+        this.versionSnapshotService = serviceProvider.getVersionSnapshotService();
+        this.eventPublisher = serviceProvider.getEventPublisher();
         this.teamService = serviceProvider.getTeamService();
         this.organizationService = serviceProvider.getOrganizationService();
         this.teamMembershipService = serviceProvider.getTeamMembershipService();
@@ -333,6 +341,9 @@ public class DbEntityBuilder extends AbstractBuilder {
             summary,
             content);
         this.artifactVersionRepository.save(artifactVersion);
+        this.versionSnapshotService.updateSnapshot(projectVersion, List.of(artifact.getBaseEntityId()), List.of());
+        this.eventPublisher.publishEvent(new ProjectVersionChangedEvent(this, projectVersion,
+            NotificationEntity.ARTIFACTS, Map.of(artifact.getBaseEntityId(), modificationType)));
         addArtifactBody(bodies, projectName, artifactName, versionIndex, artifactVersion);
         return this;
     }
@@ -360,7 +371,7 @@ public class DbEntityBuilder extends AbstractBuilder {
             .withModificationType(ModificationType.ADDED)
             .withManualTraceType();
         traceLinkVersion.setApprovalStatus(ApprovalStatus.APPROVED);
-        return this.traceLinkVersionRepository.save(traceLinkVersion);
+        return this.saveTraceLinkVersion(traceLinkVersion);
     }
 
     public DbEntityBuilder newGeneratedTraceLink(String projectName,
@@ -379,10 +390,26 @@ public class DbEntityBuilder extends AbstractBuilder {
             traceLink,
             score
         );
-        this.traceLinkVersionRepository.save(traceLinkVersion);
+        this.saveTraceLinkVersion(traceLinkVersion);
         return this;
     }
 
+    /**
+     * Saves a trace link version, updates the snapshot of its project version, and publishes the change so
+     * cached versions are evicted, as a commit would.
+     *
+     * @param traceLinkVersion The trace link version to save.
+     * @return The saved trace link version.
+     */
+    public TraceLinkVersion saveTraceLinkVersion(TraceLinkVersion traceLinkVersion) {
+        TraceLinkVersion savedVersion = this.traceLinkVersionRepository.save(traceLinkVersion);
+        this.versionSnapshotService.updateSnapshot(savedVersion.getProjectVersion(), List.of(),
+            List.of(savedVersion.getBaseEntityId()));
+        this.eventPublisher.publishEvent(new ProjectVersionChangedEvent(this, savedVersion.getProjectVersion(),
+            NotificationEntity.TRACES, Map.of(savedVersion.getBaseEntityId(), savedVersion.getModificationType())));
+        return savedVersion;
+    }
+
     public Project getProject(String projectName) {
         assertProjectExists(this.projects, projectName);
         return this.projects.get(projectName);
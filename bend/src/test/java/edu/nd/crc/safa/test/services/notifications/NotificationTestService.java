@@ -13,6 +13,7 @@ import edu.nd.crc.safa.features.notifications.TopicCreator;
 import edu.nd.crc.safa.features.notifications.entities.EntityChangeMessage;
 import edu.nd.crc.safa.features.notifications.entities.NotificationEntity;
 import edu.nd.crc.safa.features.projects.entities.db.Project;
+import edu.nd.crc.safa.features.rules.entities.app.ArtifactWarnings;
 import edu.nd.crc.safa.features.traces.entities.app.TraceAppEntity;
 import edu.nd.crc.safa.features.traces.entities.app.TraceMatrixAppEntity;
 import edu.nd.crc.safa.features.types.entities.TypeAppEntity;
@@ -197,7 +198,7 @@ public class NotificationTestService {
             case TRACES -> TraceAppEntity.class;
             case JOBS -> JobAppEntity.class;
             case TRACE_MATRICES -> TraceMatrixAppEntity.class;
-            case WARNINGS -> String.class;
+            case WARNINGS -> ArtifactWarnings.class;
             default -> throw new RuntimeException("No conversion class registered for: " + entity);
         };
     }
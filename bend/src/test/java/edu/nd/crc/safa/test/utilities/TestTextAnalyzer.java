@@ -0,0 +1,113 @@
+package edu.nd.crc.safa.test.utilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import edu.nd.crc.safa.config.ProjectPaths;
+import edu.nd.crc.safa.test.common.Benchmarks;
+import edu.nd.crc.safa.utilities.CsvFileUtilities;
+import edu.nd.crc.safa.utilities.text.TextAnalyzer;
+import edu.nd.crc.safa.utilities.text.Vocabulary;
+
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the analyzer used for local tracing and measures it on the artifacts of the test projects.
+ */
+class TestTextAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(TestTextAnalyzer.class);
+    private static final List<String> PROJECT_PATHS = List.of(
+        ProjectPaths.Resources.Tests.DefaultProject.V1,
+        ProjectPaths.Resources.Tests.DefaultProject.V2,
+        ProjectPaths.Resources.Tests.DRONE_SLICE,
+        ProjectPaths.Resources.Tests.TEST2,
+        ProjectPaths.Resources.Tests.TEST3);
+    private static final int N_ITERATIONS = 5;
+    private static final DocumentAnalyzer WHITESPACE_ANALYZER = (content, vocabulary) ->
+        Arrays.stream(content.split(" ")).mapToInt(vocabulary::intern).toArray();
+
+    @Test
+    void testStandardAnalyzer() {
+        TextAnalyzer analyzer = TextAnalyzer.standard();
+
+        // VP - Identifiers are split and lower-cased
+        assertThat(analyzer.analyze("getUAVProxy(utf8Decoder);")).containsExactly("get", "uav", "proxy",
+            "utf8", "decoder");
+
+        // VP - Stopwords are removed and plurals are stemmed
+        assertThat(analyzer.analyze("The UAVs are flying to the waypoints of the studies."))
+            .containsExactly("uav", "flying", "waypoint", "study");
+
+        // VP - Term ids are shared by equal terms
+        Vocabulary vocabulary = new Vocabulary();
+        int[] termIds = analyzer.analyze("Flight plans, flight PLAN", vocabulary);
+        assertThat(termIds).containsExactly(0, 1, 0, 1);
+        assertThat(vocabulary.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testAnalyzerOnTestProjects() throws IOException {
+        List<String> documents = readArtifactContents();
+        assertThat(documents).isNotEmpty();
+
+        Vocabulary whitespaceVocabulary = analyze(documents, 1, WHITESPACE_ANALYZER);
+        Vocabulary analyzedVocabulary = analyze(documents, 1, TextAnalyzer.standard()::analyze);
+
+        // VP - Analyzed vocabulary is smaller than splitting on spaces
+        assertThat(analyzedVocabulary.size()).isLessThan(whitespaceVocabulary.size());
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmarkAnalyzerOnTestProjects() throws IOException {
+        List<String> documents = readArtifactContents();
+        String size = String.format("%d documents x %d", documents.size(), N_ITERATIONS);
+        TextAnalyzer analyzer = TextAnalyzer.standard();
+
+        Benchmarks.measure(logger, "Analyzer (whitespace): " + size,
+            () -> analyze(documents, N_ITERATIONS, WHITESPACE_ANALYZER));
+        Benchmarks.measure(logger, "Analyzer (standard): " + size,
+            () -> analyze(documents, N_ITERATIONS, analyzer::analyze));
+    }
+
+    private Vocabulary analyze(List<String> documents, int nIterations, DocumentAnalyzer analyzer) {
+        Vocabulary vocabulary = new Vocabulary();
+        for (int i = 0; i < nIterations; i++) {
+            for (String document : documents) {
+                analyzer.analyze(document, vocabulary);
+            }
+        }
+        return vocabulary;
+    }
+
+    private List<String> readArtifactContents() throws IOException {
+        List<String> contents = new ArrayList<>();
+        for (String projectPath : PROJECT_PATHS) {
+            File[] files = Objects.requireNonNull(new File(projectPath).listFiles());
+            for (File file : files) {
+                // Trace files are named after the two artifact types they link.
+                if (!file.getName().endsWith(".csv") || file.getName().contains("2")) {
+                    continue;
+                }
+                for (CSVRecord artifact : CsvFileUtilities.readArtifactFile(file.getPath())) {
+                    contents.add(artifact.get("content"));
+                }
+            }
+        }
+        return contents;
+    }
+
+    private interface DocumentAnalyzer {
+        int[] analyze(String content, Vocabulary vocabulary);
+    }
+}
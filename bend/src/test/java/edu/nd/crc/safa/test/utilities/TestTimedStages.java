@@ -0,0 +1,86 @@
+package edu.nd.crc.safa.test.utilities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import edu.nd.crc.safa.features.projects.entities.app.SafaError;
+import edu.nd.crc.safa.utilities.TimedStages;
+
+import org.junit.jupiter.api.Test;
+
+class TestTimedStages {
+    /**
+     * How long a stage waits for the other stages to start before giving up.
+     */
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    void testStagesRunConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            TimedStages stages = new TimedStages(executor);
+            CountDownLatch started = new CountDownLatch(2);
+            CompletableFuture<Integer> first = stages.submit("first", () -> awaitAndReturn(started, 1));
+            CompletableFuture<Integer> second = stages.submit("second", () -> awaitAndReturn(started, 2));
+            CompletableFuture<Integer> dependent = stages.submit("dependent", first, value -> value + 10);
+
+            // VP - Stages ran concurrently, results are available and durations are recorded per stage
+            assertThat(stages.join(second)).isEqualTo(2);
+            assertThat(stages.join(dependent)).isEqualTo(11);
+            assertThat(stages.getStageDurations()).containsOnlyKeys("first", "second", "dependent");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testStagesRunOnCallerWithoutExecutor() {
+        TimedStages stages = new TimedStages(null);
+        Thread caller = Thread.currentThread();
+        CompletableFuture<Thread> stage = stages.submit("thread", Thread::currentThread);
+
+        // VP - Stage completed on submission on calling thread
+        assertThat(stage).isDone();
+        assertThat(stages.join(stage)).isSameAs(caller);
+    }
+
+    @Test
+    void testStageErrorIsRethrown() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TimedStages stages = new TimedStages(executor);
+            CompletableFuture<Integer> stage = stages.submit("failing", () -> {
+                throw new SafaError("Stage failed.");
+            });
+
+            // VP - Original error is thrown when joining
+            assertThatThrownBy(() -> stages.join(stage))
+                .isInstanceOf(SafaError.class)
+                .hasMessage("Stage failed.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Returns once every stage counting down the latch has started. Fails if the stages run one after another.
+     */
+    private int awaitAndReturn(CountDownLatch started, int value) {
+        started.countDown();
+        try {
+            if (!started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SafaError("Stages did not run concurrently.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SafaError("Interrupted while waiting for stages.", e);
+        }
+        return value;
+    }
+}